@@ -0,0 +1,88 @@
+#!/usr/bin/env bash
+# Mede o tempo até a primeira requisição respondida (time-to-first-request) em cada modo
+# de inicialização: perfil padrão, perfil prod, prod com AOT e prod com AOT e AppCDS.
+#
+# Uso: scripts/startup-benchmark.sh [execuções por modo]
+#   DB_URL, DB_USER e DB_PASS vêm do ambiente ou do .env, como em mvn spring-boot:run.
+#   BENCHMARK_URL   requisição aguardada (padrão http://localhost:8080/actuator/health)
+#   BENCHMARK_MODES modos medidos (padrão "default prod prod-aot prod-aot-cds")
+#   SKIP_BUILD=1    reaproveita o jar e o app.jsa de uma execução anterior
+#
+# O perfil padrão atualiza o schema do banco; rode-o antes do prod em um banco novo.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+RUNS=${1:-5}
+URL=${BENCHMARK_URL:-http://localhost:8080/actuator/health}
+MODES=${BENCHMARK_MODES:-default prod prod-aot prod-aot-cds}
+TIMEOUT_SECONDS=${BENCHMARK_TIMEOUT_SECONDS:-120}
+DIR=target/startup-benchmark
+JAR=$DIR/app.jar
+
+if [ "${SKIP_BUILD:-0}" != "1" ]; then
+    ./mvnw -q -B -Paot -DskipTests package
+    rm -rf "$DIR"
+    mkdir -p "$DIR"
+    java -Djarmode=tools -jar target/api-*.jar extract --destination "$DIR"
+    mv "$DIR"/api-*.jar "$JAR"
+    # Mesmo caminho de jar da medição: o arquivo CDS só vale para o classpath do treino.
+    java -XX:ArchiveClassesAtExit="$DIR/app.jsa" -Xlog:cds=error -Dspring.context.exit=onRefresh \
+        -Dspring.profiles.active=prod -Dspring.aot.enabled=true -jar "$JAR" > "$DIR/training.log" 2>&1
+fi
+
+options() {
+    case "$1" in
+        default) echo "" ;;
+        prod) echo "-Dspring.profiles.active=prod" ;;
+        prod-aot) echo "-Dspring.profiles.active=prod -Dspring.aot.enabled=true" ;;
+        prod-aot-cds) echo "-XX:SharedArchiveFile=$DIR/app.jsa -Xlog:cds=error -Dspring.profiles.active=prod -Dspring.aot.enabled=true" ;;
+        *) echo "Modo desconhecido: $1" >&2; exit 1 ;;
+    esac
+}
+
+now_ms() {
+    date +%s%3N
+}
+
+# Sobe a aplicação, espera a primeira resposta 200 e imprime o tempo em ms e o
+# "Started ... in X seconds" do log.
+measure() {
+    local mode=$1 log="$DIR/$1.log" pid start elapsed started
+    start=$(now_ms)
+    # shellcheck disable=SC2046
+    java $(options "$mode") -jar "$JAR" > "$log" 2>&1 &
+    pid=$!
+    while true; do
+        if curl -fs -o /dev/null "$URL"; then
+            elapsed=$(( $(now_ms) - start ))
+            break
+        fi
+        if ! kill -0 "$pid" 2>/dev/null || [ $(( $(now_ms) - start )) -gt $(( TIMEOUT_SECONDS * 1000 )) ]; then
+            kill "$pid" 2>/dev/null || true
+            echo "A aplicação não respondeu no modo $mode; veja $log" >&2
+            exit 1
+        fi
+        sleep 0.05
+    done
+    started=$(grep -o 'Started ApiApplication in [0-9.]* seconds' "$log" | grep -o '[0-9.]* ' | tr -d ' ' || true)
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+    echo "$elapsed ${started:--}"
+}
+
+median() {
+    sort -n | awk '{ values[NR] = $1 } END { print (NR % 2) ? values[(NR + 1) / 2] : int((values[NR / 2] + values[NR / 2 + 1]) / 2) }'
+}
+
+printf '%-14s %22s %22s %16s\n' "modo" "1ª requisição (mediana)" "1ª requisição (mínimo)" "Started (s, mín.)"
+for mode in $MODES; do
+    results=()
+    for _ in $(seq "$RUNS"); do
+        results+=("$(measure "$mode")")
+    done
+    times=$(printf '%s\n' "${results[@]}" | cut -d' ' -f1)
+    started=$(printf '%s\n' "${results[@]}" | cut -d' ' -f2 | sort -n | head -1)
+    printf '%-14s %19s ms %19s ms %16s\n' "$mode" "$(echo "$times" | median)" "$(echo "$times" | sort -n | head -1)" \
+        "$started"
+done
@@ -2,19 +2,28 @@ package com.codexasistemas.todoapp.api;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 import io.github.cdimascio.dotenv.Dotenv;
 
 @SpringBootApplication
+@EnableScheduling
 public class ApiApplication {
 
 	public static void main(String[] args) {
 
 		Dotenv dotenv = Dotenv.configure().ignoreIfMissing().load();
 
-		System.setProperty("DB_URL", dotenv.get("DB_URL"));
-		System.setProperty("DB_USER", dotenv.get("DB_USER"));
-		System.setProperty("DB_PASS", dotenv.get("DB_PASS"));
+		// Ausentes no processamento AOT do build, que não abre conexões.
+		for (String key : new String[] { "DB_URL", "DB_USER", "DB_PASS" }) {
+			if (dotenv.get(key) != null) {
+				System.setProperty(key, dotenv.get(key));
+			}
+		}
+		// Opcional: sem DB_REPLICA_URL, todas as conexões vão para o primário.
+		if (dotenv.get("DB_REPLICA_URL") != null) {
+			System.setProperty("todoapp.datasource.replica.url", dotenv.get("DB_REPLICA_URL"));
+		}
 
 		SpringApplication.run(ApiApplication.class, args);
 	}
@@ -0,0 +1,160 @@
+package com.codexasistemas.todoapp.api.config;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+
+// Lê o corpo inteiro antes do controller para calcular o SHA-256 e o entrega de novo pela
+// mesma API de stream. Até memoryLimit bytes o corpo fica em memória; acima disso (uma
+// importação grande, por exemplo) vai para um arquivo temporário, apagado em close().
+final class BufferedBodyRequest extends HttpServletRequestWrapper implements Closeable {
+
+    private final byte[] memory;
+
+    private final Path file;
+
+    private final String sha256;
+
+    private BufferedBodyRequest(HttpServletRequest request, byte[] memory, Path file, String sha256) {
+        super(request);
+        this.memory = memory;
+        this.file = file;
+        this.sha256 = sha256;
+    }
+
+    static BufferedBodyRequest read(HttpServletRequest request, int memoryLimit) throws IOException {
+        MessageDigest digest = sha256Digest();
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        Path file = null;
+        OutputStream fileOut = null;
+        byte[] chunk = new byte[8192];
+        try {
+            InputStream in = request.getInputStream();
+            int read;
+            while ((read = in.read(chunk)) != -1) {
+                digest.update(chunk, 0, read);
+                if (fileOut == null && buffer.size() + read > memoryLimit) {
+                    file = Files.createTempFile("idempotency-", ".body");
+                    fileOut = Files.newOutputStream(file);
+                    buffer.writeTo(fileOut);
+                    buffer = null;
+                }
+                if (fileOut != null) {
+                    fileOut.write(chunk, 0, read);
+                } else {
+                    buffer.write(chunk, 0, read);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            if (fileOut != null) {
+                fileOut.close();
+            }
+            if (file != null) {
+                Files.deleteIfExists(file);
+            }
+            throw e;
+        }
+        if (fileOut != null) {
+            fileOut.close();
+        }
+        return new BufferedBodyRequest(request, buffer != null ? buffer.toByteArray() : null, file,
+                HexFormat.of().formatHex(digest.digest()));
+    }
+
+    String sha256() {
+        return sha256;
+    }
+
+    @Override
+    public ServletInputStream getInputStream() throws IOException {
+        return new BodyInputStream(memory != null ? new ByteArrayInputStream(memory) : Files.newInputStream(file));
+    }
+
+    @Override
+    public BufferedReader getReader() throws IOException {
+        String encoding = getCharacterEncoding();
+        Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+        return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (file != null) {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    static String sha256(String value) {
+        return HexFormat.of().formatHex(sha256Digest().digest(value.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static MessageDigest sha256Digest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+
+    private static final class BodyInputStream extends ServletInputStream {
+
+        private final InputStream in;
+
+        private boolean finished;
+
+        BodyInputStream(InputStream in) {
+            this.in = in;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int value = in.read();
+            finished = value == -1;
+            return value;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = in.read(b, off, len);
+            finished = read == -1;
+            return read;
+        }
+
+        @Override
+        public boolean isFinished() {
+            return finished;
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setReadListener(ReadListener listener) {
+            throw new UnsupportedOperationException("Leitura assíncrona não suportada.");
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
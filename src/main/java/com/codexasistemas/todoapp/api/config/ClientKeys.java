@@ -0,0 +1,49 @@
+package com.codexasistemas.todoapp.api.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+// Sem autenticação, o cliente é identificado pelo usuário da rota (/api/users/{id}/...)
+// ou do parâmetro userId e, na falta deles, pelo IP remoto (atrás do NGINX, o
+// X-Forwarded-For é considerado via server.forward-headers-strategy).
+final class ClientKeys {
+
+    private static final String USERS_PATH = "/api/users/";
+
+    private ClientKeys() {
+    }
+
+    // O id é lido do próprio caminho, não das variáveis da rota: o IdempotencyFilter roda
+    // antes do DispatcherServlet, quando o mapeamento do handler ainda não aconteceu.
+    static String user(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (path.startsWith(USERS_PATH)) {
+            int end = path.indexOf('/', USERS_PATH.length());
+            String id = path.substring(USERS_PATH.length(), end < 0 ? path.length() : end);
+            if (!id.isEmpty() && id.chars().allMatch(Character::isDigit)) {
+                return "user:" + id;
+            }
+        }
+        String userId = request.getParameter("userId");
+        if (userId != null && !userId.isBlank()) {
+            return "user:" + userId.trim();
+        }
+        return null;
+    }
+
+    // O mesmo usuário como número; null quando ausente ou inválido.
+    static Long userId(HttpServletRequest request) {
+        String user = user(request);
+        if (user == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(user.substring("user:".length()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    static String ip(HttpServletRequest request) {
+        return "ip:" + request.getRemoteAddr();
+    }
+}
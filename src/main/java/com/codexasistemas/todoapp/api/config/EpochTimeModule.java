@@ -0,0 +1,60 @@
+package com.codexasistemas.todoapp.api.config;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+
+// Datas como números nos formatos binários: LocalDateTime em milissegundos desde a
+// época (no fuso do servidor, o mesmo usado para gravá-las) e LocalDate em dias desde
+// a época. Na leitura também aceita o texto ISO.
+public class EpochTimeModule extends SimpleModule {
+
+    public EpochTimeModule(ZoneId zone) {
+        super("EpochTimeModule");
+
+        addSerializer(LocalDateTime.class, new JsonSerializer<>() {
+            @Override
+            public void serialize(LocalDateTime value, JsonGenerator gen, SerializerProvider provider)
+                    throws IOException {
+                gen.writeNumber(value.atZone(zone).toInstant().toEpochMilli());
+            }
+        });
+        addSerializer(LocalDate.class, new JsonSerializer<>() {
+            @Override
+            public void serialize(LocalDate value, JsonGenerator gen, SerializerProvider provider)
+                    throws IOException {
+                gen.writeNumber(value.toEpochDay());
+            }
+        });
+
+        addDeserializer(LocalDateTime.class, new JsonDeserializer<>() {
+            @Override
+            public LocalDateTime deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+                if (parser.currentToken() == JsonToken.VALUE_NUMBER_INT) {
+                    return LocalDateTime.ofInstant(Instant.ofEpochMilli(parser.getLongValue()), zone);
+                }
+                return LocalDateTime.parse(parser.getValueAsString());
+            }
+        });
+        addDeserializer(LocalDate.class, new JsonDeserializer<>() {
+            @Override
+            public LocalDate deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+                if (parser.currentToken() == JsonToken.VALUE_NUMBER_INT) {
+                    return LocalDate.ofEpochDay(parser.getLongValue());
+                }
+                return LocalDate.parse(parser.getValueAsString());
+            }
+        });
+    }
+}
@@ -0,0 +1,166 @@
+package com.codexasistemas.todoapp.api.config;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import com.codexasistemas.todoapp.api.service.interfaces.IdempotencyService;
+import com.codexasistemas.todoapp.api.service.interfaces.IdempotencyService.Claim;
+import com.codexasistemas.todoapp.api.service.interfaces.IdempotencyService.StoredResponse;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Honra o cabeçalho Idempotency-Key em todos os POST da API. A primeira requisição com a
+// chave executa normalmente e tem a resposta gravada; repetições recebem a mesma resposta
+// (com Idempotent-Replayed: true) sem passar pelo controller. Respostas 5xx e as que pedem
+// nova tentativa (408, 409 e 429 do limite de requisições) não são gravadas: a chave é
+// liberada e a repetição executa a operação de novo.
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyFilter.class);
+
+    private final IdempotencyService idempotencyService;
+
+    private final int maxBodyBytes;
+
+    private final int requestBufferBytes;
+
+    private final Counter replayed;
+
+    private final Counter conflicts;
+
+    public IdempotencyFilter(IdempotencyService idempotencyService, MeterRegistry meterRegistry,
+            @Value("${todoapp.idempotency.max-body-bytes:1048576}") int maxBodyBytes,
+            @Value("${todoapp.idempotency.request-buffer-bytes:1048576}") int requestBufferBytes) {
+        this.idempotencyService = idempotencyService;
+        this.maxBodyBytes = maxBodyBytes;
+        this.requestBufferBytes = requestBufferBytes;
+        this.replayed = meterRegistry.counter("todoapp.idempotency.replayed");
+        this.conflicts = meterRegistry.counter("todoapp.idempotency.conflicts");
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod()) || request.getHeader(IDEMPOTENCY_KEY_HEADER) == null
+                || !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String key = request.getHeader(IDEMPOTENCY_KEY_HEADER).trim();
+        if (key.isEmpty() || key.length() > MAX_KEY_LENGTH) {
+            writeError(response, HttpStatus.BAD_REQUEST,
+                    "O cabeçalho Idempotency-Key deve ter entre 1 e " + MAX_KEY_LENGTH + " caracteres.");
+            return;
+        }
+
+        try (BufferedBodyRequest buffered = BufferedBodyRequest.read(request, requestBufferBytes)) {
+            execute(key, buffered, response, chain);
+        }
+    }
+
+    // A chave vale para um único endpoint, cliente e corpo: repetida com outro corpo ou por
+    // outro cliente, recebe 422 em vez da resposta gravada. A impressão digital guardada é o
+    // SHA-256 dessa combinação.
+    private void execute(String key, BufferedBodyRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String target = request.getMethod() + " " + request.getRequestURI()
+                + (request.getQueryString() != null ? "?" + request.getQueryString() : "");
+        String user = ClientKeys.user(request);
+        String fingerprint = BufferedBodyRequest.sha256(target + "\n" + (user != null ? user : ClientKeys.ip(request))
+                + "\n" + request.sha256());
+        Claim claim = idempotencyService.claim(key, fingerprint);
+        switch (claim.status()) {
+            case COMPLETED -> {
+                replayed.increment();
+                replay(response, claim.response());
+                return;
+            }
+            case IN_PROGRESS -> {
+                conflicts.increment();
+                response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+                writeError(response, HttpStatus.CONFLICT,
+                        "Uma requisição com esta Idempotency-Key ainda está em andamento.");
+                return;
+            }
+            case MISMATCH -> {
+                conflicts.increment();
+                writeError(response, HttpStatus.UNPROCESSABLE_ENTITY,
+                        "Esta Idempotency-Key já foi usada em outra requisição (endpoint, cliente ou corpo diferente).");
+                return;
+            }
+            case ACQUIRED -> {
+            }
+        }
+
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        boolean stored = false;
+        try {
+            chain.doFilter(request, wrapper);
+            int status = wrapper.getStatus();
+            byte[] body = wrapper.getContentAsByteArray();
+            if (!isStorable(status)) {
+                log.debug("Resposta {} de {} não gravada para a Idempotency-Key", status, target);
+            } else if (body.length <= maxBodyBytes) {
+                idempotencyService.complete(key, new StoredResponse(status, wrapper.getContentType(),
+                        wrapper.getHeader(HttpHeaders.LOCATION), body));
+                stored = true;
+            } else {
+                log.warn("Resposta de {} com {} bytes não gravada para a Idempotency-Key", target, body.length);
+            }
+        } finally {
+            if (!stored) {
+                idempotencyService.release(key);
+            }
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    private static boolean isStorable(int status) {
+        return status < 500 && status != HttpStatus.REQUEST_TIMEOUT.value() && status != HttpStatus.CONFLICT.value()
+                && status != HttpStatus.TOO_MANY_REQUESTS.value();
+    }
+
+    private static void replay(HttpServletResponse response, StoredResponse stored) throws IOException {
+        response.setStatus(stored.status());
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        if (stored.location() != null) {
+            response.setHeader(HttpHeaders.LOCATION, stored.location());
+        }
+        response.setHeader(REPLAYED_HEADER, "true");
+        byte[] body = stored.body() != null ? stored.body() : new byte[0];
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    private static void writeError(HttpServletResponse response, HttpStatus status, String message)
+            throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8).toString());
+        response.getWriter().write(message);
+    }
+}
@@ -0,0 +1,34 @@
+package com.codexasistemas.todoapp.api.config;
+
+import java.util.Map;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+
+// Com spring.main.lazy-initialization=true (perfil prod), os beans só são criados no
+// primeiro uso. Os jobs com @Scheduled não são usados por nenhum outro bean e nunca
+// seriam agendados, então continuam sendo criados na inicialização; runners e
+// SmartInitializingSingleton já são excluídos pelo Spring Boot.
+@Configuration
+public class LazyInitializationConfig {
+
+    @Bean
+    static LazyInitializationExcludeFilter scheduledJobsExcludeFilter() {
+        return (beanName, beanDefinition, beanType) -> beanType != null && hasScheduledMethods(beanType);
+    }
+
+    private static boolean hasScheduledMethods(Class<?> beanType) {
+        if (!AnnotationUtils.isCandidateClass(beanType, Scheduled.class)) {
+            return false;
+        }
+        Map<?, ?> scheduled = MethodIntrospector.selectMethods(beanType,
+                (MethodIntrospector.MetadataLookup<Boolean>) method ->
+                        AnnotatedElementUtils.hasAnnotation(method, Scheduled.class) ? Boolean.TRUE : null);
+        return !scheduled.isEmpty();
+    }
+}
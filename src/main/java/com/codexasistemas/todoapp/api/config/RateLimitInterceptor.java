@@ -0,0 +1,91 @@
+package com.codexasistemas.todoapp.api.config;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Aplica o limite do grupo de endpoints antes do controller, por IP do cliente (ClientKeys.ip).
+// O usuário da rota ou do parâmetro userId não entra na chave: sem autenticação ele é
+// escolhido pelo próprio cliente, que ganharia um balde novo a cada userId.
+@Component
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    private final RateLimitProperties properties;
+
+    private final RateLimiter rateLimiter;
+
+    private final MeterRegistry meterRegistry;
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    private final Map<String, Counter> rejections = new ConcurrentHashMap<>();
+
+    public RateLimitInterceptor(RateLimitProperties properties, RateLimiter rateLimiter, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.rateLimiter = rateLimiter;
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("todoapp.rate-limit.buckets", rateLimiter, RateLimiter::size)
+                .description("Baldes de limite de requisições em memória")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws IOException {
+        if (!properties.enabled() || !(handler instanceof HandlerMethod)) {
+            return true;
+        }
+        RateLimitProperties.Group group = findGroup(request);
+        if (group == null) {
+            return true;
+        }
+        RateLimiter.Decision decision = rateLimiter.tryAcquire(group.name() + '|' + ClientKeys.ip(request),
+                group.capacity(), group.refillPerSecond());
+        if (decision.allowed()) {
+            return true;
+        }
+
+        rejections.computeIfAbsent(group.name(), name -> Counter.builder("todoapp.rate-limit.rejected")
+                .description("Requisições recusadas pelo limite de requisições")
+                .tag("group", name)
+                .register(meterRegistry)).increment();
+        long retryAfter = Math.max(1, (decision.retryAfterNanos() + TimeUnit.SECONDS.toNanos(1) - 1)
+                / TimeUnit.SECONDS.toNanos(1));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write("Limite de requisições excedido; tente novamente em " + retryAfter + " s.");
+        return false;
+    }
+
+    private RateLimitProperties.Group findGroup(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (RateLimitProperties.Group group : properties.groups()) {
+            if (!group.methods().isEmpty() && group.methods().stream()
+                    .noneMatch(method -> method.equalsIgnoreCase(request.getMethod()))) {
+                continue;
+            }
+            if (group.paths().stream().anyMatch(pattern -> pathMatcher.match(pattern, path))) {
+                return group;
+            }
+        }
+        return null;
+    }
+}
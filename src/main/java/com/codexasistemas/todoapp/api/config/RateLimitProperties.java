@@ -0,0 +1,30 @@
+package com.codexasistemas.todoapp.api.config;
+
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+// Grupos de endpoints com limite próprio, avaliados na ordem declarada: a requisição
+// cai no primeiro grupo cujo método e caminho casam. Requisições fora de todos os grupos
+// não são limitadas.
+@ConfigurationProperties(prefix = "todoapp.rate-limit")
+public record RateLimitProperties(boolean enabled, List<Group> groups) {
+
+    public RateLimitProperties {
+        groups = groups != null ? List.copyOf(groups) : List.of();
+    }
+
+    // capacity é a rajada máxima; refillPerSecond, o ritmo sustentado.
+    public record Group(String name, List<String> methods, List<String> paths, long capacity,
+            double refillPerSecond) {
+
+        public Group {
+            methods = methods != null ? List.copyOf(methods) : List.of();
+            paths = paths != null ? List.copyOf(paths) : List.of();
+            if (capacity <= 0 || refillPerSecond <= 0) {
+                throw new IllegalArgumentException("O grupo de limite '" + name
+                        + "' precisa de capacity e refill-per-second positivos.");
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.codexasistemas.todoapp.api.config;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Component;
+
+// Token bucket por chave (grupo + usuário ou IP) no formato GCRA: em vez de tokens e
+// instante do último reabastecimento, cada balde guarda só o "instante teórico de
+// chegada" (TAT) em um AtomicLong, atualizado por CAS, sem locks. Um balde cujo TAT já
+// passou está cheio e equivale a não existir, então pode ser descartado.
+@Component
+public class RateLimiter {
+
+    // Retry-After em nanossegundos; zero quando a requisição foi aceita.
+    public record Decision(boolean allowed, long retryAfterNanos) {
+    }
+
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    public Decision tryAcquire(String key, long capacity, double refillPerSecond) {
+        long interval = (long) (1_000_000_000L / refillPerSecond);
+        long tolerance = interval * (capacity - 1);
+        AtomicLong bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(Long.MIN_VALUE));
+        while (true) {
+            long now = System.nanoTime();
+            long tat = bucket.get();
+            long start = tat == Long.MIN_VALUE || tat - now < 0 ? now : tat;
+            long wait = start - now - tolerance;
+            if (wait > 0) {
+                return new Decision(false, wait);
+            }
+            if (bucket.compareAndSet(tat, start + interval)) {
+                return new Decision(true, 0);
+            }
+        }
+    }
+
+    // Remove os baldes cheios; chamado periodicamente para manter o mapa limitado aos
+    // clientes ativos.
+    public int evictIdle() {
+        long now = System.nanoTime();
+        int before = buckets.size();
+        buckets.values().removeIf(bucket -> bucket.get() - now < 0);
+        return before - buckets.size();
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+}
@@ -0,0 +1,85 @@
+package com.codexasistemas.todoapp.api.config;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Leitura das próprias escritas com réplica: uma requisição de escrita marca o IP e,
+// quando conhecido, o usuário do cliente (ClientKeys); pelo sticky-window seguinte, as
+// requisições de qualquer uma dessas chaves leem do primário. As marcas ficam na memória
+// de cada instância, então o balanceador deve manter o cliente na mesma instância para
+// que a garantia valha entre instâncias.
+@Component
+@ConditionalOnProperty(name = "todoapp.datasource.replica.url")
+public class ReadYourWritesInterceptor implements HandlerInterceptor {
+
+    private static final Set<String> WRITE_METHODS = Set.of("POST", "PUT", "PATCH", "DELETE");
+
+    private final long windowNanos;
+
+    // Chave do cliente -> System.nanoTime() até o qual as leituras ficam no primário.
+    private final Map<String, Long> pinnedUntil = new ConcurrentHashMap<>();
+
+    public ReadYourWritesInterceptor(ReplicaProperties properties, MeterRegistry meterRegistry) {
+        this.windowNanos = properties.stickyWindow().toNanos();
+        Gauge.builder("todoapp.datasource.replica.pinned-clients", pinnedUntil, Map::size)
+                .description("Clientes com leituras presas ao primário após uma escrita")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String user = ClientKeys.user(request);
+        String ip = ClientKeys.ip(request);
+        long now = System.nanoTime();
+        if (WRITE_METHODS.contains(request.getMethod())) {
+            // Marcado antes da escrita: leituras concorrentes do mesmo cliente também vão ao primário.
+            pin(ip, now);
+            if (user != null) {
+                pin(user, now);
+            }
+            ReplicaRoutingDataSource.pinToPrimary();
+        } else if (isPinned(ip, now) || (user != null && isPinned(user, now))) {
+            ReplicaRoutingDataSource.pinToPrimary();
+        }
+        return true;
+    }
+
+    // Renova a janela ao fim da escrita, para que ela conte a partir do commit.
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+            Exception ex) {
+        ReplicaRoutingDataSource.unpin();
+        if (WRITE_METHODS.contains(request.getMethod())) {
+            long now = System.nanoTime();
+            pin(ClientKeys.ip(request), now);
+            String user = ClientKeys.user(request);
+            if (user != null) {
+                pin(user, now);
+            }
+        }
+    }
+
+    public void evictExpired() {
+        long now = System.nanoTime();
+        pinnedUntil.values().removeIf(until -> until - now <= 0);
+    }
+
+    private void pin(String key, long now) {
+        pinnedUntil.put(key, now + windowNanos);
+    }
+
+    private boolean isPinned(String key, long now) {
+        Long until = pinnedUntil.get(key);
+        return until != null && until - now > 0;
+    }
+}
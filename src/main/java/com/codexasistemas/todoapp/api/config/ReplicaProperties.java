@@ -0,0 +1,19 @@
+package com.codexasistemas.todoapp.api.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+// Réplica somente-leitura opcional. stickyWindow é o tempo, após uma escrita do cliente,
+// em que as leituras dele continuam no primário para não verem dados anteriores à escrita.
+@ConfigurationProperties(prefix = "todoapp.datasource.replica")
+public record ReplicaProperties(String url, String username, String password, String driverClassName,
+        Integer maximumPoolSize, Duration stickyWindow) {
+
+    public ReplicaProperties {
+        stickyWindow = stickyWindow != null ? stickyWindow : Duration.ofSeconds(5);
+        if (stickyWindow.isNegative()) {
+            throw new IllegalArgumentException("todoapp.datasource.replica.sticky-window não pode ser negativo.");
+        }
+    }
+}
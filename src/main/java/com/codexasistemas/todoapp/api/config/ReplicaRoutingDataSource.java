@@ -0,0 +1,61 @@
+package com.codexasistemas.todoapp.api.config;
+
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Envia as conexões de transações somente-leitura para a réplica e as demais para o
+// primário. A decisão é tomada ao abrir a conexão, por isso este DataSource fica atrás
+// de um LazyConnectionDataSourceProxy: a conexão só é aberta no primeiro comando, quando
+// o Spring já marcou a transação como readOnly.
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Target {
+        PRIMARY, REPLICA
+    }
+
+    // Marcado pelo ReadYourWritesInterceptor durante as requisições de clientes que
+    // escreveram há pouco.
+    private static final ThreadLocal<Boolean> PINNED = new ThreadLocal<>();
+
+    private final Counter primaryConnections;
+
+    private final Counter replicaConnections;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, MeterRegistry meterRegistry) {
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        primaryConnections = Counter.builder("todoapp.datasource.connections")
+                .description("Conexões abertas por destino")
+                .tag("target", "primary")
+                .register(meterRegistry);
+        replicaConnections = Counter.builder("todoapp.datasource.connections")
+                .description("Conexões abertas por destino")
+                .tag("target", "replica")
+                .register(meterRegistry);
+    }
+
+    public static void pinToPrimary() {
+        PINNED.set(Boolean.TRUE);
+    }
+
+    public static void unpin() {
+        PINNED.remove();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly() && PINNED.get() == null) {
+            replicaConnections.increment();
+            return Target.REPLICA;
+        }
+        primaryConnections.increment();
+        return Target.PRIMARY;
+    }
+}
@@ -0,0 +1,88 @@
+package com.codexasistemas.todoapp.api.config;
+
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.codexasistemas.todoapp.api.repository.shard.ShardContext;
+import com.codexasistemas.todoapp.api.repository.shard.ShardRouter;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Abre o escopo de shard da requisição e, quando o usuário é conhecido de antemão (rota
+// /api/users/{id}, parâmetro userId ou dono da tarefa, categoria ou tag da rota), já o
+// fixa no shard dele. Nos demais casos o escopo é fixado pelo primeiro repositório que
+// acessar um usuário.
+@Component
+@ConditionalOnProperty(name = "todoapp.sharding.enabled", havingValue = "true")
+public class ShardInterceptor implements HandlerInterceptor {
+
+    private static final Set<String> WRITE_METHODS = Set.of("POST", "PUT", "PATCH", "DELETE");
+
+    private static final Map<String, String> OWNED_PATHS = Map.of(
+            "/api/tasks/", "task",
+            "/api/categories/", "category",
+            "/api/tags/", "tag");
+
+    private static final String SCOPE_ATTRIBUTE = ShardInterceptor.class.getName() + ".scope";
+
+    private final ShardRouter shardRouter;
+
+    public ShardInterceptor(ShardRouter shardRouter) {
+        this.shardRouter = shardRouter;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        ShardContext.Scope scope = shardRouter.openScope();
+        try {
+            Long userId = ClientKeys.userId(request);
+            if (userId == null) {
+                userId = owner(request);
+            }
+            if (userId != null) {
+                shardRouter.bindUser(userId);
+                if (WRITE_METHODS.contains(request.getMethod())) {
+                    shardRouter.checkWritable(userId);
+                }
+            }
+        } catch (RuntimeException e) {
+            // afterCompletion não é chamado quando preHandle falha.
+            shardRouter.closeScope(scope);
+            throw e;
+        }
+        request.setAttribute(SCOPE_ATTRIBUTE, scope);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+            Exception ex) {
+        shardRouter.closeScope((ShardContext.Scope) request.getAttribute(SCOPE_ATTRIBUTE));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Long owner(HttpServletRequest request) {
+        Map<String, String> variables = (Map<String, String>) request
+                .getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        if (variables == null || variables.get("id") == null) {
+            return null;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (Map.Entry<String, String> entry : OWNED_PATHS.entrySet()) {
+            if (path.startsWith(entry.getKey())) {
+                try {
+                    return shardRouter.locateOwner(entry.getValue(), Long.valueOf(variables.get("id")));
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+}
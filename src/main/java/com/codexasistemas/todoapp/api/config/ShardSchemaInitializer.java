@@ -0,0 +1,90 @@
+package com.codexasistemas.todoapp.api.config;
+
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.stereotype.Component;
+
+import com.codexasistemas.todoapp.api.repository.shard.ShardCluster;
+import com.codexasistemas.todoapp.api.repository.shard.ShardRouter;
+
+import jakarta.persistence.EntityManagerFactory;
+
+// O Hibernate (ddl-auto) e o schema-<platform>.sql só cuidam do primeiro shard. Este
+// inicializador cria o schema nos demais shards quando ainda estão vazios, começa as
+// chaves geradas de cada um na sua faixa de IDs e prepara o diretório de usuários.
+// Shards já existentes não são alterados: migrações neles ficam a cargo do administrador.
+@Component
+@ConditionalOnProperty(name = "todoapp.sharding.enabled", havingValue = "true")
+public class ShardSchemaInitializer implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardSchemaInitializer.class);
+
+    private static final List<String> IDENTITY_TABLES = List.of("category", "task", "location", "task_change");
+
+    private static final List<String> SEQUENCES = List.of("tag_seq", "users_seq");
+
+    // allocationSize padrão do Hibernate: o otimizador pooled trata o valor lido da
+    // sequência como o topo de um bloco desse tamanho.
+    private static final int SEQUENCE_BLOCK = 50;
+
+    private final ShardCluster shardCluster;
+
+    private final ShardRouter shardRouter;
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final ResourceLoader resourceLoader;
+
+    private final Environment environment;
+
+    public ShardSchemaInitializer(ShardCluster shardCluster, ShardRouter shardRouter,
+            EntityManagerFactory entityManagerFactory, ResourceLoader resourceLoader, Environment environment) {
+        this.shardCluster = shardCluster;
+        this.shardRouter = shardRouter;
+        this.entityManagerFactory = entityManagerFactory;
+        this.resourceLoader = resourceLoader;
+        this.environment = environment;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        for (String shard : shardCluster.names()) {
+            if (shardCluster.indexOf(shard) == 0) {
+                continue;
+            }
+            JdbcTemplate jdbc = new JdbcTemplate(shardCluster.dataSource(shard));
+            if (!ShardCluster.tableExists(jdbc, "task")) {
+                createSchema(shard, jdbc);
+            }
+        }
+        shardCluster.initializeDirectory();
+    }
+
+    private void createSchema(String shard, JdbcTemplate jdbc) {
+        shardRouter.runOn(shard, () -> entityManagerFactory.unwrap(SessionFactory.class)
+                .getSchemaManager().exportMappedObjects(true));
+        String platform = environment.getProperty("spring.sql.init.platform");
+        if (platform != null) {
+            Resource script = resourceLoader.getResource("classpath:schema-" + platform + ".sql");
+            if (script.exists()) {
+                new ResourceDatabasePopulator(script).execute(shardCluster.dataSource(shard));
+            }
+        }
+        long firstId = shardCluster.firstId(shard);
+        IDENTITY_TABLES.forEach(table -> jdbc.execute("alter table " + table + " alter column id restart with "
+                + firstId));
+        SEQUENCES.forEach(sequence -> jdbc.execute("alter sequence " + sequence + " restart with "
+                + (firstId + SEQUENCE_BLOCK - 1)));
+        log.info("Schema criado no shard {}; chaves a partir de {}", shard, firstId);
+    }
+}
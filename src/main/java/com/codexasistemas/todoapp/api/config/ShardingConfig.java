@@ -0,0 +1,60 @@
+package com.codexasistemas.todoapp.api.config;
+
+import java.sql.Connection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.codexasistemas.todoapp.api.repository.shard.ShardCluster;
+import com.codexasistemas.todoapp.api.repository.shard.ShardRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+
+// Ativo só com todoapp.sharding.enabled=true; os shards substituem spring.datasource.url,
+// cujas credenciais servem de padrão para os shards que não informam as suas.
+@Configuration
+@ConditionalOnProperty(name = "todoapp.sharding.enabled", havingValue = "true")
+@EnableConfigurationProperties(ShardingProperties.class)
+public class ShardingConfig {
+
+    @Bean(destroyMethod = "close")
+    public ShardCluster shardCluster(ShardingProperties properties, DataSourceProperties primary,
+            Environment environment) {
+        if (environment.containsProperty("todoapp.datasource.replica.url")) {
+            throw new IllegalStateException("Réplica de leitura e particionamento por usuário não podem ser combinados.");
+        }
+        Map<String, HikariDataSource> pools = new LinkedHashMap<>();
+        for (ShardingProperties.Shard shard : properties.shards()) {
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName("shard-" + shard.name());
+            dataSource.setJdbcUrl(shard.url());
+            dataSource.setUsername(shard.username() != null ? shard.username() : primary.determineUsername());
+            dataSource.setPassword(shard.password() != null ? shard.password() : primary.determinePassword());
+            dataSource.setDriverClassName(shard.driverClassName() != null ? shard.driverClassName()
+                    : primary.determineDriverClassName());
+            pools.put(shard.name(), dataSource);
+        }
+        return new ShardCluster(pools, properties.virtualNodes(), properties.idRangeSize(), properties.moveGrace());
+    }
+
+    // Mesmo arranjo da réplica: o proxy adia a escolha do pool até o primeiro comando.
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardCluster shardCluster) {
+        ShardRoutingDataSource routing = new ShardRoutingDataSource(shardCluster);
+        routing.afterPropertiesSet();
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(routing);
+        proxy.setDefaultAutoCommit(true);
+        proxy.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        return proxy;
+    }
+}
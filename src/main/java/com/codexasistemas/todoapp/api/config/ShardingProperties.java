@@ -0,0 +1,45 @@
+package com.codexasistemas.todoapp.api.config;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+// Bancos (shards) entre os quais os usuários são distribuídos. A ordem da lista define o
+// índice de cada shard, usado nas faixas de IDs, e não deve mudar depois de criada: novos
+// shards entram no fim. O primeiro shard também guarda o diretório de usuários.
+@ConfigurationProperties(prefix = "todoapp.sharding")
+public record ShardingProperties(boolean enabled, List<Shard> shards, Integer virtualNodes, Long idRangeSize,
+        Duration moveGrace) {
+
+    public ShardingProperties {
+        shards = shards != null ? List.copyOf(shards) : List.of();
+        virtualNodes = virtualNodes != null ? virtualNodes : 128;
+        idRangeSize = idRangeSize != null ? idRangeSize : 1L << 40;
+        moveGrace = moveGrace != null ? moveGrace : Duration.ofSeconds(2);
+        if (enabled && shards.isEmpty()) {
+            throw new IllegalArgumentException("todoapp.sharding.shards precisa de ao menos um shard.");
+        }
+        if (virtualNodes <= 0 || idRangeSize <= 0) {
+            throw new IllegalArgumentException("virtual-nodes e id-range-size devem ser positivos.");
+        }
+        Set<String> names = new HashSet<>();
+        for (Shard shard : shards) {
+            if (!names.add(shard.name())) {
+                throw new IllegalArgumentException("Shard repetido: " + shard.name());
+            }
+        }
+    }
+
+    // username, password e driver-class-name vêm de spring.datasource quando omitidos.
+    public record Shard(String name, String url, String username, String password, String driverClassName) {
+
+        public Shard {
+            if (name == null || name.isBlank() || url == null || url.isBlank()) {
+                throw new IllegalArgumentException("Cada shard precisa de name e url.");
+            }
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.codexasistemas.todoapp.api.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class WebConfig implements WebMvcConfigurer {
+
+    private final RateLimitInterceptor rateLimitInterceptor;
+
+    private final ObjectProvider<ReadYourWritesInterceptor> readYourWritesInterceptor;
+
+    private final ObjectProvider<ShardInterceptor> shardInterceptor;
+
+    public WebConfig(RateLimitInterceptor rateLimitInterceptor,
+            ObjectProvider<ReadYourWritesInterceptor> readYourWritesInterceptor,
+            ObjectProvider<ShardInterceptor> shardInterceptor) {
+        this.rateLimitInterceptor = rateLimitInterceptor;
+        this.readYourWritesInterceptor = readYourWritesInterceptor;
+        this.shardInterceptor = shardInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(rateLimitInterceptor).addPathPatterns("/api/**");
+        readYourWritesInterceptor.ifAvailable(interceptor -> registry.addInterceptor(interceptor)
+                .addPathPatterns("/api/**"));
+        shardInterceptor.ifAvailable(interceptor -> registry.addInterceptor(interceptor)
+                .addPathPatterns("/api/**"));
+    }
+}
@@ -0,0 +1,10 @@
+package com.codexasistemas.todoapp.api.controller;
+
+public final class ApiMediaTypes {
+
+    // Lista de tarefas com categorias e tags enviadas uma única vez, referenciadas por id.
+    public static final String COMPACT_JSON = "application/vnd.todo.compact+json";
+
+    private ApiMediaTypes() {
+    }
+}
@@ -2,7 +2,7 @@ package com.codexasistemas.todoapp.api.controller;
 
 import com.codexasistemas.todoapp.api.dto.category.CategoryRequestDto;
 import com.codexasistemas.todoapp.api.dto.category.CategoryResponseDto;
-import com.codexasistemas.todoapp.api.dto.task.TaskResponseDto;
+import com.codexasistemas.todoapp.api.dto.task.TaskField;
 import com.codexasistemas.todoapp.api.service.interfaces.CategoryService;
 
 import jakarta.validation.Valid;
@@ -39,8 +39,9 @@ public class CategoryController {
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<CategoryResponseDto> delete(@PathVariable Long id) {
-        CategoryResponseDto deletedCategory = categoryService.delete(id);
+    public ResponseEntity<CategoryResponseDto> delete(@PathVariable Long id,
+            @RequestParam(required = false) Long moveTo) {
+        CategoryResponseDto deletedCategory = categoryService.delete(id, moveTo);
         return ResponseEntity.ok(deletedCategory);
     }
 
@@ -53,7 +54,11 @@ public class CategoryController {
     }
 
     @GetMapping("/{id}/tasks")
-    public ResponseEntity<List<TaskResponseDto>> getTasksByCategory(@PathVariable Long id) {
+    public ResponseEntity<List<?>> getTasksByCategory(@PathVariable Long id,
+            @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return ResponseEntity.ok(categoryService.findTaskFieldsByCategory(id, TaskField.parse(fields)));
+        }
         return ResponseEntity.ok(categoryService.findTasksByCategory(id));
     }
 } 
\ No newline at end of file
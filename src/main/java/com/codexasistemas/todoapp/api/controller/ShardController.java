@@ -0,0 +1,36 @@
+package com.codexasistemas.todoapp.api.controller;
+
+import com.codexasistemas.todoapp.api.dto.shard.ShardMoveResultDto;
+import com.codexasistemas.todoapp.api.dto.shard.ShardStatusDto;
+import com.codexasistemas.todoapp.api.dto.shard.UserShardDto;
+import com.codexasistemas.todoapp.api.service.interfaces.ShardService;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/shards")
+public class ShardController {
+
+    @Autowired
+    private ShardService shardService;
+
+    @GetMapping
+    public List<ShardStatusDto> findAll() {
+        return shardService.findShards();
+    }
+
+    @GetMapping("/users/{userId}")
+    public ResponseEntity<UserShardDto> findUserShard(@PathVariable Long userId) {
+        return ResponseEntity.ok(shardService.findUserShard(userId));
+    }
+
+    @PostMapping("/users/{userId}/move")
+    public ResponseEntity<ShardMoveResultDto> moveUser(@PathVariable Long userId,
+            @RequestParam(required = true) String target) {
+        return ResponseEntity.ok(shardService.moveUser(userId, target));
+    }
+}
@@ -1,5 +1,6 @@
 package com.codexasistemas.todoapp.api.controller;
 
+import com.codexasistemas.todoapp.api.dto.tag.TagMergeResponseDto;
 import com.codexasistemas.todoapp.api.dto.tag.TagRequestDto;
 import com.codexasistemas.todoapp.api.dto.tag.TagResponseDto;
 import com.codexasistemas.todoapp.api.service.interfaces.TagService;
@@ -43,6 +44,11 @@ public class TagController {
         return ResponseEntity.ok(deletedTag);
     }
 
+    @PostMapping("/{id}/merge-into/{targetId}")
+    public ResponseEntity<TagMergeResponseDto> mergeInto(@PathVariable Long id, @PathVariable Long targetId) {
+        return ResponseEntity.ok(tagService.mergeInto(id, targetId));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<TagResponseDto> update(
             @PathVariable Long id,
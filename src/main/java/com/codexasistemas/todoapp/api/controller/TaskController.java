@@ -1,16 +1,31 @@
 package com.codexasistemas.todoapp.api.controller;
 
+import com.codexasistemas.todoapp.api.dto.task.TaskBulkRequestDto;
+import com.codexasistemas.todoapp.api.dto.task.TaskBulkResponseDto;
+import com.codexasistemas.todoapp.api.dto.task.TaskField;
+import com.codexasistemas.todoapp.api.dto.task.TaskImportFormat;
+import com.codexasistemas.todoapp.api.dto.task.TaskImportResultDto;
+import com.codexasistemas.todoapp.api.dto.task.TaskLocationIndexStatsDto;
 import com.codexasistemas.todoapp.api.dto.task.TaskRequestDto;
 import com.codexasistemas.todoapp.api.dto.task.TaskResponseDto;
+import com.codexasistemas.todoapp.api.dto.task.TaskWithinResponseDto;
+import com.codexasistemas.todoapp.api.service.interfaces.TaskImportService;
+import com.codexasistemas.todoapp.api.service.interfaces.TaskLocationIndexService;
 import com.codexasistemas.todoapp.api.service.interfaces.TaskService;
+import com.codexasistemas.todoapp.api.service.interfaces.TaskToggleWriteBehindService;
+import com.fasterxml.jackson.databind.JsonNode;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.net.URI;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -20,14 +35,67 @@ public class TaskController {
     @Autowired
     private TaskService taskService;
 
+    @Autowired
+    private TaskImportService taskImportService;
+
+    @Autowired
+    private TaskLocationIndexService taskLocationIndexService;
+
+    @Autowired(required = false)
+    private TaskToggleWriteBehindService toggleWriteBehindService;
+
+    // Com fields=, responde apenas os campos pedidos (o id sempre vem junto).
     @GetMapping
-    public List<TaskResponseDto> findAll(@RequestParam(required = true) Long userId) {
-        return taskService.findByUserId(userId);
+    public List<?> findAll(@RequestParam(required = true) Long userId,
+            @RequestParam(required = false) String fields,
+            @RequestParam(defaultValue = "false") boolean includeArchived) {
+        if (fields != null) {
+            checkFieldsWithoutArchive(includeArchived);
+            return taskService.findFieldsByUserId(userId, TaskField.parse(fields));
+        }
+        return taskService.findByUserId(userId, includeArchived);
+    }
+
+    @GetMapping("/due")
+    public List<TaskResponseDto> findDue(@RequestParam(required = true) Long userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate after,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate before) {
+        return taskService.findDue(userId, after, before);
+    }
+
+    @GetMapping("/nearby")
+    public List<TaskResponseDto> findNearby(@RequestParam(required = true) Long userId,
+            @RequestParam(required = true) double lat,
+            @RequestParam(required = true) double lon,
+            @RequestParam(required = true) double radiusMeters) {
+        return taskService.findNearby(userId, lat, lon, radiusMeters);
+    }
+
+    @GetMapping("/within")
+    public TaskWithinResponseDto findWithin(@RequestParam(required = true) Long userId,
+            @RequestParam(required = true) double south,
+            @RequestParam(required = true) double west,
+            @RequestParam(required = true) double north,
+            @RequestParam(required = true) double east,
+            @RequestParam(required = false) Integer limit) {
+        return taskService.findWithin(userId, south, west, north, east, limit);
+    }
+
+    @GetMapping("/within/stats")
+    public TaskLocationIndexStatsDto locationIndexStats() {
+        return taskLocationIndexService.stats();
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<TaskResponseDto> findById(@PathVariable Long id) {
-        return taskService.findById(id)
+    public ResponseEntity<?> findById(@PathVariable Long id, @RequestParam(required = false) String fields,
+            @RequestParam(defaultValue = "false") boolean includeArchived) {
+        if (fields != null) {
+            checkFieldsWithoutArchive(includeArchived);
+            return taskService.findFieldsById(id, TaskField.parse(fields))
+                    .map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        }
+        return taskService.findById(id, includeArchived)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -38,6 +106,13 @@ public class TaskController {
         return ResponseEntity.created(URI.create("/tasks/" + dto.id())).body(dto);
     }
 
+    @PostMapping(value = "/import", consumes = { "application/x-ndjson", "text/csv" })
+    public ResponseEntity<TaskImportResultDto> importTasks(@RequestParam(required = true) Long userId,
+            HttpServletRequest request) throws IOException {
+        TaskImportFormat format = TaskImportFormat.fromContentType(request.getContentType());
+        return ResponseEntity.ok(taskImportService.importTasks(userId, format, request.getInputStream()));
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<TaskResponseDto> delete(@PathVariable Long id) {
         TaskResponseDto deletedTask = taskService.delete(id);
@@ -52,8 +127,18 @@ public class TaskController {
         return ResponseEntity.ok(updatedTask);
     }
 
+    // JSON Merge Patch: altera só os campos enviados; null remove o valor do campo.
+    @PatchMapping(value = "/{id}", consumes = { "application/merge-patch+json", "application/json" })
+    public ResponseEntity<TaskResponseDto> patch(@PathVariable Long id, @RequestBody JsonNode patch) {
+        return ResponseEntity.ok(taskService.patch(id, patch));
+    }
+
+    // Com a gravação adiada habilitada, responde 202 com o novo status antes da escrita no banco.
     @PatchMapping("/{id}/toggle")
-    public ResponseEntity<TaskResponseDto> toggleStatus(@PathVariable Long id) {
+    public ResponseEntity<?> toggleStatus(@PathVariable Long id) {
+        if (toggleWriteBehindService != null) {
+            return ResponseEntity.accepted().body(toggleWriteBehindService.toggle(id));
+        }
         TaskResponseDto toggledTask = taskService.toggleStatus(id);
         return ResponseEntity.ok(toggledTask);
     }
@@ -63,4 +148,16 @@ public class TaskController {
         taskService.cancel(id);
         return ResponseEntity.noContent().build();
     }
-}
\ No newline at end of file
+
+    @PatchMapping("/bulk")
+    public ResponseEntity<TaskBulkResponseDto> bulk(@Valid @RequestBody TaskBulkRequestDto bulkRequest) {
+        return ResponseEntity.ok(taskService.bulk(bulkRequest));
+    }
+
+    // A projeção por campos lê só a tabela task.
+    private static void checkFieldsWithoutArchive(boolean includeArchived) {
+        if (includeArchived) {
+            throw new IllegalArgumentException("O parâmetro fields não pode ser combinado com includeArchived.");
+        }
+    }
+}
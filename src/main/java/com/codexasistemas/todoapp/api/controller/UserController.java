@@ -1,5 +1,6 @@
 package com.codexasistemas.todoapp.api.controller;
 
+import java.io.IOException;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,14 +12,23 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import jakarta.servlet.http.HttpServletResponse;
+
+import com.codexasistemas.todoapp.api.dto.user.UserDeletionStatusDto;
 import com.codexasistemas.todoapp.api.dto.user.UserRequestDto;
 import com.codexasistemas.todoapp.api.dto.user.UserResponseDto;
+import com.codexasistemas.todoapp.api.dto.user.UserTaskDigestDto;
 import com.codexasistemas.todoapp.api.dto.category.CategoryWithTaskCountDto;
 import com.codexasistemas.todoapp.api.dto.tag.TagWithTaskCountDto;
-import com.codexasistemas.todoapp.api.dto.task.TaskResponseDto;
+import com.codexasistemas.todoapp.api.dto.task.TaskChangesDto;
+import com.codexasistemas.todoapp.api.dto.task.TaskCompactListDto;
+import com.codexasistemas.todoapp.api.dto.task.TaskField;
 import com.codexasistemas.todoapp.api.service.impl.UserServiceImpl;
+import com.codexasistemas.todoapp.api.service.interfaces.TaskDigestService;
+import com.codexasistemas.todoapp.api.service.interfaces.UserDeletionService;
 
 @RestController
 @RequestMapping("/api/users")
@@ -27,6 +37,12 @@ public class UserController {
     @Autowired
     private UserServiceImpl userService;
 
+    @Autowired
+    private TaskDigestService taskDigestService;
+
+    @Autowired
+    private UserDeletionService userDeletionService;
+
     @GetMapping
     public ResponseEntity<List<UserResponseDto>> findAll() {
         return ResponseEntity.ok().body(userService.findAll());
@@ -49,10 +65,19 @@ public class UserController {
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<UserResponseDto> deleteById(@PathVariable Long id) {
+    public ResponseEntity<?> deleteById(@PathVariable Long id,
+            @RequestParam(defaultValue = "false") boolean background) {
+        if (background) {
+            return ResponseEntity.accepted().body(userDeletionService.deleteInBackground(id));
+        }
         return ResponseEntity.ok().body(userService.deleteById(id));
     }
 
+    @GetMapping("/{id}/deletion")
+    public ResponseEntity<UserDeletionStatusDto> getDeletionStatus(@PathVariable Long id) {
+        return ResponseEntity.ok(userDeletionService.findStatus(id));
+    }
+
     @GetMapping("/{id}/categories")
     public ResponseEntity<List<CategoryWithTaskCountDto>> getUserCategories(@PathVariable Long id) {
         return ResponseEntity.ok(userService.findCategoriesWithTaskCount(id));
@@ -63,8 +88,45 @@ public class UserController {
         return ResponseEntity.ok(userService.findTagsWithTaskCount(id));
     }
 
+    @PostMapping("/{id}/counters/rebuild")
+    public ResponseEntity<Void> rebuildCounters(@PathVariable Long id) {
+        userService.rebuildCounters(id);
+        return ResponseEntity.noContent().build();
+    }
+
     @GetMapping("/{id}/tasks")
-    public ResponseEntity<List<TaskResponseDto>> getUserTasks(@PathVariable Long id) {
+    public ResponseEntity<List<?>> getUserTasks(@PathVariable Long id,
+            @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return ResponseEntity.ok(userService.findTaskFields(id, TaskField.parse(fields)));
+        }
         return ResponseEntity.ok(userService.findTasksWithContext(id));
     }
+
+    @GetMapping(value = "/{id}/tasks", produces = ApiMediaTypes.COMPACT_JSON)
+    public ResponseEntity<TaskCompactListDto> getUserTasksCompact(@PathVariable Long id) {
+        return ResponseEntity.ok(userService.findTasksCompact(id));
+    }
+
+    // Sincronização incremental: tarefas alteradas e excluídas após a sequência since.
+    @GetMapping("/{id}/tasks/changes")
+    public ResponseEntity<TaskChangesDto> getUserTaskChanges(@PathVariable Long id,
+            @RequestParam(defaultValue = "0") long since,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(userService.findTaskChanges(id, since, limit));
+    }
+
+    @GetMapping("/{id}/digest")
+    public ResponseEntity<UserTaskDigestDto> getUserDigest(@PathVariable Long id) {
+        return ResponseEntity.ok(taskDigestService.findByUserId(id));
+    }
+
+    @GetMapping("/{id}/tasks/export")
+    public void exportUserTasks(@PathVariable Long id, HttpServletResponse response) throws IOException {
+        // Valida o usuário antes de definir o content-type, para que erros saiam como texto comum.
+        userService.findById(id);
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding("UTF-8");
+        userService.exportTasks(id, response.getOutputStream());
+    }
 }
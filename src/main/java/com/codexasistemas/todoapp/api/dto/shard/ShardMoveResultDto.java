@@ -0,0 +1,11 @@
+package com.codexasistemas.todoapp.api.dto.shard;
+
+import java.util.Map;
+
+// rows: linhas copiadas por tabela.
+public record ShardMoveResultDto(
+    Long userId,
+    String source,
+    String target,
+    Map<String, Integer> rows
+) {}
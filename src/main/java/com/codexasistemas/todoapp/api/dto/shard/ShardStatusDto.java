@@ -0,0 +1,9 @@
+package com.codexasistemas.todoapp.api.dto.shard;
+
+// ringShare: fração do anel, e portanto dos novos usuários, que cabe ao shard;
+// movedUsers: usuários fixados no shard pelo diretório, fora da posição do anel.
+public record ShardStatusDto(
+    String name,
+    double ringShare,
+    long movedUsers
+) {}
@@ -0,0 +1,7 @@
+package com.codexasistemas.todoapp.api.dto.shard;
+
+public record UserShardDto(
+    Long userId,
+    String shard,
+    boolean moving
+) {}
@@ -0,0 +1,10 @@
+package com.codexasistemas.todoapp.api.dto.tag;
+
+// movedTasks: tarefas que passaram a ter a tag de destino; duplicateTasks: tarefas
+// que já tinham as duas tags e só perderam a de origem.
+public record TagMergeResponseDto(
+    Long sourceId,
+    TagResponseDto target,
+    int movedTasks,
+    int duplicateTasks
+) {}
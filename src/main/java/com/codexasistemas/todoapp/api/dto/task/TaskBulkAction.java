@@ -0,0 +1,8 @@
+package com.codexasistemas.todoapp.api.dto.task;
+
+public enum TaskBulkAction {
+    DONE,
+    UNDONE,
+    CANCEL,
+    DELETE
+}
@@ -0,0 +1,11 @@
+package com.codexasistemas.todoapp.api.dto.task;
+
+import java.time.LocalDate;
+
+public record TaskBulkFilterDto(
+        Long categoryId,
+
+        Long tagId,
+
+        LocalDate dueBefore) {
+}
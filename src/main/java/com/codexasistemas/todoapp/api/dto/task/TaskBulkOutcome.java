@@ -0,0 +1,10 @@
+package com.codexasistemas.todoapp.api.dto.task;
+
+public enum TaskBulkOutcome {
+    APPLIED,
+    UNCHANGED,
+    REJECTED,
+    // O ID existe, mas a tarefa não atende ao filtro enviado junto com os IDs.
+    SKIPPED,
+    NOT_FOUND
+}
@@ -0,0 +1,18 @@
+package com.codexasistemas.todoapp.api.dto.task;
+
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+public record TaskBulkRequestDto(
+
+        @NotNull(message = "O ID do usuário é obrigatório.") Long userId,
+
+        @NotNull(message = "A ação é obrigatória.") TaskBulkAction action,
+
+        List<Long> ids,
+
+        TaskBulkFilterDto filter
+
+) {
+}
@@ -0,0 +1,9 @@
+package com.codexasistemas.todoapp.api.dto.task;
+
+import java.util.List;
+
+public record TaskBulkResponseDto(
+    TaskBulkAction action,
+    int affected,
+    List<TaskBulkResultDto> results
+) {}
@@ -0,0 +1,12 @@
+package com.codexasistemas.todoapp.api.dto.task;
+
+import java.util.List;
+
+// Alterações após o since pedido, na ordem da sequência. O cliente guarda "since" e o
+// envia na próxima chamada; com hasMore, há mais alterações a buscar imediatamente.
+public record TaskChangesDto(
+    List<TaskResponseDto> changed,
+    List<Long> deleted,
+    long since,
+    boolean hasMore
+) {}
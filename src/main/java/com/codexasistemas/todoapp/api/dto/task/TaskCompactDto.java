@@ -0,0 +1,23 @@
+package com.codexasistemas.todoapp.api.dto.task;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.codexasistemas.todoapp.api.dto.location.LocationDto;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public record TaskCompactDto(
+    Long id,
+    String title,
+    String description,
+    boolean done,
+    Long categoryId,
+    List<Long> tagIds,
+    LocalDateTime createdAt,
+    LocalDate dueDate,
+    LocalDateTime canceledAt,
+    LocalDateTime updatedAt,
+    LocationDto location
+) {}
@@ -0,0 +1,12 @@
+package com.codexasistemas.todoapp.api.dto.task;
+
+import java.util.List;
+import java.util.Map;
+
+// Representação compacta de uma lista de tarefas: os nomes de categorias e tags
+// aparecem uma vez nos dicionários (id -> nome) e cada tarefa os referencia por id.
+public record TaskCompactListDto(
+    Map<Long, String> categories,
+    Map<Long, String> tags,
+    List<TaskCompactDto> tasks
+) {}
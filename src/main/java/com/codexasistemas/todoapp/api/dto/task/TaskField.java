@@ -0,0 +1,51 @@
+package com.codexasistemas.todoapp.api.dto.task;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+// Campos que podem ser pedidos no parâmetro fields=, com o nome usado no JSON de TaskResponseDto.
+public enum TaskField {
+    ID("id"),
+    TITLE("title"),
+    DESCRIPTION("description"),
+    DONE("done"),
+    CATEGORY("category"),
+    TAGS("tags"),
+    CREATED_AT("createdAt"),
+    DUE_DATE("dueDate"),
+    CANCELED_AT("canceledAt"),
+    UPDATED_AT("updatedAt"),
+    LOCATION("location");
+
+    private final String jsonName;
+
+    TaskField(String jsonName) {
+        this.jsonName = jsonName;
+    }
+
+    public String jsonName() {
+        return jsonName;
+    }
+
+    // Lista separada por vírgulas, ex.: "title,done". O id sempre é incluído.
+    public static Set<TaskField> parse(String fields) {
+        Set<TaskField> selected = EnumSet.of(ID);
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            selected.add(fromJsonName(trimmed));
+        }
+        return selected;
+    }
+
+    private static TaskField fromJsonName(String name) {
+        for (TaskField field : values()) {
+            if (field.jsonName.equalsIgnoreCase(name)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Campo desconhecido em fields: " + name);
+    }
+}
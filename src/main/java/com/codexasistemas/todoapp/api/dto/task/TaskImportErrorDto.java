@@ -0,0 +1,6 @@
+package com.codexasistemas.todoapp.api.dto.task;
+
+public record TaskImportErrorDto(
+    long line,
+    String message
+) {}
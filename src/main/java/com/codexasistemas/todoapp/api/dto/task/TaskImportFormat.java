@@ -0,0 +1,19 @@
+package com.codexasistemas.todoapp.api.dto.task;
+
+public enum TaskImportFormat {
+    NDJSON,
+    CSV;
+
+    public static TaskImportFormat fromContentType(String contentType) {
+        if (contentType != null) {
+            String type = contentType.toLowerCase();
+            if (type.startsWith("application/x-ndjson") || type.startsWith("application/jsonl")) {
+                return NDJSON;
+            }
+            if (type.startsWith("text/csv")) {
+                return CSV;
+            }
+        }
+        throw new IllegalArgumentException("Formato de importação não suportado: " + contentType);
+    }
+}
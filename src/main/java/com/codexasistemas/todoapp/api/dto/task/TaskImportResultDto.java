@@ -0,0 +1,10 @@
+package com.codexasistemas.todoapp.api.dto.task;
+
+import java.util.List;
+
+public record TaskImportResultDto(
+    long processedLines,
+    long imported,
+    long failed,
+    List<TaskImportErrorDto> errors
+) {}
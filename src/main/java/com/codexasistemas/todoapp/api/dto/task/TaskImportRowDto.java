@@ -0,0 +1,18 @@
+package com.codexasistemas.todoapp.api.dto.task;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public record TaskImportRowDto(
+        String title,
+
+        String description,
+
+        String category,
+
+        List<String> tags,
+
+        LocalDate dueDate,
+
+        Boolean done) {
+}
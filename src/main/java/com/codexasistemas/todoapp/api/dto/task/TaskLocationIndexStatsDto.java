@@ -0,0 +1,10 @@
+package com.codexasistemas.todoapp.api.dto.task;
+
+import java.time.LocalDateTime;
+
+public record TaskLocationIndexStatsDto(
+    int users,
+    long points,
+    long estimatedBytes,
+    LocalDateTime builtAt
+) {}
@@ -0,0 +1,7 @@
+package com.codexasistemas.todoapp.api.dto.task;
+
+public record TaskPointDto(
+    Long id,
+    double latitude,
+    double longitude
+) {}
@@ -15,5 +15,6 @@ public record TaskResponseDto(
     LocalDateTime createdAt,
     LocalDate dueDate,
     LocalDateTime canceledAt,
+    LocalDateTime updatedAt,
     LocationDto location
 ) {}
\ No newline at end of file
@@ -0,0 +1,6 @@
+package com.codexasistemas.todoapp.api.dto.task;
+
+public record TaskToggleResponseDto(
+    Long id,
+    boolean done
+) {}
@@ -0,0 +1,8 @@
+package com.codexasistemas.todoapp.api.dto.task;
+
+import java.util.List;
+
+public record TaskWithinResponseDto(
+    List<TaskPointDto> points,
+    boolean truncated
+) {}
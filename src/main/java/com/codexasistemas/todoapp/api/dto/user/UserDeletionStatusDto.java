@@ -0,0 +1,20 @@
+package com.codexasistemas.todoapp.api.dto.user;
+
+import java.time.LocalDateTime;
+
+public record UserDeletionStatusDto(
+    Long userId,
+    State state,
+    long totalTasks,
+    long deletedTasks,
+    LocalDateTime startedAt,
+    LocalDateTime finishedAt,
+    String error
+) {
+
+    public enum State {
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+}
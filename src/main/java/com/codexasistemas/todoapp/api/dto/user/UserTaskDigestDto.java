@@ -0,0 +1,10 @@
+package com.codexasistemas.todoapp.api.dto.user;
+
+import java.time.LocalDateTime;
+
+public record UserTaskDigestDto(
+    Long userId,
+    long overdueCount,
+    long dueTodayCount,
+    LocalDateTime computedAt
+) {}
@@ -0,0 +1,17 @@
+package com.codexasistemas.todoapp.api.exception;
+
+// Indica que um recurso interno (ex.: fila de escrita) está saturado; o cliente
+// deve repetir a requisição após retryAfterSeconds.
+public class BackPressureException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public BackPressureException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
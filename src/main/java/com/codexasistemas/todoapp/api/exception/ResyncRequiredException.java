@@ -0,0 +1,10 @@
+package com.codexasistemas.todoapp.api.exception;
+
+// Indica que o cursor de sincronização do cliente é anterior ao horizonte de retenção do
+// log de alterações; o cliente deve descartar o estado local e sincronizar com since=0.
+public class ResyncRequiredException extends RuntimeException {
+
+    public ResyncRequiredException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,20 @@
+package com.codexasistemas.todoapp.api.job;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.codexasistemas.todoapp.api.service.interfaces.IdempotencyService;
+
+// Remove as chaves de idempotência vencidas.
+@Component
+public class IdempotencyPurgeJob {
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Scheduled(fixedDelayString = "${todoapp.idempotency.purge-interval-ms:60000}")
+    public void purge() {
+        idempotencyService.purgeExpired();
+    }
+}
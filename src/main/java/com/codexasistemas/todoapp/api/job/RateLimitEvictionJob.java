@@ -0,0 +1,20 @@
+package com.codexasistemas.todoapp.api.job;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.codexasistemas.todoapp.api.config.RateLimiter;
+
+// Descarta os baldes de clientes que já recuperaram todos os tokens.
+@Component
+public class RateLimitEvictionJob {
+
+    @Autowired
+    private RateLimiter rateLimiter;
+
+    @Scheduled(fixedDelayString = "${todoapp.rate-limit.eviction-interval-ms:60000}")
+    public void evict() {
+        rateLimiter.evictIdle();
+    }
+}
@@ -0,0 +1,22 @@
+package com.codexasistemas.todoapp.api.job;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.codexasistemas.todoapp.api.config.ReadYourWritesInterceptor;
+
+// Descarta as marcas de escrita cuja janela de leitura no primário já passou.
+@Component
+@ConditionalOnProperty(name = "todoapp.datasource.replica.url")
+public class ReadYourWritesEvictionJob {
+
+    @Autowired
+    private ReadYourWritesInterceptor readYourWritesInterceptor;
+
+    @Scheduled(fixedDelayString = "${todoapp.datasource.replica.eviction-interval-ms:60000}")
+    public void evict() {
+        readYourWritesInterceptor.evictExpired();
+    }
+}
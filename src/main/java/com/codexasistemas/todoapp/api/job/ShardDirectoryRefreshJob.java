@@ -0,0 +1,23 @@
+package com.codexasistemas.todoapp.api.job;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.codexasistemas.todoapp.api.repository.shard.ShardCluster;
+
+// Relê o diretório de usuários, para que movimentações feitas por outra instância
+// passem a valer aqui. O intervalo deve ser menor que todoapp.sharding.move-grace.
+@Component
+@ConditionalOnProperty(name = "todoapp.sharding.enabled", havingValue = "true")
+public class ShardDirectoryRefreshJob {
+
+    @Autowired
+    private ShardCluster shardCluster;
+
+    @Scheduled(fixedDelayString = "${todoapp.sharding.directory-refresh-interval-ms:1000}")
+    public void refresh() {
+        shardCluster.refreshDirectory();
+    }
+}
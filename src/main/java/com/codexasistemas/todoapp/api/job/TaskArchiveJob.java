@@ -0,0 +1,25 @@
+package com.codexasistemas.todoapp.api.job;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.codexasistemas.todoapp.api.repository.shard.ShardRouter;
+import com.codexasistemas.todoapp.api.service.interfaces.TaskArchiveService;
+
+// Arquiva, fora do horário de uso, as tarefas concluídas ou canceladas antigas
+// (desligado com o cron "-").
+@Component
+public class TaskArchiveJob {
+
+    @Autowired
+    private TaskArchiveService taskArchiveService;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Scheduled(cron = "${todoapp.archive.cron:0 30 3 * * *}")
+    public void archiveTasks() {
+        shardRouter.forEachShard(shard -> taskArchiveService.archive());
+    }
+}
@@ -0,0 +1,28 @@
+package com.codexasistemas.todoapp.api.job;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.codexasistemas.todoapp.api.repository.shard.ShardRouter;
+import com.codexasistemas.todoapp.api.service.interfaces.TaskChangeService;
+
+// Registra no log de alterações as tarefas que ainda não têm linha (bases anteriores
+// ao log), para que a primeira sincronização com since=0 traga todas as tarefas.
+@Component
+@ConditionalOnProperty(name = "todoapp.sync.backfill-on-startup", havingValue = "true", matchIfMissing = true)
+public class TaskChangeBackfillRunner implements ApplicationRunner {
+
+    @Autowired
+    private TaskChangeService taskChangeService;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        shardRouter.forEachShard(shard -> taskChangeService.recordMissing());
+    }
+}
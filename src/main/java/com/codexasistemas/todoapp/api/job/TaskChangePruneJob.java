@@ -0,0 +1,25 @@
+package com.codexasistemas.todoapp.api.job;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.codexasistemas.todoapp.api.repository.shard.ShardRouter;
+import com.codexasistemas.todoapp.api.service.interfaces.TaskChangeService;
+
+// Remove, fora do horário de uso, as lápides do log de alterações mais antigas que a
+// retenção (desligado com o cron "-").
+@Component
+public class TaskChangePruneJob {
+
+    @Autowired
+    private TaskChangeService taskChangeService;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Scheduled(cron = "${todoapp.sync.prune-cron:0 15 3 * * *}")
+    public void pruneTombstones() {
+        shardRouter.forEachShard(shard -> taskChangeService.pruneTombstones());
+    }
+}
@@ -0,0 +1,28 @@
+package com.codexasistemas.todoapp.api.job;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.codexasistemas.todoapp.api.repository.shard.ShardRouter;
+import com.codexasistemas.todoapp.api.service.interfaces.TaskCounterService;
+
+// Reconstrói os contadores de todos os usuários na inicialização; usado uma vez
+// após a implantação em bases que já possuem tarefas.
+@Component
+@ConditionalOnProperty(name = "todoapp.counters.rebuild-on-startup", havingValue = "true")
+public class TaskCounterRebuildRunner implements ApplicationRunner {
+
+    @Autowired
+    private TaskCounterService taskCounterService;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        shardRouter.forEachShard(shard -> taskCounterService.rebuildAll());
+    }
+}
@@ -0,0 +1,23 @@
+package com.codexasistemas.todoapp.api.job;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.codexasistemas.todoapp.api.repository.shard.ShardRouter;
+import com.codexasistemas.todoapp.api.service.interfaces.TaskDigestService;
+
+@Component
+public class TaskDigestJob {
+
+    @Autowired
+    private TaskDigestService taskDigestService;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Scheduled(cron = "${todoapp.digest.cron:0 */15 * * * *}")
+    public void refreshDigests() {
+        shardRouter.forEachShard(shard -> taskDigestService.refreshAll());
+    }
+}
@@ -0,0 +1,30 @@
+package com.codexasistemas.todoapp.api.job;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import com.codexasistemas.todoapp.api.repository.shard.ShardRouter;
+import com.codexasistemas.todoapp.api.service.interfaces.TaskService;
+
+// Preenche, na inicialização, a célula de localização das tarefas antigas;
+// depois da primeira execução a consulta não encontra mais nada a atualizar.
+@Component
+@Order(1)
+@ConditionalOnProperty(name = "todoapp.geo.backfill-on-startup", havingValue = "true", matchIfMissing = true)
+public class TaskLocationCellBackfillRunner implements ApplicationRunner {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        shardRouter.forEachShard(shard -> taskService.refreshLocationCells());
+    }
+}
@@ -0,0 +1,28 @@
+package com.codexasistemas.todoapp.api.job;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.codexasistemas.todoapp.api.repository.shard.ShardRouter;
+import com.codexasistemas.todoapp.api.service.interfaces.TaskService;
+
+// Apaga, na inicialização, as localizações órfãs deixadas pelas atualizações antigas de
+// tarefas; usado uma vez após a implantação, já que novas órfãs não são mais criadas.
+@Component
+@ConditionalOnProperty(name = "todoapp.geo.compact-locations-on-startup", havingValue = "true")
+public class TaskLocationCompactionRunner implements ApplicationRunner {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        shardRouter.forEachShard(shard -> taskService.deleteOrphanLocations());
+    }
+}
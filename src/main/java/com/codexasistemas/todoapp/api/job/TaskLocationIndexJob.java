@@ -0,0 +1,31 @@
+package com.codexasistemas.todoapp.api.job;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.codexasistemas.todoapp.api.service.interfaces.TaskLocationIndexService;
+
+// Constrói o índice de localização na inicialização, depois do preenchimento das
+// células, e o reconstrói periodicamente para absorver escritas feitas por outras
+// instâncias (desligado por padrão com o cron "-").
+@Component
+@Order(2)
+public class TaskLocationIndexJob implements ApplicationRunner {
+
+    @Autowired
+    private TaskLocationIndexService taskLocationIndexService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        taskLocationIndexService.rebuild();
+    }
+
+    @Scheduled(cron = "${todoapp.geo.index.rebuild-cron:-}")
+    public void rebuildIndex() {
+        taskLocationIndexService.rebuild();
+    }
+}
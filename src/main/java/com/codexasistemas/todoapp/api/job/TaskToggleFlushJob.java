@@ -0,0 +1,21 @@
+package com.codexasistemas.todoapp.api.job;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.codexasistemas.todoapp.api.service.interfaces.TaskToggleWriteBehindService;
+
+@Component
+@ConditionalOnProperty(name = "todoapp.toggle.write-behind.enabled", havingValue = "true")
+public class TaskToggleFlushJob {
+
+    @Autowired
+    private TaskToggleWriteBehindService toggleWriteBehindService;
+
+    @Scheduled(fixedDelayString = "${todoapp.toggle.write-behind.flush-interval-ms:200}")
+    public void flush() {
+        toggleWriteBehindService.flush();
+    }
+}
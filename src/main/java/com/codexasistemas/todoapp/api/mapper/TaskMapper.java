@@ -4,7 +4,10 @@ import com.codexasistemas.todoapp.api.dto.task.*;
 import com.codexasistemas.todoapp.api.dto.location.LocationDto;
 import com.codexasistemas.todoapp.api.model.*;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 public class TaskMapper {
 
@@ -29,10 +32,76 @@ public class TaskMapper {
             task.getCreatedAt(),
             task.getDueDate(),
             task.getCanceledAt(),
+            task.getUpdatedAt(),
             locationDto
         );
     }
 
+    public static TaskResponseDto toResponseDto(ArchivedTask task) {
+        LocationDto locationDto = null;
+        if (task.getLatitude() != null) {
+            locationDto = new LocationDto(
+                task.getLatitude(),
+                task.getLongitude(),
+                task.getLocationName(),
+                task.getLocationDescription()
+            );
+        }
+
+        return new TaskResponseDto(
+            task.getId(),
+            task.getTitle(),
+            task.getDescription(),
+            task.isDone(),
+            task.getCategoryName(),
+            task.getTags() != null ? List.copyOf(task.getTags()) : List.of(),
+            task.getCreatedAt(),
+            task.getDueDate(),
+            task.getCanceledAt(),
+            task.getUpdatedAt(),
+            locationDto
+        );
+    }
+
+    public static TaskCompactListDto toCompactListDto(List<Task> tasks) {
+        Map<Long, String> categories = new LinkedHashMap<>();
+        Map<Long, String> tags = new LinkedHashMap<>();
+        List<TaskCompactDto> compactTasks = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            categories.putIfAbsent(task.getCategory().getId(), task.getCategory().getName());
+            List<Long> tagIds = new ArrayList<>();
+            if (task.getTags() != null) {
+                for (Tag tag : task.getTags()) {
+                    tags.putIfAbsent(tag.getId(), tag.getName());
+                    tagIds.add(tag.getId());
+                }
+            }
+            LocationDto locationDto = null;
+            if (task.getLocation() != null) {
+                locationDto = new LocationDto(
+                    task.getLocation().getLatitude(),
+                    task.getLocation().getLongitude(),
+                    task.getLocation().getLocationName(),
+                    task.getLocation().getLocationDescription()
+                );
+            }
+            compactTasks.add(new TaskCompactDto(
+                task.getId(),
+                task.getTitle(),
+                task.getDescription(),
+                task.isDone(),
+                task.getCategory().getId(),
+                tagIds,
+                task.getCreatedAt(),
+                task.getDueDate(),
+                task.getCanceledAt(),
+                task.getUpdatedAt(),
+                locationDto
+            ));
+        }
+        return new TaskCompactListDto(categories, tags, compactTasks);
+    }
+
     public static Task toEntity(TaskRequestDto dto, User user, Category category, List<Tag> tags) {
         Task task = new Task();
         task.updateTitle(dto.title());
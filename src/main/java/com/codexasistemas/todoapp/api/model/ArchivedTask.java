@@ -0,0 +1,80 @@
+package com.codexasistemas.todoapp.api.model;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import jakarta.persistence.CollectionTable;
+import jakarta.persistence.Column;
+import jakarta.persistence.ElementCollection;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.OrderBy;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+// Tarefa concluída ou cancelada há mais de todoapp.archive.after, retirada da tabela
+// task. Guarda uma cópia da tarefa no momento do arquivamento, com o mesmo id, o nome
+// da categoria, os nomes das tags e a localização; não tem chaves estrangeiras, para
+// que tags, categorias e usuários possam ser excluídos sem tocar no arquivo.
+@Entity
+@Table(name = "task_archive", indexes = {
+        @Index(name = "idx_task_archive_user", columnList = "user_id, id"),
+        @Index(name = "idx_task_archive_category", columnList = "category_id")
+})
+@Getter
+@NoArgsConstructor
+public class ArchivedTask {
+
+    @Id
+    private Long id;
+
+    private String title;
+
+    private String description;
+
+    private boolean done;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "due_date")
+    private LocalDate dueDate;
+
+    @Column(name = "canceled_at")
+    private LocalDateTime canceledAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "category_id")
+    private Long categoryId;
+
+    @Column(name = "category_name")
+    private String categoryName;
+
+    private Double latitude;
+
+    private Double longitude;
+
+    @Column(name = "location_name")
+    private String locationName;
+
+    @Column(name = "location_description")
+    private String locationDescription;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+
+    @ElementCollection
+    @CollectionTable(name = "task_archive_tag", joinColumns = @JoinColumn(name = "task_id"))
+    @Column(name = "tag_name")
+    @OrderBy
+    private List<String> tags;
+}
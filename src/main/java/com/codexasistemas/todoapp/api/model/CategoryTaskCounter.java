@@ -0,0 +1,38 @@
+package com.codexasistemas.todoapp.api.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Entity
+@Table(name = "category_task_counter", indexes = @Index(name = "idx_category_task_counter_user", columnList = "user_id"))
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class CategoryTaskCounter {
+
+    @Id
+    @Column(name = "category_id")
+    private Long categoryId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "open_count", nullable = false)
+    private long openCount;
+
+    @Column(name = "done_count", nullable = false)
+    private long doneCount;
+
+    @Column(name = "last_created_at")
+    private LocalDateTime lastCreatedAt;
+}
@@ -0,0 +1,157 @@
+package com.codexasistemas.todoapp.api.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Célula geográfica no formato geohash binário: os bits de latitude e longitude
+// intercalados (curva Z) em um long. Células vizinhas compartilham prefixo, então
+// uma célula de qualquer nível corresponde a um intervalo contínuo de códigos e
+// pode ser consultada com um índice B-tree comum, sem PostGIS.
+public final class GeoCell {
+
+    // Bits por eixo; 26 bits dão células de ~0,6 m no equador.
+    public static final int BITS = 26;
+
+    public static final double EARTH_RADIUS_METERS = 6_371_008.8;
+
+    private static final long CELLS = 1L << BITS;
+
+    private GeoCell() {
+    }
+
+    public record Range(long from, long to) {
+    }
+
+    // Intervalos de células e a caixa envolvente do círculo, usada como filtro
+    // adicional antes de carregar as linhas.
+    public record Cover(List<Range> ranges, double minLatitude, double maxLatitude,
+            double minLongitude, double maxLongitude) {
+    }
+
+    public static long encode(double latitude, double longitude) {
+        return interleave(cellX(longitude), cellY(latitude));
+    }
+
+    // Intervalos de códigos que cobrem o círculo informado.
+    public static Cover cover(double latitude, double longitude, double radiusMeters) {
+        double deltaLat = Math.toDegrees(radiusMeters / EARTH_RADIUS_METERS);
+        double minLat = Math.max(-90, latitude - deltaLat);
+        double maxLat = Math.min(90, latitude + deltaLat);
+        double deltaLon = longitudeDelta(latitude, radiusMeters);
+        if (deltaLon >= 180) {
+            return coverBox(minLat, -180, maxLat, 180);
+        }
+        return coverBox(minLat, normalizeLongitude(longitude - deltaLon), maxLat,
+                normalizeLongitude(longitude + deltaLon));
+    }
+
+    // Intervalos de códigos [from, to) que cobrem a caixa informada; west > east indica
+    // uma caixa que cruza o antimeridiano. Usa o nível mais fino em que uma célula é
+    // maior que a caixa, portanto ela toca no máximo 2x2 células (até 4 intervalos).
+    public static Cover coverBox(double south, double west, double north, double east) {
+        boolean crossesAntimeridian = west > east;
+        double width = crossesAntimeridian ? east - west + 360 : east - west;
+        if (width >= 360) {
+            return new Cover(List.of(new Range(0, CELLS * CELLS)), south, north, -180, 180);
+        }
+
+        int level = BITS;
+        while (level > 0 && (180.0 / (1L << level) < north - south || 360.0 / (1L << level) < width)) {
+            level--;
+        }
+        int shift = BITS - level;
+
+        long[] xs = distinct(cellX(west) >> shift, cellX(east) >> shift);
+        long[] ys = distinct(cellY(south) >> shift, cellY(north) >> shift);
+
+        List<Long> prefixes = new ArrayList<>(4);
+        for (long x : xs) {
+            for (long y : ys) {
+                prefixes.add(interleave(x, y));
+            }
+        }
+        prefixes.sort(null);
+
+        List<Range> ranges = new ArrayList<>(4);
+        for (long prefix : prefixes) {
+            long from = prefix << (2 * shift);
+            long to = (prefix + 1) << (2 * shift);
+            if (!ranges.isEmpty() && ranges.get(ranges.size() - 1).to() == from) {
+                from = ranges.remove(ranges.size() - 1).from();
+            }
+            ranges.add(new Range(from, to));
+        }
+        // Caixas que cruzam o antimeridiano não filtram por longitude.
+        return new Cover(ranges, south, north, crossesAntimeridian ? -180 : west, crossesAntimeridian ? 180 : east);
+    }
+
+    // Centro da célula do código, com precisão de ~0,6 m.
+    public static double latitudeOf(long cell) {
+        return (compact(cell) + 0.5) / CELLS * 180 - 90;
+    }
+
+    public static double longitudeOf(long cell) {
+        return (compact(cell >>> 1) + 0.5) / CELLS * 360 - 180;
+    }
+
+    // Meia largura, em graus de longitude, da caixa que envolve o círculo.
+    public static double longitudeDelta(double latitude, double radiusMeters) {
+        double angular = radiusMeters / EARTH_RADIUS_METERS;
+        if (Math.abs(latitude) + Math.toDegrees(angular) >= 90) {
+            return 180;
+        }
+        double ratio = Math.sin(angular) / Math.cos(Math.toRadians(latitude));
+        return ratio >= 1 ? 180 : Math.toDegrees(Math.asin(ratio));
+    }
+
+    // Distância pela fórmula de haversine.
+    public static double distanceMeters(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                        * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private static long cellX(double longitude) {
+        return Math.min(CELLS - 1, (long) Math.floor((longitude + 180) / 360 * CELLS));
+    }
+
+    private static long cellY(double latitude) {
+        return Math.min(CELLS - 1, (long) Math.floor((latitude + 90) / 180 * CELLS));
+    }
+
+    private static double normalizeLongitude(double longitude) {
+        double normalized = (longitude + 180) % 360;
+        return (normalized < 0 ? normalized + 360 : normalized) - 180;
+    }
+
+    private static long[] distinct(long a, long b) {
+        return a == b ? new long[] { a } : new long[] { a, b };
+    }
+
+    private static long interleave(long x, long y) {
+        return spread(x) << 1 | spread(y);
+    }
+
+    private static long compact(long v) {
+        v &= 0x5555555555555555L;
+        v = (v | (v >>> 1)) & 0x3333333333333333L;
+        v = (v | (v >>> 2)) & 0x0F0F0F0F0F0F0F0FL;
+        v = (v | (v >>> 4)) & 0x00FF00FF00FF00FFL;
+        v = (v | (v >>> 8)) & 0x0000FFFF0000FFFFL;
+        v = (v | (v >>> 16)) & 0x00000000FFFFFFFFL;
+        return v;
+    }
+
+    private static long spread(long v) {
+        v &= 0xFFFFFFFFL;
+        v = (v | (v << 16)) & 0x0000FFFF0000FFFFL;
+        v = (v | (v << 8)) & 0x00FF00FF00FF00FFL;
+        v = (v | (v << 4)) & 0x0F0F0F0F0F0F0F0FL;
+        v = (v | (v << 2)) & 0x3333333333333333L;
+        v = (v | (v << 1)) & 0x5555555555555555L;
+        return v;
+    }
+}
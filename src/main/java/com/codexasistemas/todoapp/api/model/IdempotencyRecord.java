@@ -0,0 +1,42 @@
+package com.codexasistemas.todoapp.api.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+// Chave de idempotência compartilhada entre instâncias. Enquanto a requisição original
+// executa, status é nulo e expires_at vale apenas o tempo de bloqueio (lock-timeout),
+// para que uma instância que caiu no meio da requisição não prenda a chave até o TTL.
+@Entity
+@Table(name = "idempotency_key", indexes = @Index(name = "idx_idempotency_key_expires", columnList = "expires_at"))
+@Getter
+@NoArgsConstructor
+public class IdempotencyRecord {
+
+    @Id
+    @Column(name = "idempotency_key", length = 255)
+    private String key;
+
+    @Column(nullable = false, length = 512)
+    private String fingerprint;
+
+    private Integer status;
+
+    @Column(name = "content_type")
+    private String contentType;
+
+    @Column(length = 1024)
+    private String location;
+
+    @Column(length = 1_048_576)
+    private byte[] body;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
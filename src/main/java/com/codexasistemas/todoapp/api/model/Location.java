@@ -40,6 +40,16 @@ public class Location {
         this.locationDescription = locationDescription;
     }
 
+    // Altera a localização no lugar, para que a tarefa mantenha a mesma linha de location.
+    // Valores iguais aos atuais não geram UPDATE.
+    public void update(Double latitude, Double longitude, String locationName, String locationDescription) {
+        new Location(latitude, longitude, locationName, locationDescription).validateCoordinates();
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.locationName = locationName;
+        this.locationDescription = locationDescription;
+    }
+
     public void validateCoordinates() {
         if (latitude == null || longitude == null) {
             throw new IllegalArgumentException("Latitude e longitude são obrigatórios");
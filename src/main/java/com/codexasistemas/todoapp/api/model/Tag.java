@@ -1,6 +1,7 @@
 package com.codexasistemas.todoapp.api.model;
 
 import java.util.List;
+import java.util.Objects;
 
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
@@ -35,4 +36,20 @@ public class Tag {
     @ManyToOne
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
+
+    // Por id, para que Task.tags (um Set) reconheça a mesma tag carregada em outro momento.
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (!(o instanceof Tag))
+            return false;
+        Tag tag = (Tag) o;
+        return id != null && Objects.equals(id, tag.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
 }
@@ -2,15 +2,25 @@ package com.codexasistemas.todoapp.api.model;
 
 import jakarta.persistence.*;
 import lombok.Getter;
+import org.hibernate.annotations.DynamicUpdate;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.List;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 
+// Com @DynamicUpdate o UPDATE inclui só as colunas alteradas, o que torna barato
+// alterar um único campo pelo PATCH.
 @Entity
-@Table(name = "task")
+@DynamicUpdate
+@Table(name = "task", indexes = {
+        @Index(name = "idx_task_user", columnList = "user_id, id"),
+        @Index(name = "idx_task_user_location_cell", columnList = "user_id, location_cell")
+})
 @Getter
 @NoArgsConstructor
 public class Task {
@@ -34,6 +44,10 @@ public class Task {
     @Column(name = "canceled_at")
     private LocalDateTime canceledAt;
 
+    // Atualizado em toda escrita, inclusive nas operações em massa feitas por UPDATE direto.
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
     @ManyToOne
     @JoinColumn(name = "user_id")
     private User user;
@@ -42,17 +56,31 @@ public class Task {
     @JoinColumn(name = "category_id", nullable = false)
     private Category category;
 
+    // Set e não List: em um bag o Hibernate apaga e reinsere todas as linhas de task_tag
+    // a cada alteração; em um Set ele grava só as linhas incluídas ou removidas.
     @ManyToMany
     @JoinTable(name = "task_tag", joinColumns = @JoinColumn(name = "task_id"), inverseJoinColumns = @JoinColumn(name = "tag_id"))
-    private List<Tag> tags;
+    @OrderBy("name")
+    private Set<Tag> tags;
 
-    @OneToOne(cascade = CascadeType.ALL)
+    // orphanRemoval apaga a linha de location quando a tarefa deixa de referenciá-la.
+    @OneToOne(cascade = CascadeType.ALL, orphanRemoval = true)
     @JoinColumn(name = "location_id")
     private Location location;
 
+    // Célula geográfica da localização (GeoCell), usada pela busca por proximidade.
+    @Column(name = "location_cell")
+    private Long locationCell;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
+        updatedAt = createdAt;
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
     }
 
     public void markAsDone() {
@@ -89,6 +117,12 @@ public class Task {
         this.dueDate = dueDate;
     }
 
+    // Usado só pela importação, que traz tarefas de outro sistema com vencimentos já
+    // passados; a criação e a edição continuam passando por setDueDate.
+    public void importDueDate(LocalDate dueDate) {
+        this.dueDate = dueDate;
+    }
+
     public void assignUser(User user) {
         if (user == null) {
             throw new IllegalArgumentException("Usuário não pode ser nulo.");
@@ -100,8 +134,17 @@ public class Task {
         this.category = newCategory;
     }
 
-    public void setTags(List<Tag> tags) {
-        this.tags = tags;
+    // Altera a coleção existente em vez de substituí-la, para que o Hibernate grave apenas a
+    // diferença; substituir a coleção gerenciada faria apagar e reinserir todas as linhas.
+    public void setTags(Collection<Tag> newTags) {
+        if (this.tags == null) {
+            this.tags = new LinkedHashSet<>(newTags);
+            return;
+        }
+        Set<Long> newIds = newTags.stream().map(Tag::getId).collect(Collectors.toSet());
+        this.tags.removeIf(tag -> !newIds.contains(tag.getId()));
+        Set<Long> currentIds = this.tags.stream().map(Tag::getId).collect(Collectors.toSet());
+        newTags.stream().filter(tag -> currentIds.add(tag.getId())).forEach(this.tags::add);
     }
 
     public boolean isOwnedBy(User user) {
@@ -113,6 +156,23 @@ public class Task {
             location.validateCoordinates();
         }
         this.location = location;
+        refreshLocationCell();
+    }
+
+    // Reaproveita a localização atual em vez de criar outra linha a cada atualização.
+    public void updateLocation(Double latitude, Double longitude, String locationName, String locationDescription) {
+        if (this.location == null) {
+            setLocation(new Location(latitude, longitude, locationName, locationDescription));
+            return;
+        }
+        this.location.update(latitude, longitude, locationName, locationDescription);
+        refreshLocationCell();
+    }
+
+    public void refreshLocationCell() {
+        this.locationCell = location != null
+                ? GeoCell.encode(location.getLatitude(), location.getLongitude())
+                : null;
     }
 
     public void cancel() {
@@ -0,0 +1,47 @@
+package com.codexasistemas.todoapp.api.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+// Última alteração de cada tarefa, usada na sincronização incremental. A cada escrita a
+// linha da tarefa é substituída por outra com seq maior; seq vem do contador do usuário
+// (users.change_seq), que acompanha o usuário quando ele muda de shard, ao contrário do
+// id, gerado na faixa de cada shard. Tarefas excluídas permanecem como lápides
+// (deleted = true), assim como tarefas transferidas, na linha do usuário anterior.
+@Entity
+@Table(name = "task_change", indexes = {
+        @Index(name = "idx_task_change_user_seq", columnList = "user_id, seq", unique = true),
+        @Index(name = "idx_task_change_task", columnList = "task_id, user_id", unique = true)
+})
+@Getter
+@NoArgsConstructor
+public class TaskChange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "task_id", nullable = false)
+    private Long taskId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    // Nulo só em linhas anteriores ao contador, até o preenchimento da inicialização.
+    private Long seq;
+
+    @Column(nullable = false)
+    private boolean deleted;
+
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+}
@@ -34,6 +34,16 @@ public class User {
 
     private String password;
 
+    // Última sequência de alteração de tarefas do usuário (TaskChange.seq). Só é alterada
+    // pelos UPDATEs do log de alterações, com a linha do usuário bloqueada.
+    @Column(name = "change_seq", updatable = false)
+    private Long changeSeq = 0L;
+
+    // Maior sequência de lápide já removida pela retenção do log; um cliente com since
+    // abaixo dela perdeu exclusões e precisa sincronizar do zero. Nula enquanto nada foi podado.
+    @Column(name = "pruned_seq", insertable = false, updatable = false)
+    private Long prunedSeq;
+
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL)
     private List<Task> tasks;
 
@@ -0,0 +1,34 @@
+package com.codexasistemas.todoapp.api.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Entity
+@Table(name = "user_task_digest")
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserTaskDigest {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "overdue_count", nullable = false)
+    private long overdueCount;
+
+    @Column(name = "due_today_count", nullable = false)
+    private long dueTodayCount;
+
+    @Column(name = "computed_at", nullable = false)
+    private LocalDateTime computedAt;
+}
@@ -0,0 +1,87 @@
+package com.codexasistemas.todoapp.api.repository.impl;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.stereotype.Repository;
+
+import com.codexasistemas.todoapp.api.model.ArchivedTask;
+import com.codexasistemas.todoapp.api.repository.interfaces.ArchivedTaskRepository;
+import com.codexasistemas.todoapp.api.repository.jpa.ArchivedTaskJpaRepository;
+import com.codexasistemas.todoapp.api.repository.shard.ShardRouter;
+
+@Repository
+public class ArchivedTaskRepositoryImpl implements ArchivedTaskRepository {
+
+    // Limite de parâmetros por cláusula IN, para não estourar o máximo do driver.
+    private static final int IN_CLAUSE_LIMIT = 1000;
+
+    private final ArchivedTaskJpaRepository jpa;
+
+    private final ShardRouter shardRouter;
+
+    public ArchivedTaskRepositoryImpl(ArchivedTaskJpaRepository jpa, ShardRouter shardRouter) {
+        this.jpa = jpa;
+        this.shardRouter = shardRouter;
+    }
+
+    // Copia as tarefas, com os nomes das tags, para o arquivo; as linhas de task e as
+    // associações são removidas depois, pelo TaskRepository, na mesma transação.
+    @Override
+    public int archive(Collection<Long> taskIds, LocalDateTime archivedAt) {
+        int archived = 0;
+        for (List<Long> part : partition(taskIds)) {
+            archived += jpa.insertFromTaskIdIn(part, archivedAt);
+            jpa.insertTagsFromTaskIdIn(part);
+        }
+        return archived;
+    }
+
+    @Override
+    public List<ArchivedTask> findByUserId(Long userId) {
+        shardRouter.bindUser(userId);
+        return jpa.findWithTagsByUserId(userId);
+    }
+
+    @Override
+    public Optional<ArchivedTask> findById(Long id) {
+        return jpa.findWithTagsById(id);
+    }
+
+    @Override
+    public int moveToCategory(Long fromCategoryId, Long toCategoryId, String toCategoryName) {
+        return jpa.updateCategoryByCategoryId(fromCategoryId, toCategoryId, toCategoryName);
+    }
+
+    @Override
+    public int deleteByCategoryId(Long categoryId) {
+        jpa.deleteTagsByCategoryId(categoryId);
+        return jpa.deleteByCategoryIdInBulk(categoryId);
+    }
+
+    @Override
+    public int renameTag(Long userId, String fromTagName, String toTagName) {
+        shardRouter.bindUser(userId);
+        jpa.deleteTagNameDuplicates(userId, fromTagName, toTagName);
+        return jpa.renameTagName(userId, fromTagName, toTagName);
+    }
+
+    @Override
+    public int deleteByUserIdOrCategoryUserId(Long userId) {
+        shardRouter.bindUser(userId);
+        jpa.deleteTagsByUserIdOrCategoryUserId(userId);
+        return jpa.deleteByUserIdOrCategoryUserIdInBulk(userId);
+    }
+
+    private static List<List<Long>> partition(Collection<Long> ids) {
+        List<Long> all = new ArrayList<>(ids);
+        List<List<Long>> parts = new ArrayList<>();
+        for (int from = 0; from < all.size(); from += IN_CLAUSE_LIMIT) {
+            parts.add(all.subList(from, Math.min(from + IN_CLAUSE_LIMIT, all.size())));
+        }
+        return parts;
+    }
+}
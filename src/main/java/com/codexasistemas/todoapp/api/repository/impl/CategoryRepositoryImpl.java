@@ -8,18 +8,23 @@ import org.springframework.stereotype.Repository;
 import com.codexasistemas.todoapp.api.model.Category;
 import com.codexasistemas.todoapp.api.repository.interfaces.CategoryRepository;
 import com.codexasistemas.todoapp.api.repository.jpa.CategoryJpaRepository;
+import com.codexasistemas.todoapp.api.repository.shard.ShardRouter;
 
 @Repository
 public class CategoryRepositoryImpl implements CategoryRepository {
 
     private final CategoryJpaRepository jpa;
 
-    public CategoryRepositoryImpl(CategoryJpaRepository jpa) {
+    private final ShardRouter shardRouter;
+
+    public CategoryRepositoryImpl(CategoryJpaRepository jpa, ShardRouter shardRouter) {
         this.jpa = jpa;
+        this.shardRouter = shardRouter;
     }
 
     @Override
     public Category save(Category category) {
+        shardRouter.bindUser(category.getUser() != null ? category.getUser().getId() : null);
         return jpa.save(category);
     }
 
@@ -40,7 +45,20 @@ public class CategoryRepositoryImpl implements CategoryRepository {
 
     @Override
     public List<Category> findByUserId(Long userId) {
+        shardRouter.bindUser(userId);
         return jpa.findByUserId(userId);
     }
 
+    // Sem carregar a categoria, para não acionar a cascata de Category.tasks.
+    @Override
+    public int deleteByIdInBulk(Long id) {
+        return jpa.deleteByIdInBulk(id);
+    }
+
+    @Override
+    public int deleteByUserId(Long userId) {
+        shardRouter.bindUser(userId);
+        return jpa.deleteByUserIdInBulk(userId);
+    }
+
 }
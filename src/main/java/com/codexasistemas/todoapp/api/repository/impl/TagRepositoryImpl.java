@@ -8,18 +8,23 @@ import org.springframework.stereotype.Repository;
 import com.codexasistemas.todoapp.api.model.Tag;
 import com.codexasistemas.todoapp.api.repository.interfaces.TagRepository;
 import com.codexasistemas.todoapp.api.repository.jpa.TagJpaRepository;
+import com.codexasistemas.todoapp.api.repository.shard.ShardRouter;
 
 @Repository
 public class TagRepositoryImpl implements TagRepository {
 
     private final TagJpaRepository jpa;
 
-    public TagRepositoryImpl(TagJpaRepository jpa) {
+    private final ShardRouter shardRouter;
+
+    public TagRepositoryImpl(TagJpaRepository jpa, ShardRouter shardRouter) {
         this.jpa = jpa;
+        this.shardRouter = shardRouter;
     }
 
     @Override
     public Tag save(Tag tag) {
+        shardRouter.bindUser(tag.getUser() != null ? tag.getUser().getId() : null);
         return jpa.save(tag);
     }
 
@@ -40,6 +45,18 @@ public class TagRepositoryImpl implements TagRepository {
 
     @Override
     public List<Tag> findByUserId(Long userId) {
+        shardRouter.bindUser(userId);
         return jpa.findByUserId(userId);
     }
+
+    @Override
+    public int deleteByIdInBulk(Long id) {
+        return jpa.deleteByIdInBulk(id);
+    }
+
+    @Override
+    public int deleteByUserId(Long userId) {
+        shardRouter.bindUser(userId);
+        return jpa.deleteByUserIdInBulk(userId);
+    }
 }
@@ -0,0 +1,140 @@
+package com.codexasistemas.todoapp.api.repository.impl;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Repository;
+
+import com.codexasistemas.todoapp.api.model.TaskChange;
+import com.codexasistemas.todoapp.api.repository.interfaces.TaskChangeRepository;
+import com.codexasistemas.todoapp.api.repository.jpa.TaskChangeJpaRepository;
+
+@Repository
+public class TaskChangeRepositoryImpl implements TaskChangeRepository {
+
+    // Limite de parâmetros por cláusula IN, para não estourar o máximo do driver.
+    private static final int IN_CLAUSE_LIMIT = 1000;
+
+    private final TaskChangeJpaRepository jpa;
+
+    public TaskChangeRepositoryImpl(TaskChangeJpaRepository jpa) {
+        this.jpa = jpa;
+    }
+
+    @Override
+    public List<TaskChange> findByUserIdAfter(Long userId, long since, int limit) {
+        return jpa.findByUserIdAndSeqGreaterThanOrderBySeq(userId, since, Limit.of(limit));
+    }
+
+    // Troca a linha de cada tarefa por uma nova, com a próxima sequência do dono. Deve ser
+    // chamado dentro de uma transação e, para exclusões, antes de apagar as tarefas.
+    @Override
+    public void recordByTaskIds(Collection<Long> taskIds, boolean deleted) {
+        if (taskIds.isEmpty()) {
+            return;
+        }
+        List<List<Long>> parts = partition(new TreeSet<>(taskIds));
+        Set<Long> userIds = new TreeSet<>();
+        for (List<Long> part : parts) {
+            userIds.addAll(jpa.lockUsersByTaskIdIn(part));
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (List<Long> part : parts) {
+            jpa.deleteByTaskIdIn(part);
+            jpa.insertByTaskIdIn(part, deleted, now);
+            // O próximo lote parte do contador já avançado.
+            advance(userIds);
+        }
+    }
+
+    @Override
+    public void recordByCategoryId(Long categoryId, boolean deleted) {
+        List<Long> userIds = jpa.lockUsersByCategoryId(categoryId);
+        jpa.deleteByCategoryId(categoryId);
+        jpa.insertByCategoryId(categoryId, deleted, LocalDateTime.now());
+        advance(userIds);
+    }
+
+    @Override
+    public void recordByTagId(Long tagId) {
+        List<Long> userIds = jpa.lockUsersByTagId(tagId);
+        jpa.deleteByTagId(tagId);
+        jpa.insertByTagId(tagId, LocalDateTime.now());
+        advance(userIds);
+    }
+
+    // Lápide na linha do dono anterior de uma tarefa transferida para outro usuário.
+    @Override
+    public void recordMoved(Long taskId, Long previousUserId) {
+        jpa.lockUser(previousUserId);
+        jpa.deleteByTaskIdAndUserIdInBulk(taskId, previousUserId);
+        jpa.insertDeletedForUser(taskId, previousUserId, LocalDateTime.now());
+        advance(List.of(previousUserId));
+    }
+
+    @Override
+    public void deleteByUserId(Long userId) {
+        jpa.deleteByUserIdInBulk(userId);
+    }
+
+    @Override
+    public int recordMissing() {
+        jpa.fillMissingSeq();
+        jpa.fillMissingChangeSeq();
+        int recorded = jpa.insertMissing();
+        jpa.advanceAllChangeSeq();
+        return recorded;
+    }
+
+    @Override
+    public long findPrunedSeq(Long userId) {
+        return jpa.findPrunedSeq(userId).stream().findFirst().orElse(0L);
+    }
+
+    // Os usuários são bloqueados em ordem de id, como nas gravações do log, antes de subir o
+    // horizonte; assim o horizonte nunca fica abaixo de uma lápide já removida.
+    @Override
+    public int pruneTombstones(LocalDateTime cutoff, int limit) {
+        List<TaskChange> tombstones = jpa.findTombstonesBefore(cutoff, Limit.of(limit));
+        if (tombstones.isEmpty()) {
+            return 0;
+        }
+        Map<Long, Long> maxSeqByUser = new TreeMap<>();
+        List<Long> ids = new ArrayList<>();
+        for (TaskChange tombstone : tombstones) {
+            maxSeqByUser.merge(tombstone.getUserId(), tombstone.getSeq(), Math::max);
+            ids.add(tombstone.getId());
+        }
+        for (List<Long> part : partition(maxSeqByUser.keySet())) {
+            jpa.lockUsersByIdIn(part);
+        }
+        maxSeqByUser.forEach(jpa::raisePrunedSeq);
+        int deleted = 0;
+        for (List<Long> part : partition(ids)) {
+            deleted += jpa.deleteByIdIn(part);
+        }
+        return deleted;
+    }
+
+    private void advance(Collection<Long> userIds) {
+        for (List<Long> part : partition(userIds)) {
+            jpa.advanceChangeSeq(part);
+        }
+    }
+
+    private static List<List<Long>> partition(Collection<Long> ids) {
+        List<Long> all = new ArrayList<>(ids);
+        List<List<Long>> parts = new ArrayList<>();
+        for (int from = 0; from < all.size(); from += IN_CLAUSE_LIMIT) {
+            parts.add(all.subList(from, Math.min(from + IN_CLAUSE_LIMIT, all.size())));
+        }
+        return parts;
+    }
+}
@@ -0,0 +1,114 @@
+package com.codexasistemas.todoapp.api.repository.impl;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.stereotype.Repository;
+
+import com.codexasistemas.todoapp.api.model.CategoryTaskCounter;
+import com.codexasistemas.todoapp.api.model.TagTaskCounter;
+import com.codexasistemas.todoapp.api.repository.interfaces.TaskCounterRepository;
+import com.codexasistemas.todoapp.api.repository.jpa.CategoryTaskCounterJpaRepository;
+import com.codexasistemas.todoapp.api.repository.jpa.TagTaskCounterJpaRepository;
+
+@Repository
+public class TaskCounterRepositoryImpl implements TaskCounterRepository {
+
+    private final CategoryTaskCounterJpaRepository categoryJpa;
+
+    private final TagTaskCounterJpaRepository tagJpa;
+
+    public TaskCounterRepositoryImpl(CategoryTaskCounterJpaRepository categoryJpa, TagTaskCounterJpaRepository tagJpa) {
+        this.categoryJpa = categoryJpa;
+        this.tagJpa = tagJpa;
+    }
+
+    @Override
+    public List<CategoryTaskCounter> findCategoryCountersByUserId(Long userId) {
+        return categoryJpa.findByUserId(userId);
+    }
+
+    @Override
+    public List<TagTaskCounter> findTagCountersByUserId(Long userId) {
+        return tagJpa.findByUserId(userId);
+    }
+
+    @Override
+    public Optional<CategoryTaskCounter> findCategoryCounter(Long categoryId) {
+        return categoryJpa.findById(categoryId);
+    }
+
+    @Override
+    public List<TagTaskCounter> findTagCountersByCategoryId(Long categoryId) {
+        return tagJpa.findByCategoryId(categoryId);
+    }
+
+    // O UPDATE relativo evita perder incrementos concorrentes. Quando ainda não há
+    // contador, a categoria é bloqueada antes de repetir o UPDATE e criar a linha: duas
+    // primeiras escritas concorrentes passam a se serializar, e a segunda enxerga a linha
+    // criada pela primeira em vez de violar a chave primária.
+    @Override
+    public void incrementCategory(Long categoryId, Long userId, long open, long done, LocalDateTime lastCreatedAt) {
+        if (incrementCategoryIfPresent(categoryId, open, done, lastCreatedAt)) {
+            return;
+        }
+        categoryJpa.lockCategory(categoryId);
+        if (!incrementCategoryIfPresent(categoryId, open, done, lastCreatedAt)) {
+            categoryJpa.save(new CategoryTaskCounter(categoryId, userId, open, done, lastCreatedAt));
+        }
+    }
+
+    private boolean incrementCategoryIfPresent(Long categoryId, long open, long done, LocalDateTime lastCreatedAt) {
+        int updated = lastCreatedAt != null
+                ? categoryJpa.increment(categoryId, open, done, lastCreatedAt)
+                : categoryJpa.increment(categoryId, open, done);
+        return updated > 0;
+    }
+
+    @Override
+    public void incrementTag(Long tagId, Long categoryId, Long userId, long open, long done) {
+        if (tagJpa.increment(tagId, categoryId, open, done) > 0) {
+            return;
+        }
+        tagJpa.lockTag(tagId);
+        if (tagJpa.increment(tagId, categoryId, open, done) == 0) {
+            tagJpa.save(new TagTaskCounter(tagId, categoryId, userId, open, done));
+        }
+    }
+
+    @Override
+    public void deleteByUserId(Long userId) {
+        categoryJpa.deleteByUserIdInBulk(userId);
+        tagJpa.deleteByUserIdInBulk(userId);
+    }
+
+    @Override
+    public void deleteByCategoryUserId(Long userId) {
+        tagJpa.deleteByCategoryUserIdInBulk(userId);
+    }
+
+    @Override
+    public void deleteByCategoryId(Long categoryId) {
+        categoryJpa.deleteByCategoryIdInBulk(categoryId);
+        tagJpa.deleteByCategoryIdInBulk(categoryId);
+    }
+
+    @Override
+    public void deleteByTagId(Long tagId) {
+        tagJpa.deleteByTagIdInBulk(tagId);
+    }
+
+    @Override
+    public void rebuildByUserId(Long userId) {
+        deleteByUserId(userId);
+        categoryJpa.insertFromTasksByUserId(userId);
+        tagJpa.insertFromTasksByUserId(userId);
+    }
+
+    @Override
+    public void rebuildByTagId(Long tagId) {
+        tagJpa.deleteByTagIdInBulk(tagId);
+        tagJpa.insertFromTasksByTagId(tagId);
+    }
+}
@@ -1,25 +1,55 @@
 package com.codexasistemas.todoapp.api.repository.impl;
 
+import com.codexasistemas.todoapp.api.dto.task.TaskField;
+import com.codexasistemas.todoapp.api.dto.task.TaskResponseDto;
+import com.codexasistemas.todoapp.api.model.GeoCell;
 import com.codexasistemas.todoapp.api.model.Task;
 import com.codexasistemas.todoapp.api.repository.interfaces.TaskRepository;
+import com.codexasistemas.todoapp.api.repository.jdbc.TaskJdbcRepository;
 import com.codexasistemas.todoapp.api.repository.jpa.TaskJpaRepository;
+import com.codexasistemas.todoapp.api.repository.projection.CategoryCountView;
+import com.codexasistemas.todoapp.api.repository.projection.TagCountView;
+import com.codexasistemas.todoapp.api.repository.projection.TaskOwnerView;
+import com.codexasistemas.todoapp.api.repository.projection.TaskStateView;
+import com.codexasistemas.todoapp.api.repository.projection.UserDueCountView;
+import com.codexasistemas.todoapp.api.repository.shard.ShardRouter;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 @Repository
 public class TaskRepositoryImpl implements TaskRepository {
 
+    // Limite de parâmetros por cláusula IN, para não estourar o máximo do driver.
+    private static final int IN_CLAUSE_LIMIT = 1000;
+
     private final TaskJpaRepository jpa;
 
-    public TaskRepositoryImpl(TaskJpaRepository jpa) {
+    private final TaskJdbcRepository jdbc;
+
+    // Fixa o shard do usuário antes de cada consulta por usuário; no-op sem particionamento.
+    private final ShardRouter shardRouter;
+
+    public TaskRepositoryImpl(TaskJpaRepository jpa, TaskJdbcRepository jdbc, ShardRouter shardRouter) {
         this.jpa = jpa;
+        this.jdbc = jdbc;
+        this.shardRouter = shardRouter;
     }
 
     @Override
     public Task save(Task task) {
+        shardRouter.bindUser(task.getUser() != null ? task.getUser().getId() : null);
         return jpa.save(task);
     }
 
@@ -40,6 +70,253 @@ public class TaskRepositoryImpl implements TaskRepository {
 
     @Override
     public List<Task> findByUserId(Long userId) {
+        shardRouter.bindUser(userId);
         return jpa.findByUserIdAndCanceledAtIsNull(userId);
     }
-}
\ No newline at end of file
+
+    @Override
+    public void streamByUserId(Long userId, Consumer<TaskResponseDto> consumer) {
+        shardRouter.bindUser(userId);
+        jdbc.streamByUserId(userId, consumer);
+    }
+
+    @Override
+    public List<Map<String, Object>> findFieldsByUserId(Long userId, Set<TaskField> fields) {
+        shardRouter.bindUser(userId);
+        return jdbc.findFieldsByUserId(userId, fields);
+    }
+
+    @Override
+    public Optional<Map<String, Object>> findFieldsById(Long id, Set<TaskField> fields) {
+        return jdbc.findFieldsById(id, fields).stream().findFirst();
+    }
+
+    @Override
+    public List<Map<String, Object>> findFieldsByCategoryId(Long categoryId, Set<TaskField> fields) {
+        return jdbc.findFieldsByCategoryId(categoryId, fields);
+    }
+
+    @Override
+    public List<Long> insertAll(List<Task> tasks) {
+        tasks.forEach(task -> shardRouter.bindUser(task.getUser() != null ? task.getUser().getId() : null));
+        // Garante que categorias e tags recém-criadas via JPA já estejam no banco
+        // antes dos inserts JDBC que as referenciam.
+        jpa.flush();
+        return jdbc.insertAll(tasks);
+    }
+
+    @Override
+    public Optional<TaskStateView> findStateById(Long id) {
+        return jpa.findStateById(id);
+    }
+
+    @Override
+    public List<TaskStateView> findStatesByUserIdAndIds(Long userId, Collection<Long> ids) {
+        shardRouter.bindUser(userId);
+        List<TaskStateView> states = new ArrayList<>(ids.size());
+        for (List<Long> part : partition(ids)) {
+            states.addAll(jpa.findStatesByUserIdAndIdIn(userId, part));
+        }
+        return states;
+    }
+
+    @Override
+    public List<TaskStateView> findStatesByFilter(Long userId, Long categoryId, Long tagId, LocalDate dueBefore) {
+        shardRouter.bindUser(userId);
+        return jpa.findStatesByFilter(userId, categoryId, tagId, dueBefore);
+    }
+
+    @Override
+    public List<TaskStateView> findStatesByFilterAndIds(Long userId, Collection<Long> ids, Long categoryId,
+            Long tagId, LocalDate dueBefore) {
+        shardRouter.bindUser(userId);
+        List<TaskStateView> states = new ArrayList<>(ids.size());
+        for (List<Long> part : partition(ids)) {
+            states.addAll(jpa.findStatesByFilterAndIdIn(userId, part, categoryId, tagId, dueBefore));
+        }
+        return states;
+    }
+
+    @Override
+    public int updateDone(Collection<Long> ids, boolean done) {
+        LocalDateTime now = LocalDateTime.now();
+        return sum(ids, part -> jpa.updateDoneByIdIn(part, done, now));
+    }
+
+    @Override
+    public int updateDoneIfOpposite(Collection<Long> ids, boolean done) {
+        LocalDateTime now = LocalDateTime.now();
+        return sum(ids, part -> jpa.updateDoneByIdInIfOpposite(part, done, now));
+    }
+
+    @Override
+    public int updateCanceledAt(Collection<Long> ids, LocalDateTime canceledAt) {
+        return sum(ids, part -> jpa.updateCanceledAtByIdIn(part, canceledAt));
+    }
+
+    // Remove as tarefas sem carregá-las: primeiro as linhas de task_tag, depois as
+    // tarefas e por fim as localizações que pertenciam a elas.
+    @Override
+    public int deleteAllByIds(Collection<Long> ids) {
+        return sum(ids, part -> {
+            List<Long> locationIds = jpa.findLocationIdsByIdIn(part);
+            jpa.deleteTaskTagsByTaskIdIn(part);
+            int deleted = jpa.deleteByIdIn(part);
+            if (!locationIds.isEmpty()) {
+                jpa.deleteLocationsByIdIn(locationIds);
+            }
+            return deleted;
+        });
+    }
+
+    @Override
+    public int moveToCategory(Long fromCategoryId, Long toCategoryId) {
+        return jpa.updateCategoryIdByCategoryId(fromCategoryId, toCategoryId, LocalDateTime.now());
+    }
+
+    // Copia as associações para a tag de destino, pulando as tarefas que já a têm, e
+    // apaga as da tag de origem. Devolve {copiadas, apagadas}.
+    @Override
+    public int[] moveTaskTags(Long fromTagId, Long toTagId) {
+        int inserted = jpa.insertTaskTagsFromTag(fromTagId, toTagId);
+        int deleted = jpa.deleteTaskTagsByTagId(fromTagId);
+        return new int[] { inserted, deleted };
+    }
+
+    @Override
+    public List<TaskOwnerView> findLocatedOwnersByCategoryId(Long categoryId) {
+        return jpa.findLocatedOwnersByCategoryId(categoryId);
+    }
+
+    // Mesma ordem de deleteAllByIds, filtrando pela categoria em vez de listar os ids;
+    // só as localizações precisam ser lidas antes.
+    @Override
+    public int deleteAllByCategoryId(Long categoryId) {
+        List<Long> locationIds = jpa.findLocationIdsByCategoryId(categoryId);
+        jpa.deleteTaskTagsByCategoryId(categoryId);
+        int deleted = jpa.deleteByCategoryIdInBulk(categoryId);
+        for (List<Long> part : partition(locationIds)) {
+            jpa.deleteLocationsByIdIn(part);
+        }
+        return deleted;
+    }
+
+    @Override
+    public List<TaskOwnerView> findOwnersByUserIdOrCategoryUserId(Long userId, int limit) {
+        shardRouter.bindUser(userId);
+        return jpa.findOwnersByUserIdOrCategoryUserId(userId, Limit.of(limit));
+    }
+
+    @Override
+    public long countByUserIdOrCategoryUserId(Long userId) {
+        shardRouter.bindUser(userId);
+        return jpa.countByUserIdOrCategoryUserId(userId);
+    }
+
+    @Override
+    public List<Long> findIdsByTagUserId(Long userId) {
+        shardRouter.bindUser(userId);
+        return jpa.findIdsByTagUserId(userId);
+    }
+
+    @Override
+    public int deleteTaskTagsByTagUserId(Long userId) {
+        shardRouter.bindUser(userId);
+        return jpa.deleteTaskTagsByTagUserId(userId);
+    }
+
+    @Override
+    public List<Task> findOpenByUserIdAndDueDateBetween(Long userId, LocalDate after, LocalDate before,
+            Integer limit) {
+        shardRouter.bindUser(userId);
+        return jpa.findOpenByUserIdAndDueDateBetween(userId, after, before,
+                limit != null ? Limit.of(limit) : Limit.unlimited());
+    }
+
+    // Uma varredura de índice por intervalo de células; os intervalos não se sobrepõem.
+    @Override
+    public List<Task> findByUserIdAndLocationCells(Long userId, GeoCell.Cover cover) {
+        shardRouter.bindUser(userId);
+        List<Task> tasks = new ArrayList<>();
+        for (GeoCell.Range range : cover.ranges()) {
+            tasks.addAll(jpa.findByUserIdAndLocationCellRange(userId, range.from(), range.to(),
+                    cover.minLatitude(), cover.maxLatitude(), cover.minLongitude(), cover.maxLongitude()));
+        }
+        return tasks;
+    }
+
+    @Override
+    public List<Task> findWithoutLocationCell(int limit) {
+        return jpa.findByLocationIsNotNullAndLocationCellIsNull(Limit.of(limit));
+    }
+
+    @Override
+    public List<TaskOwnerView> findArchivable(LocalDateTime cutoff, long afterId, int limit) {
+        return jpa.findArchivable(cutoff, afterId, Limit.of(limit));
+    }
+
+    @Override
+    public List<Long> findOrphanLocationIds(int limit) {
+        return jpa.findOrphanLocationIds(Limit.of(limit));
+    }
+
+    @Override
+    public int deleteOrphanLocations(Collection<Long> ids) {
+        return sum(ids, jpa::deleteOrphanLocationsByIdIn);
+    }
+
+    @Override
+    public List<Task> findWithDetailsByIds(Collection<Long> ids) {
+        List<Task> tasks = new ArrayList<>(ids.size());
+        for (List<Long> part : partition(ids)) {
+            tasks.addAll(jpa.findWithDetailsByIdIn(part));
+        }
+        return tasks;
+    }
+
+    @Override
+    public void forEachLocationCell(LocationCellHandler handler) {
+        jdbc.forEachLocationCell(handler);
+    }
+
+    @Override
+    public List<UserDueCountView> countDueByUserIds(Collection<Long> userIds, LocalDate today) {
+        userIds.forEach(shardRouter::bindUser);
+        return jpa.countDueByUserIdIn(userIds, today);
+    }
+
+    @Override
+    public List<CategoryCountView> countByCategoryForIds(Collection<Long> ids) {
+        List<CategoryCountView> counts = new ArrayList<>();
+        for (List<Long> part : partition(ids)) {
+            counts.addAll(jpa.countByCategoryForIdIn(part));
+        }
+        return counts;
+    }
+
+    @Override
+    public List<TagCountView> countByTagForIds(Collection<Long> ids) {
+        List<TagCountView> counts = new ArrayList<>();
+        for (List<Long> part : partition(ids)) {
+            counts.addAll(jpa.countByTagForIdIn(part));
+        }
+        return counts;
+    }
+
+    private static int sum(Collection<Long> ids, Function<List<Long>, Integer> operation) {
+        int total = 0;
+        for (List<Long> part : partition(ids)) {
+            total += operation.apply(part);
+        }
+        return total;
+    }
+
+    private static List<List<Long>> partition(Collection<Long> ids) {
+        List<Long> all = new ArrayList<>(ids);
+        List<List<Long>> parts = new ArrayList<>();
+        for (int from = 0; from < all.size(); from += IN_CLAUSE_LIMIT) {
+            parts.add(all.subList(from, Math.min(from + IN_CLAUSE_LIMIT, all.size())));
+        }
+        return parts;
+    }
+}
@@ -1,55 +1,112 @@
 package com.codexasistemas.todoapp.api.repository.impl;
 
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
 
 import com.codexasistemas.todoapp.api.model.User;
 import com.codexasistemas.todoapp.api.repository.interfaces.UserRepository;
 import com.codexasistemas.todoapp.api.repository.jpa.UserJpaRepository;
+import com.codexasistemas.todoapp.api.repository.shard.ShardRouter;
 
 @Repository
 public class UserRepositoryImpl implements UserRepository {
 
     private final UserJpaRepository jpa;
 
-    public UserRepositoryImpl(UserJpaRepository jpa) {
+    private final JdbcTemplate jdbc;
+
+    private final ShardRouter shardRouter;
+
+    public UserRepositoryImpl(UserJpaRepository jpa, JdbcTemplate jdbc, ShardRouter shardRouter) {
         this.jpa = jpa;
+        this.jdbc = jdbc;
+        this.shardRouter = shardRouter;
     }
 
+    // Com particionamento, o email pode estar em qualquer shard.
     @Override
     public boolean existsByEmail(String email) {
+        if (shardRouter.isEnabled()) {
+            return shardRouter.findUserIdByEmail(email).isPresent();
+        }
         return jpa.existsByEmail(email);
     }
 
+    // Com particionamento, o ID do novo usuário é reservado antes do insert, para que
+    // a linha já nasça no shard dele.
     @Override
     public User save(User user) {
+        if (shardRouter.isEnabled() && user.getId() == null) {
+            long id = shardRouter.allocateUserId();
+            shardRouter.bindUser(id);
+            jdbc.update("insert into users (id, name, email, password, change_seq) values (?, ?, ?, ?, 0)",
+                    id, user.getName(), user.getEmail(), user.getPassword());
+            return jpa.findById(id).orElseThrow();
+        }
+        shardRouter.bindUser(user.getId());
         return jpa.save(user);
     }
 
     @Override
     public Optional<User> findById(Long id) {
+        shardRouter.bindUser(id);
         return jpa.findById(id);
     }
 
     @Override
     public List<User> findAll() {
+        if (shardRouter.isEnabled()) {
+            return shardRouter.queryAll("select id, name, email, password from users", (rs, row) -> {
+                User user = new User();
+                user.setId(rs.getLong("id"));
+                user.setName(rs.getString("name"));
+                user.setEmail(rs.getString("email"));
+                user.setPassword(rs.getString("password"));
+                return user;
+            }).stream().sorted(Comparator.comparing(User::getId)).toList();
+        }
         return jpa.findAll();
     }
 
     @Override
     public void deleteById(Long id) {
+        shardRouter.bindUser(id);
         jpa.deleteById(id);
     }
 
     @Override
     public boolean existsById(Long id) {
+        shardRouter.bindUser(id);
         return jpa.existsById(id);
     }
 
     @Override
     public User findByEmail(String email) {
+        if (shardRouter.isEnabled()) {
+            Optional<Long> id = shardRouter.findUserIdByEmail(email);
+            if (id.isEmpty()) {
+                return null;
+            }
+            shardRouter.bindUser(id.get());
+            return jpa.findById(id.get()).orElse(null);
+        }
         return jpa.findByEmail(email);
     }
+
+    // Sem vínculo de shard: usado pelos jobs, que percorrem cada shard em um escopo próprio.
+    @Override
+    public List<Long> findIdsAfter(Long afterId, int limit) {
+        return jpa.findIdsAfter(afterId, Limit.of(limit));
+    }
+
+    @Override
+    public int deleteByIdInBulk(Long id) {
+        shardRouter.bindUser(id);
+        return jpa.deleteByIdInBulk(id);
+    }
 }
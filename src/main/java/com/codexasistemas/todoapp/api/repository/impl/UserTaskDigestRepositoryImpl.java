@@ -0,0 +1,41 @@
+package com.codexasistemas.todoapp.api.repository.impl;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.stereotype.Repository;
+
+import com.codexasistemas.todoapp.api.model.UserTaskDigest;
+import com.codexasistemas.todoapp.api.repository.interfaces.UserTaskDigestRepository;
+import com.codexasistemas.todoapp.api.repository.jpa.UserTaskDigestJpaRepository;
+
+@Repository
+public class UserTaskDigestRepositoryImpl implements UserTaskDigestRepository {
+
+    private final UserTaskDigestJpaRepository jpa;
+
+    public UserTaskDigestRepositoryImpl(UserTaskDigestJpaRepository jpa) {
+        this.jpa = jpa;
+    }
+
+    @Override
+    public Optional<UserTaskDigest> findByUserId(Long userId) {
+        return jpa.findById(userId);
+    }
+
+    @Override
+    public List<UserTaskDigest> findAllByUserIds(Collection<Long> userIds) {
+        return jpa.findAllById(userIds);
+    }
+
+    @Override
+    public List<UserTaskDigest> saveAll(Collection<UserTaskDigest> digests) {
+        return jpa.saveAll(digests);
+    }
+
+    @Override
+    public int deleteByUserId(Long userId) {
+        return jpa.deleteByUserIdInBulk(userId);
+    }
+}
@@ -0,0 +1,25 @@
+package com.codexasistemas.todoapp.api.repository.interfaces;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import com.codexasistemas.todoapp.api.model.ArchivedTask;
+
+public interface ArchivedTaskRepository {
+
+    public int archive(Collection<Long> taskIds, LocalDateTime archivedAt);
+
+    public List<ArchivedTask> findByUserId(Long userId);
+
+    public Optional<ArchivedTask> findById(Long id);
+
+    public int moveToCategory(Long fromCategoryId, Long toCategoryId, String toCategoryName);
+
+    public int deleteByCategoryId(Long categoryId);
+
+    public int renameTag(Long userId, String fromTagName, String toTagName);
+
+    public int deleteByUserIdOrCategoryUserId(Long userId);
+}
@@ -15,4 +15,8 @@ public interface CategoryRepository {
     public void deleteById(Long id);
 
     public List<Category> findByUserId(Long userId);
+
+    public int deleteByIdInBulk(Long id);
+
+    public int deleteByUserId(Long userId);
 } 
\ No newline at end of file
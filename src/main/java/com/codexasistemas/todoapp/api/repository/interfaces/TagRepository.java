@@ -16,4 +16,8 @@ public interface TagRepository {
     public void deleteById(Long id);
     
     public List<Tag> findByUserId(Long userId);
+
+    public int deleteByIdInBulk(Long id);
+
+    public int deleteByUserId(Long userId);
 } 
\ No newline at end of file
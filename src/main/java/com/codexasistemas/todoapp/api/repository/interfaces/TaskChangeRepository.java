@@ -0,0 +1,30 @@
+package com.codexasistemas.todoapp.api.repository.interfaces;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import com.codexasistemas.todoapp.api.model.TaskChange;
+
+public interface TaskChangeRepository {
+
+    public List<TaskChange> findByUserIdAfter(Long userId, long since, int limit);
+
+    public void recordByTaskIds(Collection<Long> taskIds, boolean deleted);
+
+    public void recordByCategoryId(Long categoryId, boolean deleted);
+
+    public void recordByTagId(Long tagId);
+
+    public void recordMoved(Long taskId, Long previousUserId);
+
+    public void deleteByUserId(Long userId);
+
+    public int recordMissing();
+
+    public long findPrunedSeq(Long userId);
+
+    // Remove até limit lápides anteriores a cutoff, registrando em cada usuário a maior
+    // sequência removida. Deve ser chamado dentro de uma transação.
+    public int pruneTombstones(LocalDateTime cutoff, int limit);
+}
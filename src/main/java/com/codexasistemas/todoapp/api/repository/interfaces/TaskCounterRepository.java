@@ -0,0 +1,35 @@
+package com.codexasistemas.todoapp.api.repository.interfaces;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import com.codexasistemas.todoapp.api.model.CategoryTaskCounter;
+import com.codexasistemas.todoapp.api.model.TagTaskCounter;
+
+public interface TaskCounterRepository {
+
+    public List<CategoryTaskCounter> findCategoryCountersByUserId(Long userId);
+
+    public List<TagTaskCounter> findTagCountersByUserId(Long userId);
+
+    public Optional<CategoryTaskCounter> findCategoryCounter(Long categoryId);
+
+    public List<TagTaskCounter> findTagCountersByCategoryId(Long categoryId);
+
+    public void incrementCategory(Long categoryId, Long userId, long open, long done, LocalDateTime lastCreatedAt);
+
+    public void incrementTag(Long tagId, Long categoryId, Long userId, long open, long done);
+
+    public void deleteByUserId(Long userId);
+
+    public void deleteByCategoryUserId(Long userId);
+
+    public void deleteByCategoryId(Long categoryId);
+
+    public void deleteByTagId(Long tagId);
+
+    public void rebuildByUserId(Long userId);
+
+    public void rebuildByTagId(Long tagId);
+}
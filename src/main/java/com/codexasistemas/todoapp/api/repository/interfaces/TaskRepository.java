@@ -1,13 +1,69 @@
 package com.codexasistemas.todoapp.api.repository.interfaces;
 
+import com.codexasistemas.todoapp.api.dto.task.TaskField;
+import com.codexasistemas.todoapp.api.dto.task.TaskResponseDto;
+import com.codexasistemas.todoapp.api.model.GeoCell;
 import com.codexasistemas.todoapp.api.model.Task;
+import com.codexasistemas.todoapp.api.repository.projection.CategoryCountView;
+import com.codexasistemas.todoapp.api.repository.projection.TagCountView;
+import com.codexasistemas.todoapp.api.repository.projection.TaskOwnerView;
+import com.codexasistemas.todoapp.api.repository.projection.TaskStateView;
+import com.codexasistemas.todoapp.api.repository.projection.UserDueCountView;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 public interface TaskRepository {
+
+    @FunctionalInterface
+    interface LocationCellHandler {
+        void accept(long taskId, long userId, long cell);
+    }
+
     Task save(Task task);
     Optional<Task> findById(Long id);
     List<Task> findAll();
     void deleteById(Long id);
     List<Task> findByUserId(Long userId);
-}
\ No newline at end of file
+    void streamByUserId(Long userId, Consumer<TaskResponseDto> consumer);
+    List<Map<String, Object>> findFieldsByUserId(Long userId, Set<TaskField> fields);
+    Optional<Map<String, Object>> findFieldsById(Long id, Set<TaskField> fields);
+    List<Map<String, Object>> findFieldsByCategoryId(Long categoryId, Set<TaskField> fields);
+    List<Long> insertAll(List<Task> tasks);
+    Optional<TaskStateView> findStateById(Long id);
+    List<TaskStateView> findStatesByUserIdAndIds(Long userId, Collection<Long> ids);
+    List<TaskStateView> findStatesByFilter(Long userId, Long categoryId, Long tagId, LocalDate dueBefore);
+    List<TaskStateView> findStatesByFilterAndIds(Long userId, Collection<Long> ids, Long categoryId, Long tagId,
+            LocalDate dueBefore);
+    int updateDone(Collection<Long> ids, boolean done);
+    // Só altera as tarefas que ainda estão no status oposto e não foram canceladas.
+    int updateDoneIfOpposite(Collection<Long> ids, boolean done);
+    int updateCanceledAt(Collection<Long> ids, LocalDateTime canceledAt);
+    int deleteAllByIds(Collection<Long> ids);
+    int moveToCategory(Long fromCategoryId, Long toCategoryId);
+    int[] moveTaskTags(Long fromTagId, Long toTagId);
+    List<TaskOwnerView> findLocatedOwnersByCategoryId(Long categoryId);
+    int deleteAllByCategoryId(Long categoryId);
+    List<TaskOwnerView> findOwnersByUserIdOrCategoryUserId(Long userId, int limit);
+    long countByUserIdOrCategoryUserId(Long userId);
+    List<Long> findIdsByTagUserId(Long userId);
+    int deleteTaskTagsByTagUserId(Long userId);
+    // limit nulo lista o intervalo inteiro.
+    List<Task> findOpenByUserIdAndDueDateBetween(Long userId, LocalDate after, LocalDate before, Integer limit);
+    List<Task> findByUserIdAndLocationCells(Long userId, GeoCell.Cover cover);
+    List<Task> findWithoutLocationCell(int limit);
+    List<TaskOwnerView> findArchivable(LocalDateTime cutoff, long afterId, int limit);
+    List<Long> findOrphanLocationIds(int limit);
+    int deleteOrphanLocations(Collection<Long> ids);
+    List<Task> findWithDetailsByIds(Collection<Long> ids);
+    void forEachLocationCell(LocationCellHandler handler);
+    List<UserDueCountView> countDueByUserIds(Collection<Long> userIds, LocalDate today);
+    List<CategoryCountView> countByCategoryForIds(Collection<Long> ids);
+    List<TagCountView> countByTagForIds(Collection<Long> ids);
+}
@@ -21,4 +21,8 @@ public interface UserRepository {
 
     public User findByEmail(String email);
 
+    public List<Long> findIdsAfter(Long afterId, int limit);
+
+    public int deleteByIdInBulk(Long id);
+
 }
@@ -0,0 +1,18 @@
+package com.codexasistemas.todoapp.api.repository.interfaces;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import com.codexasistemas.todoapp.api.model.UserTaskDigest;
+
+public interface UserTaskDigestRepository {
+
+    public Optional<UserTaskDigest> findByUserId(Long userId);
+
+    public List<UserTaskDigest> findAllByUserIds(Collection<Long> userIds);
+
+    public List<UserTaskDigest> saveAll(Collection<UserTaskDigest> digests);
+
+    public int deleteByUserId(Long userId);
+}
@@ -0,0 +1,303 @@
+package com.codexasistemas.todoapp.api.repository.jdbc;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.stereotype.Repository;
+
+import com.codexasistemas.todoapp.api.dto.location.LocationDto;
+import com.codexasistemas.todoapp.api.dto.task.TaskField;
+import com.codexasistemas.todoapp.api.dto.task.TaskResponseDto;
+import com.codexasistemas.todoapp.api.model.Tag;
+import com.codexasistemas.todoapp.api.model.Task;
+import com.codexasistemas.todoapp.api.repository.interfaces.TaskRepository;
+
+@Repository
+public class TaskJdbcRepository {
+
+    private static final String STREAM_BY_USER_SQL = """
+            SELECT t.id, t.title, t.description, t.done, t.created_at, t.due_date, t.canceled_at, t.updated_at,
+                   c.name AS category_name,
+                   l.latitude, l.longitude, l.location_name, l.location_description,
+                   g.name AS tag_name
+            FROM task t
+            JOIN category c ON c.id = t.category_id
+            LEFT JOIN location l ON l.id = t.location_id
+            LEFT JOIN task_tag tt ON tt.task_id = t.id
+            LEFT JOIN tag g ON g.id = tt.tag_id
+            WHERE t.user_id = ? AND t.canceled_at IS NULL
+            ORDER BY t.id
+            """;
+
+    private static final String LOCATION_CELLS_SQL = """
+            SELECT id, user_id, location_cell
+            FROM task
+            WHERE location_cell IS NOT NULL AND canceled_at IS NULL AND user_id IS NOT NULL
+            """;
+
+    private static final String FIELD_TAGS_SQL = """
+            SELECT tt.task_id, g.name
+            FROM task_tag tt
+            JOIN tag g ON g.id = tt.tag_id
+            JOIN task t ON t.id = tt.task_id
+            WHERE %s
+            """;
+
+    private static final String INSERT_TASK_SQL = """
+            INSERT INTO task (title, description, done, created_at, updated_at, due_date, user_id, category_id)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String INSERT_TASK_TAG_SQL = "INSERT INTO task_tag (task_id, tag_id) VALUES (?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final int fetchSize;
+
+    public TaskJdbcRepository(JdbcTemplate jdbcTemplate,
+            @Value("${todoapp.export.fetch-size:500}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.fetchSize = fetchSize;
+    }
+
+    // O driver do PostgreSQL só usa cursor (fetch size) com autocommit desligado,
+    // portanto este método deve ser chamado dentro de uma transação.
+    public void streamByUserId(Long userId, Consumer<TaskResponseDto> consumer) {
+        TaskRowAssembler assembler = new TaskRowAssembler(consumer);
+        jdbcTemplate.query(con -> {
+            var ps = con.prepareStatement(STREAM_BY_USER_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            ps.setLong(1, userId);
+            return ps;
+        }, assembler);
+        assembler.finish();
+    }
+
+    // Percorre a célula de localização de todas as tarefas não canceladas, sem montar
+    // entidades; assim como streamByUserId, deve ser chamado dentro de uma transação.
+    public void forEachLocationCell(TaskRepository.LocationCellHandler handler) {
+        jdbcTemplate.query(con -> {
+            var ps = con.prepareStatement(LOCATION_CELLS_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            return ps;
+        }, (RowCallbackHandler) rs -> handler.accept(rs.getLong(1), rs.getLong(2), rs.getLong(3)));
+    }
+
+    // Leitura com seleção de campos: monta o SELECT apenas com as colunas pedidas e só
+    // junta categoria e localização quando esses campos estão entre elas. As tags, se
+    // pedidas, vêm de uma segunda consulta com o mesmo filtro, sem multiplicar as linhas
+    // das tarefas. Cada tarefa vira um mapa com os nomes do JSON, na ordem de TaskField.
+    public List<Map<String, Object>> findFieldsByUserId(Long userId, Set<TaskField> fields) {
+        return findFields("t.user_id = ? AND t.canceled_at IS NULL", userId, fields);
+    }
+
+    public List<Map<String, Object>> findFieldsById(Long id, Set<TaskField> fields) {
+        return findFields("t.id = ?", id, fields);
+    }
+
+    public List<Map<String, Object>> findFieldsByCategoryId(Long categoryId, Set<TaskField> fields) {
+        return findFields("t.category_id = ?", categoryId, fields);
+    }
+
+    private List<Map<String, Object>> findFields(String where, Long param, Set<TaskField> fields) {
+        StringBuilder select = new StringBuilder("SELECT t.id");
+        StringBuilder from = new StringBuilder(" FROM task t");
+        for (TaskField field : fields) {
+            switch (field) {
+                case TITLE -> select.append(", t.title");
+                case DESCRIPTION -> select.append(", t.description");
+                case DONE -> select.append(", t.done");
+                case CREATED_AT -> select.append(", t.created_at");
+                case DUE_DATE -> select.append(", t.due_date");
+                case CANCELED_AT -> select.append(", t.canceled_at");
+                case UPDATED_AT -> select.append(", t.updated_at");
+                case CATEGORY -> {
+                    select.append(", c.name AS category_name");
+                    from.append(" JOIN category c ON c.id = t.category_id");
+                }
+                case LOCATION -> {
+                    select.append(", l.latitude, l.longitude, l.location_name, l.location_description");
+                    from.append(" LEFT JOIN location l ON l.id = t.location_id");
+                }
+                default -> {
+                }
+            }
+        }
+        String sql = select.append(from).append(" WHERE ").append(where).append(" ORDER BY t.id").toString();
+
+        Map<Long, List<String>> tags = fields.contains(TaskField.TAGS) ? findFieldTags(where, param) : Map.of();
+        return jdbcTemplate.query(sql, (rs, rowNum) -> {
+            long id = rs.getLong("id");
+            Map<String, Object> task = new LinkedHashMap<>();
+            for (TaskField field : fields) {
+                task.put(field.jsonName(), switch (field) {
+                    case ID -> id;
+                    case TITLE -> rs.getString("title");
+                    case DESCRIPTION -> rs.getString("description");
+                    case DONE -> rs.getBoolean("done");
+                    case CATEGORY -> rs.getString("category_name");
+                    case TAGS -> tags.getOrDefault(id, List.of());
+                    case CREATED_AT -> toLocalDateTime(rs.getTimestamp("created_at"));
+                    case DUE_DATE -> {
+                        Date due = rs.getDate("due_date");
+                        yield due != null ? due.toLocalDate() : null;
+                    }
+                    case CANCELED_AT -> toLocalDateTime(rs.getTimestamp("canceled_at"));
+                    case UPDATED_AT -> toLocalDateTime(rs.getTimestamp("updated_at"));
+                    case LOCATION -> {
+                        double latitude = rs.getDouble("latitude");
+                        yield rs.wasNull() ? null
+                                : new LocationDto(latitude, rs.getDouble("longitude"),
+                                        rs.getString("location_name"), rs.getString("location_description"));
+                    }
+                });
+            }
+            return task;
+        }, param);
+    }
+
+    private Map<Long, List<String>> findFieldTags(String where, Long param) {
+        Map<Long, List<String>> tags = new HashMap<>();
+        jdbcTemplate.query(FIELD_TAGS_SQL.formatted(where), (RowCallbackHandler) rs -> tags
+                .computeIfAbsent(rs.getLong(1), key -> new ArrayList<>()).add(rs.getString(2)), param);
+        return tags;
+    }
+
+    // Insere as tarefas (ainda não persistidas) em lote e devolve os ids gerados, na mesma ordem.
+    // Usuário, categoria e tags precisam já existir no banco.
+    public List<Long> insertAll(List<Task> tasks) {
+        if (tasks.isEmpty()) {
+            return List.of();
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        GeneratedKeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(con -> con.prepareStatement(INSERT_TASK_SQL, new String[] { "id" }),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Task task = tasks.get(i);
+                        ps.setString(1, task.getTitle());
+                        ps.setString(2, task.getDescription());
+                        ps.setBoolean(3, task.isDone());
+                        ps.setTimestamp(4, now);
+                        ps.setTimestamp(5, now);
+                        if (task.getDueDate() != null) {
+                            ps.setDate(6, Date.valueOf(task.getDueDate()));
+                        } else {
+                            ps.setNull(6, Types.DATE);
+                        }
+                        ps.setLong(7, task.getUser().getId());
+                        ps.setLong(8, task.getCategory().getId());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return tasks.size();
+                    }
+                }, keyHolder);
+
+        List<Long> ids = new ArrayList<>(tasks.size());
+        for (Map<String, Object> keys : keyHolder.getKeyList()) {
+            ids.add(((Number) keys.values().iterator().next()).longValue());
+        }
+
+        List<long[]> taskTags = new ArrayList<>();
+        for (int i = 0; i < tasks.size(); i++) {
+            if (tasks.get(i).getTags() == null) {
+                continue;
+            }
+            for (Tag tag : tasks.get(i).getTags()) {
+                taskTags.add(new long[] { ids.get(i), tag.getId() });
+            }
+        }
+        if (!taskTags.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_TASK_TAG_SQL, taskTags, taskTags.size(), (ps, pair) -> {
+                ps.setLong(1, pair[0]);
+                ps.setLong(2, pair[1]);
+            });
+        }
+        return ids;
+    }
+
+    // As linhas chegam ordenadas por id da tarefa, uma por tag; agrupa as linhas
+    // consecutivas da mesma tarefa e emite o DTO assim que o id muda.
+    private static class TaskRowAssembler implements RowCallbackHandler {
+
+        private final Consumer<TaskResponseDto> consumer;
+
+        private Long id;
+        private String title;
+        private String description;
+        private boolean done;
+        private LocalDateTime createdAt;
+        private LocalDate dueDate;
+        private LocalDateTime canceledAt;
+        private LocalDateTime updatedAt;
+        private String categoryName;
+        private LocationDto location;
+        private List<String> tags = new ArrayList<>();
+
+        TaskRowAssembler(Consumer<TaskResponseDto> consumer) {
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            long rowId = rs.getLong("id");
+            if (id == null || id != rowId) {
+                finish();
+                id = rowId;
+                title = rs.getString("title");
+                description = rs.getString("description");
+                done = rs.getBoolean("done");
+                createdAt = toLocalDateTime(rs.getTimestamp("created_at"));
+                Date due = rs.getDate("due_date");
+                dueDate = due != null ? due.toLocalDate() : null;
+                canceledAt = toLocalDateTime(rs.getTimestamp("canceled_at"));
+                updatedAt = toLocalDateTime(rs.getTimestamp("updated_at"));
+                categoryName = rs.getString("category_name");
+                double latitude = rs.getDouble("latitude");
+                location = rs.wasNull() ? null
+                        : new LocationDto(latitude, rs.getDouble("longitude"),
+                                rs.getString("location_name"), rs.getString("location_description"));
+                tags = new ArrayList<>();
+            }
+            String tagName = rs.getString("tag_name");
+            if (tagName != null) {
+                tags.add(tagName);
+            }
+        }
+
+        void finish() {
+            if (id == null) {
+                return;
+            }
+            consumer.accept(new TaskResponseDto(id, title, description, done, categoryName, tags,
+                    createdAt, dueDate, canceledAt, updatedAt, location));
+            id = null;
+        }
+
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
@@ -0,0 +1,85 @@
+package com.codexasistemas.todoapp.api.repository.jpa;
+
+import com.codexasistemas.todoapp.api.model.ArchivedTask;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface ArchivedTaskJpaRepository extends JpaRepository<ArchivedTask, Long> {
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "insert into task_archive (id, title, description, done, created_at, due_date, canceled_at, "
+            + "updated_at, user_id, category_id, category_name, latitude, longitude, location_name, "
+            + "location_description, archived_at) "
+            + "select t.id, t.title, t.description, t.done, t.created_at, t.due_date, t.canceled_at, t.updated_at, "
+            + "t.user_id, t.category_id, c.name, l.latitude, l.longitude, l.location_name, l.location_description, "
+            + ":archivedAt "
+            + "from task t join category c on c.id = t.category_id left join location l on l.id = t.location_id "
+            + "where t.id in (:ids)", nativeQuery = true)
+    int insertFromTaskIdIn(@Param("ids") Collection<Long> ids, @Param("archivedAt") LocalDateTime archivedAt);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "insert into task_archive_tag (task_id, tag_name) "
+            + "select tt.task_id, g.name from task_tag tt join tag g on g.id = tt.tag_id where tt.task_id in (:ids)",
+            nativeQuery = true)
+    int insertTagsFromTaskIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select distinct a from ArchivedTask a left join fetch a.tags where a.userId = :userId "
+            + "and a.canceledAt is null order by a.id")
+    List<ArchivedTask> findWithTagsByUserId(@Param("userId") Long userId);
+
+    @Query("select a from ArchivedTask a left join fetch a.tags where a.id = :id")
+    Optional<ArchivedTask> findWithTagsById(@Param("id") Long id);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "update task_archive set category_id = :toId, category_name = :toName where category_id = :fromId",
+            nativeQuery = true)
+    int updateCategoryByCategoryId(@Param("fromId") Long fromId, @Param("toId") Long toId,
+            @Param("toName") String toName);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "delete from task_archive_tag where task_id in "
+            + "(select id from task_archive where category_id = :categoryId)", nativeQuery = true)
+    int deleteTagsByCategoryId(@Param("categoryId") Long categoryId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "delete from task_archive where category_id = :categoryId", nativeQuery = true)
+    int deleteByCategoryIdInBulk(@Param("categoryId") Long categoryId);
+
+    // O arquivo guarda só o nome das tags: a fusão troca o nome nas tarefas arquivadas do
+    // usuário dono das tags (e das categorias dele), removendo antes a origem das tarefas
+    // que já têm o destino.
+    @Modifying(flushAutomatically = true)
+    @Query(value = "delete from task_archive_tag where tag_name = :fromName "
+            + "and task_id in (select id from task_archive where user_id = :userId "
+            + "or category_id in (select id from category where user_id = :userId)) "
+            + "and task_id in (select d.task_id from task_archive_tag d where d.tag_name = :toName)",
+            nativeQuery = true)
+    int deleteTagNameDuplicates(@Param("userId") Long userId, @Param("fromName") String fromName,
+            @Param("toName") String toName);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "update task_archive_tag set tag_name = :toName where tag_name = :fromName "
+            + "and task_id in (select id from task_archive where user_id = :userId "
+            + "or category_id in (select id from category where user_id = :userId))", nativeQuery = true)
+    int renameTagName(@Param("userId") Long userId, @Param("fromName") String fromName,
+            @Param("toName") String toName);
+
+    // Tarefas arquivadas do usuário e de outros usuários nas categorias dele.
+    @Modifying(flushAutomatically = true)
+    @Query(value = "delete from task_archive_tag where task_id in (select id from task_archive where user_id = :userId "
+            + "or category_id in (select id from category where user_id = :userId))", nativeQuery = true)
+    int deleteTagsByUserIdOrCategoryUserId(@Param("userId") Long userId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "delete from task_archive where user_id = :userId "
+            + "or category_id in (select id from category where user_id = :userId)", nativeQuery = true)
+    int deleteByUserIdOrCategoryUserIdInBulk(@Param("userId") Long userId);
+}
@@ -1,10 +1,21 @@
 package com.codexasistemas.todoapp.api.repository.jpa;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.codexasistemas.todoapp.api.model.Category;
 import java.util.List;
 
 public interface CategoryJpaRepository extends JpaRepository<Category, Long> {
     List<Category> findByUserId(Long userId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Category c where c.id = :id")
+    int deleteByIdInBulk(@Param("id") Long id);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Category c where c.user.id = :userId")
+    int deleteByUserIdInBulk(@Param("userId") Long userId);
 }
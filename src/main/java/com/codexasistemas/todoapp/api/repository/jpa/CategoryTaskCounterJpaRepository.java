@@ -0,0 +1,55 @@
+package com.codexasistemas.todoapp.api.repository.jpa;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.codexasistemas.todoapp.api.model.CategoryTaskCounter;
+
+public interface CategoryTaskCounterJpaRepository extends JpaRepository<CategoryTaskCounter, Long> {
+
+    List<CategoryTaskCounter> findByUserId(Long userId);
+
+    @Modifying(flushAutomatically = true)
+    @Query("update CategoryTaskCounter c set c.openCount = c.openCount + :open, c.doneCount = c.doneCount + :done "
+            + "where c.categoryId = :categoryId")
+    int increment(@Param("categoryId") Long categoryId, @Param("open") long open, @Param("done") long done);
+
+    @Modifying(flushAutomatically = true)
+    @Query("update CategoryTaskCounter c set c.openCount = c.openCount + :open, c.doneCount = c.doneCount + :done, "
+            + "c.lastCreatedAt = case when c.lastCreatedAt is null or c.lastCreatedAt < :createdAt "
+            + "then :createdAt else c.lastCreatedAt end "
+            + "where c.categoryId = :categoryId")
+    int increment(@Param("categoryId") Long categoryId, @Param("open") long open, @Param("done") long done,
+            @Param("createdAt") LocalDateTime createdAt);
+
+    // Serializa a criação do contador: quem chega depois espera o commit de quem criou a linha.
+    @Query(nativeQuery = true, value = "SELECT id FROM category WHERE id = :categoryId FOR UPDATE")
+    List<Long> lockCategory(@Param("categoryId") Long categoryId);
+
+    @Modifying(flushAutomatically = true)
+    @Query("delete from CategoryTaskCounter c where c.userId = :userId")
+    int deleteByUserIdInBulk(@Param("userId") Long userId);
+
+    @Modifying(flushAutomatically = true)
+    @Query("delete from CategoryTaskCounter c where c.categoryId = :categoryId")
+    int deleteByCategoryIdInBulk(@Param("categoryId") Long categoryId);
+
+    @Modifying(flushAutomatically = true)
+    @Query(nativeQuery = true, value = """
+            INSERT INTO category_task_counter (category_id, user_id, open_count, done_count, last_created_at)
+            SELECT c.id, c.user_id,
+                   SUM(CASE WHEN t.done = false THEN 1 ELSE 0 END),
+                   SUM(CASE WHEN t.done = true THEN 1 ELSE 0 END),
+                   MAX(t.created_at)
+            FROM category c
+            LEFT JOIN task t ON t.category_id = c.id AND t.canceled_at IS NULL
+            WHERE c.user_id = :userId
+            GROUP BY c.id, c.user_id
+            """)
+    int insertFromTasksByUserId(@Param("userId") Long userId);
+}
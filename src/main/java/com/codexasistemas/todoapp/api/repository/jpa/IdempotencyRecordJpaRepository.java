@@ -0,0 +1,42 @@
+package com.codexasistemas.todoapp.api.repository.jpa;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.codexasistemas.todoapp.api.model.IdempotencyRecord;
+
+public interface IdempotencyRecordJpaRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    // INSERT simples: com a chave já existente falha pela chave primária, o que torna a
+    // reserva atômica entre instâncias (save faria merge e sobrescreveria a linha).
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            INSERT INTO idempotency_key (idempotency_key, fingerprint, expires_at)
+            VALUES (:key, :fingerprint, :expiresAt)
+            """)
+    int insert(@Param("key") String key, @Param("fingerprint") String fingerprint,
+            @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Modifying
+    @Query("update IdempotencyRecord r set r.status = :status, r.contentType = :contentType, "
+            + "r.location = :location, r.body = :body, r.expiresAt = :expiresAt where r.key = :key")
+    int complete(@Param("key") String key, @Param("status") int status, @Param("contentType") String contentType,
+            @Param("location") String location, @Param("body") byte[] body,
+            @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.key = :key")
+    int deleteByKeyInBulk(@Param("key") String key);
+
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.key = :key and r.expiresAt <= :now")
+    int deleteExpiredByKey(@Param("key") String key, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.expiresAt <= :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -1,10 +1,21 @@
 package com.codexasistemas.todoapp.api.repository.jpa;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.codexasistemas.todoapp.api.model.Tag;
 import java.util.List;
 
 public interface TagJpaRepository extends JpaRepository<Tag, Long> {
     List<Tag> findByUserId(Long userId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Tag g where g.id = :id")
+    int deleteByIdInBulk(@Param("id") Long id);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Tag g where g.user.id = :userId")
+    int deleteByUserIdInBulk(@Param("userId") Long userId);
 }
@@ -0,0 +1,72 @@
+package com.codexasistemas.todoapp.api.repository.jpa;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.codexasistemas.todoapp.api.model.TagTaskCounter;
+
+public interface TagTaskCounterJpaRepository extends JpaRepository<TagTaskCounter, TagTaskCounter.Key> {
+
+    List<TagTaskCounter> findByUserId(Long userId);
+
+    List<TagTaskCounter> findByCategoryId(Long categoryId);
+
+    @Modifying(flushAutomatically = true)
+    @Query("update TagTaskCounter c set c.openCount = c.openCount + :open, c.doneCount = c.doneCount + :done "
+            + "where c.tagId = :tagId and c.categoryId = :categoryId")
+    int increment(@Param("tagId") Long tagId, @Param("categoryId") Long categoryId, @Param("open") long open,
+            @Param("done") long done);
+
+    @Query(nativeQuery = true, value = "SELECT id FROM tag WHERE id = :tagId FOR UPDATE")
+    List<Long> lockTag(@Param("tagId") Long tagId);
+
+    @Modifying(flushAutomatically = true)
+    @Query("delete from TagTaskCounter c where c.userId = :userId")
+    int deleteByUserIdInBulk(@Param("userId") Long userId);
+
+    // Contadores de tags de outros usuários nas categorias do usuário.
+    @Modifying(flushAutomatically = true)
+    @Query("delete from TagTaskCounter c where c.categoryId in "
+            + "(select g.id from Category g where g.user.id = :userId)")
+    int deleteByCategoryUserIdInBulk(@Param("userId") Long userId);
+
+    @Modifying(flushAutomatically = true)
+    @Query("delete from TagTaskCounter c where c.categoryId = :categoryId")
+    int deleteByCategoryIdInBulk(@Param("categoryId") Long categoryId);
+
+    @Modifying(flushAutomatically = true)
+    @Query("delete from TagTaskCounter c where c.tagId = :tagId")
+    int deleteByTagIdInBulk(@Param("tagId") Long tagId);
+
+    @Modifying(flushAutomatically = true)
+    @Query(nativeQuery = true, value = """
+            INSERT INTO tag_task_counter (tag_id, category_id, user_id, open_count, done_count)
+            SELECT tt.tag_id, t.category_id, g.user_id,
+                   SUM(CASE WHEN t.done = false THEN 1 ELSE 0 END),
+                   SUM(CASE WHEN t.done = true THEN 1 ELSE 0 END)
+            FROM task_tag tt
+            JOIN task t ON t.id = tt.task_id
+            JOIN tag g ON g.id = tt.tag_id
+            WHERE g.user_id = :userId AND t.canceled_at IS NULL
+            GROUP BY tt.tag_id, t.category_id, g.user_id
+            """)
+    int insertFromTasksByUserId(@Param("userId") Long userId);
+
+    @Modifying(flushAutomatically = true)
+    @Query(nativeQuery = true, value = """
+            INSERT INTO tag_task_counter (tag_id, category_id, user_id, open_count, done_count)
+            SELECT tt.tag_id, t.category_id, g.user_id,
+                   SUM(CASE WHEN t.done = false THEN 1 ELSE 0 END),
+                   SUM(CASE WHEN t.done = true THEN 1 ELSE 0 END)
+            FROM task_tag tt
+            JOIN task t ON t.id = tt.task_id
+            JOIN tag g ON g.id = tt.tag_id
+            WHERE tt.tag_id = :tagId AND t.canceled_at IS NULL
+            GROUP BY tt.tag_id, t.category_id, g.user_id
+            """)
+    int insertFromTasksByTagId(@Param("tagId") Long tagId);
+}
@@ -0,0 +1,177 @@
+package com.codexasistemas.todoapp.api.repository.jpa;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.codexasistemas.todoapp.api.model.TaskChange;
+
+public interface TaskChangeJpaRepository extends JpaRepository<TaskChange, Long> {
+
+    List<TaskChange> findByUserIdAndSeqGreaterThanOrderBySeq(Long userId, Long since, Limit limit);
+
+    // Bloqueia os usuários donos das tarefas até o fim da transação, em ordem de id para
+    // evitar deadlock. Assim as alterações de um mesmo usuário recebem sequências na ordem em
+    // que são confirmadas, e um cliente nunca avança o since além de uma alteração ainda não visível.
+    @Query(nativeQuery = true, value = """
+            SELECT u.id FROM users u
+            WHERE u.id IN (SELECT t.user_id FROM task t WHERE t.id IN (:ids))
+            ORDER BY u.id FOR UPDATE
+            """)
+    List<Long> lockUsersByTaskIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(nativeQuery = true, value = """
+            SELECT u.id FROM users u
+            WHERE u.id IN (SELECT t.user_id FROM task t WHERE t.category_id = :categoryId)
+            ORDER BY u.id FOR UPDATE
+            """)
+    List<Long> lockUsersByCategoryId(@Param("categoryId") Long categoryId);
+
+    @Query(nativeQuery = true, value = """
+            SELECT u.id FROM users u
+            WHERE u.id IN (SELECT t.user_id FROM task t JOIN task_tag tt ON tt.task_id = t.id WHERE tt.tag_id = :tagId)
+            ORDER BY u.id FOR UPDATE
+            """)
+    List<Long> lockUsersByTagId(@Param("tagId") Long tagId);
+
+    @Query(nativeQuery = true, value = "SELECT id FROM users WHERE id = :userId FOR UPDATE")
+    List<Long> lockUser(@Param("userId") Long userId);
+
+    // Remove apenas a linha do dono atual; lápides deixadas para donos anteriores permanecem.
+    @Modifying(flushAutomatically = true)
+    @Query(nativeQuery = true, value = """
+            DELETE FROM task_change c
+            WHERE c.task_id IN (:ids) AND c.user_id = (SELECT t.user_id FROM task t WHERE t.id = c.task_id)
+            """)
+    int deleteByTaskIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true)
+    @Query(nativeQuery = true, value = """
+            DELETE FROM task_change c
+            WHERE c.task_id IN (SELECT t.id FROM task t WHERE t.category_id = :categoryId AND t.user_id = c.user_id)
+            """)
+    int deleteByCategoryId(@Param("categoryId") Long categoryId);
+
+    @Modifying(flushAutomatically = true)
+    @Query(nativeQuery = true, value = """
+            DELETE FROM task_change c
+            WHERE c.task_id IN (SELECT tt.task_id FROM task_tag tt JOIN task t ON t.id = tt.task_id
+                                WHERE tt.tag_id = :tagId AND t.user_id = c.user_id)
+            """)
+    int deleteByTagId(@Param("tagId") Long tagId);
+
+    @Modifying(flushAutomatically = true)
+    @Query("delete from TaskChange c where c.taskId = :taskId and c.userId = :userId")
+    int deleteByTaskIdAndUserIdInBulk(@Param("taskId") Long taskId, @Param("userId") Long userId);
+
+    @Modifying(flushAutomatically = true)
+    @Query(nativeQuery = true, value = """
+            INSERT INTO task_change (task_id, user_id, seq, deleted, changed_at)
+            SELECT t.id, t.user_id, COALESCE(u.change_seq, 0) + ROW_NUMBER() OVER (PARTITION BY t.user_id ORDER BY t.id),
+                   :deleted, :changedAt
+            FROM task t JOIN users u ON u.id = t.user_id
+            WHERE t.id IN (:ids)
+            """)
+    int insertByTaskIdIn(@Param("ids") Collection<Long> ids, @Param("deleted") boolean deleted,
+            @Param("changedAt") LocalDateTime changedAt);
+
+    @Modifying(flushAutomatically = true)
+    @Query(nativeQuery = true, value = """
+            INSERT INTO task_change (task_id, user_id, seq, deleted, changed_at)
+            SELECT t.id, t.user_id, COALESCE(u.change_seq, 0) + ROW_NUMBER() OVER (PARTITION BY t.user_id ORDER BY t.id),
+                   :deleted, :changedAt
+            FROM task t JOIN users u ON u.id = t.user_id
+            WHERE t.category_id = :categoryId
+            """)
+    int insertByCategoryId(@Param("categoryId") Long categoryId, @Param("deleted") boolean deleted,
+            @Param("changedAt") LocalDateTime changedAt);
+
+    @Modifying(flushAutomatically = true)
+    @Query(nativeQuery = true, value = """
+            INSERT INTO task_change (task_id, user_id, seq, deleted, changed_at)
+            SELECT t.id, t.user_id, COALESCE(u.change_seq, 0) + ROW_NUMBER() OVER (PARTITION BY t.user_id ORDER BY t.id),
+                   false, :changedAt
+            FROM task t JOIN users u ON u.id = t.user_id
+            WHERE t.id IN (SELECT task_id FROM task_tag WHERE tag_id = :tagId)
+            """)
+    int insertByTagId(@Param("tagId") Long tagId, @Param("changedAt") LocalDateTime changedAt);
+
+    @Modifying(flushAutomatically = true)
+    @Query(nativeQuery = true, value = """
+            INSERT INTO task_change (task_id, user_id, seq, deleted, changed_at)
+            SELECT :taskId, u.id, COALESCE(u.change_seq, 0) + 1, true, :changedAt FROM users u WHERE u.id = :userId
+            """)
+    int insertDeletedForUser(@Param("taskId") Long taskId, @Param("userId") Long userId,
+            @Param("changedAt") LocalDateTime changedAt);
+
+    // Avança o contador dos usuários até a maior sequência gravada; chamado após os INSERTs
+    // acima, com as linhas dos usuários ainda bloqueadas.
+    @Modifying(flushAutomatically = true)
+    @Query(nativeQuery = true, value = """
+            UPDATE users u SET change_seq = (SELECT MAX(c.seq) FROM task_change c WHERE c.user_id = u.id)
+            WHERE u.id IN (:userIds)
+            """)
+    int advanceChangeSeq(@Param("userIds") Collection<Long> userIds);
+
+    @Modifying(flushAutomatically = true)
+    @Query("delete from TaskChange c where c.userId = :userId")
+    int deleteByUserIdInBulk(@Param("userId") Long userId);
+
+    // Linhas e usuários anteriores ao contador: a sequência das linhas antigas é o id, que
+    // era o cursor até então, e os contadores começam acima de qualquer id já entregue.
+    @Modifying(flushAutomatically = true)
+    @Query(nativeQuery = true, value = "UPDATE task_change SET seq = id WHERE seq IS NULL")
+    int fillMissingSeq();
+
+    @Modifying(flushAutomatically = true)
+    @Query(nativeQuery = true, value = """
+            UPDATE users SET change_seq = (SELECT COALESCE(MAX(c.seq), 0) FROM task_change c)
+            WHERE change_seq IS NULL
+            """)
+    int fillMissingChangeSeq();
+
+    // Tarefas gravadas antes da existência do log (ou fora da aplicação).
+    @Modifying(flushAutomatically = true)
+    @Query(nativeQuery = true, value = """
+            INSERT INTO task_change (task_id, user_id, seq, deleted, changed_at)
+            SELECT t.id, t.user_id, COALESCE(u.change_seq, 0) + ROW_NUMBER() OVER (PARTITION BY t.user_id ORDER BY t.id),
+                   false, COALESCE(t.updated_at, t.created_at)
+            FROM task t JOIN users u ON u.id = t.user_id
+            WHERE NOT EXISTS (SELECT 1 FROM task_change c WHERE c.task_id = t.id)
+            """)
+    int insertMissing();
+
+    @Modifying(flushAutomatically = true)
+    @Query(nativeQuery = true, value = """
+            UPDATE users u SET change_seq = (SELECT MAX(c.seq) FROM task_change c WHERE c.user_id = u.id)
+            WHERE EXISTS (SELECT 1 FROM task_change c WHERE c.user_id = u.id AND c.seq > u.change_seq)
+            """)
+    int advanceAllChangeSeq();
+
+    // Lápides mais antigas que o horizonte de retenção, em ordem de id para lotes estáveis.
+    @Query("select c from TaskChange c where c.deleted = true and c.changedAt < :cutoff order by c.id")
+    List<TaskChange> findTombstonesBefore(@Param("cutoff") LocalDateTime cutoff, Limit limit);
+
+    @Query(nativeQuery = true, value = "SELECT id FROM users WHERE id IN (:userIds) ORDER BY id FOR UPDATE")
+    List<Long> lockUsersByIdIn(@Param("userIds") Collection<Long> userIds);
+
+    @Modifying(flushAutomatically = true)
+    @Query(nativeQuery = true, value = """
+            UPDATE users SET pruned_seq = :seq
+            WHERE id = :userId AND (pruned_seq IS NULL OR pruned_seq < :seq)
+            """)
+    int raisePrunedSeq(@Param("userId") Long userId, @Param("seq") Long seq);
+
+    @Modifying(flushAutomatically = true)
+    @Query("delete from TaskChange c where c.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(nativeQuery = true, value = "SELECT COALESCE(pruned_seq, 0) FROM users WHERE id = :userId")
+    List<Long> findPrunedSeq(@Param("userId") Long userId);
+}
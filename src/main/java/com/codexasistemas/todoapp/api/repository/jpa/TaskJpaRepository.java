@@ -1,10 +1,199 @@
 package com.codexasistemas.todoapp.api.repository.jpa;
 
 import com.codexasistemas.todoapp.api.model.Task;
+import com.codexasistemas.todoapp.api.repository.projection.CategoryCountView;
+import com.codexasistemas.todoapp.api.repository.projection.TagCountView;
+import com.codexasistemas.todoapp.api.repository.projection.TaskOwnerView;
+import com.codexasistemas.todoapp.api.repository.projection.TaskStateView;
+import com.codexasistemas.todoapp.api.repository.projection.UserDueCountView;
+
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface TaskJpaRepository extends JpaRepository<Task, Long> {
     List<Task> findByUserIdAndCanceledAtIsNull(Long userId);
     List<Task> findByCanceledAtIsNull();
-}
\ No newline at end of file
+
+    @Query("select new com.codexasistemas.todoapp.api.repository.projection.TaskStateView(t.id, t.done, t.canceledAt, "
+            + "t.locationCell) "
+            + "from Task t where t.id = :id")
+    Optional<TaskStateView> findStateById(@Param("id") Long id);
+
+    @Query("select new com.codexasistemas.todoapp.api.repository.projection.TaskStateView(t.id, t.done, t.canceledAt, "
+            + "t.locationCell) "
+            + "from Task t where t.user.id = :userId and t.id in :ids")
+    List<TaskStateView> findStatesByUserIdAndIdIn(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
+
+    @Query("select new com.codexasistemas.todoapp.api.repository.projection.TaskStateView(t.id, t.done, t.canceledAt, "
+            + "t.locationCell) "
+            + "from Task t where t.user.id = :userId and t.canceledAt is null "
+            + "and (:categoryId is null or t.category.id = :categoryId) "
+            + "and (:tagId is null or exists (select 1 from t.tags g where g.id = :tagId)) "
+            + "and (:dueBefore is null or t.dueDate < :dueBefore)")
+    List<TaskStateView> findStatesByFilter(@Param("userId") Long userId, @Param("categoryId") Long categoryId,
+            @Param("tagId") Long tagId, @Param("dueBefore") LocalDate dueBefore);
+
+    @Query("select new com.codexasistemas.todoapp.api.repository.projection.TaskStateView(t.id, t.done, t.canceledAt, "
+            + "t.locationCell) "
+            + "from Task t where t.user.id = :userId and t.id in :ids and t.canceledAt is null "
+            + "and (:categoryId is null or t.category.id = :categoryId) "
+            + "and (:tagId is null or exists (select 1 from t.tags g where g.id = :tagId)) "
+            + "and (:dueBefore is null or t.dueDate < :dueBefore)")
+    List<TaskStateView> findStatesByFilterAndIdIn(@Param("userId") Long userId, @Param("ids") Collection<Long> ids,
+            @Param("categoryId") Long categoryId, @Param("tagId") Long tagId, @Param("dueBefore") LocalDate dueBefore);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Task t set t.done = :done, t.updatedAt = :updatedAt where t.id in :ids")
+    int updateDoneByIdIn(@Param("ids") Collection<Long> ids, @Param("done") boolean done,
+            @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Task t set t.done = :done, t.updatedAt = :updatedAt "
+            + "where t.id in :ids and t.done <> :done and t.canceledAt is null")
+    int updateDoneByIdInIfOpposite(@Param("ids") Collection<Long> ids, @Param("done") boolean done,
+            @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Task t set t.canceledAt = :canceledAt, t.updatedAt = :canceledAt where t.id in :ids")
+    int updateCanceledAtByIdIn(@Param("ids") Collection<Long> ids, @Param("canceledAt") LocalDateTime canceledAt);
+
+    @Query("select t.location.id from Task t where t.id in :ids and t.location is not null")
+    List<Long> findLocationIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "delete from task_tag where task_id in (:ids)", nativeQuery = true)
+    int deleteTaskTagsByTaskIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "insert into task_tag (task_id, tag_id) "
+            + "select tt.task_id, :toTagId from task_tag tt where tt.tag_id = :fromTagId "
+            + "and not exists (select 1 from task_tag dup where dup.task_id = tt.task_id and dup.tag_id = :toTagId)",
+            nativeQuery = true)
+    int insertTaskTagsFromTag(@Param("fromTagId") Long fromTagId, @Param("toTagId") Long toTagId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "delete from task_tag where tag_id = :tagId", nativeQuery = true)
+    int deleteTaskTagsByTagId(@Param("tagId") Long tagId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Task t where t.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Location l where l.id in :ids")
+    int deleteLocationsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select l.id from Location l where not exists (select 1 from Task t where t.location = l) "
+            + "order by l.id")
+    List<Long> findOrphanLocationIds(Limit limit);
+
+    // Confere de novo a ausência de tarefa, caso a localização tenha sido associada depois da busca.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Location l where l.id in :ids and not exists (select 1 from Task t where t.location = l)")
+    int deleteOrphanLocationsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Tarefas do usuário e tarefas de outros usuários nas categorias dele.
+    @Query("select new com.codexasistemas.todoapp.api.repository.projection.TaskOwnerView(t.id, t.user.id, "
+            + "t.locationCell) "
+            + "from Task t where t.user.id = :userId "
+            + "or t.category.id in (select c.id from Category c where c.user.id = :userId) order by t.id")
+    List<TaskOwnerView> findOwnersByUserIdOrCategoryUserId(@Param("userId") Long userId, Limit limit);
+
+    @Query("select count(t) from Task t where t.user.id = :userId "
+            + "or t.category.id in (select c.id from Category c where c.user.id = :userId)")
+    long countByUserIdOrCategoryUserId(@Param("userId") Long userId);
+
+    @Query("select distinct t.id from Task t join t.tags g where g.user.id = :userId")
+    List<Long> findIdsByTagUserId(@Param("userId") Long userId);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "delete from task_tag where tag_id in (select id from tag where user_id = :userId)",
+            nativeQuery = true)
+    int deleteTaskTagsByTagUserId(@Param("userId") Long userId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "update task set category_id = :toId, updated_at = :updatedAt where category_id = :fromId",
+            nativeQuery = true)
+    int updateCategoryIdByCategoryId(@Param("fromId") Long fromId, @Param("toId") Long toId,
+            @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Query("select new com.codexasistemas.todoapp.api.repository.projection.TaskOwnerView(t.id, t.user.id, "
+            + "t.locationCell) "
+            + "from Task t where t.category.id = :categoryId and t.locationCell is not null")
+    List<TaskOwnerView> findLocatedOwnersByCategoryId(@Param("categoryId") Long categoryId);
+
+    @Query("select t.location.id from Task t where t.category.id = :categoryId and t.location is not null")
+    List<Long> findLocationIdsByCategoryId(@Param("categoryId") Long categoryId);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "delete from task_tag where task_id in (select id from task where category_id = :categoryId)",
+            nativeQuery = true)
+    int deleteTaskTagsByCategoryId(@Param("categoryId") Long categoryId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Task t where t.category.id = :categoryId")
+    int deleteByCategoryIdInBulk(@Param("categoryId") Long categoryId);
+
+    @Query("select t from Task t where t.user.id = :userId and t.done = false and t.canceledAt is null "
+            + "and t.dueDate is not null "
+            + "and (:after is null or t.dueDate >= :after) "
+            + "and (:before is null or t.dueDate < :before) "
+            + "order by t.dueDate, t.id")
+    List<Task> findOpenByUserIdAndDueDateBetween(@Param("userId") Long userId, @Param("after") LocalDate after,
+            @Param("before") LocalDate before, Limit limit);
+
+    @Query("select t from Task t join fetch t.location l left join fetch t.tags where t.user.id = :userId "
+            + "and t.canceledAt is null "
+            + "and t.locationCell >= :from and t.locationCell < :to "
+            + "and l.latitude between :minLat and :maxLat and l.longitude between :minLon and :maxLon")
+    List<Task> findByUserIdAndLocationCellRange(@Param("userId") Long userId, @Param("from") long from,
+            @Param("to") long to, @Param("minLat") double minLat, @Param("maxLat") double maxLat,
+            @Param("minLon") double minLon, @Param("maxLon") double maxLon);
+
+    List<Task> findByLocationIsNotNullAndLocationCellIsNull(Limit limit);
+
+    // Tarefas canceladas ou concluídas antes do corte, com id acima do cursor; a conclusão é
+    // datada pela última alteração, já que não há coluna própria para ela. No PostgreSQL, o
+    // índice parcial idx_task_archivable (schema-postgresql.sql) percorre só as encerradas.
+    @Query("select new com.codexasistemas.todoapp.api.repository.projection.TaskOwnerView(t.id, t.user.id, "
+            + "t.locationCell) "
+            + "from Task t where t.id > :afterId and ("
+            + "(t.canceledAt is not null and t.canceledAt < :cutoff) "
+            + "or (t.canceledAt is null and t.done = true and coalesce(t.updatedAt, t.createdAt) < :cutoff)) "
+            + "order by t.id")
+    List<TaskOwnerView> findArchivable(@Param("cutoff") LocalDateTime cutoff, @Param("afterId") Long afterId,
+            Limit limit);
+
+    @Query("select distinct t from Task t join fetch t.category left join fetch t.location left join fetch t.tags "
+            + "where t.id in :ids")
+    List<Task> findWithDetailsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select new com.codexasistemas.todoapp.api.repository.projection.UserDueCountView(t.user.id, "
+            + "sum(case when t.dueDate < :today then 1 else 0 end), "
+            + "sum(case when t.dueDate = :today then 1 else 0 end)) "
+            + "from Task t where t.user.id in :userIds and t.done = false and t.canceledAt is null "
+            + "and t.dueDate <= :today group by t.user.id")
+    List<UserDueCountView> countDueByUserIdIn(@Param("userIds") Collection<Long> userIds,
+            @Param("today") LocalDate today);
+
+    @Query("select new com.codexasistemas.todoapp.api.repository.projection.CategoryCountView("
+            + "c.id, c.user.id, t.done, count(t), max(t.createdAt)) "
+            + "from Task t join t.category c where t.id in :ids and t.canceledAt is null "
+            + "group by c.id, c.user.id, t.done")
+    List<CategoryCountView> countByCategoryForIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select new com.codexasistemas.todoapp.api.repository.projection.TagCountView("
+            + "g.id, t.category.id, g.user.id, t.done, count(t)) "
+            + "from Task t join t.tags g where t.id in :ids and t.canceledAt is null "
+            + "group by g.id, t.category.id, g.user.id, t.done")
+    List<TagCountView> countByTagForIdIn(@Param("ids") Collection<Long> ids);
+}
@@ -1,6 +1,12 @@
 package com.codexasistemas.todoapp.api.repository.jpa;
 
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.codexasistemas.todoapp.api.model.User;
 
@@ -9,4 +15,11 @@ public interface UserJpaRepository extends JpaRepository<User, Long> {
     public boolean existsByEmail(String email);
     public User findByEmail(String email);
 
+    @Query("select u.id from User u where u.id > :afterId order by u.id")
+    public List<Long> findIdsAfter(@Param("afterId") Long afterId, Limit limit);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from User u where u.id = :id")
+    public int deleteByIdInBulk(@Param("id") Long id);
+
 }
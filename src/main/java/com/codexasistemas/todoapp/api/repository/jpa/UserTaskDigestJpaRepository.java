@@ -0,0 +1,15 @@
+package com.codexasistemas.todoapp.api.repository.jpa;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.codexasistemas.todoapp.api.model.UserTaskDigest;
+
+public interface UserTaskDigestJpaRepository extends JpaRepository<UserTaskDigest, Long> {
+
+    @Modifying(flushAutomatically = true)
+    @Query("delete from UserTaskDigest d where d.userId = :userId")
+    int deleteByUserIdInBulk(@Param("userId") Long userId);
+}
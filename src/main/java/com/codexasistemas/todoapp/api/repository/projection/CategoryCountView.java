@@ -0,0 +1,11 @@
+package com.codexasistemas.todoapp.api.repository.projection;
+
+import java.time.LocalDateTime;
+
+public record CategoryCountView(
+    Long categoryId,
+    Long userId,
+    boolean done,
+    long count,
+    LocalDateTime lastCreatedAt
+) {}
@@ -0,0 +1,9 @@
+package com.codexasistemas.todoapp.api.repository.projection;
+
+public record TagCountView(
+    Long tagId,
+    Long categoryId,
+    Long userId,
+    boolean done,
+    long count
+) {}
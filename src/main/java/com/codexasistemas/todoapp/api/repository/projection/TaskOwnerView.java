@@ -0,0 +1,7 @@
+package com.codexasistemas.todoapp.api.repository.projection;
+
+public record TaskOwnerView(
+    Long id,
+    Long userId,
+    Long locationCell
+) {}
@@ -0,0 +1,15 @@
+package com.codexasistemas.todoapp.api.repository.projection;
+
+import java.time.LocalDateTime;
+
+public record TaskStateView(
+    Long id,
+    boolean done,
+    LocalDateTime canceledAt,
+    Long locationCell
+) {
+
+    public boolean canceled() {
+        return canceledAt != null;
+    }
+}
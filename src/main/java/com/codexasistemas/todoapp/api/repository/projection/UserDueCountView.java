@@ -0,0 +1,7 @@
+package com.codexasistemas.todoapp.api.repository.projection;
+
+public record UserDueCountView(
+    Long userId,
+    long overdueCount,
+    long dueTodayCount
+) {}
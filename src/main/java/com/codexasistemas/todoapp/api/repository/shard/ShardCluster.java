@@ -0,0 +1,225 @@
+package com.codexasistemas.todoapp.api.repository.shard;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+// Pools dos shards, o anel e o diretório de usuários. O diretório fica no primeiro shard
+// e só guarda exceções ao anel: usuários movidos para outro shard e usuários em
+// movimentação. Cada instância mantém uma cópia em memória, relida por refreshDirectory.
+public class ShardCluster implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardCluster.class);
+
+    private final Map<String, HikariDataSource> pools;
+
+    private final List<String> names;
+
+    private final ShardRing ring;
+
+    private final long idRangeSize;
+
+    private final Duration moveGrace;
+
+    private final JdbcTemplate directory;
+
+    private volatile Map<Long, String> overrides = new ConcurrentHashMap<>();
+
+    private volatile Set<Long> moving = ConcurrentHashMap.newKeySet();
+
+    public ShardCluster(Map<String, HikariDataSource> pools, int virtualNodes, long idRangeSize, Duration moveGrace) {
+        this.pools = new LinkedHashMap<>(pools);
+        this.names = List.copyOf(pools.keySet());
+        this.ring = new ShardRing(names, virtualNodes);
+        this.idRangeSize = idRangeSize;
+        this.moveGrace = moveGrace;
+        this.directory = new JdbcTemplate(pools.get(names.get(0)));
+    }
+
+    public List<String> names() {
+        return names;
+    }
+
+    public String defaultShard() {
+        return names.get(0);
+    }
+
+    public DataSource dataSource(String shard) {
+        DataSource dataSource = pools.get(shard);
+        if (dataSource == null) {
+            throw new IllegalArgumentException("Shard desconhecido: " + shard);
+        }
+        return dataSource;
+    }
+
+    public int indexOf(String shard) {
+        dataSource(shard);
+        return names.indexOf(shard);
+    }
+
+    // Primeiro ID das chaves geradas em cada shard; as faixas não se sobrepõem, então as
+    // linhas de um usuário mantêm os IDs ao mudar de shard.
+    public long firstId(String shard) {
+        return indexOf(shard) * idRangeSize + 1;
+    }
+
+    public ShardRing ring() {
+        return ring;
+    }
+
+    public Duration moveGrace() {
+        return moveGrace;
+    }
+
+    public String shardOf(long userId) {
+        String shard = overrides.get(userId);
+        return shard != null ? shard : ring.shardFor(userId);
+    }
+
+    public boolean isMoving(long userId) {
+        return moving.contains(userId);
+    }
+
+    // Cria as tabelas do diretório na primeira execução. Os usuários que já existem
+    // estão todos no primeiro shard e entram no diretório quando o anel os põe em outro.
+    public void initializeDirectory() {
+        if (tableExists(directory, "user_shard_directory")) {
+            refreshDirectory();
+            return;
+        }
+        directory.execute("create table user_shard_directory (user_id bigint not null primary key, "
+                + "shard varchar(100) not null, moving boolean not null)");
+        directory.execute("create table user_id_allocator (id bigint generated by default as identity primary key, "
+                + "allocated_at timestamp not null)");
+
+        long maxUserId = 0;
+        if (tableExists(directory, "users")) {
+            List<Long> userIds = directory.queryForList("select id from users", Long.class);
+            List<Object[]> rows = new ArrayList<>();
+            for (Long userId : userIds) {
+                maxUserId = Math.max(maxUserId, userId);
+                if (!defaultShard().equals(ring.shardFor(userId))) {
+                    rows.add(new Object[] { userId, defaultShard() });
+                }
+            }
+            directory.batchUpdate("insert into user_shard_directory (user_id, shard, moving) values (?, ?, false)",
+                    rows);
+            log.info("Diretório de shards criado: {} usuários existentes fixados em {}", rows.size(), defaultShard());
+        }
+        directory.execute("alter table user_id_allocator alter column id restart with " + (maxUserId + 1));
+        refreshDirectory();
+    }
+
+    public void refreshDirectory() {
+        Map<Long, String> newOverrides = new ConcurrentHashMap<>();
+        Set<Long> newMoving = ConcurrentHashMap.newKeySet();
+        directory.query("select user_id, shard, moving from user_shard_directory", rs -> {
+            long userId = rs.getLong(1);
+            if (!rs.getString(2).equals(ring.shardFor(userId))) {
+                newOverrides.put(userId, rs.getString(2));
+            }
+            if (rs.getBoolean(3)) {
+                newMoving.add(userId);
+            }
+        });
+        overrides = newOverrides;
+        moving = newMoving;
+    }
+
+    // IDs de usuário vêm de uma sequência única, do diretório, para que o shard seja
+    // conhecido antes do insert.
+    public long allocateUserId() {
+        KeyHolder key = new GeneratedKeyHolder();
+        directory.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    "insert into user_id_allocator (allocated_at) values (?)", new String[] { "id" });
+            statement.setTimestamp(1, Timestamp.valueOf(LocalDateTime.now()));
+            return statement;
+        }, key);
+        long id = key.getKey().longValue();
+        directory.update("delete from user_id_allocator where id = ?", id);
+        return id;
+    }
+
+    public void markMoving(long userId) {
+        upsert(userId, shardOf(userId), true);
+        moving.add(userId);
+    }
+
+    // Aponta o usuário para o novo shard, ainda marcado como em movimentação.
+    public void assign(long userId, String shard) {
+        upsert(userId, shard, true);
+        if (shard.equals(ring.shardFor(userId))) {
+            overrides.remove(userId);
+        } else {
+            overrides.put(userId, shard);
+        }
+    }
+
+    // Encerra a movimentação; a linha só continua no diretório se o shard diferir do anel.
+    public void clearMoving(long userId) {
+        String shard = shardOf(userId);
+        if (shard.equals(ring.shardFor(userId))) {
+            directory.update("delete from user_shard_directory where user_id = ?", userId);
+        } else {
+            directory.update("update user_shard_directory set moving = false where user_id = ?", userId);
+        }
+        moving.remove(userId);
+    }
+
+    public Map<String, Long> countOverrides() {
+        Map<String, Long> counts = new HashMap<>();
+        overrides.values().forEach(shard -> counts.merge(shard, 1L, Long::sum));
+        return counts;
+    }
+
+    @Override
+    public void close() {
+        pools.values().forEach(HikariDataSource::close);
+    }
+
+    private void upsert(long userId, String shard, boolean isMoving) {
+        int updated = directory.update("update user_shard_directory set shard = ?, moving = ? where user_id = ?",
+                shard, isMoving, userId);
+        if (updated == 0) {
+            directory.update("insert into user_shard_directory (user_id, shard, moving) values (?, ?, ?)",
+                    userId, shard, isMoving);
+        }
+    }
+
+    public static boolean tableExists(JdbcTemplate jdbc, String table) {
+        Set<String> found = new HashSet<>();
+        jdbc.execute((Connection connection) -> {
+            try (ResultSet tables = connection.getMetaData().getTables(connection.getCatalog(), connection.getSchema(),
+                    null, new String[] { "TABLE" })) {
+                while (tables.next()) {
+                    found.add(tables.getString("TABLE_NAME").toLowerCase(Locale.ROOT));
+                }
+            }
+            return null;
+        });
+        return found.contains(table);
+    }
+}
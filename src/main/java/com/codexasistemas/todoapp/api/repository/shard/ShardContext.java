@@ -0,0 +1,64 @@
+package com.codexasistemas.todoapp.api.repository.shard;
+
+// Shard da unidade de trabalho corrente (requisição HTTP, lote de um job), por thread.
+// O shard é fixado pelo primeiro usuário acessado ou, se uma conexão for aberta antes
+// disso, pelo shard padrão; a partir daí todas as conexões do escopo vão para ele.
+public final class ShardContext {
+
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    public static final class Scope {
+
+        private String shard;
+
+        // Escopos abertos para um shard específico (jobs, migração) não conferem o
+        // shard dos usuários acessados.
+        private final boolean pinned;
+
+        private final Scope previous;
+
+        private Scope(String shard, boolean pinned, Scope previous) {
+            this.shard = shard;
+            this.pinned = pinned;
+            this.previous = previous;
+        }
+
+        String shard() {
+            return shard;
+        }
+
+        void bind(String shard) {
+            this.shard = shard;
+        }
+
+        boolean pinned() {
+            return pinned;
+        }
+    }
+
+    public static String currentShard() {
+        Scope scope = CURRENT.get();
+        return scope != null ? scope.shard : null;
+    }
+
+    static Scope current() {
+        return CURRENT.get();
+    }
+
+    static Scope open(String shard, boolean pinned) {
+        Scope scope = new Scope(shard, pinned, CURRENT.get());
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    static void close(Scope scope) {
+        if (scope.previous != null) {
+            CURRENT.set(scope.previous);
+        } else {
+            CURRENT.remove();
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.codexasistemas.todoapp.api.repository.shard;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.persistence.EntityNotFoundException;
+
+// Move as linhas de um usuário entre shards sem parar a aplicação. O usuário é marcado
+// como em movimentação (escritas dele recebem 503), a cópia é feita em uma transação no
+// destino, o diretório passa a apontar para o destino e só então as linhas saem da origem.
+// Leituras continuam na origem até a troca e, depois dela, no destino.
+@Component
+public class ShardMover {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardMover.class);
+
+    // Ordem de cópia imposta pelas chaves estrangeiras; a remoção segue a ordem inversa.
+    // A localização é filtrada pelas tarefas, que na origem só saem depois dela.
+    private static final Map<String, String> USER_ROWS = new LinkedHashMap<>();
+
+    static {
+        USER_ROWS.put("users", "id = ?");
+        USER_ROWS.put("location", "id in (select location_id from task where user_id = ?)");
+        USER_ROWS.put("category", "user_id = ?");
+        USER_ROWS.put("tag", "user_id = ?");
+        USER_ROWS.put("task", "user_id = ?");
+        USER_ROWS.put("task_tag", "task_id in (select id from task where user_id = ?)");
+        USER_ROWS.put("task_archive", "user_id = ?");
+        USER_ROWS.put("task_archive_tag", "task_id in (select id from task_archive where user_id = ?)");
+        USER_ROWS.put("category_task_counter", "user_id = ?");
+        USER_ROWS.put("tag_task_counter", "user_id = ?");
+        USER_ROWS.put("task_change", "user_id = ?");
+        USER_ROWS.put("user_task_digest", "user_id = ?");
+    }
+
+    private final ShardRouter router;
+
+    public ShardMover(ShardRouter router) {
+        this.router = router;
+    }
+
+    public record Result(String source, String target, Map<String, Integer> rows) {
+    }
+
+    public Result move(Long userId, String target) {
+        ShardCluster cluster = router.cluster();
+        if (cluster == null) {
+            throw new IllegalArgumentException("O particionamento por usuário não está habilitado.");
+        }
+        cluster.dataSource(target);
+        String source = cluster.shardOf(userId);
+        if (source.equals(target)) {
+            throw new IllegalArgumentException("O usuário já está no shard " + target + ".");
+        }
+        if (cluster.isMoving(userId)) {
+            throw new IllegalArgumentException("O usuário já está sendo movido.");
+        }
+        JdbcTemplate from = new JdbcTemplate(cluster.dataSource(source));
+        JdbcTemplate to = new JdbcTemplate(cluster.dataSource(target));
+        if (from.queryForObject("select count(*) from users where id = ?", Long.class, userId) == 0) {
+            throw new EntityNotFoundException("Usuário não encontrado: " + userId);
+        }
+        checkSelfContained(from, userId);
+
+        cluster.markMoving(userId);
+        Map<String, Integer> copied;
+        try {
+            // Dá tempo às escritas já iniciadas, que não viram a marca, de terminar.
+            Thread.sleep(cluster.moveGrace().toMillis());
+            List<Long> locationIds = from.queryForList(
+                    "select location_id from task where user_id = ? and location_id is not null", Long.class, userId);
+            copied = transaction(cluster, target).execute(status -> copy(from, to, userId));
+            verify(to, userId, copied);
+            cluster.assign(userId, target);
+            transaction(cluster, source).executeWithoutResult(status -> delete(from, userId, locationIds));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cluster.clearMoving(userId);
+            throw new IllegalStateException("Movimentação interrompida.", e);
+        } catch (RuntimeException e) {
+            if (!target.equals(cluster.shardOf(userId))) {
+                // A troca não aconteceu: a origem continua válida e o destino é limpo.
+                transaction(cluster, target).executeWithoutResult(status -> delete(to, userId,
+                        to.queryForList("select location_id from task where user_id = ? and location_id is not null",
+                                Long.class, userId)));
+            }
+            cluster.clearMoving(userId);
+            throw e;
+        }
+        cluster.clearMoving(userId);
+        log.info("Usuário {} movido de {} para {}: {}", userId, source, target, copied);
+        return new Result(source, target, copied);
+    }
+
+    // Só são movidos usuários sem tarefas em categorias ou tags de outros usuários, e
+    // vice-versa; essas linhas ficariam com referências para outro banco.
+    private static void checkSelfContained(JdbcTemplate jdbc, Long userId) {
+        long shared = jdbc.queryForObject("select count(*) from task t join category c on c.id = t.category_id "
+                + "where (t.user_id = ? and c.user_id <> ?) or (c.user_id = ? and t.user_id <> ?)",
+                Long.class, userId, userId, userId, userId);
+        shared += jdbc.queryForObject("select count(*) from task_tag tt join task t on t.id = tt.task_id "
+                + "join tag g on g.id = tt.tag_id "
+                + "where (t.user_id = ? and g.user_id <> ?) or (g.user_id = ? and t.user_id <> ?)",
+                Long.class, userId, userId, userId, userId);
+        shared += jdbc.queryForObject("select count(*) from task_archive a join category c on c.id = a.category_id "
+                + "where (a.user_id = ? and c.user_id <> ?) or (c.user_id = ? and a.user_id <> ?)",
+                Long.class, userId, userId, userId, userId);
+        if (shared > 0) {
+            throw new IllegalArgumentException(
+                    "O usuário compartilha categorias ou tags com outros usuários e não pode ser movido.");
+        }
+    }
+
+    private static Map<String, Integer> copy(JdbcTemplate from, JdbcTemplate to, Long userId) {
+        Map<String, Integer> copied = new LinkedHashMap<>();
+        USER_ROWS.forEach((table, filter) -> {
+            List<String> columns = new ArrayList<>();
+            List<Object[]> rows = from.query("select * from " + table + " where " + filter,
+                    (ResultSet rs, int row) -> read(rs, columns), userId);
+            if (!rows.isEmpty()) {
+                StringJoiner names = new StringJoiner(", ");
+                StringJoiner marks = new StringJoiner(", ");
+                columns.forEach(column -> {
+                    names.add(column);
+                    marks.add("?");
+                });
+                to.batchUpdate("insert into " + table + " (" + names + ") values (" + marks + ")", rows);
+            }
+            copied.put(table, rows.size());
+        });
+        return copied;
+    }
+
+    private static Object[] read(ResultSet rs, List<String> columns) throws SQLException {
+        ResultSetMetaData meta = rs.getMetaData();
+        if (columns.isEmpty()) {
+            for (int i = 1; i <= meta.getColumnCount(); i++) {
+                columns.add(meta.getColumnName(i));
+            }
+        }
+        Object[] values = new Object[meta.getColumnCount()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = rs.getObject(i + 1);
+        }
+        return values;
+    }
+
+    private static void verify(JdbcTemplate to, Long userId, Map<String, Integer> copied) {
+        copied.forEach((table, expected) -> {
+            int found = to.queryForObject("select count(*) from " + table + " where " + USER_ROWS.get(table),
+                    Integer.class, userId);
+            if (found != expected) {
+                throw new IllegalStateException("Cópia incompleta da tabela " + table + ": " + found + " de "
+                        + expected + " linhas.");
+            }
+        });
+    }
+
+    private static void delete(JdbcTemplate jdbc, Long userId, List<Long> locationIds) {
+        List<String> tables = new ArrayList<>(USER_ROWS.keySet());
+        for (int i = tables.size() - 1; i >= 0; i--) {
+            String table = tables.get(i);
+            if (table.equals("location")) {
+                continue;
+            }
+            jdbc.update("delete from " + table + " where " + USER_ROWS.get(table), userId);
+            if (table.equals("task")) {
+                jdbc.batchUpdate("delete from location where id = ?",
+                        locationIds.stream().map(id -> new Object[] { id }).toList());
+            }
+        }
+    }
+
+    private static TransactionTemplate transaction(ShardCluster cluster, String shard) {
+        return new TransactionTemplate(new DataSourceTransactionManager(cluster.dataSource(shard)));
+    }
+}
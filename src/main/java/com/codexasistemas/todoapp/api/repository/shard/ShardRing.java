@@ -0,0 +1,66 @@
+package com.codexasistemas.todoapp.api.repository.shard;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+// Anel de hash consistente: cada shard ocupa virtualNodes pontos do anel e um usuário
+// pertence ao primeiro ponto a partir do hash do seu ID. Acrescentar um shard só muda o
+// dono de ~1/N dos usuários, que são os que precisam ser movidos.
+public final class ShardRing {
+
+    private final NavigableMap<Long, String> ring = new TreeMap<>();
+
+    private final List<String> shards;
+
+    public ShardRing(List<String> shards, int virtualNodes) {
+        this.shards = List.copyOf(shards);
+        for (String shard : shards) {
+            for (int i = 0; i < virtualNodes; i++) {
+                ring.put(hash(shard + "#" + i), shard);
+            }
+        }
+    }
+
+    public String shardFor(long userId) {
+        Map.Entry<Long, String> entry = ring.ceilingEntry(hash("user:" + userId));
+        return entry != null ? entry.getValue() : ring.firstEntry().getValue();
+    }
+
+    // Fração do anel (e portanto dos novos usuários) que cabe a cada shard. Cada ponto
+    // recebe o arco que o antecede; a subtração em long já dá o comprimento com a volta.
+    public Map<String, Double> shares() {
+        Map<String, Double> shares = new LinkedHashMap<>();
+        shards.forEach(shard -> shares.put(shard, 0.0));
+        if (ring.size() == 1) {
+            shares.put(ring.firstEntry().getValue(), 1.0);
+            return shares;
+        }
+        long previous = ring.lastKey();
+        for (Map.Entry<Long, String> entry : ring.entrySet()) {
+            long arc = entry.getKey() - previous;
+            double length = arc >= 0 ? arc : arc + 0x1p64;
+            shares.merge(entry.getValue(), length / 0x1p64, Double::sum);
+            previous = entry.getKey();
+        }
+        return shares;
+    }
+
+    static long hash(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5").digest(key.getBytes(StandardCharsets.UTF_8));
+            long hash = 0;
+            for (int i = 0; i < 8; i++) {
+                hash = hash << 8 | (digest[i] & 0xFF);
+            }
+            return hash;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
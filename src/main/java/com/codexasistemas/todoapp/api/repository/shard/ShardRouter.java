@@ -0,0 +1,187 @@
+package com.codexasistemas.todoapp.api.repository.shard;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.codexasistemas.todoapp.api.exception.BackPressureException;
+
+// Ponto de entrada dos repositórios e jobs para o particionamento por usuário. Sem
+// todoapp.sharding.enabled não há ShardCluster e todas as operações viram no-op, com
+// um único banco.
+@Component
+public class ShardRouter {
+
+    private static final Set<String> OWNED_TABLES = Set.of("task", "category", "tag");
+
+    private final ShardCluster cluster;
+
+    public ShardRouter(ObjectProvider<ShardCluster> cluster) {
+        this.cluster = cluster.getIfAvailable();
+    }
+
+    public boolean isEnabled() {
+        return cluster != null;
+    }
+
+    public List<String> shards() {
+        return cluster != null ? cluster.names() : List.of();
+    }
+
+    public String shardOf(Long userId) {
+        return cluster != null ? cluster.shardOf(userId) : null;
+    }
+
+    public Map<String, Double> ringShares() {
+        return cluster != null ? cluster.ring().shares() : Map.of();
+    }
+
+    public Map<String, Long> countMovedUsers() {
+        return cluster != null ? cluster.countOverrides() : Map.of();
+    }
+
+    public boolean isMoving(Long userId) {
+        return cluster != null && cluster.isMoving(userId);
+    }
+
+    // Fixa o escopo corrente no shard do usuário. Chamado pelos repositórios antes de
+    // cada consulta por usuário; uma operação que envolva usuários de shards diferentes
+    // é rejeitada, já que não há transação entre bancos.
+    public void bindUser(Long userId) {
+        if (cluster == null || userId == null) {
+            return;
+        }
+        ShardContext.Scope scope = ShardContext.current();
+        if (scope == null) {
+            throw new IllegalStateException("Acesso aos dados do usuário " + userId + " fora de um escopo de shard.");
+        }
+        if (scope.pinned()) {
+            return;
+        }
+        String shard = cluster.shardOf(userId);
+        if (scope.shard() == null) {
+            scope.bind(shard);
+        } else if (!scope.shard().equals(shard)) {
+            throw new IllegalArgumentException("A operação envolve usuários de shards diferentes.");
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            checkWritable(userId);
+        }
+    }
+
+    // Escritas de um usuário em movimentação são recusadas até o fim da cópia.
+    public void checkWritable(Long userId) {
+        if (isMoving(userId)) {
+            throw new BackPressureException("Os dados do usuário estão sendo movidos; tente novamente em instantes.",
+                    1);
+        }
+    }
+
+    // Escopo de uma requisição, fixado pelo primeiro usuário acessado.
+    public ShardContext.Scope openScope() {
+        return cluster != null ? ShardContext.open(null, false) : null;
+    }
+
+    public void closeScope(ShardContext.Scope scope) {
+        if (scope != null) {
+            ShardContext.close(scope);
+        }
+    }
+
+    public <T> T callOn(String shard, Supplier<T> action) {
+        if (cluster == null) {
+            return action.get();
+        }
+        cluster.dataSource(shard);
+        ShardContext.Scope scope = ShardContext.open(shard, true);
+        try {
+            return action.get();
+        } finally {
+            ShardContext.close(scope);
+        }
+    }
+
+    public void runOn(String shard, Runnable action) {
+        callOn(shard, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    // Executa a ação em cada shard, em sequência; sem particionamento, uma vez com null.
+    public void forEachShard(Consumer<String> action) {
+        if (cluster == null) {
+            action.accept(null);
+            return;
+        }
+        for (String shard : cluster.names()) {
+            runOn(shard, () -> action.accept(shard));
+        }
+    }
+
+    public <T> T callForUser(Long userId, Supplier<T> action) {
+        return cluster != null ? callOn(cluster.shardOf(userId), action) : action.get();
+    }
+
+    public void runForUser(Long userId, Runnable action) {
+        callForUser(userId, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    // Consultas espalhadas, direto nos pools, para o que não tem usuário conhecido:
+    // o dono de uma tarefa, categoria ou tag pelo ID e usuários por email.
+    public Long locateOwner(String table, Long id) {
+        if (cluster == null || id == null) {
+            return null;
+        }
+        if (!OWNED_TABLES.contains(table)) {
+            throw new IllegalArgumentException("Tabela sem dono: " + table);
+        }
+        for (String shard : cluster.names()) {
+            List<Long> owners = jdbc(shard).queryForList("select user_id from " + table + " where id = ?",
+                    Long.class, id);
+            if (!owners.isEmpty()) {
+                return owners.get(0);
+            }
+        }
+        return null;
+    }
+
+    public Optional<Long> findUserIdByEmail(String email) {
+        List<Long> ids = queryAll("select id from users where email = ?", (rs, row) -> rs.getLong(1), email);
+        return ids.stream().findFirst();
+    }
+
+    public <T> List<T> queryAll(String sql, RowMapper<T> mapper, Object... args) {
+        List<T> results = new ArrayList<>();
+        for (String shard : cluster.names()) {
+            results.addAll(jdbc(shard).query(sql, mapper, args));
+        }
+        return results;
+    }
+
+    public long allocateUserId() {
+        return cluster.allocateUserId();
+    }
+
+    ShardCluster cluster() {
+        return cluster;
+    }
+
+    private JdbcTemplate jdbc(String shard) {
+        return new JdbcTemplate(cluster.dataSource(shard));
+    }
+}
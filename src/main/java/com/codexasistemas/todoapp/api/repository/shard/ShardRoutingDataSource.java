@@ -0,0 +1,35 @@
+package com.codexasistemas.todoapp.api.repository.shard;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+// Escolhe o pool do shard do escopo corrente ao abrir cada conexão. Fica atrás de um
+// LazyConnectionDataSourceProxy, para que a conexão de uma transação só seja aberta no
+// primeiro comando, depois que o repositório fixou o shard do usuário. Sem escopo, ou
+// com um escopo ainda sem shard, a conexão vai para o shard padrão.
+public class ShardRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final String defaultShard;
+
+    public ShardRoutingDataSource(ShardCluster cluster) {
+        Map<Object, Object> targets = new HashMap<>();
+        cluster.names().forEach(name -> targets.put(name, cluster.dataSource(name)));
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(cluster.dataSource(cluster.defaultShard()));
+        this.defaultShard = cluster.defaultShard();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        ShardContext.Scope scope = ShardContext.current();
+        if (scope == null) {
+            return defaultShard;
+        }
+        if (scope.shard() == null) {
+            scope.bind(defaultShard);
+        }
+        return scope.shard();
+    }
+}
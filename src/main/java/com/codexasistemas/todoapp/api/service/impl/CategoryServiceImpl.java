@@ -2,21 +2,31 @@ package com.codexasistemas.todoapp.api.service.impl;
 
 import com.codexasistemas.todoapp.api.dto.category.CategoryRequestDto;
 import com.codexasistemas.todoapp.api.dto.category.CategoryResponseDto;
+import com.codexasistemas.todoapp.api.dto.task.TaskField;
 import com.codexasistemas.todoapp.api.dto.task.TaskResponseDto;
 import com.codexasistemas.todoapp.api.mapper.CategoryMapper;
 import com.codexasistemas.todoapp.api.mapper.TaskMapper;
 import com.codexasistemas.todoapp.api.model.Category;
 import com.codexasistemas.todoapp.api.model.User;
+import com.codexasistemas.todoapp.api.repository.interfaces.ArchivedTaskRepository;
 import com.codexasistemas.todoapp.api.repository.interfaces.CategoryRepository;
+import com.codexasistemas.todoapp.api.repository.interfaces.TaskRepository;
 import com.codexasistemas.todoapp.api.service.interfaces.CategoryService;
+import com.codexasistemas.todoapp.api.service.interfaces.TaskChangeService;
+import com.codexasistemas.todoapp.api.service.interfaces.TaskCounterService;
+import com.codexasistemas.todoapp.api.service.interfaces.TaskLocationIndexService;
 import com.codexasistemas.todoapp.api.service.interfaces.UserService;
 
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -25,10 +35,26 @@ public class CategoryServiceImpl implements CategoryService {
     @Autowired
     private CategoryRepository categoryRepository;
 
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ArchivedTaskRepository archivedTaskRepository;
+
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private TaskCounterService taskCounterService;
+
+    @Autowired
+    private TaskChangeService taskChangeService;
+
+    @Autowired
+    private TaskLocationIndexService taskLocationIndexService;
+
     @Override
+    @Transactional(readOnly = true)
     public List<CategoryResponseDto> findAll() {
         return categoryRepository.findAll().stream()
                 .map(CategoryMapper::toResponseDto)
@@ -36,6 +62,7 @@ public class CategoryServiceImpl implements CategoryService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<CategoryResponseDto> findById(Long id) {
         return categoryRepository.findById(id)
                 .map(CategoryMapper::toResponseDto);
@@ -49,15 +76,45 @@ public class CategoryServiceImpl implements CategoryService {
         return CategoryMapper.toResponseDto(savedCategory);
     }
 
+    // Nenhum dos caminhos carrega as tarefas: com moveToId elas passam para a outra
+    // categoria em um único UPDATE; sem ele, saem com DELETEs filtrados pela categoria.
     @Override
-    public CategoryResponseDto delete(Long id) {
+    @Transactional
+    public CategoryResponseDto delete(Long id, Long moveToId) {
         Category category = categoryRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Categoria não encontrada: " + id));
         CategoryResponseDto responseDto = CategoryMapper.toResponseDto(category);
-        categoryRepository.deleteById(category.getId());
+        if (moveToId != null) {
+            Category target = findMoveTarget(category, moveToId);
+            taskChangeService.recordCategoryChanged(id);
+            taskRepository.moveToCategory(id, target.getId());
+            archivedTaskRepository.moveToCategory(id, target.getId(), target.getName());
+            taskCounterService.moveCategory(id, target.getId(), target.getUser().getId());
+        } else {
+            taskCounterService.removeCategory(id);
+            taskChangeService.recordCategoryDeleted(id);
+            taskRepository.findLocatedOwnersByCategoryId(id).stream()
+                    .filter(task -> task.userId() != null)
+                    .forEach(task -> taskLocationIndexService.remove(task.userId(), task.id(), task.locationCell()));
+            taskRepository.deleteAllByCategoryId(id);
+            archivedTaskRepository.deleteByCategoryId(id);
+        }
+        categoryRepository.deleteByIdInBulk(id);
         return responseDto;
     }
 
+    private Category findMoveTarget(Category category, Long moveToId) {
+        if (moveToId.equals(category.getId())) {
+            throw new IllegalArgumentException("A categoria de destino deve ser diferente da categoria excluída.");
+        }
+        Category target = categoryRepository.findById(moveToId)
+                .orElseThrow(() -> new IllegalArgumentException("Categoria de destino não encontrada: " + moveToId));
+        if (!Objects.equals(target.getUser().getId(), category.getUser().getId())) {
+            throw new IllegalArgumentException("A categoria de destino deve pertencer ao mesmo usuário.");
+        }
+        return target;
+    }
+
     @Override
     public Category findByIdEntity(Long id) {
         return categoryRepository.findById(id)
@@ -65,19 +122,31 @@ public class CategoryServiceImpl implements CategoryService {
     }
 
     @Override
+    @Transactional
     public CategoryResponseDto update(Long id, CategoryRequestDto categoryRequest) {
         Category existingCategory = categoryRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Categoria não encontrada: " + id));
 
         User user = userService.findByIdEntity(categoryRequest.userId());
+        Long previousUserId = existingCategory.getUser() != null ? existingCategory.getUser().getId() : null;
+        boolean renamed = !Objects.equals(existingCategory.getName(), categoryRequest.name());
         existingCategory.setName(categoryRequest.name());
         existingCategory.setUser(user);
 
         Category updatedCategory = categoryRepository.save(existingCategory);
+        if (previousUserId != null && !previousUserId.equals(user.getId())) {
+            taskCounterService.rebuild(previousUserId);
+            taskCounterService.rebuild(user.getId());
+        }
+        // O nome da categoria faz parte das tarefas sincronizadas.
+        if (renamed) {
+            taskChangeService.recordCategoryChanged(id);
+        }
         return CategoryMapper.toResponseDto(updatedCategory);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<TaskResponseDto> findTasksByCategory(Long categoryId) {
         Category category = findByIdEntity(categoryId);
         return category.getTasks().stream()
@@ -86,6 +155,14 @@ public class CategoryServiceImpl implements CategoryService {
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> findTaskFieldsByCategory(Long categoryId, Set<TaskField> fields) {
+        findByIdEntity(categoryId);
+        return taskRepository.findFieldsByCategoryId(categoryId, fields);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<CategoryResponseDto> findByUserId(Long userId) {
         return categoryRepository.findByUserId(userId).stream()
                 .map(CategoryMapper::toResponseDto)
@@ -0,0 +1,98 @@
+package com.codexasistemas.todoapp.api.service.impl;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import com.codexasistemas.todoapp.api.service.interfaces.IdempotencyService;
+
+// Chaves mantidas em memória, em ordem de criação: ao passar de max-entries a mais antiga
+// é descartada, e chaves vencidas saem na leitura ou na limpeza periódica. Só vale para
+// uma instância; com várias instâncias atrás do NGINX use todoapp.idempotency.store=jpa.
+@Service
+@ConditionalOnProperty(name = "todoapp.idempotency.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryIdempotencyServiceImpl implements IdempotencyService {
+
+    private final long ttlMillis;
+
+    private final long lockTimeoutMillis;
+
+    private final Map<String, Entry> entries;
+
+    public InMemoryIdempotencyServiceImpl(@Value("${todoapp.idempotency.ttl:24h}") Duration ttl,
+            @Value("${todoapp.idempotency.lock-timeout:60s}") Duration lockTimeout,
+            @Value("${todoapp.idempotency.max-entries:10000}") int maxEntries) {
+        this.ttlMillis = ttl.toMillis();
+        this.lockTimeoutMillis = lockTimeout.toMillis();
+        this.entries = new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @Override
+    public synchronized Claim claim(String key, String fingerprint) {
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(key);
+        if (entry != null && entry.expiresAt <= now) {
+            entries.remove(key);
+            entry = null;
+        }
+        if (entry == null) {
+            entries.put(key, new Entry(fingerprint, now + lockTimeoutMillis));
+            return new Claim(ClaimStatus.ACQUIRED, null);
+        }
+        if (!entry.fingerprint.equals(fingerprint)) {
+            return new Claim(ClaimStatus.MISMATCH, null);
+        }
+        return entry.response == null
+                ? new Claim(ClaimStatus.IN_PROGRESS, null)
+                : new Claim(ClaimStatus.COMPLETED, entry.response);
+    }
+
+    @Override
+    public synchronized void complete(String key, StoredResponse response) {
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            entry.response = response;
+            entry.expiresAt = System.currentTimeMillis() + ttlMillis;
+        }
+    }
+
+    @Override
+    public synchronized void release(String key) {
+        entries.remove(key);
+    }
+
+    @Override
+    public synchronized int purgeExpired() {
+        long now = System.currentTimeMillis();
+        int purged = 0;
+        for (Iterator<Entry> it = entries.values().iterator(); it.hasNext();) {
+            if (it.next().expiresAt <= now) {
+                it.remove();
+                purged++;
+            }
+        }
+        return purged;
+    }
+
+    private static final class Entry {
+
+        private final String fingerprint;
+        private long expiresAt;
+        private StoredResponse response;
+
+        Entry(String fingerprint, long expiresAt) {
+            this.fingerprint = fingerprint;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
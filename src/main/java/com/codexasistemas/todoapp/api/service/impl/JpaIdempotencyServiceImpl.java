@@ -0,0 +1,88 @@
+package com.codexasistemas.todoapp.api.service.impl;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.codexasistemas.todoapp.api.model.IdempotencyRecord;
+import com.codexasistemas.todoapp.api.repository.jpa.IdempotencyRecordJpaRepository;
+import com.codexasistemas.todoapp.api.service.interfaces.IdempotencyService;
+
+// Chaves gravadas na tabela idempotency_key, compartilhada entre as instâncias. Cada
+// operação roda na própria transação, separada da transação da requisição.
+@Service
+@ConditionalOnProperty(name = "todoapp.idempotency.store", havingValue = "jpa")
+public class JpaIdempotencyServiceImpl implements IdempotencyService {
+
+    private final IdempotencyRecordJpaRepository jpa;
+
+    private final TransactionTemplate transaction;
+
+    private final Duration ttl;
+
+    private final Duration lockTimeout;
+
+    public JpaIdempotencyServiceImpl(IdempotencyRecordJpaRepository jpa, PlatformTransactionManager transactionManager,
+            @Value("${todoapp.idempotency.ttl:24h}") Duration ttl,
+            @Value("${todoapp.idempotency.lock-timeout:60s}") Duration lockTimeout) {
+        this.jpa = jpa;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.ttl = ttl;
+        this.lockTimeout = lockTimeout;
+    }
+
+    // Repetições (o caso comum de uma chave existente) são resolvidas pela leitura; o INSERT
+    // só decide a corrida entre duas primeiras requisições simultâneas.
+    @Override
+    public Claim claim(String key, String fingerprint) {
+        LocalDateTime now = LocalDateTime.now();
+        IdempotencyRecord record = transaction.execute(status -> jpa.findById(key).orElse(null));
+        if (record == null || !record.getExpiresAt().isAfter(now)) {
+            if (record != null) {
+                transaction.executeWithoutResult(status -> jpa.deleteExpiredByKey(key, now));
+            }
+            try {
+                transaction.executeWithoutResult(status -> jpa.insert(key, fingerprint, now.plus(lockTimeout)));
+                return new Claim(ClaimStatus.ACQUIRED, null);
+            } catch (DataIntegrityViolationException e) {
+                // Chave reservada ao mesmo tempo por outra requisição, possivelmente em outra instância.
+            }
+            record = transaction.execute(status -> jpa.findById(key).orElse(null));
+        }
+        if (record == null) {
+            // Liberada entre o INSERT e a leitura: trata como em andamento e o cliente tenta de novo.
+            return new Claim(ClaimStatus.IN_PROGRESS, null);
+        }
+        if (!record.getFingerprint().equals(fingerprint)) {
+            return new Claim(ClaimStatus.MISMATCH, null);
+        }
+        if (record.getStatus() == null) {
+            return new Claim(ClaimStatus.IN_PROGRESS, null);
+        }
+        return new Claim(ClaimStatus.COMPLETED, new StoredResponse(record.getStatus(), record.getContentType(),
+                record.getLocation(), record.getBody()));
+    }
+
+    @Override
+    public void complete(String key, StoredResponse response) {
+        transaction.executeWithoutResult(status -> jpa.complete(key, response.status(), response.contentType(),
+                response.location(), response.body(), LocalDateTime.now().plus(ttl)));
+    }
+
+    @Override
+    public void release(String key) {
+        transaction.executeWithoutResult(status -> jpa.deleteByKeyInBulk(key));
+    }
+
+    @Override
+    public int purgeExpired() {
+        Integer purged = transaction.execute(status -> jpa.deleteExpired(LocalDateTime.now()));
+        return purged != null ? purged : 0;
+    }
+}
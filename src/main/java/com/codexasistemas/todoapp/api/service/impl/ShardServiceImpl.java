@@ -0,0 +1,62 @@
+package com.codexasistemas.todoapp.api.service.impl;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.codexasistemas.todoapp.api.dto.shard.ShardMoveResultDto;
+import com.codexasistemas.todoapp.api.dto.shard.ShardStatusDto;
+import com.codexasistemas.todoapp.api.dto.shard.UserShardDto;
+import com.codexasistemas.todoapp.api.repository.shard.ShardMover;
+import com.codexasistemas.todoapp.api.repository.shard.ShardRouter;
+import com.codexasistemas.todoapp.api.service.interfaces.ShardService;
+
+@Service
+public class ShardServiceImpl implements ShardService {
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private ShardMover shardMover;
+
+    @Override
+    public List<ShardStatusDto> findShards() {
+        checkEnabled();
+        Map<String, Double> shares = shardRouter.ringShares();
+        Map<String, Long> moved = shardRouter.countMovedUsers();
+        return shardRouter.shards().stream()
+                .map(shard -> new ShardStatusDto(shard, shares.get(shard), moved.getOrDefault(shard, 0L)))
+                .toList();
+    }
+
+    @Override
+    public UserShardDto findUserShard(Long userId) {
+        checkEnabled();
+        if (userId == null || userId <= 0) {
+            throw new IllegalArgumentException("O ID deve ser um número positivo.");
+        }
+        return new UserShardDto(userId, shardRouter.shardOf(userId), shardRouter.isMoving(userId));
+    }
+
+    @Override
+    public ShardMoveResultDto moveUser(Long userId, String target) {
+        checkEnabled();
+        if (userId == null || userId <= 0) {
+            throw new IllegalArgumentException("O ID deve ser um número positivo.");
+        }
+        if (target == null || target.isBlank()) {
+            throw new IllegalArgumentException("O shard de destino é obrigatório.");
+        }
+        ShardMover.Result result = shardMover.move(userId, target.trim());
+        return new ShardMoveResultDto(userId, result.source(), result.target(), result.rows());
+    }
+
+    private void checkEnabled() {
+        if (!shardRouter.isEnabled()) {
+            throw new IllegalArgumentException("O particionamento por usuário não está habilitado.");
+        }
+    }
+}
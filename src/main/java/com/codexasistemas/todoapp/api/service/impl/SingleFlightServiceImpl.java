@@ -0,0 +1,106 @@
+package com.codexasistemas.todoapp.api.service.impl;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.codexasistemas.todoapp.api.exception.BackPressureException;
+import com.codexasistemas.todoapp.api.service.interfaces.SingleFlightService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Não é um cache: a entrada sai do mapa antes de o resultado ser publicado, então uma
+// chamada que chega depois de a execução terminar sempre consulta o banco de novo.
+// Quem aguarda espera no máximo todoapp.single-flight.wait-timeout; depois disso recebe 503
+// com Retry-After, em vez de prender a thread da requisição atrás de uma consulta travada.
+@Service
+public class SingleFlightServiceImpl implements SingleFlightService {
+
+    private record FlightKey(String method, Object key) {
+    }
+
+    private final Set<String> methods;
+
+    private final Duration waitTimeout;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<FlightKey, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    private final Map<String, Counter> executions = new ConcurrentHashMap<>();
+
+    private final Map<String, Counter> coalesced = new ConcurrentHashMap<>();
+
+    private final Map<String, Counter> timeouts = new ConcurrentHashMap<>();
+
+    public SingleFlightServiceImpl(MeterRegistry meterRegistry,
+            @Value("${todoapp.single-flight.methods:}") List<String> methods,
+            @Value("${todoapp.single-flight.wait-timeout:5s}") Duration waitTimeout) {
+        this.meterRegistry = meterRegistry;
+        this.methods = Set.copyOf(methods);
+        this.waitTimeout = waitTimeout;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String method, Object key, Supplier<T> query) {
+        if (!methods.contains(method)) {
+            return query.get();
+        }
+        FlightKey flightKey = new FlightKey(method, key);
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(flightKey, flight);
+        if (running != null) {
+            counter(coalesced, "todoapp.single-flight.coalesced", method).increment();
+            return (T) await(method, running);
+        }
+
+        counter(executions, "todoapp.single-flight.executions", method).increment();
+        try {
+            T result = query.get();
+            inFlight.remove(flightKey, flight);
+            flight.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            inFlight.remove(flightKey, flight);
+            flight.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private Object await(String method, CompletableFuture<Object> running) {
+        try {
+            return running.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            counter(timeouts, "todoapp.single-flight.timeouts", method).increment();
+            throw new BackPressureException("Consulta em andamento demorando além do esperado; tente novamente.",
+                    Math.max(1, waitTimeout.toSeconds()));
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Espera pela consulta em andamento interrompida.", e);
+        }
+    }
+
+    private Counter counter(Map<String, Counter> counters, String name, String method) {
+        return counters.computeIfAbsent(method, tag -> meterRegistry.counter(name, "method", tag));
+    }
+}
@@ -1,19 +1,26 @@
 package com.codexasistemas.todoapp.api.service.impl;
 
+import com.codexasistemas.todoapp.api.dto.tag.TagMergeResponseDto;
 import com.codexasistemas.todoapp.api.dto.tag.TagRequestDto;
 import com.codexasistemas.todoapp.api.dto.tag.TagResponseDto;
 import com.codexasistemas.todoapp.api.mapper.TagMapper;
 import com.codexasistemas.todoapp.api.model.Tag;
 import com.codexasistemas.todoapp.api.model.User;
+import com.codexasistemas.todoapp.api.repository.interfaces.ArchivedTaskRepository;
 import com.codexasistemas.todoapp.api.repository.interfaces.TagRepository;
+import com.codexasistemas.todoapp.api.repository.interfaces.TaskRepository;
 import com.codexasistemas.todoapp.api.service.interfaces.TagService;
+import com.codexasistemas.todoapp.api.service.interfaces.TaskChangeService;
+import com.codexasistemas.todoapp.api.service.interfaces.TaskCounterService;
 import com.codexasistemas.todoapp.api.service.interfaces.UserService;
 
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -23,10 +30,23 @@ public class TagServiceImpl implements TagService {
     @Autowired
     private TagRepository tagRepository;
 
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ArchivedTaskRepository archivedTaskRepository;
+
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private TaskCounterService taskCounterService;
+
+    @Autowired
+    private TaskChangeService taskChangeService;
+
     @Override
+    @Transactional(readOnly = true)
     public List<TagResponseDto> findAll() {
         return tagRepository.findAll().stream()
                 .map(TagMapper::toResponseDto)
@@ -34,6 +54,7 @@ public class TagServiceImpl implements TagService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<TagResponseDto> findById(Long id) {
         return tagRepository.findById(id)
                 .map(TagMapper::toResponseDto);
@@ -48,14 +69,44 @@ public class TagServiceImpl implements TagService {
     }
 
     @Override
+    @Transactional
     public TagResponseDto delete(Long id) {
         Tag tag = tagRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Tag não encontrada: " + id));
         TagResponseDto responseDto = TagMapper.toResponseDto(tag);
+        taskCounterService.removeTag(tag.getId());
+        taskChangeService.recordTagChanged(tag.getId());
         tagRepository.deleteById(tag.getId());
         return responseDto;
     }
 
+    // Reescreve task_tag com um INSERT...SELECT e um DELETE, sem carregar as tarefas, e
+    // recalcula os contadores da tag de destino a partir das associações resultantes. No
+    // arquivo, que guarda só os nomes, a origem passa a ter o nome do destino.
+    @Override
+    @Transactional
+    public TagMergeResponseDto mergeInto(Long sourceId, Long targetId) {
+        if (Objects.equals(sourceId, targetId)) {
+            throw new IllegalArgumentException("A tag de destino deve ser diferente da tag de origem.");
+        }
+        Tag source = tagRepository.findById(sourceId)
+                .orElseThrow(() -> new EntityNotFoundException("Tag não encontrada: " + sourceId));
+        Tag target = tagRepository.findById(targetId)
+                .orElseThrow(() -> new IllegalArgumentException("Tag de destino não encontrada: " + targetId));
+        if (!Objects.equals(source.getUser().getId(), target.getUser().getId())) {
+            throw new IllegalArgumentException("A tag de destino deve pertencer ao mesmo usuário.");
+        }
+        TagResponseDto targetDto = TagMapper.toResponseDto(target);
+
+        taskChangeService.recordTagChanged(sourceId);
+        int[] moved = taskRepository.moveTaskTags(sourceId, targetId);
+        archivedTaskRepository.renameTag(target.getUser().getId(), source.getName(), target.getName());
+        taskCounterService.removeTag(sourceId);
+        taskCounterService.rebuildTag(targetId);
+        tagRepository.deleteByIdInBulk(sourceId);
+        return new TagMergeResponseDto(sourceId, targetDto, moved[0], moved[1] - moved[0]);
+    }
+
     @Override
     public Tag findByIdEntity(Long id) {
         return tagRepository.findById(id)
@@ -63,18 +114,30 @@ public class TagServiceImpl implements TagService {
     }
 
     @Override
+    @Transactional
     public TagResponseDto update(Long id, TagRequestDto tagRequest) {
         Tag existingTag = tagRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Tag não encontrada: " + id));
 
         User user = userService.findByIdEntity(tagRequest.userId());
+        Long previousUserId = existingTag.getUser() != null ? existingTag.getUser().getId() : null;
+        boolean renamed = !Objects.equals(existingTag.getName(), tagRequest.name());
         existingTag.setName(tagRequest.name());
         existingTag.setUser(user);
         Tag updatedTag = tagRepository.save(existingTag);
+        if (previousUserId != null && !previousUserId.equals(user.getId())) {
+            taskCounterService.rebuild(previousUserId);
+            taskCounterService.rebuild(user.getId());
+        }
+        // O nome da tag faz parte das tarefas sincronizadas.
+        if (renamed) {
+            taskChangeService.recordTagChanged(id);
+        }
         return TagMapper.toResponseDto(updatedTag);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<TagResponseDto> findByUserId(Long userId) {
         return tagRepository.findByUserId(userId).stream()
                 .map(TagMapper::toResponseDto)
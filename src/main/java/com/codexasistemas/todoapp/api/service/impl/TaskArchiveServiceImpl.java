@@ -0,0 +1,90 @@
+package com.codexasistemas.todoapp.api.service.impl;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.codexasistemas.todoapp.api.repository.interfaces.ArchivedTaskRepository;
+import com.codexasistemas.todoapp.api.repository.interfaces.TaskRepository;
+import com.codexasistemas.todoapp.api.repository.projection.TaskOwnerView;
+import com.codexasistemas.todoapp.api.service.interfaces.TaskArchiveService;
+import com.codexasistemas.todoapp.api.service.interfaces.TaskChangeService;
+import com.codexasistemas.todoapp.api.service.interfaces.TaskCounterService;
+import com.codexasistemas.todoapp.api.service.interfaces.TaskLocationIndexService;
+
+@Service
+public class TaskArchiveServiceImpl implements TaskArchiveService {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskArchiveServiceImpl.class);
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ArchivedTaskRepository archivedTaskRepository;
+
+    @Autowired
+    private TaskCounterService taskCounterService;
+
+    @Autowired
+    private TaskChangeService taskChangeService;
+
+    @Autowired
+    private TaskLocationIndexService taskLocationIndexService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${todoapp.archive.after:90d}")
+    private Duration archiveAfter;
+
+    @Value("${todoapp.archive.batch-size:500}")
+    private int batchSize;
+
+    // Cada lote é copiado para o arquivo e removido de task na mesma transação. Para os
+    // contadores e a sincronização, a tarefa arquivada sai como se tivesse sido excluída.
+    // O próximo lote continua do último id arquivado, em vez de percorrer de novo desde o
+    // início as tarefas que não se qualificam.
+    @Override
+    public int archive() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        LocalDateTime cutoff = LocalDateTime.now().minus(archiveAfter);
+        int archived = 0;
+        long lastId = 0;
+        List<TaskOwnerView> batch;
+        do {
+            long afterId = lastId;
+            batch = transaction.execute(status -> archiveBatch(cutoff, afterId));
+            archived += batch.size();
+            if (!batch.isEmpty()) {
+                lastId = batch.get(batch.size() - 1).id();
+            }
+        } while (batch.size() == batchSize);
+        if (archived > 0) {
+            log.info("{} tarefas concluídas ou canceladas antes de {} arquivadas", archived, cutoff);
+        }
+        return archived;
+    }
+
+    private List<TaskOwnerView> archiveBatch(LocalDateTime cutoff, long afterId) {
+        List<TaskOwnerView> owners = taskRepository.findArchivable(cutoff, afterId, batchSize);
+        if (owners.isEmpty()) {
+            return owners;
+        }
+        List<Long> ids = owners.stream().map(TaskOwnerView::id).toList();
+        taskCounterService.subtract(ids);
+        taskChangeService.recordDeleted(ids);
+        archivedTaskRepository.archive(ids, LocalDateTime.now());
+        taskRepository.deleteAllByIds(ids);
+        owners.forEach(owner -> taskLocationIndexService.remove(owner.userId(), owner.id(), owner.locationCell()));
+        return owners;
+    }
+}
@@ -0,0 +1,156 @@
+package com.codexasistemas.todoapp.api.service.impl;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.codexasistemas.todoapp.api.dto.task.TaskChangesDto;
+import com.codexasistemas.todoapp.api.dto.task.TaskResponseDto;
+import com.codexasistemas.todoapp.api.exception.ResyncRequiredException;
+import com.codexasistemas.todoapp.api.mapper.TaskMapper;
+import com.codexasistemas.todoapp.api.model.Task;
+import com.codexasistemas.todoapp.api.model.TaskChange;
+import com.codexasistemas.todoapp.api.repository.interfaces.TaskChangeRepository;
+import com.codexasistemas.todoapp.api.repository.interfaces.TaskRepository;
+import com.codexasistemas.todoapp.api.service.interfaces.TaskChangeService;
+
+@Service
+public class TaskChangeServiceImpl implements TaskChangeService {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskChangeServiceImpl.class);
+
+    @Autowired
+    private TaskChangeRepository taskChangeRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${todoapp.sync.max-changes:1000}")
+    private int maxChanges;
+
+    @Value("${todoapp.sync.tombstone-retention:30d}")
+    private Duration tombstoneRetention;
+
+    @Value("${todoapp.sync.prune-batch-size:1000}")
+    private int pruneBatchSize;
+
+    @Override
+    public void recordChanged(Collection<Long> taskIds) {
+        taskChangeRepository.recordByTaskIds(taskIds, false);
+    }
+
+    @Override
+    public void recordDeleted(Collection<Long> taskIds) {
+        taskChangeRepository.recordByTaskIds(taskIds, true);
+    }
+
+    @Override
+    public void recordCategoryChanged(Long categoryId) {
+        taskChangeRepository.recordByCategoryId(categoryId, false);
+    }
+
+    @Override
+    public void recordCategoryDeleted(Long categoryId) {
+        taskChangeRepository.recordByCategoryId(categoryId, true);
+    }
+
+    @Override
+    public void recordTagChanged(Long tagId) {
+        taskChangeRepository.recordByTagId(tagId);
+    }
+
+    @Override
+    public void recordMoved(Long taskId, Long previousUserId) {
+        taskChangeRepository.recordMoved(taskId, previousUserId);
+    }
+
+    @Override
+    public void removeUser(Long userId) {
+        taskChangeRepository.deleteByUserId(userId);
+    }
+
+    @Override
+    @Transactional
+    public int recordMissing() {
+        int recorded = taskChangeRepository.recordMissing();
+        if (recorded > 0) {
+            log.info("Log de alterações preenchido para {} tarefas existentes", recorded);
+        }
+        return recorded;
+    }
+
+    // Cada lote é removido em uma transação própria, para não segurar os usuários bloqueados
+    // durante toda a poda.
+    @Override
+    public int pruneTombstones() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        LocalDateTime cutoff = LocalDateTime.now().minus(tombstoneRetention);
+        int pruned = 0;
+        int found;
+        do {
+            Integer count = transaction.execute(status -> taskChangeRepository.pruneTombstones(cutoff, pruneBatchSize));
+            found = count;
+            pruned += found;
+        } while (found == pruneBatchSize);
+        if (pruned > 0) {
+            log.info("{} lápides do log de alterações anteriores a {} removidas", pruned, cutoff);
+        }
+        return pruned;
+    }
+
+    // Lê uma alteração a mais que o limite só para saber se há outra página.
+    @Override
+    @Transactional(readOnly = true)
+    public TaskChangesDto findChanges(Long userId, long since, Integer limit) {
+        if (since < 0) {
+            throw new IllegalArgumentException("O parâmetro since não pode ser negativo.");
+        }
+        int pageSize = limit != null ? limit : maxChanges;
+        if (pageSize <= 0 || pageSize > maxChanges) {
+            throw new IllegalArgumentException("O limite deve estar entre 1 e " + maxChanges + ".");
+        }
+        List<TaskChange> changes = taskChangeRepository.findByUserIdAfter(userId, since, pageSize + 1);
+        // O horizonte é lido depois das alterações: uma poda confirmada antes da leitura
+        // aparece aqui, e uma confirmada depois não removeu nada do que foi lido.
+        if (since > 0 && since < taskChangeRepository.findPrunedSeq(userId)) {
+            throw new ResyncRequiredException("O parâmetro since é anterior à retenção do log de alterações; "
+                    + "descarte o estado local e sincronize novamente com since=0.");
+        }
+        boolean hasMore = changes.size() > pageSize;
+        if (hasMore) {
+            changes = changes.subList(0, pageSize);
+        }
+
+        List<Long> changedIds = new ArrayList<>();
+        List<Long> deleted = new ArrayList<>();
+        Map<Long, Long> sequenceByTask = new HashMap<>();
+        for (TaskChange change : changes) {
+            (change.isDeleted() ? deleted : changedIds).add(change.getTaskId());
+            sequenceByTask.put(change.getTaskId(), change.getSeq());
+        }
+
+        List<TaskResponseDto> changed = taskRepository.findWithDetailsByIds(changedIds).stream()
+                .sorted(Comparator.comparing((Task task) -> sequenceByTask.get(task.getId())))
+                .map(TaskMapper::toResponseDto)
+                .toList();
+        long next = changes.isEmpty() ? since : changes.get(changes.size() - 1).getSeq();
+        return new TaskChangesDto(changed, deleted, next, hasMore);
+    }
+}
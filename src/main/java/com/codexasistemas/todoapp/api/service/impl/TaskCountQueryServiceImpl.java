@@ -0,0 +1,90 @@
+package com.codexasistemas.todoapp.api.service.impl;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.codexasistemas.todoapp.api.dto.category.CategoryWithTaskCountDto;
+import com.codexasistemas.todoapp.api.dto.tag.TagWithTaskCountDto;
+import com.codexasistemas.todoapp.api.model.Category;
+import com.codexasistemas.todoapp.api.model.CategoryTaskCounter;
+import com.codexasistemas.todoapp.api.model.TagTaskCounter;
+import com.codexasistemas.todoapp.api.repository.interfaces.CategoryRepository;
+import com.codexasistemas.todoapp.api.repository.interfaces.TagRepository;
+import com.codexasistemas.todoapp.api.repository.interfaces.TaskCounterRepository;
+import com.codexasistemas.todoapp.api.repository.interfaces.UserRepository;
+import com.codexasistemas.todoapp.api.service.interfaces.TaskCountQueryService;
+
+@Service
+public class TaskCountQueryServiceImpl implements TaskCountQueryService {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private TagRepository tagRepository;
+
+    @Autowired
+    private TaskCounterRepository taskCounterRepository;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<CategoryWithTaskCountDto> loadCategoriesWithTaskCount(Long userId) {
+        checkUser(userId);
+        Map<Long, CategoryTaskCounter> counters = taskCounterRepository.findCategoryCountersByUserId(userId).stream()
+            .collect(Collectors.toMap(CategoryTaskCounter::getCategoryId, Function.identity()));
+        List<Category> categories = categoryRepository.findByUserId(userId);
+        return categories.stream()
+            .map(category -> {
+                CategoryTaskCounter counter = counters.get(category.getId());
+                return new CategoryWithTaskCountDto(
+                    category.getId(),
+                    category.getName(),
+                    counter != null ? (int) (counter.getOpenCount() + counter.getDoneCount()) : 0,
+                    counter != null && counter.getOpenCount() > 0,
+                    counter != null ? counter.getLastCreatedAt() : null
+                );
+            })
+            .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TagWithTaskCountDto> loadTagsWithTaskCount(Long userId) {
+        checkUser(userId);
+        Map<Long, List<TagTaskCounter>> counters = taskCounterRepository.findTagCountersByUserId(userId).stream()
+            .filter(counter -> counter.getOpenCount() + counter.getDoneCount() > 0)
+            .collect(Collectors.groupingBy(TagTaskCounter::getTagId));
+        return tagRepository.findByUserId(userId).stream()
+            .filter(tag -> counters.containsKey(tag.getId()))
+            .map(tag -> new TagWithTaskCountDto(
+                tag.getId(),
+                tag.getName(),
+                (int) counters.get(tag.getId()).stream()
+                    .mapToLong(counter -> counter.getOpenCount() + counter.getDoneCount())
+                    .sum(),
+                counters.get(tag.getId()).stream()
+                    .map(TagTaskCounter::getCategoryId)
+                    .sorted()
+                    .collect(Collectors.toList())
+            ))
+            .collect(Collectors.toList());
+    }
+
+    private void checkUser(Long userId) {
+        if (userId == null || userId <= 0) {
+            throw new IllegalArgumentException("O ID deve ser um número positivo.");
+        }
+        if (!userRepository.existsById(userId)) {
+            throw new IllegalArgumentException("Usuário não encontrado.");
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.codexasistemas.todoapp.api.service.impl;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.codexasistemas.todoapp.api.model.TagTaskCounter;
+import com.codexasistemas.todoapp.api.repository.interfaces.TaskCounterRepository;
+import com.codexasistemas.todoapp.api.repository.interfaces.TaskRepository;
+import com.codexasistemas.todoapp.api.repository.interfaces.UserRepository;
+import com.codexasistemas.todoapp.api.repository.projection.CategoryCountView;
+import com.codexasistemas.todoapp.api.repository.projection.TagCountView;
+import com.codexasistemas.todoapp.api.service.interfaces.TaskCounterService;
+
+@Service
+public class TaskCounterServiceImpl implements TaskCounterService {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskCounterServiceImpl.class);
+
+    @Autowired
+    private TaskCounterRepository counterRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${todoapp.counters.rebuild-batch-size:100}")
+    private int rebuildBatchSize;
+
+    @Override
+    public void apply(Snapshot before, Snapshot after) {
+        Deltas deltas = new Deltas();
+        deltas.add(before, -1, false);
+        deltas.add(after, 1, before == null);
+        deltas.flush();
+    }
+
+    @Override
+    public void subtract(Collection<Long> taskIds) {
+        addCounts(taskIds, -1);
+    }
+
+    @Override
+    public void subtractExceptUser(Collection<Long> taskIds, Long userId) {
+        addCounts(taskIds, -1, userId);
+    }
+
+    @Override
+    public void add(Collection<Long> taskIds) {
+        addCounts(taskIds, 1);
+    }
+
+    private void addCounts(Collection<Long> taskIds, int sign) {
+        addCounts(taskIds, sign, null);
+    }
+
+    private void addCounts(Collection<Long> taskIds, int sign, Long exceptUserId) {
+        if (taskIds.isEmpty()) {
+            return;
+        }
+        Deltas deltas = new Deltas();
+        for (CategoryCountView count : taskRepository.countByCategoryForIds(taskIds)) {
+            if (count.userId().equals(exceptUserId)) {
+                continue;
+            }
+            deltas.category(count.categoryId(), count.userId(), count.done(), sign * count.count(),
+                    sign > 0 ? count.lastCreatedAt() : null);
+        }
+        for (TagCountView count : taskRepository.countByTagForIds(taskIds)) {
+            if (count.userId().equals(exceptUserId)) {
+                continue;
+            }
+            deltas.tag(count.tagId(), count.categoryId(), count.userId(), count.done(), sign * count.count());
+        }
+        deltas.flush();
+    }
+
+    @Override
+    public void removeCategory(Long categoryId) {
+        counterRepository.deleteByCategoryId(categoryId);
+    }
+
+    @Override
+    public void moveCategory(Long fromCategoryId, Long toCategoryId, Long toUserId) {
+        counterRepository.findCategoryCounter(fromCategoryId).ifPresent(counter -> counterRepository.incrementCategory(
+                toCategoryId, toUserId, counter.getOpenCount(), counter.getDoneCount(), counter.getLastCreatedAt()));
+        for (TagTaskCounter counter : counterRepository.findTagCountersByCategoryId(fromCategoryId)) {
+            counterRepository.incrementTag(counter.getTagId(), toCategoryId, counter.getUserId(),
+                    counter.getOpenCount(), counter.getDoneCount());
+        }
+        removeCategory(fromCategoryId);
+    }
+
+    @Override
+    public void removeTag(Long tagId) {
+        counterRepository.deleteByTagId(tagId);
+    }
+
+    @Override
+    public void removeUser(Long userId) {
+        counterRepository.deleteByUserId(userId);
+        counterRepository.deleteByCategoryUserId(userId);
+    }
+
+    @Override
+    @Transactional
+    public void rebuild(Long userId) {
+        counterRepository.rebuildByUserId(userId);
+    }
+
+    @Override
+    public void rebuildTag(Long tagId) {
+        counterRepository.rebuildByTagId(tagId);
+    }
+
+    @Override
+    public int rebuildAll() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        int rebuilt = 0;
+        Long lastId = 0L;
+        List<Long> userIds;
+        while (!(userIds = userRepository.findIdsAfter(lastId, rebuildBatchSize)).isEmpty()) {
+            List<Long> batch = userIds;
+            transaction.executeWithoutResult(status -> batch.forEach(counterRepository::rebuildByUserId));
+            rebuilt += batch.size();
+            lastId = batch.get(batch.size() - 1);
+        }
+        log.info("Contadores de tarefas reconstruídos para {} usuários", rebuilt);
+        return rebuilt;
+    }
+
+    // Acumula as variações por chave e grava um UPDATE por contador afetado. As chaves são
+    // percorridas em ordem para que os bloqueios de criação de contador não gerem deadlock.
+    private class Deltas {
+
+        private final Map<Long, long[]> categories = new TreeMap<>();
+        private final Map<Long, Long> categoryUsers = new HashMap<>();
+        private final Map<Long, LocalDateTime> categoryLastCreated = new HashMap<>();
+        private final Map<TagTaskCounter.Key, long[]> tags = new TreeMap<>(
+                Comparator.comparing(TagTaskCounter.Key::getTagId).thenComparing(TagTaskCounter.Key::getCategoryId));
+        private final Map<TagTaskCounter.Key, Long> tagUsers = new HashMap<>();
+
+        void add(Snapshot snapshot, int sign, boolean created) {
+            if (snapshot == null) {
+                return;
+            }
+            category(snapshot.categoryId(), snapshot.categoryUserId(), snapshot.done(), sign,
+                    created ? snapshot.createdAt() : null);
+            snapshot.tagUserIds().forEach((tagId, userId) -> tag(tagId, snapshot.categoryId(), userId,
+                    snapshot.done(), sign));
+        }
+
+        void category(Long categoryId, Long userId, boolean done, long amount, LocalDateTime createdAt) {
+            long[] delta = categories.computeIfAbsent(categoryId, id -> new long[2]);
+            delta[done ? 1 : 0] += amount;
+            categoryUsers.putIfAbsent(categoryId, userId);
+            if (createdAt != null) {
+                categoryLastCreated.merge(categoryId, createdAt, (a, b) -> a.isAfter(b) ? a : b);
+            }
+        }
+
+        void tag(Long tagId, Long categoryId, Long userId, boolean done, long amount) {
+            TagTaskCounter.Key key = new TagTaskCounter.Key(tagId, categoryId);
+            long[] delta = tags.computeIfAbsent(key, k -> new long[2]);
+            delta[done ? 1 : 0] += amount;
+            tagUsers.putIfAbsent(key, userId);
+        }
+
+        void flush() {
+            categories.forEach((categoryId, delta) -> {
+                LocalDateTime lastCreated = categoryLastCreated.get(categoryId);
+                if (delta[0] != 0 || delta[1] != 0 || lastCreated != null) {
+                    counterRepository.incrementCategory(categoryId, categoryUsers.get(categoryId), delta[0], delta[1],
+                            lastCreated);
+                }
+            });
+            tags.forEach((key, delta) -> {
+                if (delta[0] != 0 || delta[1] != 0) {
+                    counterRepository.incrementTag(key.getTagId(), key.getCategoryId(), tagUsers.get(key),
+                            delta[0], delta[1]);
+                }
+            });
+        }
+    }
+}
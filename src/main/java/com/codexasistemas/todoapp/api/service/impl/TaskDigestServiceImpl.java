@@ -0,0 +1,98 @@
+package com.codexasistemas.todoapp.api.service.impl;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.codexasistemas.todoapp.api.dto.user.UserTaskDigestDto;
+import com.codexasistemas.todoapp.api.model.UserTaskDigest;
+import com.codexasistemas.todoapp.api.repository.interfaces.TaskRepository;
+import com.codexasistemas.todoapp.api.repository.interfaces.UserRepository;
+import com.codexasistemas.todoapp.api.repository.interfaces.UserTaskDigestRepository;
+import com.codexasistemas.todoapp.api.repository.projection.UserDueCountView;
+import com.codexasistemas.todoapp.api.service.interfaces.TaskDigestService;
+import com.codexasistemas.todoapp.api.service.interfaces.UserService;
+
+@Service
+public class TaskDigestServiceImpl implements TaskDigestService {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskDigestServiceImpl.class);
+
+    @Autowired
+    private UserTaskDigestRepository digestRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${todoapp.digest.batch-size:500}")
+    private int batchSize;
+
+    @Override
+    public UserTaskDigestDto findByUserId(Long userId) {
+        userService.findByIdEntity(userId);
+        UserTaskDigest digest = digestRepository.findByUserId(userId)
+                .orElseGet(() -> new TransactionTemplate(transactionManager)
+                        .execute(status -> refreshBatch(List.of(userId), LocalDate.now()).get(0)));
+        return new UserTaskDigestDto(digest.getUserId(), digest.getOverdueCount(), digest.getDueTodayCount(),
+                digest.getComputedAt());
+    }
+
+    // Percorre os usuários em lotes de ids, com uma consulta agregada e uma transação por lote.
+    @Override
+    public int refreshAll() {
+        LocalDate today = LocalDate.now();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        int refreshed = 0;
+        Long lastId = 0L;
+        List<Long> userIds;
+        while (!(userIds = userRepository.findIdsAfter(lastId, batchSize)).isEmpty()) {
+            List<Long> batch = userIds;
+            transaction.executeWithoutResult(status -> refreshBatch(batch, today));
+            refreshed += batch.size();
+            lastId = batch.get(batch.size() - 1);
+        }
+        log.info("Resumo de vencimentos recalculado para {} usuários", refreshed);
+        return refreshed;
+    }
+
+    private List<UserTaskDigest> refreshBatch(List<Long> userIds, LocalDate today) {
+        Map<Long, UserDueCountView> counts = taskRepository.countDueByUserIds(userIds, today).stream()
+                .collect(Collectors.toMap(UserDueCountView::userId, Function.identity()));
+        Map<Long, UserTaskDigest> digests = digestRepository.findAllByUserIds(userIds).stream()
+                .collect(Collectors.toMap(UserTaskDigest::getUserId, Function.identity()));
+
+        LocalDateTime now = LocalDateTime.now();
+        for (Long userId : userIds) {
+            UserDueCountView count = counts.get(userId);
+            UserTaskDigest digest = digests.computeIfAbsent(userId, id -> {
+                UserTaskDigest created = new UserTaskDigest();
+                created.setUserId(id);
+                return created;
+            });
+            digest.setOverdueCount(count != null ? count.overdueCount() : 0);
+            digest.setDueTodayCount(count != null ? count.dueTodayCount() : 0);
+            digest.setComputedAt(now);
+        }
+        return digestRepository.saveAll(userIds.stream().map(digests::get).toList());
+    }
+}
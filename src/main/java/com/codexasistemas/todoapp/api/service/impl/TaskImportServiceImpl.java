@@ -0,0 +1,319 @@
+package com.codexasistemas.todoapp.api.service.impl;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.codexasistemas.todoapp.api.dto.task.TaskImportErrorDto;
+import com.codexasistemas.todoapp.api.dto.task.TaskImportFormat;
+import com.codexasistemas.todoapp.api.dto.task.TaskImportResultDto;
+import com.codexasistemas.todoapp.api.dto.task.TaskImportRowDto;
+import com.codexasistemas.todoapp.api.model.Category;
+import com.codexasistemas.todoapp.api.model.Tag;
+import com.codexasistemas.todoapp.api.model.Task;
+import com.codexasistemas.todoapp.api.model.User;
+import com.codexasistemas.todoapp.api.repository.interfaces.CategoryRepository;
+import com.codexasistemas.todoapp.api.repository.interfaces.TagRepository;
+import com.codexasistemas.todoapp.api.repository.interfaces.TaskRepository;
+import com.codexasistemas.todoapp.api.service.interfaces.TaskChangeService;
+import com.codexasistemas.todoapp.api.service.interfaces.TaskCounterService;
+import com.codexasistemas.todoapp.api.service.interfaces.TaskImportService;
+import com.codexasistemas.todoapp.api.service.interfaces.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@Service
+public class TaskImportServiceImpl implements TaskImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskImportServiceImpl.class);
+
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private TagRepository tagRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private TaskCounterService taskCounterService;
+
+    @Autowired
+    private TaskChangeService taskChangeService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${todoapp.import.chunk-size:1000}")
+    private int chunkSize;
+
+    @Override
+    public TaskImportResultDto importTasks(Long userId, TaskImportFormat format, InputStream in) throws IOException {
+        User user = userService.findByIdEntity(userId);
+        ImportRun run = new ImportRun(user);
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        CsvHeader csvHeader = null;
+        if (format == TaskImportFormat.CSV) {
+            String header = reader.readLine();
+            if (header == null) {
+                return run.result();
+            }
+            run.lineNumber++;
+            csvHeader = new CsvHeader(parseCsvLine(header));
+        }
+
+        List<PendingRow> chunk = new ArrayList<>(chunkSize);
+        String line;
+        while ((line = reader.readLine()) != null) {
+            long lineNumber = ++run.lineNumber;
+            if (line.isBlank()) {
+                continue;
+            }
+            run.processed++;
+            try {
+                TaskImportRowDto row = format == TaskImportFormat.CSV
+                        ? csvHeader.toRow(parseCsvLine(line))
+                        : objectMapper.readValue(line, TaskImportRowDto.class);
+                chunk.add(new PendingRow(lineNumber, row));
+            } catch (Exception e) {
+                run.fail(lineNumber, "Linha inválida: " + e.getMessage());
+            }
+            if (chunk.size() >= chunkSize) {
+                importChunk(run, chunk);
+                chunk = new ArrayList<>(chunkSize);
+            }
+        }
+        importChunk(run, chunk);
+
+        log.info("Importação do usuário {} concluída: {} linhas, {} tarefas importadas, {} falhas",
+                userId, run.processed, run.imported, run.failed);
+        return run.result();
+    }
+
+    private void importChunk(ImportRun run, List<PendingRow> chunk) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        Map<String, Category> createdCategories = new HashMap<>();
+        Map<String, Tag> createdTags = new HashMap<>();
+        List<TaskImportErrorDto> chunkErrors = new ArrayList<>();
+        try {
+            Integer inserted = new TransactionTemplate(transactionManager).execute(status -> {
+                List<Task> tasks = new ArrayList<>(chunk.size());
+                for (PendingRow pending : chunk) {
+                    try {
+                        tasks.add(toTask(run, pending.row(), createdCategories, createdTags));
+                    } catch (IllegalArgumentException | IllegalStateException e) {
+                        chunkErrors.add(new TaskImportErrorDto(pending.line(), e.getMessage()));
+                    }
+                }
+                List<Long> ids = taskRepository.insertAll(tasks);
+                taskCounterService.add(ids);
+                taskChangeService.recordChanged(ids);
+                return ids.size();
+            });
+            run.categories.putAll(createdCategories);
+            run.tags.putAll(createdTags);
+            run.imported += inserted;
+            chunkErrors.forEach(error -> run.fail(error.line(), error.message()));
+        } catch (RuntimeException e) {
+            log.warn("Falha ao gravar lote da importação do usuário {}", run.user.getId(), e);
+            for (PendingRow pending : chunk) {
+                run.fail(pending.line(), "Lote não gravado: " + e.getMessage());
+            }
+        }
+        log.info("Importação do usuário {}: {} linhas processadas, {} tarefas importadas, {} falhas",
+                run.user.getId(), run.processed, run.imported, run.failed);
+    }
+
+    private Task toTask(ImportRun run, TaskImportRowDto row, Map<String, Category> createdCategories,
+            Map<String, Tag> createdTags) {
+        if (row.category() == null || row.category().isBlank()) {
+            throw new IllegalArgumentException("A categoria é obrigatória.");
+        }
+        Task task = new Task();
+        task.updateTitle(row.title());
+        task.updateDescription(row.description());
+        task.assignUser(run.user);
+        task.changeCategory(resolveCategory(run, row.category().trim(), createdCategories));
+        task.importDueDate(row.dueDate());
+        if (Boolean.TRUE.equals(row.done())) {
+            task.markAsDone();
+        }
+
+        List<Tag> tags = new ArrayList<>();
+        if (row.tags() != null) {
+            Set<String> names = new LinkedHashSet<>();
+            for (String name : row.tags()) {
+                if (name != null && !name.isBlank()) {
+                    names.add(name.trim());
+                }
+            }
+            for (String name : names) {
+                tags.add(resolveTag(run, name, createdTags));
+            }
+        }
+        task.setTags(tags);
+        return task;
+    }
+
+    private Category resolveCategory(ImportRun run, String name, Map<String, Category> createdCategories) {
+        Category category = run.categories.get(name);
+        if (category == null) {
+            category = createdCategories.computeIfAbsent(name, key -> {
+                Category created = new Category();
+                created.setName(key);
+                created.setUser(run.user);
+                return categoryRepository.save(created);
+            });
+        }
+        return category;
+    }
+
+    private Tag resolveTag(ImportRun run, String name, Map<String, Tag> createdTags) {
+        Tag tag = run.tags.get(name);
+        if (tag == null) {
+            tag = createdTags.computeIfAbsent(name, key -> {
+                Tag created = new Tag();
+                created.setName(key);
+                created.setUser(run.user);
+                return tagRepository.save(created);
+            });
+        }
+        return tag;
+    }
+
+    static List<String> parseCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        current.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Aspas não fechadas.");
+        }
+        values.add(current.toString());
+        return values;
+    }
+
+    private record PendingRow(long line, TaskImportRowDto row) {
+    }
+
+    // Estado de uma importação: mapas de categorias e tags do usuário por nome
+    // (carregados uma única vez) e os contadores de progresso.
+    private class ImportRun {
+
+        private final User user;
+        private final Map<String, Category> categories = new HashMap<>();
+        private final Map<String, Tag> tags = new HashMap<>();
+        private final List<TaskImportErrorDto> errors = new ArrayList<>();
+        private long lineNumber;
+        private long processed;
+        private long imported;
+        private long failed;
+
+        ImportRun(User user) {
+            this.user = user;
+            categoryRepository.findByUserId(user.getId())
+                    .forEach(category -> categories.putIfAbsent(category.getName(), category));
+            tagRepository.findByUserId(user.getId())
+                    .forEach(tag -> tags.putIfAbsent(tag.getName(), tag));
+        }
+
+        void fail(long line, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new TaskImportErrorDto(line, message));
+            }
+        }
+
+        TaskImportResultDto result() {
+            errors.sort(Comparator.comparingLong(TaskImportErrorDto::line));
+            return new TaskImportResultDto(processed, imported, failed, List.copyOf(errors));
+        }
+    }
+
+    private static class CsvHeader {
+
+        private final Map<String, Integer> columns = new HashMap<>();
+
+        CsvHeader(List<String> names) {
+            for (int i = 0; i < names.size(); i++) {
+                columns.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+            }
+            if (!columns.containsKey("title") || !columns.containsKey("category")) {
+                throw new IllegalArgumentException("O cabeçalho CSV deve conter as colunas 'title' e 'category'.");
+            }
+        }
+
+        TaskImportRowDto toRow(List<String> values) {
+            String tags = value(values, "tags");
+            String dueDate = value(values, "duedate");
+            String done = value(values, "done");
+            return new TaskImportRowDto(
+                    value(values, "title"),
+                    value(values, "description"),
+                    value(values, "category"),
+                    tags != null ? Arrays.asList(tags.split(";")) : null,
+                    dueDate != null ? LocalDate.parse(dueDate.trim()) : null,
+                    done != null ? Boolean.valueOf(done.trim()) : null);
+        }
+
+        private String value(List<String> values, String column) {
+            Integer index = columns.get(column);
+            if (index == null || index >= values.size() || values.get(index).isEmpty()) {
+                return null;
+            }
+            return values.get(index);
+        }
+    }
+}
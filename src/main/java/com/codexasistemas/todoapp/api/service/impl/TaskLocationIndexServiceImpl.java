@@ -0,0 +1,336 @@
+package com.codexasistemas.todoapp.api.service.impl;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.codexasistemas.todoapp.api.dto.task.TaskLocationIndexStatsDto;
+import com.codexasistemas.todoapp.api.dto.task.TaskPointDto;
+import com.codexasistemas.todoapp.api.dto.task.TaskWithinResponseDto;
+import com.codexasistemas.todoapp.api.exception.BackPressureException;
+import com.codexasistemas.todoapp.api.model.GeoCell;
+import com.codexasistemas.todoapp.api.repository.interfaces.TaskRepository;
+import com.codexasistemas.todoapp.api.repository.shard.ShardRouter;
+import com.codexasistemas.todoapp.api.service.interfaces.TaskLocationIndexService;
+
+// Cada usuário guarda suas tarefas em dois arrays paralelos (célula e id), ordenados
+// pela célula: 16 bytes por ponto. Uma consulta por caixa vira até 4 intervalos de
+// células (GeoCell.coverBox), localizados por busca binária.
+@Service
+public class TaskLocationIndexServiceImpl implements TaskLocationIndexService {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskLocationIndexServiceImpl.class);
+
+    // Estimativa por usuário: entrada do mapa, chave, objeto UserPoints e cabeçalhos dos arrays.
+    private static final long USER_OVERHEAD_BYTES = 128;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private volatile Map<Long, UserPoints> points = new ConcurrentHashMap<>();
+
+    private volatile LocalDateTime builtAt;
+
+    // Serializa as escritas e guarda as alterações ocorridas durante uma reconstrução,
+    // reaplicadas sobre o índice novo antes da troca.
+    private final Object writeLock = new Object();
+
+    private List<Change> changesDuringRebuild;
+
+    @Override
+    public void rebuild() {
+        synchronized (writeLock) {
+            changesDuringRebuild = new ArrayList<>();
+        }
+        try {
+            Builder builder = new Builder();
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            transaction.setReadOnly(true);
+            // Com particionamento, um único índice reúne as tarefas de todos os shards.
+            shardRouter.forEachShard(shard -> transaction
+                    .executeWithoutResult(status -> taskRepository.forEachLocationCell(builder::add)));
+            install(builder);
+        } finally {
+            synchronized (writeLock) {
+                changesDuringRebuild = null;
+            }
+        }
+        TaskLocationIndexStatsDto stats = stats();
+        log.info("Índice de localização construído: {} usuários, {} pontos, ~{} KiB",
+                stats.users(), stats.points(), stats.estimatedBytes() / 1024);
+    }
+
+    void install(Builder builder) {
+        Map<Long, UserPoints> built = builder.build();
+        synchronized (writeLock) {
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.forEach(change -> change.applyTo(built));
+            }
+            points = built;
+            builtAt = LocalDateTime.now();
+        }
+    }
+
+    @Override
+    public void add(Long userId, Long taskId, Long cell) {
+        if (userId != null && cell != null) {
+            afterCommit(new Change(userId, taskId, cell, true));
+        }
+    }
+
+    @Override
+    public void remove(Long userId, Long taskId, Long cell) {
+        if (userId != null && cell != null) {
+            afterCommit(new Change(userId, taskId, cell, false));
+        }
+    }
+
+    @Override
+    public void removeUser(Long userId) {
+        afterCommit(new Change(userId, null, 0, false));
+    }
+
+    @Override
+    public TaskWithinResponseDto within(Long userId, double south, double west, double north, double east,
+            int limit) {
+        // Antes da primeira construção o índice está vazio: responder [] seria afirmar que não
+        // há tarefas na caixa.
+        if (builtAt == null) {
+            throw new BackPressureException("Índice de localização ainda em construção; tente novamente em instantes.",
+                    5);
+        }
+        UserPoints user = points.get(userId);
+        if (user == null) {
+            return new TaskWithinResponseDto(List.of(), false);
+        }
+        List<TaskPointDto> found = new ArrayList<>();
+        user.collect(GeoCell.coverBox(south, west, north, east), south, west, north, east, limit + 1, found);
+        boolean truncated = found.size() > limit;
+        return new TaskWithinResponseDto(truncated ? found.subList(0, limit) : found, truncated);
+    }
+
+    @Override
+    public TaskLocationIndexStatsDto stats() {
+        Map<Long, UserPoints> current = points;
+        long count = 0;
+        long bytes = 0;
+        for (UserPoints user : current.values()) {
+            synchronized (user) {
+                count += user.size;
+                bytes += USER_OVERHEAD_BYTES + 16L * user.cells.length;
+            }
+        }
+        return new TaskLocationIndexStatsDto(current.size(), count, bytes, builtAt);
+    }
+
+    private void afterCommit(Change change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(change);
+                }
+            });
+        } else {
+            apply(change);
+        }
+    }
+
+    private void apply(Change change) {
+        synchronized (writeLock) {
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.add(change);
+            }
+            change.applyTo(points);
+        }
+    }
+
+    // taskId nulo remove todos os pontos do usuário.
+    private record Change(Long userId, Long taskId, long cell, boolean added) {
+
+        void applyTo(Map<Long, UserPoints> target) {
+            if (taskId == null) {
+                target.remove(userId);
+            } else if (added) {
+                target.computeIfAbsent(userId, id -> new UserPoints(new long[4], new long[4], 0))
+                        .add(taskId, cell);
+            } else {
+                UserPoints user = target.get(userId);
+                if (user != null && user.remove(taskId, cell) == 0) {
+                    target.remove(userId);
+                }
+            }
+        }
+    }
+
+    static final class UserPoints {
+
+        private long[] cells;
+        private long[] ids;
+        private int size;
+
+        UserPoints(long[] cells, long[] ids, int size) {
+            this.cells = cells;
+            this.ids = ids;
+            this.size = size;
+        }
+
+        // Idempotente: reaplicar a mesma inclusão não duplica o ponto.
+        synchronized void add(long taskId, long cell) {
+            int index = lowerBound(cell);
+            for (int i = index; i < size && cells[i] == cell; i++) {
+                if (ids[i] == taskId) {
+                    return;
+                }
+            }
+            if (size == cells.length) {
+                int capacity = Math.max(4, size + (size >> 1));
+                cells = Arrays.copyOf(cells, capacity);
+                ids = Arrays.copyOf(ids, capacity);
+            }
+            System.arraycopy(cells, index, cells, index + 1, size - index);
+            System.arraycopy(ids, index, ids, index + 1, size - index);
+            cells[index] = cell;
+            ids[index] = taskId;
+            size++;
+        }
+
+        synchronized int remove(long taskId, long cell) {
+            for (int i = lowerBound(cell); i < size && cells[i] == cell; i++) {
+                if (ids[i] == taskId) {
+                    System.arraycopy(cells, i + 1, cells, i, size - i - 1);
+                    System.arraycopy(ids, i + 1, ids, i, size - i - 1);
+                    size--;
+                    break;
+                }
+            }
+            return size;
+        }
+
+        synchronized void collect(GeoCell.Cover cover, double south, double west, double north, double east,
+                int limit, List<TaskPointDto> out) {
+            boolean crossesAntimeridian = west > east;
+            for (GeoCell.Range range : cover.ranges()) {
+                for (int i = lowerBound(range.from()); i < size && cells[i] < range.to(); i++) {
+                    double latitude = GeoCell.latitudeOf(cells[i]);
+                    double longitude = GeoCell.longitudeOf(cells[i]);
+                    boolean inside = latitude >= south && latitude <= north
+                            && (crossesAntimeridian ? longitude >= west || longitude <= east
+                                    : longitude >= west && longitude <= east);
+                    if (inside) {
+                        out.add(new TaskPointDto(ids[i], latitude, longitude));
+                        if (out.size() >= limit) {
+                            return;
+                        }
+                    }
+                }
+            }
+        }
+
+        private void append(long taskId, long cell) {
+            if (size == cells.length) {
+                cells = Arrays.copyOf(cells, size * 2);
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            cells[size] = cell;
+            ids[size++] = taskId;
+        }
+
+        private void sortAndTrim() {
+            cells = Arrays.copyOf(cells, size);
+            ids = Arrays.copyOf(ids, size);
+            Builder.sort(cells, ids);
+        }
+
+        private int lowerBound(long cell) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (cells[mid] < cell) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+
+    // Acumula os pontos sem ordem e ordena cada usuário uma única vez no final.
+    static final class Builder {
+
+        private final Map<Long, UserPoints> pending = new HashMap<>();
+
+        void add(long taskId, long userId, long cell) {
+            pending.computeIfAbsent(userId, id -> new UserPoints(new long[16], new long[16], 0)).append(taskId, cell);
+        }
+
+        Map<Long, UserPoints> build() {
+            Map<Long, UserPoints> built = new ConcurrentHashMap<>(Math.max(16, pending.size() * 4 / 3 + 1));
+            pending.forEach((userId, user) -> {
+                user.sortAndTrim();
+                built.put(userId, user);
+            });
+            pending.clear();
+            return built;
+        }
+
+        // Merge sort de baixo para cima sobre os arrays paralelos, ordenando pela célula.
+        private static void sort(long[] cells, long[] ids) {
+            int n = cells.length;
+            long[] cellBuffer = new long[n];
+            long[] idBuffer = new long[n];
+            long[] fromCells = cells;
+            long[] fromIds = ids;
+            long[] toCells = cellBuffer;
+            long[] toIds = idBuffer;
+            for (int width = 1; width < n; width *= 2) {
+                for (int low = 0; low < n; low += 2 * width) {
+                    int mid = Math.min(low + width, n);
+                    int high = Math.min(low + 2 * width, n);
+                    int i = low;
+                    int j = mid;
+                    for (int k = low; k < high; k++) {
+                        if (i < mid && (j >= high || fromCells[i] <= fromCells[j])) {
+                            toCells[k] = fromCells[i];
+                            toIds[k] = fromIds[i++];
+                        } else {
+                            toCells[k] = fromCells[j];
+                            toIds[k] = fromIds[j++];
+                        }
+                    }
+                }
+                long[] swapCells = fromCells;
+                long[] swapIds = fromIds;
+                fromCells = toCells;
+                fromIds = toIds;
+                toCells = swapCells;
+                toIds = swapIds;
+            }
+            if (fromCells != cells) {
+                System.arraycopy(fromCells, 0, cells, 0, n);
+                System.arraycopy(fromIds, 0, ids, 0, n);
+            }
+        }
+    }
+}
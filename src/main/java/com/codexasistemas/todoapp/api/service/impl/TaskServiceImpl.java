@@ -1,35 +1,80 @@
 package com.codexasistemas.todoapp.api.service.impl;
 
+import com.codexasistemas.todoapp.api.dto.task.TaskBulkAction;
+import com.codexasistemas.todoapp.api.dto.task.TaskBulkFilterDto;
+import com.codexasistemas.todoapp.api.dto.task.TaskBulkOutcome;
+import com.codexasistemas.todoapp.api.dto.task.TaskBulkRequestDto;
+import com.codexasistemas.todoapp.api.dto.task.TaskBulkResponseDto;
+import com.codexasistemas.todoapp.api.dto.task.TaskBulkResultDto;
+import com.codexasistemas.todoapp.api.dto.task.TaskField;
 import com.codexasistemas.todoapp.api.dto.task.TaskRequestDto;
 import com.codexasistemas.todoapp.api.dto.task.TaskResponseDto;
+import com.codexasistemas.todoapp.api.dto.task.TaskWithinResponseDto;
 import com.codexasistemas.todoapp.api.mapper.TaskMapper;
 import com.codexasistemas.todoapp.api.model.Category;
+import com.codexasistemas.todoapp.api.model.GeoCell;
 import com.codexasistemas.todoapp.api.model.Location;
 import com.codexasistemas.todoapp.api.model.Tag;
 import com.codexasistemas.todoapp.api.model.Task;
 import com.codexasistemas.todoapp.api.model.User;
+import com.codexasistemas.todoapp.api.repository.interfaces.ArchivedTaskRepository;
 import com.codexasistemas.todoapp.api.repository.interfaces.TaskRepository;
+import com.codexasistemas.todoapp.api.repository.projection.TaskStateView;
+import com.codexasistemas.todoapp.api.service.interfaces.TaskLocationIndexService;
 import com.codexasistemas.todoapp.api.service.interfaces.TaskService;
 import com.codexasistemas.todoapp.api.service.interfaces.CategoryService;
 import com.codexasistemas.todoapp.api.service.interfaces.TagService;
+import com.codexasistemas.todoapp.api.service.interfaces.TaskChangeService;
+import com.codexasistemas.todoapp.api.service.interfaces.TaskCounterService;
+import com.codexasistemas.todoapp.api.service.interfaces.TaskCounterService.Snapshot;
+import com.codexasistemas.todoapp.api.service.interfaces.TaskToggleWriteBehindService;
 import com.codexasistemas.todoapp.api.service.interfaces.UserService;
 
+import com.fasterxml.jackson.databind.JsonNode;
+
 import jakarta.persistence.EntityNotFoundException;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 public class TaskServiceImpl implements TaskService {
 
+    private static final Logger log = LoggerFactory.getLogger(TaskServiceImpl.class);
+
+    private static final Set<String> PATCH_FIELDS = Set.of("title", "description", "userId", "categoryId",
+            "tagIds", "dueDate", "location");
+
+    private static final Set<String> PATCH_LOCATION_FIELDS = Set.of("latitude", "longitude", "locationName",
+            "locationDescription");
+
     @Autowired
     private TaskRepository taskRepository;
 
+    @Autowired
+    private ArchivedTaskRepository archivedTaskRepository;
+
     @Autowired
     private UserService userService;
 
@@ -39,7 +84,35 @@ public class TaskServiceImpl implements TaskService {
     @Autowired
     private TagService tagService;
 
+    @Autowired
+    private TaskCounterService taskCounterService;
+
+    @Autowired
+    private TaskChangeService taskChangeService;
+
+    @Autowired
+    private TaskLocationIndexService taskLocationIndexService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired(required = false)
+    private TaskToggleWriteBehindService toggleWriteBehindService;
+
+    @Value("${todoapp.geo.max-radius-meters:50000}")
+    private double maxRadiusMeters;
+
+    @Value("${todoapp.geo.cell-batch-size:500}")
+    private int locationCellBatchSize;
+
+    @Value("${todoapp.geo.index.max-results:5000}")
+    private int maxWithinResults;
+
+    @Value("${todoapp.due.max-results:500}")
+    private int maxDueResults;
+
     @Override
+    @Transactional(readOnly = true)
     public List<TaskResponseDto> findAll() {
         return taskRepository.findAll().stream()
                 .map(TaskMapper::toResponseDto)
@@ -47,12 +120,31 @@ public class TaskServiceImpl implements TaskService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<TaskResponseDto> findById(Long id) {
         return taskRepository.findById(id)
-                .map(TaskMapper::toResponseDto);
+                .map(TaskMapper::toResponseDto)
+                .map(this::withPendingToggle);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<TaskResponseDto> findById(Long id, boolean includeArchived) {
+        Optional<TaskResponseDto> task = findById(id);
+        if (task.isPresent() || !includeArchived) {
+            return task;
+        }
+        return archivedTaskRepository.findById(id).map(TaskMapper::toResponseDto);
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public Optional<Map<String, Object>> findFieldsById(Long id, Set<TaskField> fields) {
+        return taskRepository.findFieldsById(id, fields).map(this::withPendingToggle);
+    }
+
+    @Override
+    @Transactional
     public TaskResponseDto create(TaskRequestDto taskRequest) {
         User user = userService.findByIdEntity(taskRequest.userId());
         Category category = categoryService.findByIdEntity(taskRequest.categoryId());
@@ -62,22 +154,34 @@ public class TaskServiceImpl implements TaskService {
 
         Task task = TaskMapper.toEntity(taskRequest, user, category, tags);
         Task savedTask = taskRepository.save(task);
+        taskCounterService.apply(null, Snapshot.of(savedTask));
+        taskChangeService.recordChanged(List.of(savedTask.getId()));
+        taskLocationIndexService.add(user.getId(), savedTask.getId(), savedTask.getLocationCell());
         return TaskMapper.toResponseDto(savedTask);
     }
 
     @Override
+    @Transactional
     public TaskResponseDto delete(Long id) {
         Task task = taskRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Tarefa não encontrada: " + id));
         TaskResponseDto responseDto = TaskMapper.toResponseDto(task);
+        taskCounterService.apply(Snapshot.of(task), null);
+        taskChangeService.recordDeleted(List.of(task.getId()));
+        taskLocationIndexService.remove(userIdOf(task), task.getId(), task.getLocationCell());
         taskRepository.deleteById(task.getId());
+        discardPendingToggles(List.of(id));
         return responseDto;
     }
 
     @Override
+    @Transactional
     public TaskResponseDto update(Long id, TaskRequestDto taskRequest) {
         Task existingTask = taskRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Tarefa não encontrada: " + id));
+        Snapshot before = Snapshot.of(existingTask);
+        Long previousUserId = userIdOf(existingTask);
+        Long previousCell = existingTask.isCanceled() ? null : existingTask.getLocationCell();
 
         User user = userService.findByIdEntity(taskRequest.userId());
         Category category = categoryService.findByIdEntity(taskRequest.categoryId());
@@ -93,42 +197,443 @@ public class TaskServiceImpl implements TaskService {
         existingTask.setDueDate(taskRequest.dueDate());
 
         if (taskRequest.location() != null && taskRequest.location().latitude() != null && taskRequest.location().longitude() != null) {
-            Location location = new Location(
+            existingTask.updateLocation(
                     taskRequest.location().latitude(),
                     taskRequest.location().longitude(),
                     taskRequest.location().locationName(),
                     taskRequest.location().locationDescription());
-            existingTask.setLocation(location);
         } else {
             existingTask.setLocation(null);
         }
 
         Task updatedTask = taskRepository.save(existingTask);
+        taskCounterService.apply(before, Snapshot.of(updatedTask));
+        taskChangeService.recordChanged(List.of(id));
+        if (previousUserId != null && !previousUserId.equals(user.getId())) {
+            taskChangeService.recordMoved(id, previousUserId);
+        }
+        taskLocationIndexService.remove(previousUserId, id, previousCell);
+        taskLocationIndexService.add(user.getId(), id, updatedTask.isCanceled() ? null : updatedTask.getLocationCell());
         return TaskMapper.toResponseDto(updatedTask);
     }
 
+    // JSON Merge Patch (RFC 7396): só os campos presentes são alterados e null remove o
+    // valor. Usuário, categoria e tags só são carregados quando o patch os altera, e com
+    // @DynamicUpdate o UPDATE grava apenas as colunas modificadas.
+    @Override
+    @Transactional
+    public TaskResponseDto patch(Long id, JsonNode patch) {
+        if (patch == null || !patch.isObject()) {
+            throw new IllegalArgumentException("O corpo do patch deve ser um objeto JSON.");
+        }
+        patch.fieldNames().forEachRemaining(field -> {
+            if (!PATCH_FIELDS.contains(field)) {
+                throw new IllegalArgumentException("Campo desconhecido no patch: " + field);
+            }
+        });
+        Task task = taskRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Tarefa não encontrada: " + id));
+        if (patch.isEmpty()) {
+            return TaskMapper.toResponseDto(task);
+        }
+
+        // Os contadores dependem só da categoria, das tags e do status.
+        boolean countersAffected = patch.has("categoryId") || patch.has("tagIds");
+        Snapshot before = countersAffected ? Snapshot.of(task) : null;
+        Long previousUserId = userIdOf(task);
+        Long previousCell = task.isCanceled() ? null : task.getLocationCell();
+
+        if (patch.has("title")) {
+            task.updateTitle(patchText(patch, "title"));
+        }
+        if (patch.has("description")) {
+            task.updateDescription(patchText(patch, "description"));
+        }
+        if (patch.has("dueDate")) {
+            task.setDueDate(patchDate(patch, "dueDate"));
+        }
+        if (patch.has("userId")) {
+            Long userId = patchId(patch, "userId");
+            if (!userId.equals(previousUserId)) {
+                task.assignUser(userService.findByIdEntity(userId));
+            }
+        }
+        if (patch.has("categoryId")) {
+            Long categoryId = patchId(patch, "categoryId");
+            if (!categoryId.equals(task.getCategory().getId())) {
+                task.changeCategory(categoryService.findByIdEntity(categoryId));
+            }
+        }
+        if (patch.has("tagIds")) {
+            patchTags(task, patch.get("tagIds"));
+        }
+        if (patch.has("location")) {
+            patchLocation(task, patch.get("location"));
+        }
+
+        Task patchedTask = taskRepository.save(task);
+        if (countersAffected) {
+            taskCounterService.apply(before, Snapshot.of(patchedTask));
+        }
+        taskChangeService.recordChanged(List.of(id));
+        Long userId = userIdOf(patchedTask);
+        if (previousUserId != null && !previousUserId.equals(userId)) {
+            taskChangeService.recordMoved(id, previousUserId);
+        }
+        if (patch.has("userId") || patch.has("location")) {
+            taskLocationIndexService.remove(previousUserId, id, previousCell);
+            taskLocationIndexService.add(userId, id, patchedTask.isCanceled() ? null : patchedTask.getLocationCell());
+        }
+        return TaskMapper.toResponseDto(patchedTask);
+    }
+
+    // Só as tags que ainda não estão na tarefa são buscadas.
+    private void patchTags(Task task, JsonNode value) {
+        List<Long> ids = new ArrayList<>();
+        if (!value.isNull()) {
+            if (!value.isArray()) {
+                throw new IllegalArgumentException("O campo tagIds deve ser uma lista de IDs.");
+            }
+            for (JsonNode element : value) {
+                if (!element.isIntegralNumber()) {
+                    throw new IllegalArgumentException("O campo tagIds deve ser uma lista de IDs.");
+                }
+                ids.add(element.longValue());
+            }
+        }
+        Map<Long, Tag> current = task.getTags() == null ? Map.of()
+                : task.getTags().stream().collect(Collectors.toMap(Tag::getId, tag -> tag));
+        List<Tag> tags = new ArrayList<>(ids.size());
+        for (Long tagId : new LinkedHashSet<>(ids)) {
+            Tag tag = current.get(tagId);
+            tags.add(tag != null ? tag : tagService.findByIdEntity(tagId));
+        }
+        task.setTags(tags);
+    }
+
+    // Aplica o patch sobre os valores atuais da localização; null remove a localização.
+    private void patchLocation(Task task, JsonNode value) {
+        if (value.isNull()) {
+            task.setLocation(null);
+            return;
+        }
+        if (!value.isObject()) {
+            throw new IllegalArgumentException("O campo location deve ser um objeto JSON.");
+        }
+        value.fieldNames().forEachRemaining(field -> {
+            if (!PATCH_LOCATION_FIELDS.contains(field)) {
+                throw new IllegalArgumentException("Campo desconhecido no patch: location." + field);
+            }
+        });
+        Location current = task.getLocation();
+        Double latitude = value.has("latitude") ? patchCoordinate(value, "latitude")
+                : current != null ? current.getLatitude() : null;
+        Double longitude = value.has("longitude") ? patchCoordinate(value, "longitude")
+                : current != null ? current.getLongitude() : null;
+        String locationName = value.has("locationName") ? patchText(value, "locationName")
+                : current != null ? current.getLocationName() : null;
+        String locationDescription = value.has("locationDescription") ? patchText(value, "locationDescription")
+                : current != null ? current.getLocationDescription() : null;
+        task.updateLocation(latitude, longitude, locationName, locationDescription);
+    }
+
+    private static String patchText(JsonNode patch, String field) {
+        JsonNode value = patch.get(field);
+        if (value.isNull()) {
+            return null;
+        }
+        if (!value.isTextual()) {
+            throw new IllegalArgumentException("O campo " + field + " deve ser um texto.");
+        }
+        return value.textValue();
+    }
+
+    private static Long patchId(JsonNode patch, String field) {
+        JsonNode value = patch.get(field);
+        if (!value.isIntegralNumber()) {
+            throw new IllegalArgumentException("O campo " + field + " deve ser um ID e não pode ser removido.");
+        }
+        return value.longValue();
+    }
+
+    private static LocalDate patchDate(JsonNode patch, String field) {
+        String value = patchText(patch, field);
+        try {
+            return value != null ? LocalDate.parse(value) : null;
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("O campo " + field + " deve ser uma data no formato AAAA-MM-DD.");
+        }
+    }
+
+    private static Double patchCoordinate(JsonNode patch, String field) {
+        JsonNode value = patch.get(field);
+        if (value.isNull()) {
+            return null;
+        }
+        if (!value.isNumber()) {
+            throw new IllegalArgumentException("O campo location." + field + " deve ser um número.");
+        }
+        return value.doubleValue();
+    }
+
     @Override
+    @Transactional(readOnly = true)
     public List<TaskResponseDto> findByUserId(Long userId) {
         return taskRepository.findByUserId(userId).stream()
                 .map(TaskMapper::toResponseDto)
+                .map(this::withPendingToggle)
+                .collect(Collectors.toList());
+    }
+
+    // As tarefas arquivadas canceladas ficam de fora, como as canceladas de task.
+    @Override
+    @Transactional(readOnly = true)
+    public List<TaskResponseDto> findByUserId(Long userId, boolean includeArchived) {
+        List<TaskResponseDto> tasks = findByUserId(userId);
+        if (!includeArchived) {
+            return tasks;
+        }
+        List<TaskResponseDto> all = new ArrayList<>(tasks);
+        archivedTaskRepository.findByUserId(userId).forEach(task -> all.add(TaskMapper.toResponseDto(task)));
+        all.sort(Comparator.comparing(TaskResponseDto::id));
+        return all;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> findFieldsByUserId(Long userId, Set<TaskField> fields) {
+        List<Map<String, Object>> tasks = taskRepository.findFieldsByUserId(userId, fields);
+        tasks.forEach(this::withPendingToggle);
+        return tasks;
+    }
+
+    // Com o intervalo aberto em alguma ponta, a lista pode abranger todas as tarefas abertas
+    // do usuário: devolve só as primeiras todoapp.due.max-results, pela data de vencimento.
+    @Override
+    @Transactional(readOnly = true)
+    public List<TaskResponseDto> findDue(Long userId, LocalDate after, LocalDate before) {
+        userService.findByIdEntity(userId);
+        if (after != null && before != null && !after.isBefore(before)) {
+            throw new IllegalArgumentException("A data inicial deve ser anterior à data final.");
+        }
+        Integer limit = after == null || before == null ? maxDueResults : null;
+        return taskRepository.findOpenByUserIdAndDueDateBetween(userId, after, before, limit).stream()
+                .map(TaskMapper::toResponseDto)
+                .collect(Collectors.toList());
+    }
+
+    // Busca por intervalos de células no índice (user_id, location_cell) e refina
+    // pela distância de haversine, ordenando da tarefa mais próxima para a mais distante.
+    @Override
+    @Transactional(readOnly = true)
+    public List<TaskResponseDto> findNearby(Long userId, double latitude, double longitude, double radiusMeters) {
+        new Location(latitude, longitude, null, null).validateCoordinates();
+        if (radiusMeters <= 0 || radiusMeters > maxRadiusMeters) {
+            throw new IllegalArgumentException("O raio deve estar entre 0 e " + (long) maxRadiusMeters + " metros.");
+        }
+        Map<Task, Double> distances = new HashMap<>();
+        for (Task task : taskRepository.findByUserIdAndLocationCells(userId,
+                GeoCell.cover(latitude, longitude, radiusMeters))) {
+            double distance = GeoCell.distanceMeters(latitude, longitude,
+                    task.getLocation().getLatitude(), task.getLocation().getLongitude());
+            if (distance <= radiusMeters) {
+                distances.put(task, distance);
+            }
+        }
+        return distances.entrySet().stream()
+                .sorted(Map.Entry.<Task, Double>comparingByValue()
+                        .thenComparing(entry -> entry.getKey().getId()))
+                .map(entry -> TaskMapper.toResponseDto(entry.getKey()))
                 .collect(Collectors.toList());
     }
 
+    // Consulta o índice em memória desta instância, sem acessar o banco.
+    @Override
+    public TaskWithinResponseDto findWithin(Long userId, double south, double west, double north, double east,
+            Integer limit) {
+        new Location(south, west, null, null).validateCoordinates();
+        new Location(north, east, null, null).validateCoordinates();
+        if (south > north) {
+            throw new IllegalArgumentException("A latitude sul deve ser menor ou igual à latitude norte.");
+        }
+        int maxResults = limit != null ? limit : maxWithinResults;
+        if (maxResults <= 0 || maxResults > maxWithinResults) {
+            throw new IllegalArgumentException("O limite deve estar entre 1 e " + maxWithinResults + ".");
+        }
+        return taskLocationIndexService.within(userId, south, west, north, east, maxResults);
+    }
+
+    // Preenche a célula das tarefas com localização gravadas antes da coluna existir.
     @Override
+    public int refreshLocationCells() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        int refreshed = 0;
+        int updated;
+        do {
+            updated = transaction.execute(status -> {
+                List<Task> tasks = taskRepository.findWithoutLocationCell(locationCellBatchSize);
+                tasks.forEach(Task::refreshLocationCell);
+                return tasks.size();
+            });
+            refreshed += updated;
+        } while (updated == locationCellBatchSize);
+        if (refreshed > 0) {
+            log.info("Célula de localização preenchida para {} tarefas", refreshed);
+        }
+        return refreshed;
+    }
+
+    // Apaga, em lotes, as localizações que nenhuma tarefa referencia; elas se acumularam
+    // enquanto cada atualização criava uma nova linha de location.
+    @Override
+    public int deleteOrphanLocations() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        int deleted = 0;
+        List<Long> ids;
+        do {
+            ids = taskRepository.findOrphanLocationIds(locationCellBatchSize);
+            List<Long> batch = ids;
+            if (!batch.isEmpty()) {
+                deleted += transaction.execute(status -> taskRepository.deleteOrphanLocations(batch));
+            }
+        } while (ids.size() == locationCellBatchSize);
+        if (deleted > 0) {
+            log.info("{} localizações sem tarefa apagadas", deleted);
+        }
+        return deleted;
+    }
+
+    @Override
+    @Transactional
     public TaskResponseDto toggleStatus(Long id) {
         Task task = taskRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Tarefa não encontrada: " + id));
+        Snapshot before = Snapshot.of(task);
         
         task.toggleStatus();
         Task updatedTask = taskRepository.save(task);
+        taskCounterService.apply(before, Snapshot.of(updatedTask));
+        taskChangeService.recordChanged(List.of(id));
+        discardPendingToggles(List.of(id));
         return TaskMapper.toResponseDto(updatedTask);
     }
 
     @Override
+    @Transactional
     public void cancel(Long id) {
         Task task = taskRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Tarefa não encontrada: " + id));
+        Snapshot before = Snapshot.of(task);
         task.cancel();
         taskRepository.save(task);
+        taskCounterService.apply(before, Snapshot.of(task));
+        taskChangeService.recordChanged(List.of(id));
+        taskLocationIndexService.remove(userIdOf(task), task.getId(), task.getLocationCell());
+        discardPendingToggles(List.of(id));
+    }
+
+    @Override
+    @Transactional
+    public TaskBulkResponseDto bulk(TaskBulkRequestDto bulkRequest) {
+        boolean hasIds = bulkRequest.ids() != null && !bulkRequest.ids().isEmpty();
+        TaskBulkFilterDto filter = bulkRequest.filter();
+        if (!hasIds && filter == null) {
+            throw new IllegalArgumentException("Informe a lista de IDs ou um filtro.");
+        }
+        // Um filtro sem critérios alcançaria todas as tarefas do usuário.
+        if (filter != null && filter.categoryId() == null && filter.tagId() == null && filter.dueBefore() == null) {
+            throw new IllegalArgumentException("O filtro deve ter ao menos um critério: categoryId, tagId ou dueBefore.");
+        }
+        userService.findByIdEntity(bulkRequest.userId());
+
+        Map<Long, TaskBulkOutcome> outcomes = new LinkedHashMap<>();
+        List<TaskStateView> states;
+        if (hasIds) {
+            Set<Long> ids = new LinkedHashSet<>(bulkRequest.ids());
+            ids.forEach(id -> outcomes.put(id, TaskBulkOutcome.NOT_FOUND));
+            states = taskRepository.findStatesByUserIdAndIds(bulkRequest.userId(), ids);
+            if (filter != null) {
+                // Tarefas do usuário que não atendem ao filtro existem: ficam fora como SKIPPED.
+                states.forEach(state -> outcomes.put(state.id(), TaskBulkOutcome.SKIPPED));
+                states = taskRepository.findStatesByFilterAndIds(bulkRequest.userId(), ids, filter.categoryId(),
+                        filter.tagId(), filter.dueBefore());
+            }
+        } else {
+            states = taskRepository.findStatesByFilter(bulkRequest.userId(), filter.categoryId(),
+                    filter.tagId(), filter.dueBefore());
+        }
+
+        List<Long> eligible = new ArrayList<>();
+        List<Long> decided = new ArrayList<>();
+        boolean removesFromIndex = bulkRequest.action() == TaskBulkAction.CANCEL
+                || bulkRequest.action() == TaskBulkAction.DELETE;
+        for (TaskStateView state : states) {
+            TaskBulkOutcome outcome = bulkOutcome(bulkRequest.action(), state);
+            outcomes.put(state.id(), outcome);
+            if (outcome != TaskBulkOutcome.REJECTED) {
+                decided.add(state.id());
+            }
+            if (outcome == TaskBulkOutcome.APPLIED) {
+                eligible.add(state.id());
+                if (removesFromIndex && !state.canceled()) {
+                    taskLocationIndexService.remove(bulkRequest.userId(), state.id(), state.locationCell());
+                }
+            }
+        }
+
+        int affected = 0;
+        if (!eligible.isEmpty()) {
+            taskCounterService.subtract(eligible);
+            if (bulkRequest.action() == TaskBulkAction.DELETE) {
+                taskChangeService.recordDeleted(eligible);
+            }
+            affected = switch (bulkRequest.action()) {
+                case DONE -> taskRepository.updateDone(eligible, true);
+                case UNDONE -> taskRepository.updateDone(eligible, false);
+                case CANCEL -> taskRepository.updateCanceledAt(eligible, LocalDateTime.now());
+                case DELETE -> taskRepository.deleteAllByIds(eligible);
+            };
+            if (bulkRequest.action() != TaskBulkAction.DELETE) {
+                taskCounterService.add(eligible);
+                taskChangeService.recordChanged(eligible);
+            }
+        }
+        // Mesmo sem alteração, o status pedido prevalece sobre uma alternância ainda na fila.
+        discardPendingToggles(decided);
+
+        List<TaskBulkResultDto> results = outcomes.entrySet().stream()
+                .map(entry -> new TaskBulkResultDto(entry.getKey(), entry.getValue()))
+                .toList();
+        return new TaskBulkResponseDto(bulkRequest.action(), affected, results);
+    }
+
+    private void discardPendingToggles(Collection<Long> ids) {
+        if (toggleWriteBehindService != null) {
+            toggleWriteBehindService.discard(ids);
+        }
+    }
+
+    // Com a alternância em write-behind, a leitura mostra o status já confirmado ao cliente.
+    private TaskResponseDto withPendingToggle(TaskResponseDto task) {
+        return toggleWriteBehindService != null ? toggleWriteBehindService.withPendingDone(task) : task;
+    }
+
+    private Map<String, Object> withPendingToggle(Map<String, Object> task) {
+        return toggleWriteBehindService != null ? toggleWriteBehindService.withPendingDone(task) : task;
+    }
+
+    private static Long userIdOf(Task task) {
+        return task.getUser() != null ? task.getUser().getId() : null;
+    }
+
+    // Espelha as regras de Task.markAsDone, markAsUndone e cancel sem carregar a entidade.
+    private static TaskBulkOutcome bulkOutcome(TaskBulkAction action, TaskStateView state) {
+        return switch (action) {
+            case DONE -> state.done() ? TaskBulkOutcome.UNCHANGED : TaskBulkOutcome.APPLIED;
+            case UNDONE -> state.done() ? TaskBulkOutcome.APPLIED : TaskBulkOutcome.UNCHANGED;
+            case CANCEL -> state.canceled() ? TaskBulkOutcome.UNCHANGED
+                    : state.done() ? TaskBulkOutcome.REJECTED : TaskBulkOutcome.APPLIED;
+            case DELETE -> TaskBulkOutcome.APPLIED;
+        };
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,325 @@
+package com.codexasistemas.todoapp.api.service.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.codexasistemas.todoapp.api.dto.task.TaskToggleResponseDto;
+import com.codexasistemas.todoapp.api.exception.BackPressureException;
+import com.codexasistemas.todoapp.api.repository.interfaces.TaskRepository;
+import com.codexasistemas.todoapp.api.repository.shard.ShardContext;
+import com.codexasistemas.todoapp.api.repository.shard.ShardRouter;
+import com.codexasistemas.todoapp.api.service.interfaces.TaskChangeService;
+import com.codexasistemas.todoapp.api.service.interfaces.TaskCounterService;
+import com.codexasistemas.todoapp.api.service.interfaces.TaskToggleWriteBehindService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+
+// Guarda, por id de tarefa, o status gravado no banco e o status desejado. Alternâncias
+// repetidas da mesma tarefa só invertem o status desejado; o flush grava apenas as
+// tarefas cujo status mudou, com um UPDATE para concluídas e outro para pendentes.
+// O UPDATE só vale para tarefas ainda no status lido e não canceladas, e as escritas
+// síncronas do TaskServiceImpl descartam a alternância pendente da tarefa: o que foi
+// gravado depois da alternância não é sobrescrito pelo flush.
+@Service
+@ConditionalOnProperty(name = "todoapp.toggle.write-behind.enabled", havingValue = "true")
+public class TaskToggleWriteBehindServiceImpl implements TaskToggleWriteBehindService {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskToggleWriteBehindServiceImpl.class);
+
+    private final TaskRepository taskRepository;
+
+    private final TaskCounterService taskCounterService;
+
+    private final TaskChangeService taskChangeService;
+
+    private final ShardRouter shardRouter;
+
+    private final TransactionTemplate transaction;
+
+    private final int capacity;
+
+    private final long offerTimeoutMillis;
+
+    private final Object lock = new Object();
+
+    private final Object flushLock = new Object();
+
+    // Protegidos por lock. inFlight contém o lote sendo gravado pelo flush corrente;
+    // flushGeneration muda a cada flush encerrado.
+    private Map<Long, PendingToggle> pending = new HashMap<>();
+    private Map<Long, PendingToggle> inFlight = Map.of();
+    private long flushGeneration;
+
+    private volatile int depth;
+
+    private final Counter requests;
+    private final Counter coalesced;
+    private final Counter rejected;
+    private final Counter flushedRows;
+    private final Counter conflicts;
+    private final Counter flushFailures;
+    private final Timer flushTimer;
+
+    public TaskToggleWriteBehindServiceImpl(TaskRepository taskRepository, TaskCounterService taskCounterService,
+            TaskChangeService taskChangeService, ShardRouter shardRouter, PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${todoapp.toggle.write-behind.capacity:10000}") int capacity,
+            @Value("${todoapp.toggle.write-behind.offer-timeout-ms:100}") long offerTimeoutMillis) {
+        this.taskRepository = taskRepository;
+        this.taskCounterService = taskCounterService;
+        this.taskChangeService = taskChangeService;
+        this.shardRouter = shardRouter;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.capacity = capacity;
+        this.offerTimeoutMillis = offerTimeoutMillis;
+
+        Gauge.builder("todoapp.toggle.queue.depth", () -> depth)
+                .description("Tarefas com alternância pendente de gravação")
+                .register(meterRegistry);
+        Gauge.builder("todoapp.toggle.queue.capacity", () -> capacity).register(meterRegistry);
+        requests = meterRegistry.counter("todoapp.toggle.requests");
+        coalesced = meterRegistry.counter("todoapp.toggle.coalesced");
+        rejected = meterRegistry.counter("todoapp.toggle.rejected");
+        flushedRows = meterRegistry.counter("todoapp.toggle.flushed.rows");
+        conflicts = meterRegistry.counter("todoapp.toggle.conflicts");
+        flushFailures = meterRegistry.counter("todoapp.toggle.flush.failures");
+        flushTimer = meterRegistry.timer("todoapp.toggle.flush");
+    }
+
+    @Override
+    public TaskToggleResponseDto toggle(Long id) {
+        requests.increment();
+        long deadline = System.currentTimeMillis() + offerTimeoutMillis;
+        while (true) {
+            long generation;
+            synchronized (lock) {
+                TaskToggleResponseDto coalescedToggle = flipPending(id);
+                if (coalescedToggle != null) {
+                    return coalescedToggle;
+                }
+                awaitCapacity(deadline);
+                coalescedToggle = flipPending(id);
+                if (coalescedToggle != null) {
+                    return coalescedToggle;
+                }
+                PendingToggle flying = inFlight.get(id);
+                if (flying != null) {
+                    return enqueue(id, flying.done, flying.shard);
+                }
+                generation = flushGeneration;
+            }
+
+            // Primeira alternância da tarefa: o status atual vem do banco, fora do lock.
+            boolean stored = taskRepository.findStateById(id)
+                    .orElseThrow(() -> new EntityNotFoundException("Tarefa não encontrada: " + id))
+                    .done();
+
+            synchronized (lock) {
+                // Se um flush terminou ou a tarefa entrou na fila enquanto o banco era
+                // lido, o status lido pode estar desatualizado: recomeça.
+                if (generation == flushGeneration && !pending.containsKey(id) && !inFlight.containsKey(id)
+                        && pending.size() < capacity) {
+                    return enqueue(id, stored, ShardContext.currentShard());
+                }
+            }
+        }
+    }
+
+    @Override
+    public int flush() {
+        synchronized (flushLock) {
+            Map<Long, PendingToggle> batch;
+            synchronized (lock) {
+                if (pending.isEmpty()) {
+                    return 0;
+                }
+                batch = pending;
+                pending = new HashMap<>();
+                inFlight = batch;
+                depth = 0;
+                lock.notifyAll();
+            }
+
+            // Com particionamento, cada shard tem sua transação; se um deles falhar, só as
+            // tarefas dos shards ainda não gravados voltam à fila.
+            Map<String, List<Long>> done = new HashMap<>();
+            Map<String, List<Long>> undone = new HashMap<>();
+            batch.forEach((id, toggle) -> {
+                if (toggle.done != toggle.stored) {
+                    (toggle.done ? done : undone).computeIfAbsent(toggle.shard, shard -> new ArrayList<>()).add(id);
+                }
+            });
+            Set<String> shards = new HashSet<>(done.keySet());
+            shards.addAll(undone.keySet());
+            Set<String> flushed = new HashSet<>();
+            int[] changedCount = { 0 };
+
+            try {
+                flushTimer.record(() -> {
+                    for (String shard : shards) {
+                        List<Long> shardDone = done.getOrDefault(shard, List.of());
+                        List<Long> shardUndone = undone.getOrDefault(shard, List.of());
+                        List<Long> changed = new ArrayList<>(shardDone);
+                        changed.addAll(shardUndone);
+                        int updated = shardRouter.callOn(shard, () -> transaction.execute(status -> {
+                            taskCounterService.subtract(changed);
+                            int rows = taskRepository.updateDoneIfOpposite(shardDone, true)
+                                    + taskRepository.updateDoneIfOpposite(shardUndone, false);
+                            taskCounterService.add(changed);
+                            taskChangeService.recordChanged(changed);
+                            return rows;
+                        }));
+                        flushed.add(shard);
+                        changedCount[0] += updated;
+                        conflicts.increment(changed.size() - updated);
+                    }
+                });
+                synchronized (lock) {
+                    inFlight = Map.of();
+                    flushGeneration++;
+                }
+                flushedRows.increment(changedCount[0]);
+                return changedCount[0];
+            } catch (RuntimeException e) {
+                // Devolve o lote à fila; alternâncias feitas durante o flush continuam
+                // valendo, mas partindo do status que ainda está no banco.
+                synchronized (lock) {
+                    batch.forEach((id, toggle) -> {
+                        if (flushed.contains(toggle.shard)) {
+                            return;
+                        }
+                        PendingToggle newer = pending.get(id);
+                        if (newer != null) {
+                            newer.stored = toggle.stored;
+                        } else {
+                            pending.put(id, toggle);
+                        }
+                    });
+                    inFlight = Map.of();
+                    flushGeneration++;
+                    depth = pending.size();
+                }
+                flushedRows.increment(changedCount[0]);
+                flushFailures.increment();
+                log.error("Falha ao gravar {} alternâncias de status; o lote será reenviado", batch.size(), e);
+                return changedCount[0];
+            }
+        }
+    }
+
+    @Override
+    public Optional<Boolean> pendingDone(Long id) {
+        synchronized (lock) {
+            PendingToggle toggle = pending.get(id);
+            if (toggle == null) {
+                toggle = inFlight.get(id);
+            }
+            return toggle != null ? Optional.of(toggle.done) : Optional.empty();
+        }
+    }
+
+    @Override
+    public void discard(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    discardNow(ids);
+                }
+            });
+        } else {
+            discardNow(ids);
+        }
+    }
+
+    private void discardNow(Collection<Long> ids) {
+        synchronized (lock) {
+            ids.forEach(pending::remove);
+            depth = pending.size();
+            lock.notifyAll();
+        }
+    }
+
+    // Grava o que estiver na fila antes de o contexto fechar o pool de conexões.
+    @PreDestroy
+    public void flushOnShutdown() {
+        int flushed = flush();
+        synchronized (lock) {
+            if (!pending.isEmpty()) {
+                log.error("{} alternâncias de status não foram gravadas no encerramento", pending.size());
+            }
+        }
+        log.info("Fila de alternâncias esvaziada no encerramento: {} tarefas gravadas", flushed);
+    }
+
+    // Chamados com lock.
+    private TaskToggleResponseDto flipPending(Long id) {
+        PendingToggle toggle = pending.get(id);
+        if (toggle == null) {
+            return null;
+        }
+        toggle.done = !toggle.done;
+        coalesced.increment();
+        return new TaskToggleResponseDto(id, toggle.done);
+    }
+
+    private TaskToggleResponseDto enqueue(Long id, boolean stored, String shard) {
+        pending.put(id, new PendingToggle(stored, shard));
+        depth = pending.size();
+        return new TaskToggleResponseDto(id, !stored);
+    }
+
+    private void awaitCapacity(long deadline) {
+        while (pending.size() >= capacity) {
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                rejected.increment();
+                throw new BackPressureException("Fila de alternâncias cheia; tente novamente em instantes.", 1);
+            }
+            try {
+                lock.wait(remaining);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                rejected.increment();
+                throw new BackPressureException("Fila de alternâncias indisponível.", 1);
+            }
+        }
+    }
+
+    private static final class PendingToggle {
+
+        private boolean stored;
+        private boolean done;
+        private final String shard;
+
+        PendingToggle(boolean stored, String shard) {
+            this.stored = stored;
+            this.done = !stored;
+            this.shard = shard;
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.codexasistemas.todoapp.api.service.impl;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.codexasistemas.todoapp.api.dto.user.UserDeletionStatusDto;
+import com.codexasistemas.todoapp.api.dto.user.UserDeletionStatusDto.State;
+import com.codexasistemas.todoapp.api.repository.interfaces.ArchivedTaskRepository;
+import com.codexasistemas.todoapp.api.repository.interfaces.CategoryRepository;
+import com.codexasistemas.todoapp.api.repository.interfaces.TagRepository;
+import com.codexasistemas.todoapp.api.repository.interfaces.TaskRepository;
+import com.codexasistemas.todoapp.api.repository.interfaces.UserRepository;
+import com.codexasistemas.todoapp.api.repository.interfaces.UserTaskDigestRepository;
+import com.codexasistemas.todoapp.api.repository.projection.TaskOwnerView;
+import com.codexasistemas.todoapp.api.repository.shard.ShardRouter;
+import com.codexasistemas.todoapp.api.service.interfaces.TaskChangeService;
+import com.codexasistemas.todoapp.api.service.interfaces.TaskCounterService;
+import com.codexasistemas.todoapp.api.service.interfaces.TaskLocationIndexService;
+import com.codexasistemas.todoapp.api.service.interfaces.UserDeletionService;
+
+import jakarta.persistence.EntityNotFoundException;
+
+@Service
+public class UserDeletionServiceImpl implements UserDeletionService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserDeletionServiceImpl.class);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ArchivedTaskRepository archivedTaskRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private TagRepository tagRepository;
+
+    @Autowired
+    private UserTaskDigestRepository userTaskDigestRepository;
+
+    @Autowired
+    private TaskCounterService taskCounterService;
+
+    @Autowired
+    private TaskChangeService taskChangeService;
+
+    @Autowired
+    private TaskLocationIndexService taskLocationIndexService;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private TaskExecutor taskExecutor;
+
+    @Value("${todoapp.users.deletion.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${todoapp.users.deletion.status-ttl:1h}")
+    private Duration statusTtl;
+
+    private final Map<Long, Progress> deletions = new ConcurrentHashMap<>();
+
+    @Override
+    public void delete(Long userId) {
+        Progress progress = start(userId);
+        try {
+            deleteTasks(userId, progress);
+            deleteUser(userId, progress);
+            progress.finish(null);
+        } catch (RuntimeException e) {
+            progress.finish(e);
+            throw e;
+        } finally {
+            // A transação ainda pode ser desfeita; o status só interessa ao modo em segundo plano.
+            deletions.remove(userId, progress);
+        }
+    }
+
+    @Override
+    public UserDeletionStatusDto deleteInBackground(Long userId) {
+        Progress progress = start(userId);
+        // A thread do executor não herda o escopo da requisição: abre um no shard do usuário.
+        taskExecutor.execute(() -> shardRouter.runForUser(userId, () -> {
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            try {
+                while (Boolean.TRUE.equals(transaction.execute(status -> deleteChunk(userId, progress)))) {
+                    log.info("Exclusão do usuário {}: {} de {} tarefas removidas", userId,
+                            progress.deletedTasks, progress.totalTasks);
+                }
+                transaction.executeWithoutResult(status -> {
+                    // Tarefas criadas durante a exclusão saem na mesma transação do usuário.
+                    deleteTasks(userId, progress);
+                    deleteUser(userId, progress);
+                });
+                progress.finish(null);
+                log.info("Usuário {} excluído: {} tarefas removidas", userId, progress.deletedTasks);
+            } catch (RuntimeException e) {
+                progress.finish(e);
+                log.error("Falha na exclusão do usuário {}", userId, e);
+            }
+        }));
+        return progress.toDto();
+    }
+
+    @Override
+    public UserDeletionStatusDto findStatus(Long userId) {
+        Progress progress = deletions.get(userId);
+        if (progress == null) {
+            throw new EntityNotFoundException("Nenhuma exclusão registrada para o usuário: " + userId);
+        }
+        return progress.toDto();
+    }
+
+    private Progress start(Long userId) {
+        if (userId == null || userId <= 0) {
+            throw new IllegalArgumentException("O ID deve ser um número positivo.");
+        }
+        if (!userRepository.existsById(userId)) {
+            throw new IllegalArgumentException("Usuário não encontrado.");
+        }
+        LocalDateTime expired = LocalDateTime.now().minus(statusTtl);
+        deletions.values().removeIf(progress -> progress.finishedAt != null && progress.finishedAt.isBefore(expired));
+
+        Progress progress = new Progress(userId, taskRepository.countByUserIdOrCategoryUserId(userId));
+        // Verifica e substitui de forma atômica: de duas chamadas simultâneas, só uma começa.
+        deletions.compute(userId, (id, running) -> {
+            if (running != null && running.state == State.RUNNING) {
+                throw new IllegalArgumentException("A exclusão do usuário já está em andamento.");
+            }
+            return progress;
+        });
+        return progress;
+    }
+
+    private void deleteTasks(Long userId, Progress progress) {
+        while (deleteChunk(userId, progress)) {
+            // Cada lote remove as tarefas lidas; a próxima leitura começa do zero.
+        }
+    }
+
+    // Remove um lote de tarefas do usuário ou das categorias dele; false quando não há mais.
+    private boolean deleteChunk(Long userId, Progress progress) {
+        List<TaskOwnerView> tasks = taskRepository.findOwnersByUserIdOrCategoryUserId(userId, chunkSize);
+        if (tasks.isEmpty()) {
+            return false;
+        }
+        List<Long> ids = tasks.stream().map(TaskOwnerView::id).toList();
+        List<TaskOwnerView> others = tasks.stream().filter(task -> !userId.equals(task.userId())).toList();
+
+        taskCounterService.subtractExceptUser(ids, userId);
+        if (!others.isEmpty()) {
+            taskChangeService.recordDeleted(others.stream().map(TaskOwnerView::id).toList());
+            others.stream()
+                    .filter(task -> task.userId() != null)
+                    .forEach(task -> taskLocationIndexService.remove(task.userId(), task.id(), task.locationCell()));
+        }
+        taskRepository.deleteAllByIds(ids);
+        progress.deletedTasks += ids.size();
+        return true;
+    }
+
+    // Ordem imposta pelas chaves estrangeiras: task_tag das tags do usuário, tags,
+    // categorias e por fim o usuário. As tabelas derivadas e o arquivo saem antes das
+    // categorias, que ainda identificam os contadores e as tarefas arquivadas de outros
+    // usuários nelas.
+    private void deleteUser(Long userId, Progress progress) {
+        taskChangeService.recordChanged(taskRepository.findIdsByTagUserId(userId));
+        taskRepository.deleteTaskTagsByTagUserId(userId);
+        taskCounterService.removeUser(userId);
+        taskChangeService.removeUser(userId);
+        userTaskDigestRepository.deleteByUserId(userId);
+        archivedTaskRepository.deleteByUserIdOrCategoryUserId(userId);
+        tagRepository.deleteByUserId(userId);
+        categoryRepository.deleteByUserId(userId);
+        userRepository.deleteByIdInBulk(userId);
+        taskLocationIndexService.removeUser(userId);
+    }
+
+    private static final class Progress {
+
+        private final Long userId;
+        private final long totalTasks;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private volatile long deletedTasks;
+        private volatile State state = State.RUNNING;
+        private volatile LocalDateTime finishedAt;
+        private volatile String error;
+
+        Progress(Long userId, long totalTasks) {
+            this.userId = userId;
+            this.totalTasks = totalTasks;
+        }
+
+        void finish(RuntimeException failure) {
+            error = failure != null ? failure.getMessage() : null;
+            finishedAt = LocalDateTime.now();
+            state = failure != null ? State.FAILED : State.COMPLETED;
+        }
+
+        UserDeletionStatusDto toDto() {
+            return new UserDeletionStatusDto(userId, state, totalTasks, deletedTasks, startedAt, finishedAt, error);
+        }
+    }
+}
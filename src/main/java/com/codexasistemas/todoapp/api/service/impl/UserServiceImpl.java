@@ -1,22 +1,41 @@
 package com.codexasistemas.todoapp.api.service.impl;
 
-import java.time.LocalDateTime;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.codexasistemas.todoapp.api.dto.user.UserRequestDto;
 import com.codexasistemas.todoapp.api.dto.user.UserResponseDto;
 import com.codexasistemas.todoapp.api.dto.category.CategoryWithTaskCountDto;
 import com.codexasistemas.todoapp.api.dto.tag.TagWithTaskCountDto;
+import com.codexasistemas.todoapp.api.dto.task.TaskChangesDto;
+import com.codexasistemas.todoapp.api.dto.task.TaskCompactListDto;
+import com.codexasistemas.todoapp.api.dto.task.TaskField;
 import com.codexasistemas.todoapp.api.dto.task.TaskResponseDto;
 import com.codexasistemas.todoapp.api.mapper.TaskMapper;
 import com.codexasistemas.todoapp.api.mapper.UserMapper;
 import com.codexasistemas.todoapp.api.model.User;
+import com.codexasistemas.todoapp.api.repository.interfaces.TaskRepository;
 import com.codexasistemas.todoapp.api.repository.interfaces.UserRepository;
+import com.codexasistemas.todoapp.api.service.interfaces.SingleFlightService;
+import com.codexasistemas.todoapp.api.service.interfaces.TaskChangeService;
+import com.codexasistemas.todoapp.api.service.interfaces.TaskCountQueryService;
+import com.codexasistemas.todoapp.api.service.interfaces.TaskCounterService;
+import com.codexasistemas.todoapp.api.service.interfaces.TaskToggleWriteBehindService;
+import com.codexasistemas.todoapp.api.service.interfaces.UserDeletionService;
 import com.codexasistemas.todoapp.api.service.interfaces.UserService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 
 @Service
 public class UserServiceImpl implements UserService {
@@ -24,7 +43,32 @@ public class UserServiceImpl implements UserService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskCounterService taskCounterService;
+
+    @Autowired
+    private UserDeletionService userDeletionService;
+
+    @Autowired
+    private TaskChangeService taskChangeService;
+
+    @Autowired
+    private SingleFlightService singleFlightService;
+
+    @Autowired
+    private TaskCountQueryService taskCountQueryService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired(required = false)
+    private TaskToggleWriteBehindService toggleWriteBehindService;
+
     @Override
+    @Transactional(readOnly = true)
     public List<UserResponseDto> findAll() {
         List<User> users = userRepository.findAll();
         if (users.isEmpty()) {
@@ -36,6 +80,7 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public UserResponseDto findById(Long id) {
         if (id == null || id <= 0) {
             throw new IllegalArgumentException("O ID deve ser um número positivo.");
@@ -77,6 +122,7 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional
     public UserResponseDto deleteById(Long id) {
         if (id == null || id <= 0) {
             throw new IllegalArgumentException("O ID deve ser um número positivo.");
@@ -85,7 +131,7 @@ public class UserServiceImpl implements UserService {
                 .orElseThrow(() -> new IllegalArgumentException("Usuário não encontrado."));
         
         UserResponseDto responseDto = UserMapper.toResponseDto(user);
-        userRepository.deleteById(id);
+        userDeletionService.delete(id);
         return responseDto;
     }
 
@@ -98,41 +144,27 @@ public class UserServiceImpl implements UserService {
                 .orElseThrow(() -> new IllegalArgumentException("Usuário não encontrado."));
     }
 
+    // Lê os contadores mantidos pelas escritas de tarefas, sem percorrer as tarefas do usuário.
+    // A transação fica no loader: quem espera o single-flight não segura conexão do pool.
     @Override
     public List<CategoryWithTaskCountDto> findCategoriesWithTaskCount(Long userId) {
-        User user = findByIdEntity(userId);
-        return user.getCategories().stream()
-            .map(category -> new CategoryWithTaskCountDto(
-                category.getId(),
-                category.getName(),
-                category.getTasks().size(),
-                category.getTasks().stream().anyMatch(task -> !task.isDone()),
-                category.getTasks().stream()
-                    .map(task -> task.getCreatedAt())
-                    .max(LocalDateTime::compareTo)
-                    .orElse(null)
-            ))
-            .collect(Collectors.toList());
+        return singleFlightService.execute("findCategoriesWithTaskCount", userId,
+                () -> taskCountQueryService.loadCategoriesWithTaskCount(userId));
     }
 
     @Override
     public List<TagWithTaskCountDto> findTagsWithTaskCount(Long userId) {
-        User user = findByIdEntity(userId);
-        return user.getTasks().stream()
-            .flatMap(task -> task.getTags().stream())
-            .distinct()
-            .map(tag -> new TagWithTaskCountDto(
-                tag.getId(),
-                tag.getName(),
-                tag.getTasks().size(),
-                tag.getTasks().stream()
-                    .map(task -> task.getCategory().getId())
-                    .distinct()
-                    .collect(Collectors.toList())
-            ))
-            .collect(Collectors.toList());
+        return singleFlightService.execute("findTagsWithTaskCount", userId,
+                () -> taskCountQueryService.loadTagsWithTaskCount(userId));
+    }
+
+    @Override
+    public void rebuildCounters(Long userId) {
+        findByIdEntity(userId);
+        taskCounterService.rebuild(userId);
     }
 
+    @Transactional(readOnly = true)
     public List<TaskResponseDto> findTasksWithTaskCount(Long userId) {
         User user = findByIdEntity(userId);
         return user.getTasks().stream()
@@ -141,10 +173,68 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<TaskResponseDto> findTasksWithContext(Long userId) {
-        User user = findByIdEntity(userId);
-        return user.getTasks().stream()
+        findByIdEntity(userId);
+        return taskRepository.findByUserId(userId).stream()
             .map(TaskMapper::toResponseDto)
+            .map(this::withPendingToggle)
             .collect(Collectors.toList());
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> findTaskFields(Long userId, Set<TaskField> fields) {
+        findByIdEntity(userId);
+        List<Map<String, Object>> tasks = taskRepository.findFieldsByUserId(userId, fields);
+        if (toggleWriteBehindService != null) {
+            tasks.forEach(toggleWriteBehindService::withPendingDone);
+        }
+        return tasks;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public TaskChangesDto findTaskChanges(Long userId, long since, Integer limit) {
+        findByIdEntity(userId);
+        return taskChangeService.findChanges(userId, since, limit);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public TaskCompactListDto findTasksCompact(Long userId) {
+        findByIdEntity(userId);
+        TaskCompactListDto compact = TaskMapper.toCompactListDto(taskRepository.findByUserId(userId));
+        if (toggleWriteBehindService == null) {
+            return compact;
+        }
+        return new TaskCompactListDto(compact.categories(), compact.tags(), compact.tasks().stream()
+            .map(toggleWriteBehindService::withPendingDone)
+            .toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportTasks(Long userId, OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            taskRepository.streamByUserId(userId, task -> {
+                try {
+                    writer.writeValue(generator, withPendingToggle(task));
+                    generator.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    // Com a alternância em write-behind, as listagens mostram o status já confirmado ao cliente.
+    private TaskResponseDto withPendingToggle(TaskResponseDto task) {
+        return toggleWriteBehindService != null ? toggleWriteBehindService.withPendingDone(task) : task;
+    }
 }
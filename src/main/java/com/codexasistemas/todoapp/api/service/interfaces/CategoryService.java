@@ -2,20 +2,24 @@ package com.codexasistemas.todoapp.api.service.interfaces;
 
 import com.codexasistemas.todoapp.api.dto.category.CategoryRequestDto;
 import com.codexasistemas.todoapp.api.dto.category.CategoryResponseDto;
+import com.codexasistemas.todoapp.api.dto.task.TaskField;
 import com.codexasistemas.todoapp.api.dto.task.TaskResponseDto;
 import com.codexasistemas.todoapp.api.model.Category;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 public interface CategoryService {
     List<CategoryResponseDto> findAll();
     Optional<CategoryResponseDto> findById(Long id);
     CategoryResponseDto create(CategoryRequestDto categoryRequest);
     CategoryResponseDto update(Long id, CategoryRequestDto categoryRequest);
-    CategoryResponseDto delete(Long id);
+    CategoryResponseDto delete(Long id, Long moveToId);
     Category findByIdEntity(Long id);
     
     List<TaskResponseDto> findTasksByCategory(Long categoryId);
+    List<Map<String, Object>> findTaskFieldsByCategory(Long categoryId, Set<TaskField> fields);
     List<CategoryResponseDto> findByUserId(Long userId);
 } 
\ No newline at end of file
@@ -0,0 +1,32 @@
+package com.codexasistemas.todoapp.api.service.interfaces;
+
+// Guarda a resposta de cada requisição POST enviada com Idempotency-Key, para que
+// repetições da mesma chave recebam a resposta original sem executar a operação de novo.
+public interface IdempotencyService {
+
+    record StoredResponse(int status, String contentType, String location, byte[] body) {
+    }
+
+    enum ClaimStatus {
+        // A chave é nova (ou expirou): a requisição deve ser executada e depois completada.
+        ACQUIRED,
+        // Outra requisição com a mesma chave ainda está em execução.
+        IN_PROGRESS,
+        // Já existe resposta gravada para a chave.
+        COMPLETED,
+        // A chave já foi usada em outro endpoint.
+        MISMATCH
+    }
+
+    record Claim(ClaimStatus status, StoredResponse response) {
+    }
+
+    Claim claim(String key, String fingerprint);
+
+    void complete(String key, StoredResponse response);
+
+    // Libera a chave sem gravar resposta, permitindo que uma nova tentativa execute a operação.
+    void release(String key);
+
+    int purgeExpired();
+}
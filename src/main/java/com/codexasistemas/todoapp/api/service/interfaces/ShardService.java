@@ -0,0 +1,13 @@
+package com.codexasistemas.todoapp.api.service.interfaces;
+
+import java.util.List;
+
+import com.codexasistemas.todoapp.api.dto.shard.ShardMoveResultDto;
+import com.codexasistemas.todoapp.api.dto.shard.ShardStatusDto;
+import com.codexasistemas.todoapp.api.dto.shard.UserShardDto;
+
+public interface ShardService {
+    List<ShardStatusDto> findShards();
+    UserShardDto findUserShard(Long userId);
+    ShardMoveResultDto moveUser(Long userId, String target);
+}
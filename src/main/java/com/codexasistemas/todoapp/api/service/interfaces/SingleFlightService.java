@@ -0,0 +1,11 @@
+package com.codexasistemas.todoapp.api.service.interfaces;
+
+import java.util.function.Supplier;
+
+public interface SingleFlightService {
+
+    // Executa a consulta; chamadas simultâneas com o mesmo método e chave aguardam a
+    // execução em andamento e recebem o mesmo resultado (ou a mesma exceção). Métodos
+    // fora de todoapp.single-flight.methods executam direto.
+    <T> T execute(String method, Object key, Supplier<T> query);
+}
@@ -1,5 +1,6 @@
 package com.codexasistemas.todoapp.api.service.interfaces;
 
+import com.codexasistemas.todoapp.api.dto.tag.TagMergeResponseDto;
 import com.codexasistemas.todoapp.api.dto.tag.TagRequestDto;
 import com.codexasistemas.todoapp.api.dto.tag.TagResponseDto;
 import com.codexasistemas.todoapp.api.model.Tag;
@@ -13,6 +14,7 @@ public interface TagService {
     TagResponseDto create(TagRequestDto tagRequest);
     TagResponseDto update(Long id, TagRequestDto tagRequest);
     TagResponseDto delete(Long id);
+    TagMergeResponseDto mergeInto(Long sourceId, Long targetId);
     Tag findByIdEntity(Long id);
     List<TagResponseDto> findByUserId(Long userId);
 } 
\ No newline at end of file
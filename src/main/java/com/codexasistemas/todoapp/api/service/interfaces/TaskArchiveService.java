@@ -0,0 +1,8 @@
+package com.codexasistemas.todoapp.api.service.interfaces;
+
+// Move para task_archive as tarefas concluídas ou canceladas há mais de
+// todoapp.archive.after, em lotes; devolve quantas foram arquivadas.
+public interface TaskArchiveService {
+
+    int archive();
+}
@@ -0,0 +1,30 @@
+package com.codexasistemas.todoapp.api.service.interfaces;
+
+import java.util.Collection;
+
+import com.codexasistemas.todoapp.api.dto.task.TaskChangesDto;
+
+public interface TaskChangeService {
+
+    void recordChanged(Collection<Long> taskIds);
+
+    // Grava as lápides; deve ser chamado antes de excluir as tarefas.
+    void recordDeleted(Collection<Long> taskIds);
+
+    void recordCategoryChanged(Long categoryId);
+
+    void recordCategoryDeleted(Long categoryId);
+
+    void recordTagChanged(Long tagId);
+
+    void recordMoved(Long taskId, Long previousUserId);
+
+    void removeUser(Long userId);
+
+    int recordMissing();
+
+    // Remove as lápides mais antigas que a retenção configurada.
+    int pruneTombstones();
+
+    TaskChangesDto findChanges(Long userId, long since, Integer limit);
+}
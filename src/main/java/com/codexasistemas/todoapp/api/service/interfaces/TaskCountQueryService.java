@@ -0,0 +1,15 @@
+package com.codexasistemas.todoapp.api.service.interfaces;
+
+import java.util.List;
+
+import com.codexasistemas.todoapp.api.dto.category.CategoryWithTaskCountDto;
+import com.codexasistemas.todoapp.api.dto.tag.TagWithTaskCountDto;
+
+// Leituras dos contadores por categoria e por tag, cada uma em sua própria transação
+// somente leitura; o UserService as chama dentro do single-flight.
+public interface TaskCountQueryService {
+
+    List<CategoryWithTaskCountDto> loadCategoriesWithTaskCount(Long userId);
+
+    List<TagWithTaskCountDto> loadTagsWithTaskCount(Long userId);
+}
@@ -0,0 +1,54 @@
+package com.codexasistemas.todoapp.api.service.interfaces;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import com.codexasistemas.todoapp.api.model.Tag;
+import com.codexasistemas.todoapp.api.model.Task;
+
+public interface TaskCounterService {
+
+    // Contribuição de uma tarefa para os contadores; tarefas canceladas não contam (snapshot nulo).
+    record Snapshot(Long categoryId, Long categoryUserId, Map<Long, Long> tagUserIds, boolean done,
+            LocalDateTime createdAt) {
+
+        public static Snapshot of(Task task) {
+            if (task == null || task.isCanceled()) {
+                return null;
+            }
+            Map<Long, Long> tagUserIds = task.getTags() == null ? Map.of()
+                    : task.getTags().stream().collect(Collectors.toMap(Tag::getId, tag -> tag.getUser().getId(),
+                            (first, second) -> first));
+            return new Snapshot(task.getCategory().getId(), task.getCategory().getUser().getId(), tagUserIds,
+                    task.isDone(), task.getCreatedAt());
+        }
+    }
+
+    void apply(Snapshot before, Snapshot after);
+
+    void subtract(Collection<Long> taskIds);
+
+    // Desconta as tarefas só dos contadores de outros usuários; os do usuário informado
+    // serão apagados junto com ele.
+    void subtractExceptUser(Collection<Long> taskIds, Long userId);
+
+    void add(Collection<Long> taskIds);
+
+    void removeCategory(Long categoryId);
+
+    // Soma os contadores da categoria de origem aos da categoria de destino e apaga os da
+    // origem; chamado quando todas as tarefas de uma categoria passam para outra.
+    void moveCategory(Long fromCategoryId, Long toCategoryId, Long toUserId);
+
+    void removeTag(Long tagId);
+
+    void removeUser(Long userId);
+
+    void rebuild(Long userId);
+
+    void rebuildTag(Long tagId);
+
+    int rebuildAll();
+}
@@ -0,0 +1,9 @@
+package com.codexasistemas.todoapp.api.service.interfaces;
+
+import com.codexasistemas.todoapp.api.dto.user.UserTaskDigestDto;
+
+public interface TaskDigestService {
+    UserTaskDigestDto findByUserId(Long userId);
+
+    int refreshAll();
+}
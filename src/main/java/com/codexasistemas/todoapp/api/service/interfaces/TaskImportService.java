@@ -0,0 +1,11 @@
+package com.codexasistemas.todoapp.api.service.interfaces;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import com.codexasistemas.todoapp.api.dto.task.TaskImportFormat;
+import com.codexasistemas.todoapp.api.dto.task.TaskImportResultDto;
+
+public interface TaskImportService {
+    TaskImportResultDto importTasks(Long userId, TaskImportFormat format, InputStream in) throws IOException;
+}
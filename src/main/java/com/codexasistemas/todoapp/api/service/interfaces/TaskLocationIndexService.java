@@ -0,0 +1,22 @@
+package com.codexasistemas.todoapp.api.service.interfaces;
+
+import com.codexasistemas.todoapp.api.dto.task.TaskLocationIndexStatsDto;
+import com.codexasistemas.todoapp.api.dto.task.TaskWithinResponseDto;
+
+// Índice espacial em memória, local a cada instância, das tarefas não canceladas
+// com localização. As alterações são aplicadas após o commit da transação corrente;
+// chamadas com célula nula são ignoradas.
+public interface TaskLocationIndexService {
+
+    void rebuild();
+
+    void add(Long userId, Long taskId, Long cell);
+
+    void remove(Long userId, Long taskId, Long cell);
+
+    void removeUser(Long userId);
+
+    TaskWithinResponseDto within(Long userId, double south, double west, double north, double east, int limit);
+
+    TaskLocationIndexStatsDto stats();
+}
@@ -1,25 +1,57 @@
 package com.codexasistemas.todoapp.api.service.interfaces;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
+import com.codexasistemas.todoapp.api.dto.task.TaskBulkRequestDto;
+import com.codexasistemas.todoapp.api.dto.task.TaskBulkResponseDto;
+import com.codexasistemas.todoapp.api.dto.task.TaskField;
 import com.codexasistemas.todoapp.api.dto.task.TaskRequestDto;
 import com.codexasistemas.todoapp.api.dto.task.TaskResponseDto;
+import com.codexasistemas.todoapp.api.dto.task.TaskWithinResponseDto;
+import com.fasterxml.jackson.databind.JsonNode;
 
 public interface TaskService {
     List<TaskResponseDto> findAll();
 
     Optional<TaskResponseDto> findById(Long id);
 
+    // Com includeArchived, procura também em task_archive.
+    Optional<TaskResponseDto> findById(Long id, boolean includeArchived);
+
+    Optional<Map<String, Object>> findFieldsById(Long id, Set<TaskField> fields);
+
     TaskResponseDto create(TaskRequestDto taskRequest);
 
     TaskResponseDto update(Long id, TaskRequestDto taskRequest);
 
+    TaskResponseDto patch(Long id, JsonNode patch);
+
     TaskResponseDto delete(Long id);
 
     List<TaskResponseDto> findByUserId(Long userId);
+
+    List<TaskResponseDto> findByUserId(Long userId, boolean includeArchived);
+
+    List<Map<String, Object>> findFieldsByUserId(Long userId, Set<TaskField> fields);
+
+    List<TaskResponseDto> findDue(Long userId, LocalDate after, LocalDate before);
+
+    List<TaskResponseDto> findNearby(Long userId, double latitude, double longitude, double radiusMeters);
+
+    TaskWithinResponseDto findWithin(Long userId, double south, double west, double north, double east,
+            Integer limit);
+
+    int refreshLocationCells();
+
+    int deleteOrphanLocations();
     
     TaskResponseDto toggleStatus(Long id);
 
     void cancel(Long id);
+
+    TaskBulkResponseDto bulk(TaskBulkRequestDto bulkRequest);
 }
@@ -0,0 +1,55 @@
+package com.codexasistemas.todoapp.api.service.interfaces;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+
+import com.codexasistemas.todoapp.api.dto.task.TaskCompactDto;
+import com.codexasistemas.todoapp.api.dto.task.TaskField;
+import com.codexasistemas.todoapp.api.dto.task.TaskResponseDto;
+import com.codexasistemas.todoapp.api.dto.task.TaskToggleResponseDto;
+
+// Modo opcional (todoapp.toggle.write-behind.enabled) em que a alternância de status
+// é confirmada na hora e gravada depois, em lote.
+public interface TaskToggleWriteBehindService {
+
+    TaskToggleResponseDto toggle(Long id);
+
+    int flush();
+
+    // Status já confirmado ao cliente e ainda não gravado, se houver.
+    Optional<Boolean> pendingDone(Long id);
+
+    // As leituras mostram o status pendente no lugar do gravado; sem alternância pendente
+    // devolvem a própria tarefa.
+    default TaskResponseDto withPendingDone(TaskResponseDto task) {
+        return pendingDone(task.id())
+                .filter(done -> done != task.done())
+                .map(done -> new TaskResponseDto(task.id(), task.title(), task.description(), done,
+                        task.category(), task.tags(), task.createdAt(), task.dueDate(), task.canceledAt(),
+                        task.updatedAt(), task.location()))
+                .orElse(task);
+    }
+
+    default TaskCompactDto withPendingDone(TaskCompactDto task) {
+        return pendingDone(task.id())
+                .filter(done -> done != task.done())
+                .map(done -> new TaskCompactDto(task.id(), task.title(), task.description(), done,
+                        task.categoryId(), task.tagIds(), task.createdAt(), task.dueDate(), task.canceledAt(),
+                        task.updatedAt(), task.location()))
+                .orElse(task);
+    }
+
+    // Leitura com fields=: só a entrada done, quando pedida, muda.
+    default Map<String, Object> withPendingDone(Map<String, Object> task) {
+        if (task.containsKey(TaskField.DONE.jsonName())) {
+            pendingDone((Long) task.get(TaskField.ID.jsonName()))
+                    .ifPresent(done -> task.put(TaskField.DONE.jsonName(), done));
+        }
+        return task;
+    }
+
+    // Descarta as alternâncias pendentes de tarefas alteradas por uma escrita síncrona,
+    // após o commit da transação corrente.
+    void discard(Collection<Long> ids);
+}
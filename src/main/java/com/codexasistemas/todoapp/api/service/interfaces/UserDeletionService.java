@@ -0,0 +1,19 @@
+package com.codexasistemas.todoapp.api.service.interfaces;
+
+import com.codexasistemas.todoapp.api.dto.user.UserDeletionStatusDto;
+
+// Exclusão de usuários com DELETEs em conjunto, sem carregar as entidades filhas. Além
+// das tarefas do usuário, remove as tarefas de outros usuários nas categorias dele e as
+// tags dele nas tarefas de outros usuários, mantendo contadores, log de alterações,
+// resumo de vencimentos e índice espacial em ordem.
+public interface UserDeletionService {
+
+    // Remove tudo na transação corrente.
+    void delete(Long userId);
+
+    // Remove as tarefas em lotes, cada um em sua transação, em segundo plano; o usuário,
+    // as categorias e as tags saem na última transação.
+    UserDeletionStatusDto deleteInBackground(Long userId);
+
+    UserDeletionStatusDto findStatus(Long userId);
+}
@@ -4,10 +4,17 @@ import com.codexasistemas.todoapp.api.dto.user.UserRequestDto;
 import com.codexasistemas.todoapp.api.dto.user.UserResponseDto;
 import com.codexasistemas.todoapp.api.dto.category.CategoryWithTaskCountDto;
 import com.codexasistemas.todoapp.api.dto.tag.TagWithTaskCountDto;
+import com.codexasistemas.todoapp.api.dto.task.TaskChangesDto;
+import com.codexasistemas.todoapp.api.dto.task.TaskCompactListDto;
+import com.codexasistemas.todoapp.api.dto.task.TaskField;
 import com.codexasistemas.todoapp.api.dto.task.TaskResponseDto;
 import com.codexasistemas.todoapp.api.model.User;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public interface UserService {
     List<UserResponseDto> findAll();
@@ -26,7 +33,17 @@ public interface UserService {
 
     List<TagWithTaskCountDto> findTagsWithTaskCount(Long userId);
 
+    void rebuildCounters(Long userId);
+
+    TaskCompactListDto findTasksCompact(Long userId);
+
     List<TaskResponseDto> findTasksWithTaskCount(Long userId);
 
     List<TaskResponseDto> findTasksWithContext(Long userId);
+
+    List<Map<String, Object>> findTaskFields(Long userId, Set<TaskField> fields);
+
+    TaskChangesDto findTaskChanges(Long userId, long since, Integer limit);
+
+    void exportTasks(Long userId, OutputStream out) throws IOException;
 }
\ No newline at end of file
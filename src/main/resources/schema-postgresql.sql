@@ -0,0 +1,13 @@
+-- Executado pelo Spring após o Hibernate atualizar o schema
+-- (spring.jpa.defer-datasource-initialization=true). Use apenas comandos idempotentes.
+
+-- Atende GET /api/tasks/due e o resumo de vencimentos: só tarefas abertas entram no índice.
+CREATE INDEX IF NOT EXISTS idx_task_open_due
+    ON task (user_id, due_date)
+    WHERE canceled_at IS NULL AND done = false;
+
+-- Atende o arquivamento (TaskArchiveServiceImpl): percorre em ordem de id, a partir do
+-- cursor de cada lote, só as tarefas canceladas ou concluídas.
+CREATE INDEX IF NOT EXISTS idx_task_archivable
+    ON task (id)
+    WHERE canceled_at IS NOT NULL OR done = true;
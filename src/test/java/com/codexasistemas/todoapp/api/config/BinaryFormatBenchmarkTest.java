@@ -0,0 +1,119 @@
+package com.codexasistemas.todoapp.api.config;
+
+import com.codexasistemas.todoapp.api.dto.location.LocationDto;
+import com.codexasistemas.todoapp.api.dto.task.TaskResponseDto;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Benchmark de tamanho e tempo de serialização de 10 mil tarefas em JSON, CBOR e Smile.
+ *
+ * Não roda no build normal; execute com:
+ * mvn test -Dtest=BinaryFormatBenchmarkTest -Dbenchmark=true
+ *
+ * Os mapeadores binários são os mesmos registrados em BinaryFormatConfig; o JSON usa a
+ * configuração padrão do Spring Boot (datas em texto ISO). Também confere que a lista
+ * lida de volta de cada formato é igual à original.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class BinaryFormatBenchmarkTest {
+
+    private static final int TASKS = 10_000;
+    private static final int ROUNDS = 50;
+
+    @Test
+    void benchmarkTenThousandTasks() throws IOException {
+        List<TaskResponseDto> tasks = sampleTasks();
+
+        ObjectMapper json = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        measure("JSON", json, tasks);
+        measure("CBOR", binaryMapper(new CBORFactory()), tasks);
+        measure("Smile", binaryMapper(new SmileFactory()), tasks);
+    }
+
+    private static ObjectMapper binaryMapper(JsonFactory factory) {
+        return BinaryFormatConfig.binaryMapper(Jackson2ObjectMapperBuilder.json(), factory);
+    }
+
+    private static void measure(String format, ObjectMapper mapper, List<TaskResponseDto> tasks) throws IOException {
+        byte[] bytes = mapper.writeValueAsBytes(tasks);
+        for (int i = 0; i < ROUNDS; i++) {
+            mapper.writeValueAsBytes(tasks);
+            mapper.readValue(bytes, new TypeReference<List<TaskResponseDto>>() {
+            });
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            bytes = mapper.writeValueAsBytes(tasks);
+        }
+        double writeMillis = (System.nanoTime() - start) / 1_000_000.0 / ROUNDS;
+
+        List<TaskResponseDto> read = null;
+        start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            read = mapper.readValue(bytes, new TypeReference<List<TaskResponseDto>>() {
+            });
+        }
+        double readMillis = (System.nanoTime() - start) / 1_000_000.0 / ROUNDS;
+
+        assertEquals(tasks, read);
+        System.out.printf("%-5s: %,9d bytes (%,7d com gzip), escrita %.2f ms, leitura %.2f ms%n",
+                format, bytes.length, gzipSize(bytes), writeMillis, readMillis);
+    }
+
+    private static int gzipSize(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.size();
+    }
+
+    // Metade das tarefas com data limite, um quarto com localização, até três tags.
+    // Os horários não têm frações de milissegundo, que o formato em epoch não preserva.
+    private static List<TaskResponseDto> sampleTasks() {
+        Random random = new Random(42);
+        String[] categories = { "Trabalho", "Casa", "Estudos", "Saúde", "Finanças" };
+        String[] tags = { "urgente", "reunião", "compras", "leitura", "exercício", "contas", "viagem" };
+        LocalDateTime base = LocalDateTime.of(2025, 1, 1, 8, 0);
+
+        List<TaskResponseDto> tasks = new ArrayList<>(TASKS);
+        for (int i = 0; i < TASKS; i++) {
+            List<String> taskTags = new ArrayList<>();
+            for (int t = random.nextInt(4); t > 0; t--) {
+                taskTags.add(tags[random.nextInt(tags.length)]);
+            }
+            LocalDateTime createdAt = base.plusSeconds(random.nextInt(30_000_000));
+            LocalDate dueDate = random.nextBoolean() ? createdAt.toLocalDate().plusDays(random.nextInt(60)) : null;
+            LocationDto location = random.nextInt(4) == 0
+                    ? new LocationDto(-23.8 + random.nextDouble() * 0.5, -46.9 + random.nextDouble() * 0.5,
+                            "Local " + i, null)
+                    : null;
+            tasks.add(new TaskResponseDto((long) i + 1, "Tarefa " + i, "Descrição da tarefa " + i,
+                    random.nextBoolean(), categories[random.nextInt(categories.length)], taskTags,
+                    createdAt, dueDate, null, createdAt, location));
+        }
+        return tasks;
+    }
+}
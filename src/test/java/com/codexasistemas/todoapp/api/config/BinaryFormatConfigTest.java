@@ -0,0 +1,141 @@
+package com.codexasistemas.todoapp.api.config;
+
+import com.codexasistemas.todoapp.api.model.Category;
+import com.codexasistemas.todoapp.api.model.User;
+import com.codexasistemas.todoapp.api.repository.jpa.CategoryJpaRepository;
+import com.codexasistemas.todoapp.api.repository.jpa.UserJpaRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Teste de integração da negociação de CBOR e Smile (BinaryFormatConfig), com banco H2 próprio.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:binaryformattest;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+public class BinaryFormatConfigTest {
+
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    private final ObjectMapper cbor = new ObjectMapper(new CBORFactory());
+    private final ObjectMapper smile = new ObjectMapper(new SmileFactory());
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserJpaRepository userJpaRepository;
+
+    @Autowired
+    private CategoryJpaRepository categoryJpaRepository;
+
+    private User testUser;
+    private Category testCategory;
+
+    /**
+     * Cria um usuário e uma categoria novos para cada teste.
+     */
+    @BeforeEach
+    void setUp() {
+        testUser = new User();
+        testUser.setEmail(UUID.randomUUID() + "@example.com");
+        testUser.setPassword("password");
+        testUser.setName("Binary User");
+        testUser = userJpaRepository.save(testUser);
+
+        testCategory = new Category();
+        testCategory.setName("Binary Category");
+        testCategory.setUser(testUser);
+        testCategory = categoryJpaRepository.save(testCategory);
+    }
+
+    /**
+     * CT01: Testa a criação de tarefa com corpo e resposta em CBOR.
+     * Cenário: O corpo traz dueDate em dias desde a época; a resposta em CBOR devolve a mesma
+     * data em dias e createdAt em milissegundos, e a leitura em JSON mostra a data em texto ISO.
+     */
+    @Test
+    void testCbor_requestBodyWithEpochDatesIsAccepted() throws Exception {
+        // Arrange
+        LocalDate dueDate = LocalDate.now().plusDays(10);
+        byte[] body = cbor.writeValueAsBytes(Map.of("title", "CBOR", "userId", testUser.getId(),
+                "categoryId", testCategory.getId(), "dueDate", dueDate.toEpochDay()));
+
+        // Act
+        byte[] response = mockMvc.perform(post("/api/tasks")
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .content(body))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // Assert
+        JsonNode task = cbor.readTree(response);
+        assertEquals("CBOR", task.get("title").asText());
+        assertTrue(task.get("dueDate").isIntegralNumber());
+        assertEquals(dueDate.toEpochDay(), task.get("dueDate").asLong());
+        assertTrue(task.get("createdAt").isIntegralNumber());
+
+        String json = mockMvc.perform(get("/api/tasks/" + task.get("id").asLong()).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertEquals(dueDate.toString(), objectMapper.readTree(json).get("dueDate").asText());
+    }
+
+    /**
+     * CT02: Testa a escolha do formato da resposta pelo Accept.
+     * Cenário: A mesma listagem é pedida em Smile, em CBOR e com Accept: *&#47;*; os formatos
+     * binários trazem a tarefa criada e o curinga recebe JSON.
+     */
+    @Test
+    void testAccept_selectsSmileCborOrDefaultJson() throws Exception {
+        // Arrange
+        String path = "/api/tasks?userId=" + testUser.getId();
+        mockMvc.perform(post("/api/tasks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\": \"Accept\", \"userId\": " + testUser.getId()
+                                + ", \"categoryId\": " + testCategory.getId() + "}"))
+                .andExpect(status().isCreated());
+
+        // Act
+        byte[] smileBody = mockMvc.perform(get(path).accept(SMILE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(SMILE))
+                .andReturn().getResponse().getContentAsByteArray();
+        byte[] cborBody = mockMvc.perform(get(path).accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+        String jsonBody = mockMvc.perform(get(path).accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse().getContentAsString();
+
+        // Assert
+        assertEquals("Accept", smile.readTree(smileBody).get(0).get("title").asText());
+        assertEquals("Accept", cbor.readTree(cborBody).get(0).get("title").asText());
+        assertEquals("Accept", objectMapper.readTree(jsonBody).get(0).get("title").asText());
+    }
+}
@@ -0,0 +1,154 @@
+package com.codexasistemas.todoapp.api.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Teste de integração do filtro de Idempotency-Key, com banco H2 próprio.
+ *
+ * Só a criação de categorias é limitada (rajada de 1, uma por segundo), e cada teste usa
+ * um IP diferente para ter balde próprio.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:idempotencytest;DB_CLOSE_DELAY=-1",
+        "todoapp.rate-limit.enabled=true",
+        "todoapp.rate-limit.groups[0].name=categories",
+        "todoapp.rate-limit.groups[0].methods=POST",
+        "todoapp.rate-limit.groups[0].paths=/api/categories",
+        "todoapp.rate-limit.groups[0].capacity=1",
+        "todoapp.rate-limit.groups[0].refill-per-second=1"
+})
+@AutoConfigureMockMvc
+public class IdempotencyFilterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * CT01: Testa que uma resposta 429 do limite de requisições não fica gravada na chave.
+     * Cenário: A segunda criação de categoria estoura o limite e recebe 429; repetida com a
+     * mesma Idempotency-Key depois que o balde se recupera, ela é executada em vez de
+     * repetir o 429.
+     */
+    @Test
+    void testRateLimited_retryWithSameKeyExecutesAfterRefill() throws Exception {
+        // Arrange: Um usuário e uma categoria criada, consumindo a rajada do IP.
+        long userId = createUser("10.1.0.1");
+        mockMvc.perform(createCategory(userId, "Primeira", UUID.randomUUID().toString(), "10.1.0.1"))
+                .andExpect(status().isCreated());
+
+        // Act: A próxima criação estoura o limite.
+        String key = UUID.randomUUID().toString();
+        mockMvc.perform(createCategory(userId, "Segunda", key, "10.1.0.1"))
+                .andExpect(status().isTooManyRequests());
+
+        // Assert: Depois do reabastecimento, a repetição com a mesma chave executa de verdade.
+        Thread.sleep(1100);
+        mockMvc.perform(createCategory(userId, "Segunda", key, "10.1.0.1"))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER));
+
+        // Assert: A partir daí a chave devolve a resposta gravada.
+        mockMvc.perform(createCategory(userId, "Segunda", key, "10.1.0.1"))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(IdempotencyFilter.REPLAYED_HEADER, "true"));
+    }
+
+    /**
+     * CT02: Testa que a chave vale só para o mesmo corpo e o mesmo cliente.
+     * Cenário: Uma criação de usuário é repetida com o mesmo corpo (resposta gravada), com
+     * outro corpo e a partir de outro IP; as duas últimas recebem 422 sem executar.
+     */
+    @Test
+    void testFingerprint_differentBodyOrClientIsRejected() throws Exception {
+        // Arrange: Uma criação de usuário com Idempotency-Key.
+        String key = UUID.randomUUID().toString();
+        String email = UUID.randomUUID() + "@example.com";
+        String body = "{\"name\": \"Fingerprint User\", \"email\": \"" + email + "\", \"password\": \"secret\"}";
+        mockMvc.perform(createUserWithKey(body, key, "10.1.0.2")).andExpect(status().is2xxSuccessful());
+
+        // Act + Assert: O mesmo corpo do mesmo cliente recebe a resposta gravada.
+        mockMvc.perform(createUserWithKey(body, key, "10.1.0.2"))
+                .andExpect(status().is2xxSuccessful())
+                .andExpect(header().string(IdempotencyFilter.REPLAYED_HEADER, "true"));
+
+        // Act + Assert: Outro corpo ou outro cliente com a mesma chave são recusados.
+        mockMvc.perform(createUserWithKey(body.replace("Fingerprint User", "Outro Nome"), key, "10.1.0.2"))
+                .andExpect(status().isUnprocessableEntity());
+        mockMvc.perform(createUserWithKey(body, key, "10.1.0.3"))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
+    /**
+     * CT03: Testa que, nas rotas /api/users/{id}/..., o cliente é o usuário do caminho.
+     * Cenário: O filtro roda antes do mapeamento do handler, então o id vem do próprio caminho;
+     * a mesma chave repetida de outro IP para o mesmo usuário recebe a resposta gravada.
+     */
+    @Test
+    void testUserPath_sameUserFromAnotherIpIsReplayed() throws Exception {
+        // Arrange: Um usuário e uma reconstrução de contadores com Idempotency-Key.
+        long userId = createUser("10.1.0.4");
+        String key = UUID.randomUUID().toString();
+        mockMvc.perform(post("/api/users/" + userId + "/counters/rebuild").with(from("10.1.0.4"))
+                        .header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, key))
+                .andExpect(status().isNoContent())
+                .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER));
+
+        // Act + Assert: De outro IP, o mesmo usuário recebe a resposta gravada.
+        mockMvc.perform(post("/api/users/" + userId + "/counters/rebuild").with(from("10.1.0.5"))
+                        .header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, key))
+                .andExpect(status().isNoContent())
+                .andExpect(header().string(IdempotencyFilter.REPLAYED_HEADER, "true"));
+    }
+
+    private MockHttpServletRequestBuilder createUserWithKey(String body, String key, String remoteAddr) {
+        return post("/api/users").with(from(remoteAddr))
+                .header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, key)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body);
+    }
+
+    private long createUser(String remoteAddr) throws Exception {
+        String email = UUID.randomUUID() + "@example.com";
+        String body = mockMvc.perform(post("/api/users").with(from(remoteAddr))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\": \"Idempotency User\", \"email\": \"" + email + "\", \"password\": \"secret\"}"))
+                .andExpect(status().is2xxSuccessful())
+                .andReturn().getResponse().getContentAsString();
+        long id = objectMapper.readTree(body).get("id").asLong();
+        assertTrue(id > 0);
+        return id;
+    }
+
+    private static MockHttpServletRequestBuilder createCategory(long userId, String name, String key,
+            String remoteAddr) {
+        return post("/api/categories").with(from(remoteAddr))
+                .header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, key)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\": \"" + name + "\", \"userId\": " + userId + "}");
+    }
+
+    private static RequestPostProcessor from(String remoteAddr) {
+        return request -> {
+            request.setRemoteAddr(remoteAddr);
+            return request;
+        };
+    }
+}
@@ -0,0 +1,54 @@
+package com.codexasistemas.todoapp.api.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Teste unitário do interceptor de limite de requisições, sem contexto Spring.
+ */
+public class RateLimitInterceptorTest {
+
+    /**
+     * CT01: Testa que o balde é do IP, e não do userId informado pelo cliente.
+     * Cenário: Com rajada de 2, três requisições do mesmo IP com userIds diferentes esgotam
+     * o balde e a terceira recebe 429; outro IP continua com balde próprio.
+     */
+    @Test
+    void testPreHandle_keysBucketOnIpRegardlessOfUserId() throws Exception {
+        // Arrange: Um grupo de leitura com rajada de 2 e reabastecimento desprezível.
+        RateLimitProperties properties = new RateLimitProperties(true, List.of(new RateLimitProperties.Group(
+                "reads", List.of("GET"), List.of("/api/**"), 2, 0.0001)));
+        RateLimitInterceptor interceptor = new RateLimitInterceptor(properties, new RateLimiter(),
+                new SimpleMeterRegistry());
+        HandlerMethod handler = new HandlerMethod(this, getClass().getDeclaredMethod("handler"));
+
+        // Act + Assert: Trocar o userId não dá um balde novo ao mesmo IP.
+        assertTrue(interceptor.preHandle(get("10.2.0.1", "1"), new MockHttpServletResponse(), handler));
+        assertTrue(interceptor.preHandle(get("10.2.0.1", "2"), new MockHttpServletResponse(), handler));
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        assertFalse(interceptor.preHandle(get("10.2.0.1", "3"), rejected, handler));
+        assertEquals(429, rejected.getStatus());
+        assertNotNull(rejected.getHeader("Retry-After"));
+
+        // Assert: Outro IP, mesmo com um userId já usado, tem balde próprio.
+        assertTrue(interceptor.preHandle(get("10.2.0.2", "1"), new MockHttpServletResponse(), handler));
+    }
+
+    private static MockHttpServletRequest get(String remoteAddr, String userId) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tasks");
+        request.setRemoteAddr(remoteAddr);
+        request.setParameter("userId", userId);
+        return request;
+    }
+
+    // Alvo do HandlerMethod: o interceptor só limita requisições mapeadas para um controller.
+    void handler() {
+    }
+}
@@ -0,0 +1,105 @@
+package com.codexasistemas.todoapp.api.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Teste unitário do limitador GCRA, sem contexto Spring.
+ */
+public class RateLimiterTest {
+
+    /**
+     * CT01: Testa a rajada e o Retry-After.
+     * Cenário: Com capacidade 3 e 1 requisição por segundo, as três primeiras passam, a
+     * quarta é recusada com espera de até 1 s, e outra chave tem balde próprio.
+     */
+    @Test
+    void testTryAcquire_allowsBurstThenRejectsWithRetryAfter() {
+        // Arrange: Limitador vazio.
+        RateLimiter limiter = new RateLimiter();
+
+        // Act + Assert: A rajada cabe na capacidade.
+        for (int i = 0; i < 3; i++) {
+            assertTrue(limiter.tryAcquire("writes|ip:a", 3, 1).allowed());
+        }
+
+        // Act: A quarta requisição excede a rajada.
+        RateLimiter.Decision rejected = limiter.tryAcquire("writes|ip:a", 3, 1);
+
+        // Assert: Recusada, com espera positiva de no máximo um intervalo; outra chave não é afetada.
+        assertFalse(rejected.allowed());
+        assertTrue(rejected.retryAfterNanos() > 0);
+        assertTrue(rejected.retryAfterNanos() <= TimeUnit.SECONDS.toNanos(1));
+        assertTrue(limiter.tryAcquire("writes|ip:b", 3, 1).allowed());
+    }
+
+    /**
+     * CT02: Testa que chamadas concorrentes não ultrapassam a capacidade.
+     * Cenário: Oito threads disputam o mesmo balde de capacidade 100 com reabastecimento
+     * desprezível; exatamente 100 requisições devem passar.
+     */
+    @Test
+    void testTryAcquire_concurrentCallersNeverExceedCapacity() throws Exception {
+        // Arrange: Balde de 100 que leva horas para reabastecer um token.
+        RateLimiter limiter = new RateLimiter();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        Callable<Integer> worker = () -> {
+            int allowed = 0;
+            for (int i = 0; i < 1000; i++) {
+                if (limiter.tryAcquire("bulk|ip:a", 100, 0.0001).allowed()) {
+                    allowed++;
+                }
+            }
+            return allowed;
+        };
+
+        // Act: Dispara as threads.
+        List<Future<Integer>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(worker));
+            }
+            int allowed = 0;
+            for (Future<Integer> result : results) {
+                allowed += result.get(10, TimeUnit.SECONDS);
+            }
+
+            // Assert: Exatamente a capacidade foi aceita.
+            assertEquals(100, allowed);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * CT03: Testa o descarte dos baldes cheios.
+     * Cenário: Um balde de reabastecimento rápido fica cheio após alguns milissegundos e é
+     * descartado; um balde ainda em uso permanece.
+     */
+    @Test
+    void testEvictIdle_removesOnlyFullBuckets() throws Exception {
+        // Arrange: Um balde que se recupera em 1 ms e outro que leva horas.
+        RateLimiter limiter = new RateLimiter();
+        limiter.tryAcquire("reads|ip:fast", 1, 1000);
+        limiter.tryAcquire("reads|ip:slow", 1, 0.0001);
+        Thread.sleep(20);
+
+        // Act: Descarta os baldes cheios.
+        int evicted = limiter.evictIdle();
+
+        // Assert: Só o balde já recuperado saiu, e ele volta a aceitar requisições.
+        assertEquals(1, evicted);
+        assertEquals(1, limiter.size());
+        assertFalse(limiter.tryAcquire("reads|ip:slow", 1, 0.0001).allowed());
+        assertTrue(limiter.tryAcquire("reads|ip:fast", 1, 1000).allowed());
+    }
+}
@@ -0,0 +1,81 @@
+package com.codexasistemas.todoapp.api.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Teste de integração do roteamento entre primário e réplica.
+ *
+ * O primário e a réplica apontam para o mesmo banco H2 em memória, próprio deste teste,
+ * para que as leituras na réplica encontrem os dados sem replicação; o destino de cada
+ * conexão é conferido pelo contador todoapp.datasource.connections. Para testar com duas
+ * instâncias reais, veja a seção de réplica no README.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:replicatest",
+        "todoapp.datasource.replica.url=jdbc:h2:mem:replicatest",
+        "todoapp.datasource.replica.sticky-window=1m"
+})
+@AutoConfigureMockMvc
+public class ReplicaRoutingDataSourceTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * CT01: Testa que leituras vão à réplica, exceto logo após uma escrita do mesmo cliente.
+     * Cenário: Um cliente lista categorias, cria um usuário e lista de novo; outro cliente
+     * lista em seguida. Só a leitura do cliente que escreveu deve ficar no primário.
+     */
+    @Test
+    void testRouting_readsGoToReplicaUnlessClientWroteRecently() throws Exception {
+        // Act: Leitura de um cliente sem escritas.
+        double replica = replicaConnections();
+        mockMvc.perform(get("/api/categories?userId=1").with(from("10.0.0.1"))).andExpect(status().isOk());
+
+        // Assert: A transação somente-leitura usou a réplica.
+        assertEquals(replica + 1, replicaConnections());
+
+        // Act: O mesmo cliente escreve e lê em seguida.
+        replica = replicaConnections();
+        mockMvc.perform(post("/api/users").with(from("10.0.0.1"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\": \"Replica User\", \"email\": \"replica@example.com\", \"password\": \"secret\"}"))
+                .andExpect(status().is2xxSuccessful());
+        mockMvc.perform(get("/api/categories?userId=1").with(from("10.0.0.1"))).andExpect(status().isOk());
+
+        // Assert: Nem a escrita nem a leitura seguinte usaram a réplica.
+        assertEquals(replica, replicaConnections());
+
+        // Act: Outro cliente lê.
+        mockMvc.perform(get("/api/categories?userId=1").with(from("10.0.0.2"))).andExpect(status().isOk());
+
+        // Assert: A leitura do outro cliente continua na réplica.
+        assertEquals(replica + 1, replicaConnections());
+    }
+
+    private double replicaConnections() {
+        return meterRegistry.counter("todoapp.datasource.connections", "target", "replica").count();
+    }
+
+    private static RequestPostProcessor from(String remoteAddr) {
+        return request -> {
+            request.setRemoteAddr(remoteAddr);
+            return request;
+        };
+    }
+}
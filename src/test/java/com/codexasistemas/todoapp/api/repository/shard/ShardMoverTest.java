@@ -0,0 +1,152 @@
+package com.codexasistemas.todoapp.api.repository.shard;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Teste de integração do particionamento por usuário com três bancos H2 em memória,
+ * próprios deste teste. O primeiro recebe o schema do Hibernate e o diretório; os
+ * demais recebem o schema do ShardSchemaInitializer.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:shard0;DB_CLOSE_DELAY=-1",
+        "todoapp.sharding.enabled=true",
+        "todoapp.sharding.move-grace=0s",
+        "todoapp.sharding.shards[0].name=shard0",
+        "todoapp.sharding.shards[0].url=jdbc:h2:mem:shard0;DB_CLOSE_DELAY=-1",
+        "todoapp.sharding.shards[1].name=shard1",
+        "todoapp.sharding.shards[1].url=jdbc:h2:mem:shard1;DB_CLOSE_DELAY=-1",
+        "todoapp.sharding.shards[2].name=shard2",
+        "todoapp.sharding.shards[2].url=jdbc:h2:mem:shard2;DB_CLOSE_DELAY=-1"
+})
+@AutoConfigureMockMvc
+public class ShardMoverTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ShardCluster shardCluster;
+
+    /**
+     * CT01: Testa que os dados de um usuário ficam no shard dele e que a movimentação
+     * leva todas as linhas para o destino sem mudar IDs nem respostas da API.
+     * Cenário: Um usuário é criado com uma categoria e uma tarefa e depois movido para
+     * outro shard; a tarefa é lida e alterada em seguida.
+     */
+    @Test
+    void testMove_copiesUserRowsAndKeepsApiWorking() throws Exception {
+        // Arrange: Usuário, categoria e tarefa criados pela API.
+        long userId = json(mockMvc.perform(post("/api/users").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\": \"Shard User\", \"email\": \"shard@example.com\", \"password\": \"secret\"}"))
+                .andExpect(status().is2xxSuccessful())).get("id").asLong();
+        long categoryId = json(mockMvc.perform(post("/api/categories").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\": \"Trabalho\", \"userId\": " + userId + "}"))
+                .andExpect(status().is2xxSuccessful())).get("id").asLong();
+        long taskId = json(mockMvc.perform(post("/api/tasks").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\": \"Relatório\", \"userId\": " + userId + ", \"categoryId\": " + categoryId + "}"))
+                .andExpect(status().is2xxSuccessful())).get("id").asLong();
+
+        String source = shardCluster.shardOf(userId);
+        String target = shardCluster.names().stream().filter(shard -> !shard.equals(source)).findFirst().orElseThrow();
+
+        // Assert: As linhas estão no shard do anel, com IDs da faixa dele.
+        assertEquals(1, countTasks(source, userId));
+        assertEquals(0, countTasks(target, userId));
+        assertTrue(taskId >= shardCluster.firstId(source));
+
+        // Act: Move o usuário.
+        JsonNode result = json(mockMvc.perform(post("/api/shards/users/" + userId + "/move?target=" + target))
+                .andExpect(status().isOk()));
+
+        // Assert: Tudo foi copiado para o destino e removido da origem.
+        assertEquals(1, result.get("rows").get("task").asInt());
+        assertEquals(0, countTasks(source, userId));
+        assertEquals(1, countTasks(target, userId));
+        assertEquals(0, jdbc(source).queryForObject("select count(*) from users where id = ?", Long.class, userId));
+        assertEquals(target, shardCluster.shardOf(userId));
+        assertFalse(shardCluster.isMoving(userId));
+
+        // Act + Assert: A API continua respondendo pelo mesmo ID, agora no destino.
+        mockMvc.perform(get("/api/tasks/" + taskId)).andExpect(status().isOk());
+        assertEquals(1, json(mockMvc.perform(get("/api/tasks?userId=" + userId)).andExpect(status().isOk())).size());
+        mockMvc.perform(patch("/api/tasks/" + taskId + "/toggle")).andExpect(status().isOk());
+        assertEquals(Boolean.TRUE, jdbc(target).queryForObject("select done from task where id = ?", Boolean.class,
+                taskId));
+        mockMvc.perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\": \"shard@example.com\", \"password\": \"secret\"}"))
+                .andExpect(status().isOk());
+    }
+
+    /**
+     * CT02: Testa que o cursor da sincronização incremental continua válido após mover o
+     * usuário para um shard de faixa de IDs menor.
+     * Cenário: O cliente sincroniza com o usuário no último shard; o usuário vai para o
+     * primeiro e a tarefa é alterada; a sincronização seguinte, com o since anterior, deve
+     * trazer a alteração.
+     */
+    @Test
+    void testMove_toLowerRangeKeepsSyncCursor() throws Exception {
+        // Arrange: Usuário com uma tarefa, no último shard.
+        long userId = json(mockMvc.perform(post("/api/users").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\": \"Sync User\", \"email\": \"sync@example.com\", \"password\": \"secret\"}"))
+                .andExpect(status().is2xxSuccessful())).get("id").asLong();
+        long categoryId = json(mockMvc.perform(post("/api/categories").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\": \"Casa\", \"userId\": " + userId + "}"))
+                .andExpect(status().is2xxSuccessful())).get("id").asLong();
+        long taskId = json(mockMvc.perform(post("/api/tasks").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\": \"Compras\", \"userId\": " + userId + ", \"categoryId\": " + categoryId
+                        + "}"))
+                .andExpect(status().is2xxSuccessful())).get("id").asLong();
+        String last = shardCluster.names().get(shardCluster.names().size() - 1);
+        String first = shardCluster.names().get(0);
+        if (!last.equals(shardCluster.shardOf(userId))) {
+            mockMvc.perform(post("/api/shards/users/" + userId + "/move?target=" + last))
+                    .andExpect(status().isOk());
+        }
+        mockMvc.perform(patch("/api/tasks/" + taskId + "/toggle")).andExpect(status().isOk());
+        long since = json(mockMvc.perform(get("/api/users/" + userId + "/tasks/changes?since=0"))
+                .andExpect(status().isOk())).get("since").asLong();
+
+        // Act: Move o usuário para o primeiro shard e altera a tarefa lá.
+        mockMvc.perform(post("/api/shards/users/" + userId + "/move?target=" + first)).andExpect(status().isOk());
+        mockMvc.perform(patch("/api/tasks/" + taskId + "/toggle")).andExpect(status().isOk());
+
+        // Assert: A alteração feita no primeiro shard vem depois do since antigo.
+        JsonNode changes = json(mockMvc.perform(get("/api/users/" + userId + "/tasks/changes?since=" + since))
+                .andExpect(status().isOk()));
+        assertEquals(1, changes.get("changed").size());
+        assertEquals(taskId, changes.get("changed").get(0).get("id").asLong());
+        assertFalse(changes.get("changed").get(0).get("done").asBoolean());
+        assertTrue(changes.get("since").asLong() > since);
+    }
+
+    private long countTasks(String shard, long userId) {
+        return jdbc(shard).queryForObject("select count(*) from task where user_id = ?", Long.class, userId);
+    }
+
+    private JdbcTemplate jdbc(String shard) {
+        return new JdbcTemplate(shardCluster.dataSource(shard));
+    }
+
+    private JsonNode json(ResultActions result) throws Exception {
+        return objectMapper.readTree(result.andReturn().getResponse().getContentAsString());
+    }
+}
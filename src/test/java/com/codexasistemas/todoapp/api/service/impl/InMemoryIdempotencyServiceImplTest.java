@@ -0,0 +1,76 @@
+package com.codexasistemas.todoapp.api.service.impl;
+
+import com.codexasistemas.todoapp.api.service.interfaces.IdempotencyService.Claim;
+import com.codexasistemas.todoapp.api.service.interfaces.IdempotencyService.ClaimStatus;
+import com.codexasistemas.todoapp.api.service.interfaces.IdempotencyService.StoredResponse;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Teste unitário do armazenamento de chaves de idempotência em memória, sem contexto Spring.
+ */
+public class InMemoryIdempotencyServiceImplTest {
+
+    /**
+     * CT01: Testa o ciclo de uma chave.
+     * Cenário: A chave é reservada, repetida durante a execução (em andamento), completada e
+     * repetida de novo (resposta gravada); a mesma chave com outra impressão digital é recusada
+     * e uma chave liberada pode ser reservada outra vez.
+     */
+    @Test
+    void testClaim_acquireInProgressReplayMismatchAndRelease() {
+        // Arrange: Armazenamento com folga de tamanho e prazo.
+        InMemoryIdempotencyServiceImpl service = new InMemoryIdempotencyServiceImpl(Duration.ofHours(1),
+                Duration.ofMinutes(1), 10);
+        StoredResponse created = new StoredResponse(201, "application/json", "/tasks/1", "{\"id\":1}".getBytes());
+
+        // Act + Assert: Reserva e repetição durante a execução.
+        assertEquals(ClaimStatus.ACQUIRED, service.claim("k1", "a").status());
+        assertEquals(ClaimStatus.IN_PROGRESS, service.claim("k1", "a").status());
+
+        // Act + Assert: Depois de completada, a repetição recebe a resposta gravada.
+        service.complete("k1", created);
+        Claim replay = service.claim("k1", "a");
+        assertEquals(ClaimStatus.COMPLETED, replay.status());
+        assertEquals(created, replay.response());
+        assertEquals(ClaimStatus.MISMATCH, service.claim("k1", "b").status());
+
+        // Act + Assert: Uma chave liberada volta a ser nova.
+        assertEquals(ClaimStatus.ACQUIRED, service.claim("k2", "a").status());
+        service.release("k2");
+        assertEquals(ClaimStatus.ACQUIRED, service.claim("k2", "a").status());
+    }
+
+    /**
+     * CT02: Testa o descarte por tamanho e por prazo.
+     * Cenário: Com no máximo duas chaves, a terceira descarta a mais antiga; com prazo de
+     * reserva zero, uma reserva não completada vence e sai na limpeza periódica.
+     */
+    @Test
+    void testEviction_dropsEldestAndExpiredKeys() {
+        // Arrange: Armazenamento com no máximo duas chaves.
+        InMemoryIdempotencyServiceImpl service = new InMemoryIdempotencyServiceImpl(Duration.ofHours(1),
+                Duration.ofMinutes(1), 2);
+        service.claim("k1", "a");
+        service.claim("k2", "a");
+
+        // Act: Uma terceira chave passa do limite.
+        service.claim("k3", "a");
+
+        // Assert: A mais antiga foi descartada; as demais continuam reservadas.
+        assertEquals(ClaimStatus.ACQUIRED, service.claim("k1", "a").status());
+        assertEquals(ClaimStatus.IN_PROGRESS, service.claim("k3", "a").status());
+
+        // Arrange: Armazenamento em que a reserva vence imediatamente.
+        InMemoryIdempotencyServiceImpl expiring = new InMemoryIdempotencyServiceImpl(Duration.ofHours(1),
+                Duration.ZERO, 10);
+        expiring.claim("k1", "a");
+
+        // Act + Assert: A limpeza remove a reserva vencida.
+        assertEquals(1, expiring.purgeExpired());
+        assertEquals(ClaimStatus.ACQUIRED, expiring.claim("k1", "b").status());
+    }
+}
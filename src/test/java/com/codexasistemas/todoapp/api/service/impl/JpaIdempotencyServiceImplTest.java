@@ -0,0 +1,87 @@
+package com.codexasistemas.todoapp.api.service.impl;
+
+import com.codexasistemas.todoapp.api.service.interfaces.IdempotencyService;
+import com.codexasistemas.todoapp.api.service.interfaces.IdempotencyService.Claim;
+import com.codexasistemas.todoapp.api.service.interfaces.IdempotencyService.ClaimStatus;
+import com.codexasistemas.todoapp.api.service.interfaces.IdempotencyService.StoredResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Teste de integração do armazenamento de chaves de idempotência na tabela idempotency_key,
+ * com banco H2 próprio. Sem @Transactional: cada operação do serviço roda na própria transação.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:idempotencyjpa;DB_CLOSE_DELAY=-1",
+        "todoapp.idempotency.store=jpa"
+})
+public class JpaIdempotencyServiceImplTest {
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * CT01: Testa o ciclo de uma chave gravada no banco.
+     * Cenário: A chave é reservada, repetida durante a execução, completada e repetida de novo;
+     * outra impressão digital é recusada e uma chave liberada pode ser reservada outra vez.
+     */
+    @Test
+    void testClaim_acquireInProgressReplayMismatchAndRelease() {
+        // Arrange: Uma chave nova e a resposta a gravar.
+        String key = UUID.randomUUID().toString();
+        StoredResponse created = new StoredResponse(201, "application/json", "/tasks/1", "{\"id\":1}".getBytes());
+
+        // Act + Assert: Reserva e repetição durante a execução.
+        assertTrue(idempotencyService instanceof JpaIdempotencyServiceImpl);
+        assertEquals(ClaimStatus.ACQUIRED, idempotencyService.claim(key, "a").status());
+        assertEquals(ClaimStatus.IN_PROGRESS, idempotencyService.claim(key, "a").status());
+
+        // Act + Assert: Depois de completada, a repetição recebe a resposta gravada.
+        idempotencyService.complete(key, created);
+        Claim replay = idempotencyService.claim(key, "a");
+        assertEquals(ClaimStatus.COMPLETED, replay.status());
+        assertEquals(201, replay.response().status());
+        assertEquals("/tasks/1", replay.response().location());
+        assertArrayEquals(created.body(), replay.response().body());
+        assertEquals(ClaimStatus.MISMATCH, idempotencyService.claim(key, "b").status());
+
+        // Act + Assert: Uma chave liberada volta a ser nova.
+        String released = UUID.randomUUID().toString();
+        assertEquals(ClaimStatus.ACQUIRED, idempotencyService.claim(released, "a").status());
+        idempotencyService.release(released);
+        assertEquals(ClaimStatus.ACQUIRED, idempotencyService.claim(released, "a").status());
+    }
+
+    /**
+     * CT02: Testa o vencimento das chaves.
+     * Cenário: Uma chave completada tem o prazo vencido no banco; a limpeza a remove e a
+     * mesma chave pode ser reservada de novo, inclusive com outra impressão digital.
+     */
+    @Test
+    void testPurge_removesExpiredKeys() {
+        // Arrange: Uma chave completada e vencida.
+        String key = UUID.randomUUID().toString();
+        idempotencyService.claim(key, "a");
+        idempotencyService.complete(key, new StoredResponse(200, null, null, new byte[0]));
+        jdbcTemplate.update("update idempotency_key set expires_at = dateadd('MINUTE', -1, current_timestamp) "
+                + "where idempotency_key = ?", key);
+
+        // Act: Limpa as chaves vencidas.
+        int purged = idempotencyService.purgeExpired();
+
+        // Assert: A chave saiu e pode ser usada de novo.
+        assertTrue(purged >= 1);
+        assertEquals(0, jdbcTemplate.queryForObject("select count(*) from idempotency_key where idempotency_key = ?",
+                Integer.class, key));
+        assertEquals(ClaimStatus.ACQUIRED, idempotencyService.claim(key, "b").status());
+    }
+}
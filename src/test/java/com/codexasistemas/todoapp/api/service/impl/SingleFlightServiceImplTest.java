@@ -0,0 +1,202 @@
+package com.codexasistemas.todoapp.api.service.impl;
+
+import com.codexasistemas.todoapp.api.exception.BackPressureException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Teste unitário do agrupamento de consultas simultâneas, sem contexto Spring.
+ *
+ * A consulta de cada teste fica presa em um latch até todas as chamadas estarem em
+ * andamento; a métrica todoapp.single-flight.coalesced indica quantas estão aguardando.
+ */
+public class SingleFlightServiceImplTest {
+
+    private static final int CALLERS = 8;
+
+    private MeterRegistry meterRegistry;
+    private SingleFlightServiceImpl singleFlight;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        singleFlight = new SingleFlightServiceImpl(meterRegistry, List.of("slow"), Duration.ofMillis(300));
+        executor = Executors.newFixedThreadPool(CALLERS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * CT01: Testa que chamadas simultâneas com a mesma chave executam a consulta uma vez.
+     * Cenário: Oito chamadas para o mesmo usuário chegam enquanto a primeira está presa; ao
+     * liberar, todas recebem o mesmo resultado e a consulta rodou uma única vez. Uma chamada
+     * posterior consulta de novo.
+     */
+    @Test
+    void testExecute_coalescesConcurrentCallsWithSameKey() throws Exception {
+        // Arrange: Consulta presa até o latch ser liberado.
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger executions = new AtomicInteger();
+        List<Future<Object>> results = new ArrayList<>();
+
+        // Act: Dispara as chamadas e espera todas as seguidoras aguardarem a primeira.
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(executor.submit(() -> singleFlight.execute("slow", 1L, () -> {
+                executions.incrementAndGet();
+                await(release);
+                return List.of("resultado");
+            })));
+        }
+        awaitCoalesced(CALLERS - 1);
+        release.countDown();
+
+        // Assert: Uma execução, e todas as chamadas com a mesma instância do resultado.
+        Object first = results.get(0).get(5, TimeUnit.SECONDS);
+        for (Future<Object> result : results) {
+            assertSame(first, result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, executions.get());
+
+        // Assert: Não é cache; depois de terminar, a próxima chamada executa de novo.
+        singleFlight.execute("slow", 1L, executions::incrementAndGet);
+        assertEquals(2, executions.get());
+    }
+
+    /**
+     * CT02: Testa que a exceção da consulta chega a todas as chamadas agrupadas.
+     * Cenário: A consulta presa falha com IllegalArgumentException; a primeira chamada e as
+     * que aguardavam recebem a mesma exceção, sem embrulho.
+     */
+    @Test
+    void testExecute_propagatesSameExceptionToWaiters() throws Exception {
+        // Arrange: Consulta que falha depois de liberada.
+        CountDownLatch release = new CountDownLatch(1);
+        IllegalArgumentException failure = new IllegalArgumentException("Usuário não encontrado.");
+        List<Future<Object>> results = new ArrayList<>();
+
+        // Act: Dispara as chamadas, espera as seguidoras e libera a falha.
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(executor.submit(() -> singleFlight.execute("slow", 2L, () -> {
+                await(release);
+                throw failure;
+            })));
+        }
+        awaitCoalesced(CALLERS - 1);
+        release.countDown();
+
+        // Assert: Todas as chamadas falharam com a mesma exceção.
+        for (Future<Object> result : results) {
+            ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+            assertSame(failure, e.getCause());
+        }
+    }
+
+    /**
+     * CT03: Testa que métodos fora da configuração não são agrupados.
+     * Cenário: Duas chamadas simultâneas de um método não listado executam a consulta ao
+     * mesmo tempo, cada uma a sua.
+     */
+    @Test
+    void testExecute_methodNotConfiguredRunsEveryCall() throws Exception {
+        // Arrange: Consulta que só termina quando as duas chamadas estiverem dentro dela.
+        CountDownLatch bothInside = new CountDownLatch(2);
+
+        // Act: Dispara as duas chamadas.
+        Future<Boolean> first = executor.submit(() -> singleFlight.execute("fast", 3L, () -> arrive(bothInside)));
+        Future<Boolean> second = executor.submit(() -> singleFlight.execute("fast", 3L, () -> arrive(bothInside)));
+
+        // Assert: As duas executaram em paralelo e nada foi contado como agrupado.
+        assertTrue(first.get(5, TimeUnit.SECONDS));
+        assertTrue(second.get(5, TimeUnit.SECONDS));
+        assertEquals(0, coalesced());
+    }
+
+    /**
+     * CT04: Testa a espera limitada de quem aguarda.
+     * Cenário: A consulta fica presa além de wait-timeout (300 ms); a chamada que aguarda
+     * recebe BackPressureException (503 com Retry-After), e a primeira ainda termina
+     * normalmente quando liberada.
+     */
+    @Test
+    void testExecute_waiterGivesUpAfterWaitTimeout() throws Exception {
+        // Arrange: Primeira chamada presa.
+        CountDownLatch release = new CountDownLatch(1);
+        Future<Object> leader = executor.submit(() -> singleFlight.execute("slow", 4L, () -> {
+            await(release);
+            return "resultado";
+        }));
+        awaitExecutionStarted();
+
+        // Act: Uma segunda chamada aguarda a primeira.
+        long start = System.nanoTime();
+        BackPressureException e = assertThrows(BackPressureException.class,
+                () -> singleFlight.execute("slow", 4L, () -> "não deve executar"));
+        long waitedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        // Assert: Desistiu perto do limite, com Retry-After e métrica; a primeira conclui.
+        assertTrue(waitedMillis >= 250 && waitedMillis < 5000, "Esperou " + waitedMillis + " ms");
+        assertEquals(1, e.getRetryAfterSeconds());
+        assertEquals(1, meterRegistry.counter("todoapp.single-flight.timeouts", "method", "slow").count());
+        release.countDown();
+        assertEquals("resultado", leader.get(5, TimeUnit.SECONDS));
+    }
+
+    private double coalesced() {
+        return meterRegistry.counter("todoapp.single-flight.coalesced", "method", "slow").count();
+    }
+
+    private void awaitCoalesced(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (coalesced() < expected) {
+            assertTrue(System.nanoTime() < deadline, "As chamadas não chegaram a aguardar a primeira.");
+            Thread.sleep(5);
+        }
+    }
+
+    private void awaitExecutionStarted() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.counter("todoapp.single-flight.executions", "method", "slow").count() < 1) {
+            assertTrue(System.nanoTime() < deadline, "A primeira chamada não começou.");
+            Thread.sleep(5);
+        }
+    }
+
+    private static boolean arrive(CountDownLatch latch) {
+        latch.countDown();
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
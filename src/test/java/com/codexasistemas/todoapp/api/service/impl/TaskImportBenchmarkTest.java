@@ -0,0 +1,71 @@
+package com.codexasistemas.todoapp.api.service.impl;
+
+import com.codexasistemas.todoapp.api.dto.task.TaskImportFormat;
+import com.codexasistemas.todoapp.api.dto.task.TaskImportResultDto;
+import com.codexasistemas.todoapp.api.model.User;
+import com.codexasistemas.todoapp.api.repository.jpa.UserJpaRepository;
+import com.codexasistemas.todoapp.api.service.interfaces.TaskImportService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Benchmark de vazão da importação em massa com 100 mil linhas NDJSON, em banco H2 próprio.
+ *
+ * Não roda no build normal; execute com:
+ * mvn test -Dtest=TaskImportBenchmarkTest -Dbenchmark=true
+ *
+ * As linhas usam 20 categorias e 50 tags, metade com vencimento no passado; mede o tempo
+ * total e as linhas por segundo com o tamanho de lote padrão (todoapp.import.chunk-size).
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:importbenchmark;DB_CLOSE_DELAY=-1")
+public class TaskImportBenchmarkTest {
+
+    private static final int ROWS = 100_000;
+
+    @Autowired
+    private TaskImportService taskImportService;
+
+    @Autowired
+    private UserJpaRepository userJpaRepository;
+
+    @Test
+    void benchmarkOneHundredThousandRows() throws Exception {
+        User user = new User();
+        user.setEmail(UUID.randomUUID() + "@example.com");
+        user.setPassword("password");
+        user.setName("Benchmark User");
+        user = userJpaRepository.save(user);
+
+        LocalDate today = LocalDate.now();
+        StringBuilder body = new StringBuilder(ROWS * 120);
+        for (int i = 0; i < ROWS; i++) {
+            body.append("{\"title\": \"Tarefa ").append(i)
+                    .append("\", \"category\": \"Categoria ").append(i % 20)
+                    .append("\", \"tags\": [\"tag").append(i % 50).append("\"]")
+                    .append(", \"dueDate\": \"").append(today.plusDays(i % 365 - 182))
+                    .append("\", \"done\": ").append(i % 3 == 0)
+                    .append("}\n");
+        }
+        byte[] bytes = body.toString().getBytes(StandardCharsets.UTF_8);
+
+        long start = System.nanoTime();
+        TaskImportResultDto result = taskImportService.importTasks(user.getId(), TaskImportFormat.NDJSON,
+                new ByteArrayInputStream(bytes));
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        assertEquals(ROWS, result.imported());
+        assertEquals(0, result.failed());
+        System.out.printf("Importação: %d linhas (%.1f MiB) em %.1f s, %.0f linhas/s%n",
+                ROWS, bytes.length / 1048576.0, seconds, ROWS / seconds);
+    }
+}
@@ -0,0 +1,134 @@
+package com.codexasistemas.todoapp.api.service.impl;
+
+import com.codexasistemas.todoapp.api.dto.task.TaskImportErrorDto;
+import com.codexasistemas.todoapp.api.dto.task.TaskImportFormat;
+import com.codexasistemas.todoapp.api.dto.task.TaskImportResultDto;
+import com.codexasistemas.todoapp.api.model.User;
+import com.codexasistemas.todoapp.api.repository.jpa.UserJpaRepository;
+import com.codexasistemas.todoapp.api.service.interfaces.TaskImportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Teste de integração da importação em massa, com banco H2 próprio.
+ * Sem @Transactional: cada lote da importação é gravado na sua própria transação, e o
+ * teste precisa ver o que foi confirmado e o que foi desfeito. Lotes de 2 linhas.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:importtest;DB_CLOSE_DELAY=-1",
+        "todoapp.import.chunk-size=2"
+})
+public class TaskImportServiceImplTest {
+
+    @Autowired
+    private TaskImportService taskImportService;
+
+    @Autowired
+    private UserJpaRepository userJpaRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        testUser = new User();
+        testUser.setEmail(UUID.randomUUID() + "@example.com");
+        testUser.setPassword("password");
+        testUser.setName("Import User");
+        testUser = userJpaRepository.save(testUser);
+    }
+
+    /**
+     * CT01: Testa a importação NDJSON com erros por linha e um lote desfeito.
+     * Cenário: O primeiro lote tem uma tarefa com vencimento no passado e uma linha sem
+     * categoria; uma linha não é JSON; o segundo lote falha ao gravar (descrição maior que a
+     * coluna) e é desfeito com a categoria e a tag que criou; o último lote é gravado.
+     */
+    @Test
+    void testImportNdjson_reportsLineErrorsAndRollsBackFailedChunk() throws Exception {
+        // Arrange: Seis linhas, em lotes de duas linhas válidas.
+        String body = String.join("\n",
+                "{\"title\": \"Histórica\", \"category\": \"Casa\", \"dueDate\": \"2020-01-15\", \"done\": true}",
+                "{\"title\": \"Sem categoria\"}",
+                "isto não é json",
+                "{\"title\": \"Nova\", \"category\": \"Trabalho\", \"tags\": [\"urgente\"]}",
+                "{\"title\": \"Longa\", \"category\": \"Lote\", \"description\": \"" + "x".repeat(300) + "\"}",
+                "",
+                "{\"title\": \"Depois\", \"category\": \"Trabalho\"}");
+
+        // Act: Importa o arquivo.
+        TaskImportResultDto result = importTasks(TaskImportFormat.NDJSON, body);
+
+        // Assert: Seis linhas não vazias, duas importadas e quatro falhas com o número da linha.
+        assertEquals(6, result.processedLines());
+        assertEquals(2, result.imported());
+        assertEquals(4, result.failed());
+        assertEquals(List.of(2L, 3L, 4L, 5L), result.errors().stream().map(TaskImportErrorDto::line).toList());
+        assertEquals("A categoria é obrigatória.", result.errors().get(0).message());
+        assertTrue(result.errors().get(1).message().startsWith("Linha inválida"));
+        assertTrue(result.errors().get(2).message().startsWith("Lote não gravado"));
+        assertTrue(result.errors().get(3).message().startsWith("Lote não gravado"));
+
+        // Assert: A tarefa histórica manteve o vencimento passado; o lote desfeito não deixou
+        // tarefas, categorias nem tags, e o último lote recriou a categoria Trabalho.
+        List<Map<String, Object>> tasks = jdbcTemplate.queryForList(
+                "select title, due_date, done from task where user_id = ? order by id", testUser.getId());
+        assertEquals(List.of("Histórica", "Depois"), tasks.stream().map(task -> task.get("TITLE")).toList());
+        assertEquals(Date.valueOf(LocalDate.of(2020, 1, 15)), tasks.get(0).get("DUE_DATE"));
+        assertEquals(true, tasks.get(0).get("DONE"));
+        assertEquals(List.of("Casa", "Trabalho"), jdbcTemplate.queryForList(
+                "select name from category where user_id = ? order by name", String.class, testUser.getId()));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "select count(*) from tag where user_id = ?", Integer.class, testUser.getId()));
+    }
+
+    /**
+     * CT02: Testa o parser CSV.
+     * Cenário: Um CSV com aspas, vírgulas e aspas escapadas no texto, tags separadas por ";"
+     * e vencimento no passado é importado; uma linha com aspas não fechadas falha sozinha.
+     */
+    @Test
+    void testImportCsv_parsesQuotedFieldsAndTags() throws Exception {
+        // Arrange: Cabeçalho em outra ordem e com caixa diferente, uma linha válida e uma inválida.
+        String body = String.join("\n",
+                "Category,Title,Description,Tags,DueDate,Done",
+                "Casa,\"Comprar pão, leite\",\"Padaria \"\"Central\"\"\",mercado;casa,2021-06-30,false",
+                "Casa,\"Sem fim,,,");
+
+        // Act: Importa o arquivo.
+        TaskImportResultDto result = importTasks(TaskImportFormat.CSV, body);
+
+        // Assert: A primeira linha de dados foi importada e a segunda (linha 3) falhou.
+        assertEquals(2, result.processedLines());
+        assertEquals(1, result.imported());
+        assertEquals(List.of(3L), result.errors().stream().map(TaskImportErrorDto::line).toList());
+        Map<String, Object> task = jdbcTemplate.queryForMap(
+                "select id, title, description, due_date from task where user_id = ?", testUser.getId());
+        assertEquals("Comprar pão, leite", task.get("TITLE"));
+        assertEquals("Padaria \"Central\"", task.get("DESCRIPTION"));
+        assertEquals(Date.valueOf(LocalDate.of(2021, 6, 30)), task.get("DUE_DATE"));
+        assertEquals(List.of("casa", "mercado"), jdbcTemplate.queryForList(
+                "select t.name from tag t join task_tag tt on tt.tag_id = t.id where tt.task_id = ? order by t.name",
+                String.class, task.get("ID")));
+    }
+
+    private TaskImportResultDto importTasks(TaskImportFormat format, String body) throws Exception {
+        return taskImportService.importTasks(testUser.getId(), format,
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,103 @@
+package com.codexasistemas.todoapp.api.service.impl;
+
+import com.codexasistemas.todoapp.api.dto.task.TaskLocationIndexStatsDto;
+import com.codexasistemas.todoapp.api.dto.task.TaskPointDto;
+import com.codexasistemas.todoapp.api.dto.task.TaskWithinResponseDto;
+import com.codexasistemas.todoapp.api.model.GeoCell;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Benchmark do índice de localização em memória com 1 milhão de pontos.
+ *
+ * Não roda no build normal; execute com:
+ * mvn test -Dtest=TaskLocationIndexBenchmarkTest -Dbenchmark=true
+ *
+ * Mede a construção, a memória estimada, consultas por caixa e escritas incrementais,
+ * e confere o resultado das consultas contra uma varredura completa dos pontos.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class TaskLocationIndexBenchmarkTest {
+
+    private static final int POINTS = 1_000_000;
+    private static final int USERS = 10;
+    private static final int QUERIES = 10_000;
+
+    @Test
+    void benchmarkOneMillionPoints() {
+        // Pontos espalhados por uma região de ~50 km, divididos entre poucos usuários.
+        Random random = new Random(42);
+        long[] userIds = new long[POINTS];
+        double[] latitudes = new double[POINTS];
+        double[] longitudes = new double[POINTS];
+        for (int i = 0; i < POINTS; i++) {
+            userIds[i] = 1 + i % USERS;
+            latitudes[i] = -23.8 + random.nextDouble() * 0.5;
+            longitudes[i] = -46.9 + random.nextDouble() * 0.5;
+        }
+
+        TaskLocationIndexServiceImpl index = new TaskLocationIndexServiceImpl();
+        long start = System.nanoTime();
+        TaskLocationIndexServiceImpl.Builder builder = new TaskLocationIndexServiceImpl.Builder();
+        for (int i = 0; i < POINTS; i++) {
+            builder.add(i + 1, userIds[i], GeoCell.encode(latitudes[i], longitudes[i]));
+        }
+        index.install(builder);
+        long buildMillis = (System.nanoTime() - start) / 1_000_000;
+
+        TaskLocationIndexStatsDto stats = index.stats();
+        assertEquals(POINTS, stats.points());
+        System.out.printf("Construção: %d ms, %d pontos, %d usuários, ~%.1f MiB (%.1f bytes/ponto)%n",
+                buildMillis, stats.points(), stats.users(), stats.estimatedBytes() / 1048576.0,
+                (double) stats.estimatedBytes() / stats.points());
+
+        // Consultas por caixa de ~1 km (visão de bairro) e de ~10 km (visão de cidade).
+        for (double size : new double[] { 0.01, 0.1 }) {
+            long found = 0;
+            start = System.nanoTime();
+            for (int q = 0; q < QUERIES; q++) {
+                double south = -23.8 + random.nextDouble() * (0.5 - size);
+                double west = -46.9 + random.nextDouble() * (0.5 - size);
+                found += index.within(1 + (long) q % USERS, south, west, south + size, west + size, 100_000)
+                        .points().size();
+            }
+            double micros = (System.nanoTime() - start) / 1000.0 / QUERIES;
+            System.out.printf("Caixa de %.2f°: %.1f µs por consulta, %.1f pontos em média%n",
+                    size, micros, (double) found / QUERIES);
+        }
+
+        // Confere uma consulta contra a varredura completa dos pontos do usuário 1.
+        double south = -23.6;
+        double west = -46.7;
+        double north = -23.55;
+        double east = -46.64;
+        TaskWithinResponseDto response = index.within(1L, south, west, north, east, 100_000);
+        Set<Long> expected = new java.util.HashSet<>();
+        for (int i = 0; i < POINTS; i++) {
+            long cell = GeoCell.encode(latitudes[i], longitudes[i]);
+            double latitude = GeoCell.latitudeOf(cell);
+            double longitude = GeoCell.longitudeOf(cell);
+            if (userIds[i] == 1 && latitude >= south && latitude <= north && longitude >= west && longitude <= east) {
+                expected.add(i + 1L);
+            }
+        }
+        assertEquals(expected, response.points().stream().map(TaskPointDto::id).collect(Collectors.toSet()));
+
+        // Escritas incrementais: inclusão e remoção no usuário com 100 mil pontos.
+        int writes = 10_000;
+        start = System.nanoTime();
+        for (int i = 0; i < writes; i++) {
+            long cell = GeoCell.encode(-23.8 + random.nextDouble() * 0.5, -46.9 + random.nextDouble() * 0.5);
+            index.add(1L, (long) POINTS + i + 1, cell);
+            index.remove(1L, (long) POINTS + i + 1, cell);
+        }
+        System.out.printf("Inclusão + remoção: %.1f µs por par%n", (System.nanoTime() - start) / 1000.0 / writes);
+        assertEquals(POINTS, index.stats().points());
+    }
+}
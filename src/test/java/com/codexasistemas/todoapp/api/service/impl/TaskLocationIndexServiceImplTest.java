@@ -0,0 +1,150 @@
+package com.codexasistemas.todoapp.api.service.impl;
+
+import com.codexasistemas.todoapp.api.dto.task.TaskPointDto;
+import com.codexasistemas.todoapp.api.dto.task.TaskWithinResponseDto;
+import com.codexasistemas.todoapp.api.exception.BackPressureException;
+import com.codexasistemas.todoapp.api.model.GeoCell;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Teste unitário do índice de localização em memória, sem contexto Spring.
+ *
+ * Fora de uma transação, as inclusões e remoções são aplicadas na hora. As consultas são
+ * conferidas contra uma varredura completa dos pontos, como no TaskLocationIndexBenchmarkTest,
+ * mas com poucos pontos para rodar no build normal.
+ */
+public class TaskLocationIndexServiceImplTest {
+
+    private static final int POINTS = 5_000;
+
+    /**
+     * CT01: Testa que o índice recusa consultas antes da primeira construção.
+     * Cenário: Um índice recém-criado responde BackPressureException (503 com Retry-After);
+     * depois de instalado, um usuário sem pontos recebe uma lista vazia.
+     */
+    @Test
+    void testWithin_rejectsUntilBuilt() {
+        // Arrange: Índice ainda não construído.
+        TaskLocationIndexServiceImpl index = new TaskLocationIndexServiceImpl();
+
+        // Act + Assert: 503 antes da construção.
+        BackPressureException e = assertThrows(BackPressureException.class,
+                () -> index.within(1L, -10, -10, 10, 10, 100));
+        assertEquals(5, e.getRetryAfterSeconds());
+        assertNull(index.stats().builtAt());
+
+        // Act + Assert: Depois da construção, vazio em vez de erro.
+        index.install(new TaskLocationIndexServiceImpl.Builder());
+        assertTrue(index.within(1L, -10, -10, 10, 10, 100).points().isEmpty());
+        assertNotNull(index.stats().builtAt());
+    }
+
+    /**
+     * CT02: Testa as consultas por caixa contra a varredura completa.
+     * Cenário: Pontos de dois usuários espalhados em torno do antimeridiano; caixas comuns e
+     * caixas que cruzam o antimeridiano (west > east) devem devolver exatamente os pontos do
+     * usuário dentro delas.
+     */
+    @Test
+    void testWithin_matchesBruteForceIncludingAntimeridian() {
+        // Arrange: Pontos em -10..10 de latitude e 170..190 de longitude (190 vira -170).
+        Random random = new Random(7);
+        long[] userIds = new long[POINTS];
+        long[] cells = new long[POINTS];
+        TaskLocationIndexServiceImpl.Builder builder = new TaskLocationIndexServiceImpl.Builder();
+        for (int i = 0; i < POINTS; i++) {
+            double longitude = 170 + random.nextDouble() * 20;
+            userIds[i] = 1 + i % 2;
+            cells[i] = GeoCell.encode(-10 + random.nextDouble() * 20, longitude > 180 ? longitude - 360 : longitude);
+            builder.add(i + 1, userIds[i], cells[i]);
+        }
+        TaskLocationIndexServiceImpl index = new TaskLocationIndexServiceImpl();
+        index.install(builder);
+        assertEquals(POINTS, index.stats().points());
+        assertEquals(2, index.stats().users());
+
+        // Act + Assert: Caixas aleatórias, metade cruzando o antimeridiano.
+        for (int q = 0; q < 200; q++) {
+            double south = -10 + random.nextDouble() * 15;
+            double north = south + random.nextDouble() * 5;
+            double west = 170 + random.nextDouble() * 15;
+            double east = west + random.nextDouble() * 5;
+            if (west > 180) {
+                west -= 360;
+            }
+            if (east > 180) {
+                east -= 360;
+            }
+            long userId = 1 + q % 2;
+            TaskWithinResponseDto response = index.within(userId, south, west, north, east, POINTS);
+            assertFalse(response.truncated());
+            assertEquals(bruteForce(userIds, cells, userId, south, west, north, east),
+                    response.points().stream().map(TaskPointDto::id).collect(Collectors.toSet()),
+                    "Caixa " + south + "," + west + " / " + north + "," + east);
+        }
+    }
+
+    /**
+     * CT03: Testa as escritas incrementais e o limite de resultados.
+     * Cenário: Inclusões (repetidas, sem duplicar), remoção de um ponto e remoção do usuário
+     * inteiro refletem na consulta seguinte; com limit menor que o total, a resposta vem
+     * marcada como truncada.
+     */
+    @Test
+    void testAddRemove_updatesQueriesAndTruncates() {
+        // Arrange: Índice vazio já construído.
+        TaskLocationIndexServiceImpl index = new TaskLocationIndexServiceImpl();
+        index.install(new TaskLocationIndexServiceImpl.Builder());
+        long near = GeoCell.encode(-23.55, -46.63);
+        long far = GeoCell.encode(-22.90, -43.17);
+
+        // Act: Três pontos do usuário 1, um incluído duas vezes, e um do usuário 2.
+        index.add(1L, 10L, near);
+        index.add(1L, 10L, near);
+        index.add(1L, 11L, near);
+        index.add(1L, 12L, far);
+        index.add(2L, 20L, near);
+
+        // Assert: Sem duplicata; a caixa de São Paulo traz só os pontos do usuário 1 nela.
+        assertEquals(4, index.stats().points());
+        assertEquals(Set.of(10L, 11L), ids(index.within(1L, -23.6, -46.7, -23.5, -46.6, 10)));
+        TaskWithinResponseDto limited = index.within(1L, -24, -47, -22, -43, 2);
+        assertEquals(2, limited.points().size());
+        assertTrue(limited.truncated());
+
+        // Act + Assert: Remoção de um ponto e do usuário inteiro.
+        index.remove(1L, 10L, near);
+        assertEquals(Set.of(11L), ids(index.within(1L, -23.6, -46.7, -23.5, -46.6, 10)));
+        index.removeUser(1L);
+        assertTrue(index.within(1L, -24, -47, -22, -43, 10).points().isEmpty());
+        assertEquals(Set.of(20L), ids(index.within(2L, -23.6, -46.7, -23.5, -46.6, 10)));
+        assertEquals(1, index.stats().users());
+    }
+
+    private static Set<Long> ids(TaskWithinResponseDto response) {
+        return response.points().stream().map(TaskPointDto::id).collect(Collectors.toSet());
+    }
+
+    // Mesmo critério do índice: coordenadas do centro da célula de cada ponto.
+    private static Set<Long> bruteForce(long[] userIds, long[] cells, long userId, double south, double west,
+            double north, double east) {
+        Set<Long> expected = new HashSet<>();
+        for (int i = 0; i < cells.length; i++) {
+            double latitude = GeoCell.latitudeOf(cells[i]);
+            double longitude = GeoCell.longitudeOf(cells[i]);
+            boolean insideLongitude = west > east ? longitude >= west || longitude <= east
+                    : longitude >= west && longitude <= east;
+            if (userIds[i] == userId && latitude >= south && latitude <= north && insideLongitude) {
+                expected.add(i + 1L);
+            }
+        }
+        return expected;
+    }
+}
@@ -1,23 +1,65 @@
 package com.codexasistemas.todoapp.api.service.impl;
 
+import com.codexasistemas.todoapp.api.dto.category.CategoryWithTaskCountDto;
+import com.codexasistemas.todoapp.api.dto.location.LocationDto;
+import com.codexasistemas.todoapp.api.dto.tag.TagMergeResponseDto;
+import com.codexasistemas.todoapp.api.dto.tag.TagWithTaskCountDto;
+import com.codexasistemas.todoapp.api.dto.task.TaskBulkAction;
+import com.codexasistemas.todoapp.api.dto.task.TaskBulkFilterDto;
+import com.codexasistemas.todoapp.api.dto.task.TaskBulkOutcome;
+import com.codexasistemas.todoapp.api.dto.task.TaskBulkRequestDto;
+import com.codexasistemas.todoapp.api.dto.task.TaskBulkResponseDto;
+import com.codexasistemas.todoapp.api.dto.task.TaskBulkResultDto;
+import com.codexasistemas.todoapp.api.dto.task.TaskChangesDto;
+import com.codexasistemas.todoapp.api.dto.task.TaskCompactDto;
+import com.codexasistemas.todoapp.api.dto.task.TaskCompactListDto;
+import com.codexasistemas.todoapp.api.dto.task.TaskField;
 import com.codexasistemas.todoapp.api.dto.task.TaskRequestDto;
+import com.codexasistemas.todoapp.api.dto.task.TaskPointDto;
 import com.codexasistemas.todoapp.api.dto.task.TaskResponseDto;
+import com.codexasistemas.todoapp.api.dto.user.UserTaskDigestDto;
+import com.codexasistemas.todoapp.api.exception.ResyncRequiredException;
 import com.codexasistemas.todoapp.api.model.Category;
 import com.codexasistemas.todoapp.api.model.Tag;
+import com.codexasistemas.todoapp.api.model.Task;
 import com.codexasistemas.todoapp.api.model.User;
 import com.codexasistemas.todoapp.api.repository.jpa.CategoryJpaRepository;
 import com.codexasistemas.todoapp.api.repository.jpa.TagJpaRepository;
 import com.codexasistemas.todoapp.api.repository.jpa.TaskJpaRepository;
 import com.codexasistemas.todoapp.api.repository.jpa.UserJpaRepository;
+import com.codexasistemas.todoapp.api.service.interfaces.CategoryService;
+import com.codexasistemas.todoapp.api.service.interfaces.TagService;
+import com.codexasistemas.todoapp.api.service.interfaces.TaskArchiveService;
+import com.codexasistemas.todoapp.api.service.interfaces.TaskChangeService;
+import com.codexasistemas.todoapp.api.service.interfaces.TaskCounterService;
+import com.codexasistemas.todoapp.api.service.interfaces.TaskDigestService;
 import com.codexasistemas.todoapp.api.service.interfaces.TaskService;
+import com.codexasistemas.todoapp.api.service.interfaces.UserDeletionService;
+import com.codexasistemas.todoapp.api.service.interfaces.UserService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CollectionStatistics;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.transaction.TestTransaction;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -41,6 +83,42 @@ public class TaskServiceImplTest {
     @Autowired
     private TaskService taskService;
 
+    @Autowired
+    private TaskChangeService taskChangeService;
+
+    @Autowired
+    private TaskArchiveService taskArchiveService;
+
+    @Autowired
+    private TaskDigestService taskDigestService;
+
+    @Autowired
+    private UserDeletionService userDeletionService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private TagService tagService;
+
+    @Autowired
+    private TaskCounterService taskCounterService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @Autowired
     private UserJpaRepository userJpaRepository;
 
@@ -248,5 +326,830 @@ public class TaskServiceImplTest {
         assertThrows(IllegalArgumentException.class, () -> taskService.create(request),
                 "Deve lançar IllegalArgumentException para dados de tarefa inválidos (título em branco).");
     }
-}
 
+    /**
+     * CT06: Testa a operação em massa de conclusão de tarefas.
+     * Cenário: Duas tarefas são concluídas em uma única chamada, sendo uma delas já concluída
+     * e um dos IDs inexistente; cada ID deve receber o resultado correspondente. Em seguida, um
+     * filtro vazio é recusado e IDs combinados com um filtro que nenhum deles atende não alteram nada:
+     * os existentes são reportados como SKIPPED e o inexistente como NOT_FOUND.
+     */
+    @Test
+    void testBulkFlow_completeManyTasksReportsOutcomePerId() {
+        // Arrange: Cria duas tarefas e conclui uma delas previamente.
+        TaskResponseDto first = taskService.create(new TaskRequestDto(
+                "Bulk Task 1", null, testUser.getId(), testCategory.getId(), null, null, null));
+        TaskResponseDto second = taskService.create(new TaskRequestDto(
+                "Bulk Task 2", null, testUser.getId(), testCategory.getId(), null, null, null));
+        taskService.toggleStatus(second.id());
+
+        // Act: Conclui as duas tarefas e um ID inexistente em uma única operação.
+        TaskBulkResponseDto response = taskService.bulk(new TaskBulkRequestDto(
+                testUser.getId(), TaskBulkAction.DONE, List.of(first.id(), second.id(), 999L), null));
+
+        // Assert: Apenas a tarefa pendente é alterada; os demais IDs são reportados.
+        assertEquals(1, response.affected());
+        assertEquals(List.of(
+                new TaskBulkResultDto(first.id(), TaskBulkOutcome.APPLIED),
+                new TaskBulkResultDto(second.id(), TaskBulkOutcome.UNCHANGED),
+                new TaskBulkResultDto(999L, TaskBulkOutcome.NOT_FOUND)), response.results());
+        assertTrue(taskService.findById(first.id()).orElseThrow().done(), "A tarefa deve estar concluída.");
+
+        // Act + Assert: Um filtro vazio é recusado, e IDs com filtro só alcançam as tarefas que o atendem.
+        assertThrows(IllegalArgumentException.class, () -> taskService.bulk(new TaskBulkRequestDto(
+                testUser.getId(), TaskBulkAction.UNDONE, null, new TaskBulkFilterDto(null, null, null))));
+        TaskBulkResponseDto filtered = taskService.bulk(new TaskBulkRequestDto(testUser.getId(),
+                TaskBulkAction.UNDONE, List.of(first.id(), second.id(), 999L),
+                new TaskBulkFilterDto(testCategory.getId(), testTag.getId(), null)));
+        assertEquals(0, filtered.affected());
+        assertEquals(List.of(
+                new TaskBulkResultDto(first.id(), TaskBulkOutcome.SKIPPED),
+                new TaskBulkResultDto(second.id(), TaskBulkOutcome.SKIPPED),
+                new TaskBulkResultDto(999L, TaskBulkOutcome.NOT_FOUND)), filtered.results());
+        assertTrue(taskService.findById(second.id()).orElseThrow().done(), "A tarefa fora do filtro não muda.");
+    }
+
+    /**
+     * CT07: Testa a busca de tarefas por proximidade.
+     * Cenário: Três tarefas são criadas a ~100 m, ~1 km e ~10 km de um ponto; a busca com raio
+     * de 2 km deve retornar apenas as duas mais próximas, ordenadas pela distância.
+     */
+    @Test
+    void testNearbyFlow_returnsTasksWithinRadiusOrderedByDistance() {
+        // Arrange: Cria tarefas ao norte do ponto de referência, em distâncias crescentes.
+        double latitude = -23.55;
+        double longitude = -46.63;
+        TaskResponseDto far = taskService.create(new TaskRequestDto("Far Task", null, testUser.getId(),
+                testCategory.getId(), null, null, new LocationDto(latitude + 0.09, longitude, null, null)));
+        TaskResponseDto near = taskService.create(new TaskRequestDto("Near Task", null, testUser.getId(),
+                testCategory.getId(), null, null, new LocationDto(latitude + 0.0009, longitude, null, null)));
+        TaskResponseDto middle = taskService.create(new TaskRequestDto("Middle Task", null, testUser.getId(),
+                testCategory.getId(), null, null, new LocationDto(latitude + 0.009, longitude, null, null)));
+
+        // Act: Busca as tarefas em um raio de 2 km.
+        List<TaskResponseDto> nearby = taskService.findNearby(testUser.getId(), latitude, longitude, 2000);
+
+        // Assert: A tarefa a ~10 km fica de fora e as demais vêm da mais próxima para a mais distante.
+        assertEquals(List.of(near.id(), middle.id()), nearby.stream().map(TaskResponseDto::id).toList());
+        assertNotNull(far.id());
+    }
+
+    /**
+     * CT08: Testa a leitura de tarefas com seleção de campos.
+     * Cenário: Uma tarefa com tag e localização é criada; a leitura com fields=title,tags deve
+     * trazer apenas id, título e tags, sem os demais campos.
+     */
+    @Test
+    void testFieldsFlow_returnsOnlyRequestedFields() {
+        // Arrange: Cria uma tarefa com tag e localização e grava a associação com a tag.
+        TaskResponseDto created = taskService.create(new TaskRequestDto("Sparse Task", "Desc", testUser.getId(),
+                testCategory.getId(), List.of(testTag.getId()), null, new LocationDto(-23.55, -46.63, null, null)));
+        taskJpaRepository.flush();
+
+        // Act: Lê as tarefas do usuário pedindo apenas título e tags.
+        List<Map<String, Object>> tasks = taskService.findFieldsByUserId(testUser.getId(),
+                TaskField.parse("title,tags"));
+
+        // Assert: Vêm somente os campos pedidos, mais o id.
+        assertEquals(1, tasks.size());
+        assertEquals(List.of("id", "title", "tags"), List.copyOf(tasks.get(0).keySet()));
+        assertEquals(created.id(), tasks.get(0).get("id"));
+        assertEquals("Sparse Task", tasks.get(0).get("title"));
+        assertEquals(List.of(testTag.getName()), tasks.get(0).get("tags"));
+        assertThrows(IllegalArgumentException.class, () -> TaskField.parse("title,password"));
+    }
+
+    /**
+     * CT09: Testa a sincronização incremental de tarefas.
+     * Cenário: Após uma primeira sincronização, uma tarefa é concluída e outra excluída; a
+     * busca a partir da sequência devolvida deve trazer apenas essas duas alterações.
+     */
+    @Test
+    void testChangesFlow_returnsOnlyChangesAfterWatermark() {
+        // Arrange: Cria duas tarefas e faz a sincronização inicial.
+        TaskResponseDto kept = taskService.create(new TaskRequestDto("Kept Task", null, testUser.getId(),
+                testCategory.getId(), null, null, null));
+        TaskResponseDto removed = taskService.create(new TaskRequestDto("Removed Task", null, testUser.getId(),
+                testCategory.getId(), null, null, null));
+        TaskResponseDto untouched = taskService.create(new TaskRequestDto("Untouched Task", null, testUser.getId(),
+                testCategory.getId(), null, null, null));
+        TaskChangesDto initial = taskChangeService.findChanges(testUser.getId(), 0, null);
+        assertEquals(List.of(kept.id(), removed.id(), untouched.id()),
+                initial.changed().stream().map(TaskResponseDto::id).toList());
+
+        // Act: Conclui uma tarefa, exclui outra e busca as alterações desde a sincronização inicial.
+        taskService.toggleStatus(kept.id());
+        taskService.delete(removed.id());
+        TaskChangesDto changes = taskChangeService.findChanges(testUser.getId(), initial.since(), null);
+
+        // Assert: Só a tarefa concluída e a lápide da excluída voltam, e a sequência avança.
+        assertEquals(List.of(kept.id()), changes.changed().stream().map(TaskResponseDto::id).toList());
+        assertTrue(changes.changed().get(0).done(), "A tarefa alterada deve vir concluída.");
+        assertEquals(List.of(removed.id()), changes.deleted());
+        assertTrue(changes.since() > initial.since());
+        assertFalse(changes.hasMore());
+        assertTrue(taskChangeService.findChanges(testUser.getId(), changes.since(), null).changed().isEmpty());
+    }
+
+    /**
+     * CT10: Testa a exclusão de um usuário com DELETEs em conjunto.
+     * Cenário: Outro usuário tem uma tarefa em uma categoria do usuário excluído e outra com uma
+     * tag dele; a primeira deve sair junto com o usuário e a segunda deve perder a tag.
+     */
+    @Test
+    void testUserDeletionFlow_removesOwnedDataAndReferencesFromOtherUsers() {
+        // Arrange: Cria um segundo usuário com uma tarefa na categoria do primeiro e outra
+        // na própria categoria, marcada com a tag do primeiro.
+        User other = new User();
+        other.setEmail("other@example.com");
+        other.setPassword("password");
+        other.setName("Other User");
+        other = userJpaRepository.save(other);
+        Category otherCategory = new Category();
+        otherCategory.setName("Other Category");
+        otherCategory.setUser(other);
+        otherCategory = categoryJpaRepository.save(otherCategory);
+
+        TaskResponseDto own = taskService.create(new TaskRequestDto("Own Task", null, testUser.getId(),
+                testCategory.getId(), List.of(testTag.getId()), null, new LocationDto(-23.55, -46.63, null, null)));
+        TaskResponseDto inDeletedCategory = taskService.create(new TaskRequestDto("Borrowed Category", null,
+                other.getId(), testCategory.getId(), null, null, null));
+        TaskResponseDto tagged = taskService.create(new TaskRequestDto("Borrowed Tag", null, other.getId(),
+                otherCategory.getId(), List.of(testTag.getId()), null, null));
+        long since = taskChangeService.findChanges(other.getId(), 0, null).since();
+
+        // Act: Exclui o primeiro usuário.
+        userService.deleteById(testUser.getId());
+
+        // Assert: O usuário, suas categorias, tags e tarefas saem, assim como a tarefa do outro
+        // usuário na categoria excluída; a tarefa marcada com a tag perde apenas a tag.
+        assertFalse(userJpaRepository.existsById(testUser.getId()));
+        assertFalse(categoryJpaRepository.existsById(testCategory.getId()));
+        assertFalse(tagJpaRepository.existsById(testTag.getId()));
+        assertFalse(taskJpaRepository.existsById(own.id()));
+        assertFalse(taskJpaRepository.existsById(inDeletedCategory.id()));
+        assertTrue(taskJpaRepository.findById(tagged.id()).orElseThrow().getTags().isEmpty());
+
+        TaskChangesDto changes = taskChangeService.findChanges(other.getId(), since, null);
+        assertEquals(List.of(inDeletedCategory.id()), changes.deleted());
+        assertEquals(List.of(tagged.id()), changes.changed().stream().map(TaskResponseDto::id).toList());
+    }
+
+    /**
+     * CT11: Testa a exclusão de categorias movendo ou excluindo as tarefas.
+     * Cenário: Uma categoria é excluída com moveTo e suas tarefas passam para outra, com os
+     * contadores somados; em seguida a categoria de destino é excluída junto com as tarefas.
+     */
+    @Test
+    void testCategoryDeletionFlow_movesOrDeletesTasksWithoutLoadingThem() {
+        // Arrange: Cria uma segunda categoria e uma tarefa em cada uma, uma delas com tag e localização.
+        Category target = new Category();
+        target.setName("Target Category");
+        target.setUser(testUser);
+        target = categoryJpaRepository.save(target);
+        TaskResponseDto moved = taskService.create(new TaskRequestDto("Moved Task", null, testUser.getId(),
+                testCategory.getId(), List.of(testTag.getId()), null, new LocationDto(-23.55, -46.63, null, null)));
+        TaskResponseDto existing = taskService.create(new TaskRequestDto("Existing Task", null, testUser.getId(),
+                target.getId(), null, null, null));
+
+        // Act: Exclui a primeira categoria movendo as tarefas para a segunda.
+        categoryService.delete(testCategory.getId(), target.getId());
+
+        // Assert: A tarefa mudou de categoria, manteve a tag e o contador da categoria de destino soma as duas.
+        assertFalse(categoryJpaRepository.existsById(testCategory.getId()));
+        assertEquals(target.getId(), taskJpaRepository.findById(moved.id()).orElseThrow().getCategory().getId());
+        assertEquals(1, taskJpaRepository.findById(moved.id()).orElseThrow().getTags().size());
+        List<CategoryWithTaskCountDto> counts = userService.findCategoriesWithTaskCount(testUser.getId());
+        assertEquals(1, counts.size());
+        assertEquals(2, counts.get(0).taskCount());
+        Long targetId = target.getId();
+        assertThrows(IllegalArgumentException.class, () -> categoryService.delete(targetId, targetId));
+
+        // Act: Exclui a categoria de destino sem moveTo.
+        categoryService.delete(targetId, null);
+
+        // Assert: As tarefas, a associação com a tag e a localização saem junto com a categoria.
+        assertFalse(taskJpaRepository.existsById(moved.id()));
+        assertFalse(taskJpaRepository.existsById(existing.id()));
+        assertTrue(userService.findCategoriesWithTaskCount(testUser.getId()).isEmpty());
+        assertEquals(List.of(moved.id(), existing.id()),
+                taskChangeService.findChanges(testUser.getId(), 0, null).deleted());
+    }
+
+    /**
+     * CT12: Testa a fusão de tags.
+     * Cenário: Uma tarefa tem só a tag de origem, outra tem as duas e uma terceira só a de destino;
+     * após a fusão, as três devem ter apenas a tag de destino, sem associações duplicadas. O mesmo
+     * vale para os nomes das tags de duas tarefas arquivadas.
+     */
+    @Test
+    void testTagMergeFlow_movesAssociationsSkippingDuplicates() {
+        // Arrange: Cria a tag de destino e três tarefas com combinações das duas tags.
+        Tag target = new Tag();
+        target.setName("Target Tag");
+        target.setUser(testUser);
+        target = tagJpaRepository.save(target);
+        TaskResponseDto sourceOnly = taskService.create(new TaskRequestDto("Source Only", null, testUser.getId(),
+                testCategory.getId(), List.of(testTag.getId()), null, null));
+        TaskResponseDto both = taskService.create(new TaskRequestDto("Both Tags", null, testUser.getId(),
+                testCategory.getId(), List.of(testTag.getId(), target.getId()), null, null));
+        TaskResponseDto targetOnly = taskService.create(new TaskRequestDto("Target Only", null, testUser.getId(),
+                testCategory.getId(), List.of(target.getId()), null, null));
+
+        // Arrange: Arquiva duas tarefas concluídas, uma só com a origem e outra com as duas.
+        TaskResponseDto archivedSource = taskService.create(new TaskRequestDto("Archived Source", null,
+                testUser.getId(), testCategory.getId(), List.of(testTag.getId()), null, null));
+        TaskResponseDto archivedBoth = taskService.create(new TaskRequestDto("Archived Both", null,
+                testUser.getId(), testCategory.getId(), List.of(testTag.getId(), target.getId()), null, null));
+        taskService.toggleStatus(archivedSource.id());
+        taskService.toggleStatus(archivedBoth.id());
+        entityManager.flush();
+        jdbcTemplate.update("update task set updated_at = dateadd('DAY', -200, updated_at) where id in (?, ?)",
+                archivedSource.id(), archivedBoth.id());
+        assertEquals(2, taskArchiveService.archive());
+
+        // Act: Funde a tag de origem na de destino.
+        TagMergeResponseDto result = tagService.mergeInto(testTag.getId(), target.getId());
+
+        // Assert: Uma associação foi movida, uma duplicada foi descartada e a tag de origem saiu.
+        assertEquals(1, result.movedTasks());
+        assertEquals(1, result.duplicateTasks());
+        assertFalse(tagJpaRepository.existsById(testTag.getId()));
+        for (TaskResponseDto task : List.of(sourceOnly, both, targetOnly)) {
+            assertEquals(List.of(target.getId()), taskJpaRepository.findById(task.id()).orElseThrow().getTags()
+                    .stream().map(Tag::getId).toList());
+        }
+        List<TagWithTaskCountDto> counts = userService.findTagsWithTaskCount(testUser.getId());
+        assertEquals(1, counts.size());
+        assertEquals(3, counts.get(0).taskCount());
+
+        // Assert: No arquivo, as duas tarefas têm só o nome da tag de destino, uma vez cada.
+        assertEquals(List.of(archivedSource.id() + " Target Tag", archivedBoth.id() + " Target Tag"),
+                jdbcTemplate.queryForList("select concat(task_id, ' ', tag_name) from task_archive_tag "
+                        + "order by task_id, tag_name", String.class));
+    }
+
+    /**
+     * CT13: Testa que a atualização de uma tarefa grava só a diferença das tags.
+     * Cenário: Uma tarefa com duas tags é atualizada com as mesmas tags em outra ordem e depois
+     * com uma delas trocada; as estatísticas do Hibernate não devem registrar escrita em task_tag
+     * na primeira atualização, e a segunda deve alterar a coleção sem recriá-la.
+     */
+    @Test
+    void testUpdateFlow_unchangedTagsTouchNoTaskTagRows() {
+        // Arrange: Cria duas tags extras e uma tarefa com testTag e a primeira delas.
+        Tag second = new Tag();
+        second.setName("Second Tag");
+        second.setUser(testUser);
+        second = tagJpaRepository.save(second);
+        Tag third = new Tag();
+        third.setName("Third Tag");
+        third.setUser(testUser);
+        third = tagJpaRepository.save(third);
+        TaskResponseDto created = taskService.create(new TaskRequestDto("Tagged Task", null, testUser.getId(),
+                testCategory.getId(), List.of(testTag.getId(), second.getId()), null, null));
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        String role = Task.class.getName() + ".tags";
+        try {
+            // Act: Atualiza a tarefa com as mesmas tags, em outra ordem.
+            taskService.update(created.id(), new TaskRequestDto("Tagged Task", "Nova descrição", testUser.getId(),
+                    testCategory.getId(), List.of(second.getId(), testTag.getId()), null, null));
+            entityManager.flush();
+
+            // Assert: A coleção de tags não foi recriada, atualizada nem removida.
+            CollectionStatistics unchanged = statistics.getCollectionStatistics(role);
+            assertEquals(0, unchanged.getRecreateCount());
+            assertEquals(0, unchanged.getUpdateCount());
+            assertEquals(0, unchanged.getRemoveCount());
+
+            // Act: Troca uma das tags.
+            entityManager.clear();
+            statistics.clear();
+            TaskResponseDto updated = taskService.update(created.id(), new TaskRequestDto("Tagged Task", null,
+                    testUser.getId(), testCategory.getId(), List.of(testTag.getId(), third.getId()), null, null));
+            entityManager.flush();
+
+            // Assert: A coleção foi alterada no lugar, e task_tag tem exatamente as duas tags novas.
+            CollectionStatistics changed = statistics.getCollectionStatistics(role);
+            assertEquals(0, changed.getRecreateCount());
+            assertEquals(1, changed.getUpdateCount());
+            assertEquals(List.of("Test Tag", "Third Tag"), updated.tags());
+            assertEquals(List.of(testTag.getId(), third.getId()), jdbcTemplate.queryForList(
+                    "select tag_id from task_tag where task_id = ? order by tag_id", Long.class, created.id()));
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+
+    /**
+     * CT14: Testa o patch parcial (JSON Merge Patch) de uma tarefa.
+     * Cenário: Uma tarefa com descrição e tag recebe um patch só com o título; depois um patch
+     * que remove a descrição. Campos ausentes devem ser preservados, a coleção de tags não deve
+     * ser tocada e campos obrigatórios ou desconhecidos devem ser rejeitados.
+     */
+    @Test
+    void testPatchFlow_changesOnlyPresentFields() throws Exception {
+        // Arrange: Cria uma tarefa com descrição e uma tag.
+        TaskResponseDto created = taskService.create(new TaskRequestDto("Patch Task", "Descrição", testUser.getId(),
+                testCategory.getId(), List.of(testTag.getId()), null, null));
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        TaskResponseDto patched;
+        try {
+            // Act: Altera só o título.
+            patched = taskService.patch(created.id(), objectMapper.readTree("{\"title\": \"Novo título\"}"));
+            entityManager.flush();
+
+            // Assert: Uma única atualização da tarefa, sem escrita em task_tag; os demais campos ficam.
+            // São 7 comandos: a leitura da tarefa, o UPDATE de title/updated_at, os quatro do log de
+            // alterações (bloqueio do usuário, DELETE e INSERT em task_change, avanço de
+            // users.change_seq) e a leitura das tags para a resposta.
+            assertEquals(7, statistics.getPrepareStatementCount());
+            assertEquals(1, statistics.getEntityUpdateCount());
+            assertEquals(0, statistics.getCollectionStatistics(Task.class.getName() + ".tags").getUpdateCount());
+            assertEquals("Novo título", patched.title());
+            assertEquals("Descrição", patched.description());
+            assertEquals(List.of("Test Tag"), patched.tags());
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+
+        // Act: Remove a descrição com null.
+        entityManager.clear();
+        patched = taskService.patch(created.id(), objectMapper.readTree("{\"description\": null}"));
+
+        // Assert: A descrição foi removida e o título do patch anterior continua.
+        assertNull(patched.description());
+        assertEquals("Novo título", patched.title());
+
+        // Act & Assert: Campos obrigatórios não podem ser removidos e campos desconhecidos são rejeitados.
+        assertThrows(IllegalArgumentException.class,
+                () -> taskService.patch(created.id(), objectMapper.readTree("{\"categoryId\": null}")));
+        assertThrows(IllegalArgumentException.class,
+                () -> taskService.patch(created.id(), objectMapper.readTree("{\"done\": true}")));
+    }
+
+    /**
+     * CT15: Testa que a atualização da localização reaproveita a linha existente.
+     * Cenário: Uma tarefa com localização é atualizada com novas coordenadas e depois sem
+     * localização; a linha de location deve ser a mesma e, no fim, apagada. Uma localização
+     * órfã antiga deve ser removida pela compactação.
+     */
+    @Test
+    void testUpdateFlow_locationIsUpdatedInPlace() {
+        // Arrange: Cria uma tarefa com localização.
+        TaskResponseDto created = taskService.create(new TaskRequestDto("Located Task", null, testUser.getId(),
+                testCategory.getId(), null, null, new LocationDto(-23.55, -46.63, "Escritório", null)));
+        entityManager.flush();
+        Long locationId = jdbcTemplate.queryForObject("select location_id from task where id = ?", Long.class,
+                created.id());
+
+        // Act: Atualiza as coordenadas.
+        taskService.update(created.id(), new TaskRequestDto("Located Task", null, testUser.getId(),
+                testCategory.getId(), null, null, new LocationDto(-22.90, -43.17, "Filial", null)));
+        entityManager.flush();
+
+        // Assert: A tarefa continua na mesma linha de location, com os novos valores.
+        assertEquals(locationId, jdbcTemplate.queryForObject("select location_id from task where id = ?",
+                Long.class, created.id()));
+        assertEquals(1, jdbcTemplate.queryForObject("select count(*) from location", Integer.class));
+        assertEquals("Filial", jdbcTemplate.queryForObject("select location_name from location where id = ?",
+                String.class, locationId));
+
+        // Act: Remove a localização.
+        taskService.update(created.id(), new TaskRequestDto("Located Task", null, testUser.getId(),
+                testCategory.getId(), null, null, null));
+        entityManager.flush();
+
+        // Assert: A linha de location foi apagada.
+        assertEquals(0, jdbcTemplate.queryForObject("select count(*) from location", Integer.class));
+
+        // Arrange: Simula uma localização órfã deixada por uma atualização antiga.
+        taskService.update(created.id(), new TaskRequestDto("Located Task", null, testUser.getId(),
+                testCategory.getId(), null, null, new LocationDto(1.0, 2.0, null, null)));
+        entityManager.flush();
+        jdbcTemplate.update("insert into location (latitude, longitude) values (3.0, 4.0)");
+
+        // Act: Executa a compactação.
+        int deleted = taskService.deleteOrphanLocations();
+
+        // Assert: Só a órfã foi apagada; a localização da tarefa permanece.
+        assertEquals(1, deleted);
+        assertEquals(1, jdbcTemplate.queryForObject("select count(*) from location", Integer.class));
+        assertNotNull(jdbcTemplate.queryForObject("select location_id from task where id = ?", Long.class,
+                created.id()));
+    }
+
+    /**
+     * CT16: Testa o arquivamento das tarefas concluídas ou canceladas antigas.
+     * Cenário: Entre uma tarefa concluída antiga, uma cancelada antiga, uma concluída recente
+     * e uma aberta antiga, só as duas primeiras vão para o arquivo, com tags e localização;
+     * as arquivadas só aparecem nas leituras com includeArchived.
+     */
+    @Test
+    void testArchiveFlow_movesOldDoneAndCanceledTasksToArchive() {
+        // Arrange: Cria as tarefas e envelhece três delas.
+        TaskResponseDto oldDone = taskService.create(new TaskRequestDto("Old Done", null, testUser.getId(),
+                testCategory.getId(), List.of(testTag.getId()), null, new LocationDto(-23.55, -46.63, "Escritório",
+                        null)));
+        TaskResponseDto oldCanceled = taskService.create(new TaskRequestDto("Old Canceled", null, testUser.getId(),
+                testCategory.getId(), null, null, null));
+        TaskResponseDto recentDone = taskService.create(new TaskRequestDto("Recent Done", null, testUser.getId(),
+                testCategory.getId(), null, null, null));
+        TaskResponseDto oldOpen = taskService.create(new TaskRequestDto("Old Open", null, testUser.getId(),
+                testCategory.getId(), null, null, null));
+        taskService.toggleStatus(oldDone.id());
+        taskService.toggleStatus(recentDone.id());
+        taskService.cancel(oldCanceled.id());
+        entityManager.flush();
+        jdbcTemplate.update("update task set created_at = dateadd('DAY', -200, created_at), "
+                + "updated_at = dateadd('DAY', -200, updated_at), canceled_at = dateadd('DAY', -200, canceled_at) "
+                + "where id in (?, ?, ?)", oldDone.id(), oldCanceled.id(), oldOpen.id());
+
+        // Act: Executa o arquivamento.
+        int archived = taskArchiveService.archive();
+
+        // Assert: As duas tarefas antigas encerradas saíram de task e estão no arquivo.
+        assertEquals(2, archived);
+        assertEquals(List.of(recentDone.id(), oldOpen.id()), jdbcTemplate.queryForList(
+                "select id from task order by id", Long.class));
+        assertEquals(List.of(oldDone.id(), oldCanceled.id()), jdbcTemplate.queryForList(
+                "select id from task_archive order by id", Long.class));
+        assertEquals(0, jdbcTemplate.queryForObject("select count(*) from location", Integer.class));
+
+        // Assert: Sem includeArchived, a listagem e a busca por ID só veem as tarefas ativas.
+        assertEquals(2, taskService.findByUserId(testUser.getId(), false).size());
+        assertTrue(taskService.findById(oldDone.id(), false).isEmpty());
+
+        // Assert: Com includeArchived, a concluída arquivada volta com categoria, tags e
+        // localização; a cancelada arquivada continua fora da listagem.
+        List<TaskResponseDto> all = taskService.findByUserId(testUser.getId(), true);
+        assertEquals(List.of(oldDone.id(), recentDone.id(), oldOpen.id()),
+                all.stream().map(TaskResponseDto::id).toList());
+        TaskResponseDto restored = taskService.findById(oldDone.id(), true).orElseThrow();
+        assertTrue(restored.done());
+        assertEquals("Test Category", restored.category());
+        assertEquals(List.of("Test Tag"), restored.tags());
+        assertEquals("Escritório", restored.location().locationName());
+        assertNotNull(taskService.findById(oldCanceled.id(), true).orElseThrow().canceledAt());
+    }
+
+    /**
+     * CT17: Testa que os contadores mantidos a cada escrita batem com a reconstrução.
+     * Cenário: Tarefas passam por criação, atualização com troca de categoria e tags, conclusão,
+     * cancelamento, exclusão, operação em massa e exclusão de categoria com moveTo; os contadores
+     * resultantes devem ser iguais aos recalculados a partir das tarefas por rebuild().
+     */
+    @Test
+    void testCounterFlow_incrementalCountersMatchRebuild() {
+        // Arrange: Cria uma segunda categoria e uma segunda tag.
+        Category other = new Category();
+        other.setName("Other Category");
+        other.setUser(testUser);
+        other = categoryJpaRepository.save(other);
+        Tag otherTag = new Tag();
+        otherTag.setName("Other Tag");
+        otherTag.setUser(testUser);
+        otherTag = tagJpaRepository.save(otherTag);
+
+        // Act: Aplica a sequência de operações que alteram os contadores.
+        TaskResponseDto first = taskService.create(new TaskRequestDto("Counter 1", null, testUser.getId(),
+                testCategory.getId(), List.of(testTag.getId()), null, null));
+        TaskResponseDto second = taskService.create(new TaskRequestDto("Counter 2", null, testUser.getId(),
+                testCategory.getId(), List.of(testTag.getId(), otherTag.getId()), null, null));
+        TaskResponseDto third = taskService.create(new TaskRequestDto("Counter 3", null, testUser.getId(),
+                other.getId(), List.of(otherTag.getId()), null, null));
+        TaskResponseDto fourth = taskService.create(new TaskRequestDto("Counter 4", null, testUser.getId(),
+                testCategory.getId(), null, null, null));
+        TaskResponseDto fifth = taskService.create(new TaskRequestDto("Counter 5", null, testUser.getId(),
+                other.getId(), List.of(testTag.getId()), null, null));
+        taskService.update(first.id(), new TaskRequestDto("Counter 1", null, testUser.getId(),
+                other.getId(), List.of(otherTag.getId()), null, null));
+        taskService.toggleStatus(second.id());
+        taskService.toggleStatus(third.id());
+        taskService.cancel(fourth.id());
+        taskService.delete(fifth.id());
+        taskService.bulk(new TaskBulkRequestDto(testUser.getId(), TaskBulkAction.UNDONE,
+                List.of(second.id()), null));
+        taskService.bulk(new TaskBulkRequestDto(testUser.getId(), TaskBulkAction.DONE,
+                List.of(first.id(), third.id()), null));
+        categoryService.delete(other.getId(), testCategory.getId());
+        entityManager.flush();
+        List<Map<String, Object>> incrementalCategories = categoryCounters();
+        List<Map<String, Object>> incrementalTags = tagCounters();
+
+        // Act: Recalcula os contadores a partir das tarefas.
+        taskCounterService.rebuild(testUser.getId());
+
+        // Assert: Os contadores incrementais são os mesmos da reconstrução.
+        assertEquals(categoryCounters(), incrementalCategories);
+        assertEquals(tagCounters(), incrementalTags);
+        assertEquals(List.of(Map.of("CATEGORY_ID", testCategory.getId(), "OPEN_COUNT", 1L, "DONE_COUNT", 2L)),
+                incrementalCategories);
+    }
+
+    /**
+     * CT18: Testa a retenção das lápides do log de alterações.
+     * Cenário: Uma tarefa excluída há mais tempo que a retenção tem a lápide removida; um
+     * cliente com since anterior à exclusão recebe ResyncRequiredException (410), enquanto
+     * since=0 e um since posterior à lápide continuam válidos.
+     */
+    @Test
+    void testChangesFlow_prunedTombstonesRequireFullResync() {
+        // Arrange: Sincroniza duas tarefas e exclui uma delas.
+        TaskResponseDto kept = taskService.create(new TaskRequestDto("Kept Task", null, testUser.getId(),
+                testCategory.getId(), null, null, null));
+        TaskResponseDto removed = taskService.create(new TaskRequestDto("Removed Task", null, testUser.getId(),
+                testCategory.getId(), null, null, null));
+        long before = taskChangeService.findChanges(testUser.getId(), 0, null).since();
+        taskService.delete(removed.id());
+        long after = taskChangeService.findChanges(testUser.getId(), before, null).since();
+        entityManager.flush();
+        jdbcTemplate.update("update task_change set changed_at = dateadd('DAY', -60, changed_at) where task_id = ?",
+                removed.id());
+
+        // Act: Remove as lápides antigas.
+        int pruned = taskChangeService.pruneTombstones();
+
+        // Assert: A lápide saiu e o cursor anterior a ela exige nova sincronização completa.
+        assertEquals(1, pruned);
+        assertThrows(ResyncRequiredException.class,
+                () -> taskChangeService.findChanges(testUser.getId(), before, null));
+        TaskChangesDto full = taskChangeService.findChanges(testUser.getId(), 0, null);
+        assertEquals(List.of(kept.id()), full.changed().stream().map(TaskResponseDto::id).toList());
+        assertTrue(full.deleted().isEmpty());
+        assertTrue(taskChangeService.findChanges(testUser.getId(), after, null).deleted().isEmpty());
+    }
+
+    /**
+     * CT19: Testa a listagem de vencimentos.
+     * Cenário: Entre tarefas abertas com vencimento, uma concluída, uma cancelada e uma sem
+     * data, só as abertas com data entram, pela ordem de vencimento; sem uma das datas a lista
+     * é cortada em todoapp.due.max-results (3 nos testes), com as duas vem inteira, e um
+     * usuário inexistente é recusado.
+     */
+    @Test
+    void testDueFlow_listsOpenTasksByDueDateWithCap() {
+        // Arrange: Quatro tarefas abertas com vencimento e três que não entram na lista.
+        LocalDate today = LocalDate.now();
+        List<Long> open = new ArrayList<>();
+        for (int days : new int[] { 3, 1, 5, 2 }) {
+            open.add(createDue("Due +" + days, today.plusDays(days)).id());
+        }
+        taskService.toggleStatus(createDue("Done", today.plusDays(1)).id());
+        taskService.cancel(createDue("Canceled", today.plusDays(1)).id());
+        createDue("No date", null);
+        List<Long> byDueDate = List.of(open.get(1), open.get(3), open.get(0), open.get(2));
+
+        // Act: Consulta sem datas, só com after e com o intervalo fechado.
+        List<TaskResponseDto> unbounded = taskService.findDue(testUser.getId(), null, null);
+        List<TaskResponseDto> fromTomorrow = taskService.findDue(testUser.getId(), today.plusDays(2), null);
+        List<TaskResponseDto> closed = taskService.findDue(testUser.getId(), today, today.plusDays(6));
+
+        // Assert: As abertas, na ordem do vencimento, cortadas em 3 só com o intervalo aberto.
+        assertEquals(byDueDate.subList(0, 3), unbounded.stream().map(TaskResponseDto::id).toList());
+        assertEquals(byDueDate.subList(1, 4), fromTomorrow.stream().map(TaskResponseDto::id).toList());
+        assertEquals(byDueDate, closed.stream().map(TaskResponseDto::id).toList());
+
+        // Assert: Usuário inexistente e intervalo invertido são recusados.
+        assertThrows(IllegalArgumentException.class, () -> taskService.findDue(999_999L, null, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> taskService.findDue(testUser.getId(), today.plusDays(2), today.plusDays(1)));
+    }
+
+    /**
+     * CT20: Testa o resumo de tarefas atrasadas e que vencem hoje.
+     * Cenário: O primeiro acesso calcula o resumo na hora; uma tarefa criada depois só
+     * aparece após o recálculo em lote (refreshAll), como faz o job agendado.
+     */
+    @Test
+    void testDigestFlow_countsOverdueAndDueTodayAfterRefresh() {
+        // Arrange: Duas atrasadas, uma concluída atrasada, uma para hoje e uma para amanhã.
+        LocalDate today = LocalDate.now();
+        Long overdue1 = createDue("Overdue 1", today.plusDays(1)).id();
+        Long overdue2 = createDue("Overdue 2", today.plusDays(1)).id();
+        Long doneOverdue = createDue("Done overdue", today.plusDays(1)).id();
+        taskService.toggleStatus(doneOverdue);
+        createDue("Today", today);
+        createDue("Tomorrow", today.plusDays(1));
+        entityManager.flush();
+        jdbcTemplate.update("update task set due_date = ? where id in (?, ?, ?)",
+                today.minusDays(3), overdue1, overdue2, doneOverdue);
+
+        // Act: Primeiro acesso ao resumo.
+        UserTaskDigestDto digest = taskDigestService.findByUserId(testUser.getId());
+
+        // Assert: Contagens só das abertas.
+        assertEquals(2, digest.overdueCount());
+        assertEquals(1, digest.dueTodayCount());
+
+        // Act: Nova tarefa para hoje; o resumo gravado só muda após o recálculo.
+        createDue("Today 2", today);
+        entityManager.flush();
+        assertEquals(1, taskDigestService.findByUserId(testUser.getId()).dueTodayCount());
+        assertTrue(taskDigestService.refreshAll() >= 1);
+
+        // Assert: O recálculo em lote atualizou o resumo.
+        assertEquals(2, taskDigestService.findByUserId(testUser.getId()).dueTodayCount());
+        assertThrows(IllegalArgumentException.class, () -> taskDigestService.findByUserId(999_999L));
+    }
+
+    /**
+     * CT21: Testa que as escritas mantêm o índice de localização (findWithin) em dia.
+     * Cenário: O índice só é alterado após o commit, então cada passo confirma a transação do
+     * teste: a criação inclui o ponto, a atualização o move, o cancelamento e a exclusão o
+     * retiram. Ao final, o usuário é excluído para não deixar linhas confirmadas no banco.
+     */
+    @Test
+    void testWithinFlow_writesKeepLocationIndexInSync() {
+        // Arrange: Confirma o usuário e a categoria do setUp.
+        commit();
+        try {
+            // Act: Cria duas tarefas em São Paulo.
+            TaskResponseDto moved = taskService.create(new TaskRequestDto("Moved", null, testUser.getId(),
+                    testCategory.getId(), null, null, new LocationDto(-23.55, -46.63, null, null)));
+            TaskResponseDto deleted = taskService.create(new TaskRequestDto("Deleted", null, testUser.getId(),
+                    testCategory.getId(), null, null, new LocationDto(-23.56, -46.64, null, null)));
+            commit();
+
+            // Assert: As duas aparecem na caixa de São Paulo.
+            assertEquals(Set.of(moved.id(), deleted.id()), withinIds(-23.6, -46.7, -23.5, -46.6));
+
+            // Act: Move uma para o Rio e exclui a outra.
+            taskService.update(moved.id(), new TaskRequestDto("Moved", null, testUser.getId(),
+                    testCategory.getId(), null, null, new LocationDto(-22.90, -43.17, null, null)));
+            taskService.delete(deleted.id());
+            commit();
+
+            // Assert: São Paulo ficou vazia e a movida está no Rio.
+            assertEquals(Set.of(), withinIds(-23.6, -46.7, -23.5, -46.6));
+            assertEquals(Set.of(moved.id()), withinIds(-23.0, -43.3, -22.8, -43.0));
+
+            // Act + Assert: Cancelada, a tarefa sai do índice.
+            taskService.cancel(moved.id());
+            commit();
+            assertEquals(Set.of(), withinIds(-23.0, -43.3, -22.8, -43.0));
+        } finally {
+            userDeletionService.delete(testUser.getId());
+            commit();
+        }
+
+        // Assert: A exclusão do usuário limpou o índice e as linhas confirmadas.
+        assertEquals(Set.of(), withinIds(-90, -180, 90, 180));
+        assertEquals(0, jdbcTemplate.queryForObject("select count(*) from task", Integer.class));
+        assertEquals(0, jdbcTemplate.queryForObject("select count(*) from location", Integer.class));
+        assertEquals(0, jdbcTemplate.queryForObject("select count(*) from task_change", Integer.class));
+    }
+
+    /**
+     * CT22: Testa a exportação NDJSON, montada pelo cursor a partir das linhas da junção com as tags.
+     * Cenário: Tarefas com nenhuma, uma e duas tags (esta com localização) e uma cancelada são
+     * exportadas; cada tarefa não cancelada vira uma linha, na ordem do id, com as suas tags.
+     */
+    @Test
+    void testExportFlow_assemblesOneLinePerTaskWithItsTags() throws Exception {
+        // Arrange: Cria uma segunda tag e as tarefas com 0, 1 e 2 tags, mais uma cancelada.
+        Tag other = new Tag();
+        other.setName("Other Tag");
+        other.setUser(testUser);
+        other = tagJpaRepository.save(other);
+        TaskResponseDto noTags = taskService.create(new TaskRequestDto("No Tags", "Sem tags", testUser.getId(),
+                testCategory.getId(), null, null, null));
+        TaskResponseDto oneTag = taskService.create(new TaskRequestDto("One Tag", null, testUser.getId(),
+                testCategory.getId(), List.of(testTag.getId()), null, null));
+        TaskResponseDto twoTags = taskService.create(new TaskRequestDto("Two Tags", null, testUser.getId(),
+                testCategory.getId(), List.of(testTag.getId(), other.getId()), null,
+                new LocationDto(-23.55, -46.63, "Centro", null)));
+        TaskResponseDto canceled = taskService.create(new TaskRequestDto("Canceled", null, testUser.getId(),
+                testCategory.getId(), List.of(testTag.getId()), null, null));
+        taskService.cancel(canceled.id());
+        taskJpaRepository.flush();
+
+        // Act: Exporta as tarefas do usuário.
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        userService.exportTasks(testUser.getId(), out);
+
+        // Assert: Uma linha por tarefa não cancelada, cada uma com as próprias tags.
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            lines.add(objectMapper.readTree(line));
+        }
+        assertEquals(List.of(noTags.id(), oneTag.id(), twoTags.id()),
+                lines.stream().map(line -> line.get("id").asLong()).toList());
+        assertEquals("Sem tags", lines.get(0).get("description").asText());
+        assertEquals(0, lines.get(0).get("tags").size());
+        assertTrue(lines.get(0).get("location").isNull());
+        assertEquals(List.of(testTag.getName()), tagNames(lines.get(1)));
+        assertEquals(Set.of(testTag.getName(), other.getName()), Set.copyOf(tagNames(lines.get(2))));
+        assertEquals(2, tagNames(lines.get(2)).size());
+        assertEquals("Centro", lines.get(2).get("location").get("locationName").asText());
+        for (JsonNode line : lines) {
+            assertEquals(testCategory.getName(), line.get("category").asText());
+            assertFalse(line.get("createdAt").isNull());
+        }
+    }
+
+    /**
+     * CT23: Testa o formato compacto da listagem de tarefas do usuário.
+     * Cenário: Três tarefas em duas categorias compartilham tags; cada nome aparece uma vez nos
+     * dicionários, as tarefas referenciam categoria e tags por id e, no JSON, os campos nulos
+     * ou vazios da tarefa sem descrição, tags e localização são omitidos.
+     */
+    @Test
+    void testCompactFlow_referencesDictionariesAndOmitsEmptyFields() throws Exception {
+        // Arrange: Uma segunda categoria e uma segunda tag, e três tarefas que as combinam.
+        Category otherCategory = new Category();
+        otherCategory.setName("Other Category");
+        otherCategory.setUser(testUser);
+        otherCategory = categoryJpaRepository.save(otherCategory);
+        Tag other = new Tag();
+        other.setName("Other Tag");
+        other.setUser(testUser);
+        other = tagJpaRepository.save(other);
+        TaskResponseDto oneTag = taskService.create(new TaskRequestDto("One Tag", "Desc", testUser.getId(),
+                testCategory.getId(), List.of(testTag.getId()), null, new LocationDto(-23.55, -46.63, null, null)));
+        TaskResponseDto twoTags = taskService.create(new TaskRequestDto("Two Tags", "Desc", testUser.getId(),
+                testCategory.getId(), List.of(testTag.getId(), other.getId()), null, null));
+        TaskResponseDto bare = taskService.create(new TaskRequestDto("Bare", null, testUser.getId(),
+                otherCategory.getId(), null, null, null));
+        taskJpaRepository.flush();
+        entityManager.clear();
+
+        // Act
+        TaskCompactListDto compact = userService.findTasksCompact(testUser.getId());
+
+        // Assert: Os dicionários trazem cada categoria e tag uma vez.
+        assertEquals(Map.of(testCategory.getId(), testCategory.getName(), otherCategory.getId(),
+                otherCategory.getName()), compact.categories());
+        assertEquals(Map.of(testTag.getId(), testTag.getName(), other.getId(), other.getName()), compact.tags());
+
+        // Assert: As tarefas referenciam os dicionários por id.
+        Map<Long, TaskCompactDto> tasks = compact.tasks().stream()
+                .collect(Collectors.toMap(TaskCompactDto::id, task -> task));
+        assertEquals(Set.of(oneTag.id(), twoTags.id(), bare.id()), tasks.keySet());
+        assertEquals(testCategory.getId(), tasks.get(oneTag.id()).categoryId());
+        assertEquals(List.of(testTag.getId()), tasks.get(oneTag.id()).tagIds());
+        assertEquals(Set.of(testTag.getId(), other.getId()), Set.copyOf(tasks.get(twoTags.id()).tagIds()));
+        assertEquals(otherCategory.getId(), tasks.get(bare.id()).categoryId());
+
+        // Assert: No JSON, a tarefa sem descrição, tags, vencimento e localização omite esses campos.
+        JsonNode json = objectMapper.readTree(objectMapper.writeValueAsString(compact));
+        assertEquals(testCategory.getName(), json.get("categories").get(testCategory.getId().toString()).asText());
+        for (JsonNode task : json.get("tasks")) {
+            assertFalse(task.has("category"));
+            assertFalse(task.has("tags"));
+            assertFalse(task.has("dueDate"));
+            assertFalse(task.has("canceledAt"));
+            if (task.get("id").asLong() == bare.id()) {
+                assertFalse(task.has("description"));
+                assertFalse(task.has("tagIds"));
+                assertFalse(task.has("location"));
+                assertTrue(task.has("categoryId"));
+                assertTrue(task.has("createdAt"));
+            } else {
+                assertEquals("Desc", task.get("description").asText());
+            }
+        }
+    }
+
+    // Confirma a transação do teste, disparando os callbacks de afterCommit, e abre outra.
+    private void commit() {
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+        TestTransaction.start();
+    }
+
+    private static List<String> tagNames(JsonNode task) {
+        List<String> names = new ArrayList<>();
+        task.get("tags").forEach(tag -> names.add(tag.asText()));
+        return names;
+    }
+
+    private Set<Long> withinIds(double south, double west, double north, double east) {
+        return taskService.findWithin(testUser.getId(), south, west, north, east, null).points().stream()
+                .map(TaskPointDto::id).collect(Collectors.toSet());
+    }
+
+    private TaskResponseDto createDue(String title, LocalDate dueDate) {
+        return taskService.create(new TaskRequestDto(title, null, testUser.getId(), testCategory.getId(),
+                null, dueDate, null));
+    }
+
+    // Linhas zeradas são ignoradas: o caminho incremental as mantém, a reconstrução não as cria.
+    private List<Map<String, Object>> categoryCounters() {
+        return jdbcTemplate.queryForList("select category_id, open_count, done_count from category_task_counter "
+                + "where open_count <> 0 or done_count <> 0 order by category_id");
+    }
+
+    private List<Map<String, Object>> tagCounters() {
+        return jdbcTemplate.queryForList("select tag_id, category_id, user_id, open_count, done_count "
+                + "from tag_task_counter where open_count <> 0 or done_count <> 0 order by tag_id, category_id");
+    }
+}
@@ -0,0 +1,230 @@
+package com.codexasistemas.todoapp.api.service.impl;
+
+import com.codexasistemas.todoapp.api.dto.task.TaskBulkAction;
+import com.codexasistemas.todoapp.api.dto.task.TaskBulkRequestDto;
+import com.codexasistemas.todoapp.api.dto.task.TaskField;
+import com.codexasistemas.todoapp.api.dto.task.TaskRequestDto;
+import com.codexasistemas.todoapp.api.exception.BackPressureException;
+import com.codexasistemas.todoapp.api.model.Category;
+import com.codexasistemas.todoapp.api.model.User;
+import com.codexasistemas.todoapp.api.repository.jpa.CategoryJpaRepository;
+import com.codexasistemas.todoapp.api.repository.jpa.UserJpaRepository;
+import com.codexasistemas.todoapp.api.service.interfaces.TaskService;
+import com.codexasistemas.todoapp.api.service.interfaces.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Teste de integração da alternância de status em write-behind, com banco H2 próprio.
+ * Sem @Transactional: o flush grava em transações próprias e o descarte das alternâncias
+ * pendentes acontece após o commit das escritas síncronas. O job de flush roda só na
+ * inicialização; os testes chamam flush() diretamente.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:togglewb;DB_CLOSE_DELAY=-1",
+        "todoapp.toggle.write-behind.enabled=true",
+        "todoapp.toggle.write-behind.capacity=2",
+        "todoapp.toggle.write-behind.offer-timeout-ms=20",
+        "todoapp.toggle.write-behind.flush-interval-ms=3600000"
+})
+public class TaskToggleWriteBehindServiceImplTest {
+
+    @Autowired
+    private TaskToggleWriteBehindServiceImpl toggleService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserJpaRepository userJpaRepository;
+
+    @Autowired
+    private CategoryJpaRepository categoryJpaRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User testUser;
+    private Category testCategory;
+
+    /**
+     * Cria um usuário e uma categoria novos e esvazia a fila deixada por outro teste.
+     */
+    @BeforeEach
+    void setUp() {
+        toggleService.flush();
+
+        testUser = new User();
+        testUser.setEmail(UUID.randomUUID() + "@example.com");
+        testUser.setPassword("password");
+        testUser.setName("Toggle User");
+        testUser = userJpaRepository.save(testUser);
+
+        testCategory = new Category();
+        testCategory.setName("Toggle Category");
+        testCategory.setUser(testUser);
+        testCategory = categoryJpaRepository.save(testCategory);
+    }
+
+    /**
+     * CT01: Testa que alternâncias repetidas da mesma tarefa viram uma única escrita.
+     * Cenário: A tarefa é alternada três vezes antes do flush; a leitura, com ou sem fields=,
+     * já mostra o status confirmado ao cliente e o flush grava uma linha com o status final.
+     */
+    @Test
+    void testToggle_repeatedTogglesCoalesceIntoOneWrite() {
+        // Arrange: Cria uma tarefa pendente.
+        Long id = createTask("Coalesce");
+
+        // Act: Alterna três vezes.
+        assertTrue(toggleService.toggle(id).done());
+        assertFalse(toggleService.toggle(id).done());
+        assertTrue(toggleService.toggle(id).done());
+
+        // Assert: O banco ainda tem o status antigo, mas a leitura mostra o pendente, também
+        // com a seleção de campos (fields=).
+        assertFalse(storedDone(id));
+        assertTrue(taskService.findById(id).orElseThrow().done());
+        Set<TaskField> fields = TaskField.parse("done");
+        assertEquals(true, taskService.findFieldsById(id, fields).orElseThrow().get("done"));
+        assertEquals(List.of(Map.of("id", id, "done", true)), taskService.findFieldsByUserId(testUser.getId(), fields));
+
+        // Act + Assert: O flush grava uma única linha com o status final.
+        assertEquals(1, toggleService.flush());
+        assertTrue(storedDone(id));
+        assertTrue(toggleService.pendingDone(id).isEmpty());
+    }
+
+    /**
+     * CT02: Testa a contrapressão quando a fila está cheia.
+     * Cenário: Com capacidade 2, a terceira tarefa distinta é recusada com
+     * BackPressureException (503 com Retry-After); após o flush ela é aceita.
+     */
+    @Test
+    void testToggle_fullQueueRejectsUntilFlush() {
+        // Arrange: Enche a fila com duas tarefas.
+        Long first = createTask("Full 1");
+        Long second = createTask("Full 2");
+        Long third = createTask("Full 3");
+        toggleService.toggle(first);
+        toggleService.toggle(second);
+
+        // Act + Assert: A terceira é recusada, mas uma tarefa já na fila ainda pode alternar.
+        BackPressureException rejected = assertThrows(BackPressureException.class,
+                () -> toggleService.toggle(third));
+        assertEquals(1, rejected.getRetryAfterSeconds());
+        assertFalse(toggleService.toggle(first).done());
+
+        // Act + Assert: Depois do flush há espaço de novo.
+        assertEquals(1, toggleService.flush());
+        assertTrue(toggleService.toggle(third).done());
+        assertTrue(storedDone(second));
+    }
+
+    /**
+     * CT03: Testa que o flush não sobrescreve escritas feitas depois da alternância.
+     * Cenário: Uma tarefa alternada é cancelada, outra é concluída pela operação em massa e
+     * uma terceira tem o status alterado direto no banco; o flush não grava nenhuma delas.
+     */
+    @Test
+    void testFlush_doesNotOverwriteLaterWrites() {
+        // Arrange: Alterna duas tarefas e aplica escritas síncronas.
+        Long canceled = createTask("Canceled");
+        Long bulkDone = createTask("Bulk");
+        toggleService.toggle(canceled);
+        toggleService.toggle(bulkDone);
+        taskService.cancel(canceled);
+        taskService.bulk(new TaskBulkRequestDto(testUser.getId(), TaskBulkAction.UNDONE, List.of(bulkDone), null));
+
+        // Assert: As escritas síncronas descartaram as alternâncias pendentes.
+        assertTrue(toggleService.pendingDone(canceled).isEmpty());
+        assertTrue(toggleService.pendingDone(bulkDone).isEmpty());
+        assertFalse(taskService.findById(bulkDone).orElseThrow().done());
+
+        // Arrange: Alterna uma terceira tarefa e a conclui sem passar pelo serviço.
+        Long external = createTask("External");
+        toggleService.toggle(external);
+        jdbcTemplate.update("update task set done = true where id = ?", external);
+
+        // Act: Grava a fila.
+        int flushed = toggleService.flush();
+
+        // Assert: Nada foi gravado; a cancelada continua pendente e nenhuma ficou concluída e cancelada.
+        assertEquals(0, flushed);
+        assertFalse(storedDone(canceled));
+        assertNotNull(jdbcTemplate.queryForObject("select canceled_at from task where id = ?",
+                Object.class, canceled));
+        assertFalse(storedDone(bulkDone));
+        assertTrue(storedDone(external));
+    }
+
+    /**
+     * CT04: Testa o flush do encerramento.
+     * Cenário: Uma alternância na fila é gravada quando o contexto chama flushOnShutdown.
+     */
+    @Test
+    void testShutdown_flushesPendingToggles() {
+        // Arrange: Alterna uma tarefa.
+        Long id = createTask("Shutdown");
+        toggleService.toggle(id);
+
+        // Act: Simula o encerramento.
+        toggleService.flushOnShutdown();
+
+        // Assert: O status foi gravado e a fila está vazia.
+        assertTrue(storedDone(id));
+        assertEquals(0, toggleService.flush());
+    }
+
+    /**
+     * CT05: Testa que as listagens por usuário mostram a alternância pendente.
+     * Cenário: Com a alternância ainda na fila, a listagem com contexto, a seleção de campos,
+     * o formato compacto e a exportação NDJSON de /api/users/{id}/tasks trazem done=true.
+     */
+    @Test
+    void testToggle_userListingsShowPendingStatus() throws Exception {
+        // Arrange: Cria uma tarefa pendente e a alterna sem gravar.
+        Long id = createTask("User listings");
+        toggleService.toggle(id);
+        assertFalse(storedDone(id));
+
+        // Act
+        ByteArrayOutputStream export = new ByteArrayOutputStream();
+        userService.exportTasks(testUser.getId(), export);
+
+        // Assert
+        assertTrue(userService.findTasksWithContext(testUser.getId()).get(0).done());
+        assertEquals(List.of(Map.of("id", id, "done", true)),
+                userService.findTaskFields(testUser.getId(), TaskField.parse("done")));
+        assertTrue(userService.findTasksCompact(testUser.getId()).tasks().get(0).done());
+        assertTrue(objectMapper.readTree(export.toString(StandardCharsets.UTF_8)).get("done").asBoolean());
+    }
+
+    private Long createTask(String title) {
+        return taskService.create(new TaskRequestDto(title, null, testUser.getId(), testCategory.getId(),
+                null, null, null)).id();
+    }
+
+    private boolean storedDone(Long id) {
+        return jdbcTemplate.queryForObject("select done from task where id = ?", Boolean.class, id);
+    }
+}